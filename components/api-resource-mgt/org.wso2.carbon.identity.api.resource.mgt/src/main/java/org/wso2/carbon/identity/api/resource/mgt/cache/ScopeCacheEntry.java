@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.api.resource.mgt.cache;
+
+import org.wso2.carbon.identity.application.common.model.Scope;
+import org.wso2.carbon.identity.core.cache.CacheEntry;
+
+/**
+ * Cache entry for scope. An entry without a scope records that the scope does not exist.
+ */
+public class ScopeCacheEntry extends CacheEntry {
+
+    private Scope scope;
+    private final String systemScopeVersion;
+
+    public ScopeCacheEntry(Scope scope, String systemScopeVersion) {
+
+        this.scope = scope;
+        this.systemScopeVersion = systemScopeVersion;
+    }
+
+    public Scope getScope() {
+
+        return scope;
+    }
+
+    public void setScope(Scope scope) {
+
+        this.scope = scope;
+    }
+
+    /**
+     * Get the version of the system API resource scopes the entry was read with.
+     *
+     * @return System scope version.
+     */
+    public String getSystemScopeVersion() {
+
+        return systemScopeVersion;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.api.resource.mgt.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheKey;
+
+/**
+ * Cache key for a scope list. The key is either the id of an API resource, for the scopes of the API resource, or
+ * the tenant key, for all the scopes of the tenant.
+ */
+public class ScopeListCacheKey extends CacheKey {
+
+    private static final String TENANT_SCOPES_KEY = "TENANT_SCOPES";
+
+    private final String apiId;
+
+    private ScopeListCacheKey(String apiId) {
+
+        this.apiId = apiId;
+    }
+
+    /**
+     * Get the key of the scopes of an API resource.
+     *
+     * @param apiId API resource id.
+     * @return Cache key.
+     */
+    public static ScopeListCacheKey forAPIResource(String apiId) {
+
+        return new ScopeListCacheKey(apiId);
+    }
+
+    /**
+     * Get the key of all the scopes of the tenant.
+     *
+     * @return Cache key.
+     */
+    public static ScopeListCacheKey forTenant() {
+
+        return new ScopeListCacheKey(null);
+    }
+
+    public String getAPIId() {
+
+        return apiId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (!(o instanceof ScopeListCacheKey)) {
+            return false;
+        }
+        return getKeyValue().equals(((ScopeListCacheKey) o).getKeyValue());
+    }
+
+    @Override
+    public int hashCode() {
+
+        return getKeyValue().hashCode();
+    }
+
+    private String getKeyValue() {
+
+        return apiId == null ? TENANT_SCOPES_KEY : "API_" + apiId;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.api.resource.mgt.cache;
+
+import org.wso2.carbon.identity.application.common.model.APIResource;
+import org.wso2.carbon.identity.core.cache.CacheEntry;
+
+import java.util.List;
+
+/**
+ * Cache entry for scope metadata. Each API resource of the entry holds the id and the name of an API resource
+ * with the scope. An entry without API resources records that the scope does not exist.
+ */
+public class ScopeMetadataCacheEntry extends CacheEntry {
+
+    private List<APIResource> apiResources;
+    private final String systemScopeVersion;
+
+    public ScopeMetadataCacheEntry(List<APIResource> apiResources, String systemScopeVersion) {
+
+        this.apiResources = apiResources;
+        this.systemScopeVersion = systemScopeVersion;
+    }
+
+    public List<APIResource> getAPIResources() {
+
+        return apiResources;
+    }
+
+    public void setAPIResources(List<APIResource> apiResources) {
+
+        this.apiResources = apiResources;
+    }
+
+    /**
+     * Get the version of the system API resource scopes the entry was read with.
+     *
+     * @return System scope version.
+     */
+    public String getSystemScopeVersion() {
+
+        return systemScopeVersion;
+    }
+}
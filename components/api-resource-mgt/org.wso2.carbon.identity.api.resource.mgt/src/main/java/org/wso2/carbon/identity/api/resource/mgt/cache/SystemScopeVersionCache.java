@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.api.resource.mgt.cache;
+
+import org.wso2.carbon.identity.core.cache.BaseCache;
+import org.wso2.carbon.utils.CarbonUtils;
+
+/**
+ * Cache for the version of the system API resource scopes. The version is kept in the super tenant and is cleared
+ * when a system API resource changes, which invalidates the scope cache entries of all the tenants.
+ */
+public class SystemScopeVersionCache extends BaseCache<String, SystemScopeVersionCacheEntry> {
+
+    private static final String CACHE_NAME = "SystemScopeVersionCache";
+
+    private static final SystemScopeVersionCache INSTANCE = new SystemScopeVersionCache();
+
+    private SystemScopeVersionCache() {
+
+        super(CACHE_NAME);
+    }
+
+    /**
+     * Get system scope version cache instance.
+     *
+     * @return system scope version cache instance.
+     */
+    public static SystemScopeVersionCache getInstance() {
+
+        CarbonUtils.checkSecurity();
+        return INSTANCE;
+    }
+}
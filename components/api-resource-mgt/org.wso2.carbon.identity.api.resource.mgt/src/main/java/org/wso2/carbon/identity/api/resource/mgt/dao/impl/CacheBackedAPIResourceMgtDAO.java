@@ -18,6 +18,7 @@
 
 package org.wso2.carbon.identity.api.resource.mgt.dao.impl;
 
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -28,22 +29,50 @@ import org.wso2.carbon.identity.api.resource.mgt.cache.APIResourceCacheByIdentif
 import org.wso2.carbon.identity.api.resource.mgt.cache.APIResourceCacheEntry;
 import org.wso2.carbon.identity.api.resource.mgt.cache.APIResourceIdCacheKey;
 import org.wso2.carbon.identity.api.resource.mgt.cache.APIResourceIdentifierCacheKey;
+import org.wso2.carbon.identity.api.resource.mgt.cache.ScopeCacheByName;
+import org.wso2.carbon.identity.api.resource.mgt.cache.ScopeCacheEntry;
+import org.wso2.carbon.identity.api.resource.mgt.cache.ScopeListCache;
+import org.wso2.carbon.identity.api.resource.mgt.cache.ScopeListCacheEntry;
+import org.wso2.carbon.identity.api.resource.mgt.cache.ScopeListCacheKey;
+import org.wso2.carbon.identity.api.resource.mgt.cache.ScopeMetadataCacheByName;
+import org.wso2.carbon.identity.api.resource.mgt.cache.ScopeMetadataCacheEntry;
+import org.wso2.carbon.identity.api.resource.mgt.cache.ScopeNameCacheKey;
+import org.wso2.carbon.identity.api.resource.mgt.cache.SystemScopeVersionCache;
+import org.wso2.carbon.identity.api.resource.mgt.cache.SystemScopeVersionCacheEntry;
 import org.wso2.carbon.identity.api.resource.mgt.dao.APIResourceManagementDAO;
 import org.wso2.carbon.identity.application.common.model.APIResource;
 import org.wso2.carbon.identity.application.common.model.ApplicationBasicInfo;
 import org.wso2.carbon.identity.application.common.model.Scope;
 import org.wso2.carbon.identity.core.model.ExpressionNode;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * This class implements the {@link APIResourceManagementDAO} interface.
+ * <p>
+ * Scope lookups are cached per tenant, including the lookups which found no scope. As a tenant also sees the scopes
+ * of the system API resources, every change to the scopes of a tenant clears all the scope cache entries of the
+ * tenant instead of the entries of the changed scopes. A change to the system API resources invalidates the scope
+ * cache entries of all the tenants.
  */
 public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
 
     private static final Log LOG = LogFactory.getLog(CacheBackedAPIResourceMgtDAO.class);
+    private static final String SYSTEM_SCOPE_VERSION_KEY = "SystemScopeVersion";
     private final APIResourceCacheByIdentifier apiResourceCacheByIdentifier;
     private final APIResourceCacheById apiResourceCacheById;
+    private final ScopeCacheByName scopeCacheByName;
+    private final ScopeMetadataCacheByName scopeMetadataCacheByName;
+    private final ScopeListCache scopeListCache;
+    private final SystemScopeVersionCache systemScopeVersionCache;
     private final APIResourceManagementDAO apiResourceManagementDAO;
 
     public CacheBackedAPIResourceMgtDAO(APIResourceManagementDAO apiResourceManagementDAO) {
@@ -51,6 +80,10 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
         this.apiResourceManagementDAO = apiResourceManagementDAO;
         apiResourceCacheByIdentifier = APIResourceCacheByIdentifier.getInstance();
         apiResourceCacheById = APIResourceCacheById.getInstance();
+        scopeCacheByName = ScopeCacheByName.getInstance();
+        scopeMetadataCacheByName = ScopeMetadataCacheByName.getInstance();
+        scopeListCache = ScopeListCache.getInstance();
+        systemScopeVersionCache = SystemScopeVersionCache.getInstance();
     }
 
     @Override
@@ -89,16 +122,31 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
             }
             return entry.getAPIResource().getScopes();
         }
+
+        String systemScopeVersion = getSystemScopeVersion();
+        ScopeListCacheKey scopeListCacheKey = ScopeListCacheKey.forAPIResource(apiId);
+        ScopeListCacheEntry scopeListCacheEntry = scopeListCache.getValueFromCache(scopeListCacheKey, tenantId);
+        if (scopeListCacheEntry != null && systemScopeVersion.equals(scopeListCacheEntry.getSystemScopeVersion())) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Cache entry found for scopes of API Resource " + apiId);
+            }
+            return new ArrayList<>(scopeListCacheEntry.getScopes());
+        }
         if (LOG.isDebugEnabled()) {
             LOG.debug("Cache entry not found for API Resource " + apiId + ". Fetching entry from DB");
         }
-        return apiResourceManagementDAO.getScopesByAPI(apiId, tenantId);
+        List<Scope> scopes = apiResourceManagementDAO.getScopesByAPI(apiId, tenantId);
+        scopeListCache.addToCache(scopeListCacheKey, new ScopeListCacheEntry(new ArrayList<>(scopes),
+                systemScopeVersion), tenantId);
+        return scopes;
     }
 
     @Override
     public APIResource addAPIResource(APIResource apiResource, Integer tenantId) throws APIResourceMgtException {
 
-        return apiResourceManagementDAO.addAPIResource(apiResource, tenantId);
+        APIResource createdAPIResource = apiResourceManagementDAO.addAPIResource(apiResource, tenantId);
+        clearScopeCache(tenantId);
+        return createdAPIResource;
     }
 
     @Override
@@ -219,6 +267,7 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
 
         clearAPIResourceCache(apiResource.getIdentifier(), apiResource.getId(), tenantId);
         apiResourceManagementDAO.updateAPIResource(apiResource, addedScopes, removedScopes, tenantId);
+        clearScopeCache(tenantId);
     }
 
     @Override
@@ -226,12 +275,13 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
 
         clearAPIResourceCache(null, apiId, tenantId);
         apiResourceManagementDAO.deleteAPIResourceById(apiId, tenantId);
+        clearScopeCache(tenantId);
     }
 
     @Override
     public boolean isScopeExistByName(String name, Integer tenantId) throws APIResourceMgtException {
 
-        return apiResourceManagementDAO.isScopeExistByName(name, tenantId);
+        return getScopeByNameAndTenantId(name, tenantId) != null;
     }
 
     @Override
@@ -243,7 +293,21 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
     @Override
     public Scope getScopeByNameAndTenantId(String name, Integer tenantId) throws APIResourceMgtException {
 
-        return apiResourceManagementDAO.getScopeByNameAndTenantId(name, tenantId);
+        String systemScopeVersion = getSystemScopeVersion();
+        ScopeNameCacheKey cacheKey = new ScopeNameCacheKey(name);
+        ScopeCacheEntry entry = scopeCacheByName.getValueFromCache(cacheKey, tenantId);
+        if (entry != null && systemScopeVersion.equals(entry.getSystemScopeVersion())) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Cache entry found for scope " + name);
+            }
+            return entry.getScope();
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Cache entry not found for scope " + name + ". Fetching entry from DB");
+        }
+        Scope scope = apiResourceManagementDAO.getScopeByNameAndTenantId(name, tenantId);
+        scopeCacheByName.addToCache(cacheKey, new ScopeCacheEntry(scope, systemScopeVersion), tenantId);
+        return scope;
     }
 
     @Override
@@ -257,7 +321,25 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
     public List<Scope> getScopesByTenantId(Integer tenantId, List<ExpressionNode> expressionNodes)
             throws APIResourceMgtException {
 
-        return apiResourceManagementDAO.getScopesByTenantId(tenantId, expressionNodes);
+        if (CollectionUtils.isNotEmpty(expressionNodes)) {
+            return apiResourceManagementDAO.getScopesByTenantId(tenantId, expressionNodes);
+        }
+        String systemScopeVersion = getSystemScopeVersion();
+        ScopeListCacheKey cacheKey = ScopeListCacheKey.forTenant();
+        ScopeListCacheEntry entry = scopeListCache.getValueFromCache(cacheKey, tenantId);
+        if (entry != null && systemScopeVersion.equals(entry.getSystemScopeVersion())) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Cache entry found for scopes of tenantId: " + tenantId);
+            }
+            return new ArrayList<>(entry.getScopes());
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Cache entry not found for scopes of tenantId: " + tenantId + ". Fetching entry from DB");
+        }
+        List<Scope> scopes = apiResourceManagementDAO.getScopesByTenantId(tenantId, expressionNodes);
+        scopeListCache.addToCache(cacheKey, new ScopeListCacheEntry(new ArrayList<>(scopes), systemScopeVersion),
+                tenantId);
+        return scopes;
     }
 
     @Override
@@ -265,6 +347,7 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
 
         clearAPIResourceCache(null, apiId, tenantId);
         apiResourceManagementDAO.addScopes(scopes, apiId, tenantId);
+        clearScopeCache(tenantId);
     }
 
     @Override
@@ -272,6 +355,7 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
 
         clearAPIResourceCache(null, apiId, tenantId);
         apiResourceManagementDAO.deleteAllScopes(apiId, tenantId);
+        clearScopeCache(tenantId);
     }
 
     @Override
@@ -279,6 +363,7 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
 
         clearAPIResourceCache(null, apiId, tenantId);
         apiResourceManagementDAO.deleteScope(apiId, scopeName, tenantId);
+        clearScopeCache(tenantId);
     }
 
     @Override
@@ -287,6 +372,7 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
 
         clearAPIResourceCache(null, apiId, tenantId);
         apiResourceManagementDAO.putScopes(apiId, currentScopes, scopes, tenantId);
+        clearScopeCache(tenantId);
     }
 
     @Override
@@ -299,7 +385,125 @@ public class CacheBackedAPIResourceMgtDAO implements APIResourceManagementDAO {
     public List<APIResource> getScopeMetadata(List<String> scopeNames, Integer tenantId)
             throws APIResourceMgtException {
 
-            return apiResourceManagementDAO.getScopeMetadata(scopeNames, tenantId);
+        if (CollectionUtils.isEmpty(scopeNames)) {
+            return new ArrayList<>();
+        }
+
+        // Serve the cached scopes and fetch only the scopes which are not in the cache.
+        String systemScopeVersion = getSystemScopeVersion();
+        Map<String, List<APIResource>> scopeMetadata = new LinkedHashMap<>();
+        Set<String> missingScopeNames = new LinkedHashSet<>();
+        for (String scopeName : scopeNames) {
+            if (scopeMetadata.containsKey(scopeName) || missingScopeNames.contains(scopeName)) {
+                continue;
+            }
+            ScopeMetadataCacheEntry entry = scopeMetadataCacheByName.getValueFromCache(
+                    new ScopeNameCacheKey(scopeName), tenantId);
+            if (entry != null && systemScopeVersion.equals(entry.getSystemScopeVersion())) {
+                scopeMetadata.put(scopeName, entry.getAPIResources());
+            } else {
+                missingScopeNames.add(scopeName);
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Scope metadata of " + scopeMetadata.size() + " scopes found in cache. Fetching metadata of "
+                    + missingScopeNames.size() + " scopes from DB");
+        }
+
+        if (!missingScopeNames.isEmpty()) {
+            Map<String, List<APIResource>> fetchedScopeMetadata = new LinkedHashMap<>();
+            for (String scopeName : missingScopeNames) {
+                fetchedScopeMetadata.put(scopeName, new ArrayList<>());
+            }
+            List<APIResource> apiResources = apiResourceManagementDAO.getScopeMetadata(
+                    new ArrayList<>(missingScopeNames), tenantId);
+            for (APIResource apiResource : apiResources) {
+                if (apiResource.getScopes() == null) {
+                    continue;
+                }
+                for (Scope scope : apiResource.getScopes()) {
+                    List<APIResource> scopeAPIResources = fetchedScopeMetadata.get(scope.getName());
+                    if (scopeAPIResources != null) {
+                        scopeAPIResources.add(new APIResource.APIResourceBuilder()
+                                .id(apiResource.getId())
+                                .name(apiResource.getName())
+                                .scopes(Collections.singletonList(scope))
+                                .build());
+                    }
+                }
+            }
+            for (Map.Entry<String, List<APIResource>> entry : fetchedScopeMetadata.entrySet()) {
+                scopeMetadataCacheByName.addToCache(new ScopeNameCacheKey(entry.getKey()),
+                        new ScopeMetadataCacheEntry(entry.getValue(), systemScopeVersion), tenantId);
+                scopeMetadata.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return groupScopeMetadataByAPIResource(scopeMetadata);
+    }
+
+    private List<APIResource> groupScopeMetadataByAPIResource(Map<String, List<APIResource>> scopeMetadata) {
+
+        Map<String, APIResource> apiResources = new LinkedHashMap<>();
+        for (List<APIResource> scopeAPIResources : scopeMetadata.values()) {
+            for (APIResource scopeAPIResource : scopeAPIResources) {
+                APIResource apiResource = apiResources.get(scopeAPIResource.getId());
+                if (apiResource == null) {
+                    apiResource = new APIResource.APIResourceBuilder()
+                            .id(scopeAPIResource.getId())
+                            .name(scopeAPIResource.getName())
+                            .scopes(new ArrayList<>())
+                            .build();
+                    apiResources.put(scopeAPIResource.getId(), apiResource);
+                }
+                apiResource.getScopes().addAll(scopeAPIResource.getScopes());
+            }
+        }
+        return new ArrayList<>(apiResources.values());
+    }
+
+    /**
+     * Clear the scope cache entries of a tenant. The system API resources are added with tenant id 0 and are
+     * managed from the super tenant. Their scopes are cached in every tenant, so a change from either of them
+     * also changes the system scope version, which invalidates the scope cache entries of all the tenants.
+     *
+     * @param tenantId Tenant id.
+     */
+    private void clearScopeCache(int tenantId) {
+
+        if (tenantId == 0 || tenantId == MultitenantConstants.SUPER_TENANT_ID) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Invalidating the scope entries of all the tenants from cache.");
+            }
+            systemScopeVersionCache.clear(MultitenantConstants.SUPER_TENANT_ID);
+        }
+        if (tenantId == 0) {
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Removing scope entries of tenantId:" + tenantId + " from cache.");
+        }
+        scopeCacheByName.clear(tenantId);
+        scopeMetadataCacheByName.clear(tenantId);
+        scopeListCache.clear(tenantId);
+    }
+
+    /**
+     * Get the current version of the system API resource scopes. A scope cache entry read with another version is
+     * not used.
+     *
+     * @return System scope version.
+     */
+    private String getSystemScopeVersion() {
+
+        SystemScopeVersionCacheEntry entry = systemScopeVersionCache.getValueFromCache(SYSTEM_SCOPE_VERSION_KEY,
+                MultitenantConstants.SUPER_TENANT_ID);
+        if (entry != null) {
+            return entry.getVersion();
+        }
+        String version = UUID.randomUUID().toString();
+        systemScopeVersionCache.addToCache(SYSTEM_SCOPE_VERSION_KEY, new SystemScopeVersionCacheEntry(version),
+                MultitenantConstants.SUPER_TENANT_ID);
+        return version;
     }
 
     private void clearAPIResourceCache(String identifier, String resourceId, int tenantId) throws
@@ -45,6 +45,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +54,9 @@ import javax.sql.DataSource;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
 
@@ -431,6 +435,94 @@ public class CacheBackedAPIResourceManagementDAOTest extends PowerMockTestCase {
         Assert.assertFalse(daoImpl.isScopeExistByName(scopeName, TENANT_ID));
     }
 
+    @Test(priority = 14)
+    public void testGetScopeMetadataFetchesOnlyUncachedScopes() throws Exception {
+
+        mockStatic(IdentityDatabaseUtil.class);
+        mockStatic(APIResourceManagementUtil.class);
+        mockStatic(IdentityTenantUtil.class);
+        when(IdentityTenantUtil.getTenantDomain(TENANT_ID)).thenReturn(getTenantDomain(TENANT_ID));
+
+        APIResource apiResource = addAPIResourceToDB("testGetScopeMetadata", getConnection(), TENANT_ID);
+        String firstScope = apiResource.getScopes().get(0).getName();
+        String secondScope = apiResource.getScopes().get(1).getName();
+        String nonExistentScope = "nonExistentScope testGetScopeMetadata";
+
+        APIResourceManagementDAOImpl apiResourceManagementDAO = spy(new APIResourceManagementDAOImpl());
+        CacheBackedAPIResourceMgtDAO cacheBackedDAO = new CacheBackedAPIResourceMgtDAO(apiResourceManagementDAO);
+
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        List<APIResource> scopeMetadata = cacheBackedDAO.getScopeMetadata(
+                Arrays.asList(firstScope, nonExistentScope), TENANT_ID);
+        Assert.assertEquals(scopeMetadata.size(), 1);
+        Assert.assertEquals(scopeMetadata.get(0).getId(), apiResource.getId());
+        Assert.assertEquals(scopeMetadata.get(0).getScopes().size(), 1);
+
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        scopeMetadata = cacheBackedDAO.getScopeMetadata(
+                Arrays.asList(firstScope, secondScope, nonExistentScope), TENANT_ID);
+        Assert.assertEquals(scopeMetadata.size(), 1);
+        Assert.assertEquals(scopeMetadata.get(0).getScopes().size(), 2);
+
+        verify(apiResourceManagementDAO, times(1)).getScopeMetadata(Collections.singletonList(secondScope),
+                TENANT_ID);
+    }
+
+    @Test(priority = 15)
+    public void testScopeCacheClearedOnScopeChange() throws Exception {
+
+        mockStatic(IdentityDatabaseUtil.class);
+        mockStatic(APIResourceManagementUtil.class);
+        mockStatic(IdentityTenantUtil.class);
+        when(IdentityTenantUtil.getTenantDomain(TENANT_ID)).thenReturn(getTenantDomain(TENANT_ID));
+
+        APIResource apiResource = addAPIResourceToDB("testScopeCacheCleared", getConnection(), TENANT_ID);
+        String apiId = apiResource.getId();
+        Scope newScope = createScope("newScope testScopeCacheCleared");
+
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        Assert.assertNull(daoImpl.getScopeByNameAndTenantId(newScope.getName(), TENANT_ID));
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        Assert.assertEquals(daoImpl.getScopesByAPI(apiId, TENANT_ID).size(), 2);
+
+        Connection connection = getConnection();
+        when(IdentityDatabaseUtil.getDBConnection(true)).thenReturn(connection);
+        when(IdentityDatabaseUtil.getDBConnection(false)).thenReturn(getConnection());
+        PowerMockito.doAnswer((Answer<Void>) invocation -> {
+            connection.commit();
+            return null;
+        }).when(IdentityDatabaseUtil.class, "commitTransaction", any(Connection.class));
+        daoImpl.addScopes(Collections.singletonList(newScope), apiId, TENANT_ID);
+
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        Assert.assertNotNull(daoImpl.getScopeByNameAndTenantId(newScope.getName(), TENANT_ID));
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        Assert.assertEquals(daoImpl.getScopesByAPI(apiId, TENANT_ID).size(), 3);
+    }
+
+    @Test(priority = 16)
+    public void testTenantScopeCacheClearedOnSystemAPIResourceChange() throws Exception {
+
+        mockStatic(IdentityDatabaseUtil.class);
+        mockStatic(APIResourceManagementUtil.class);
+        mockStatic(IdentityTenantUtil.class);
+        when(IdentityTenantUtil.getTenantDomain(TENANT_ID)).thenReturn(getTenantDomain(TENANT_ID));
+
+        String systemScopeName = TEST_SCOPE_1 + "testSystemScopeCacheCleared";
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        Assert.assertNull(daoImpl.getScopeByNameAndTenantId(systemScopeName, TENANT_ID));
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        int scopeCount = daoImpl.getScopesByTenantId(TENANT_ID, new ArrayList<>()).size();
+
+        // System API resources are added with tenant id 0 and are visible to every tenant.
+        addAPIResourceToDB("testSystemScopeCacheCleared", getConnection(), 0);
+
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        Assert.assertNotNull(daoImpl.getScopeByNameAndTenantId(systemScopeName, TENANT_ID));
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(getConnection());
+        Assert.assertEquals(daoImpl.getScopesByTenantId(TENANT_ID, new ArrayList<>()).size(), scopeCount + 2);
+    }
+
     /**
      * Create scope with the given name.
      *
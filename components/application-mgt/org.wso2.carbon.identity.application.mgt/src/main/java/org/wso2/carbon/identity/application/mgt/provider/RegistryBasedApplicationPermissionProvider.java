@@ -39,6 +39,7 @@ import org.wso2.carbon.registry.api.Resource;
 import org.wso2.carbon.registry.core.RegistryConstants;
 import org.wso2.carbon.user.core.UserRealm;
 import org.wso2.carbon.user.mgt.UserMgtConstants;
+import org.wso2.carbon.user.mgt.permission.cache.UIPermissionTreeCache;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.util.ArrayList;
@@ -89,6 +90,7 @@ public class RegistryBasedApplicationPermissionProvider implements ApplicationPe
             tenantGovReg.put(newApplicationNode, permissionNode);
             addPermission(applicationNode, loadPermissions.toArray(new ApplicationPermission[loadPermissions.size()]),
                     tenantGovReg);
+            clearUIPermissionTreeCache();
         } catch (RegistryException e) {
             throw new IdentityApplicationManagementException(
                     "Error while renaming permission node " + oldName + "to " + newName, e);
@@ -157,6 +159,7 @@ public class RegistryBasedApplicationPermissionProvider implements ApplicationPe
             if (loggedInUserChanged) {
                 PrivilegedCarbonContext.getThreadLocalCarbonContext().setUsername(username);
             }
+            clearUIPermissionTreeCache();
         }
     }
 
@@ -199,6 +202,8 @@ public class RegistryBasedApplicationPermissionProvider implements ApplicationPe
             }
         } catch (RegistryException e) {
             throw new IdentityApplicationManagementException("Error while storing permissions", e);
+        } finally {
+            clearUIPermissionTreeCache();
         }
     }
 
@@ -297,6 +302,8 @@ public class RegistryBasedApplicationPermissionProvider implements ApplicationPe
                 throw new IdentityApplicationManagementException(
                         "Error while deleting permissions for application: " + applicationName, e);
             }
+        } finally {
+            clearUIPermissionTreeCache();
         }
     }
 
@@ -339,6 +346,14 @@ public class RegistryBasedApplicationPermissionProvider implements ApplicationPe
         }
     }
 
+    /**
+     * Clear the cached UI permission tree of the tenant, as it includes the application permissions.
+     */
+    private void clearUIPermissionTreeCache() {
+
+        UIPermissionTreeCache.getInstance().clear(CarbonContext.getThreadLocalCarbonContext().getTenantId());
+    }
+
     private String getApplicationPermissionPath() {
 
         return CarbonConstants.UI_PERMISSION_NAME + RegistryConstants.PATH_SEPARATOR + APPLICATION_ROOT_PERMISSION;
@@ -20,6 +20,9 @@ package org.wso2.carbon.identity.application.authentication.framework.cache;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.cache.AbstractCacheListener;
+
+import java.util.Collections;
 
 /**
  * Cache for {@link org.wso2.carbon.identity.application.authentication.framework.model.LongWaitStatus}
@@ -33,7 +36,8 @@ public class LongWaitResultCache extends AuthenticationBaseCache<LongWaitResultC
 
     private LongWaitResultCache() {
 
-        super(LONG_WAIT_RESULT_CACHE_NAME);
+        super(LONG_WAIT_RESULT_CACHE_NAME, Collections.<AbstractCacheListener<LongWaitResultCacheKey,
+                LongWaitResultCacheEntry>>singletonList(new LongWaitResultCacheListener()));
     }
 
     public static LongWaitResultCache getInstance() {
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.cache;
+
+import org.wso2.carbon.identity.application.authentication.framework.internal.FrameworkServiceDataHolder;
+import org.wso2.carbon.identity.application.authentication.framework.model.LongWaitStatus;
+import org.wso2.carbon.identity.application.authentication.framework.store.LongWaitCompletionNotifier;
+import org.wso2.carbon.identity.application.authentication.framework.store.LongWaitStatusStoreService;
+import org.wso2.carbon.identity.core.cache.AbstractCacheListener;
+
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryListenerException;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+
+/**
+ * Listener of the {@link LongWaitResultCache} which wakes up the status requests waiting on this node when a long
+ * wait status is changed. An updated entry which is no longer waiting completes the wait. A removed entry, which is
+ * what a cluster invalidation from another node looks like on this node, releases the waiting requests so that
+ * they read the status again from the store.
+ */
+public class LongWaitResultCacheListener extends AbstractCacheListener<LongWaitResultCacheKey,
+        LongWaitResultCacheEntry> implements CacheEntryUpdatedListener<LongWaitResultCacheKey,
+        LongWaitResultCacheEntry>, CacheEntryRemovedListener<LongWaitResultCacheKey, LongWaitResultCacheEntry> {
+
+    @Override
+    public void entryUpdated(CacheEntryEvent<? extends LongWaitResultCacheKey, ? extends LongWaitResultCacheEntry>
+                                     event) throws CacheEntryListenerException {
+
+        LongWaitCompletionNotifier notifier = getCompletionNotifier();
+        if (notifier == null || event == null || event.getKey() == null) {
+            return;
+        }
+        LongWaitResultCacheEntry entry = event.getValue();
+        if (entry == null || entry.getWaitStatus() == null
+                || entry.getWaitStatus().getStatus() != LongWaitStatus.Status.WAITING) {
+            notifier.notifyCompletion(event.getKey().getContextId());
+        }
+    }
+
+    @Override
+    public void entryRemoved(CacheEntryEvent<? extends LongWaitResultCacheKey, ? extends LongWaitResultCacheEntry>
+                                     event) throws CacheEntryListenerException {
+
+        LongWaitCompletionNotifier notifier = getCompletionNotifier();
+        if (notifier == null || event == null || event.getKey() == null) {
+            return;
+        }
+        notifier.release(event.getKey().getContextId());
+    }
+
+    private LongWaitCompletionNotifier getCompletionNotifier() {
+
+        LongWaitStatusStoreService longWaitStatusStoreService =
+                FrameworkServiceDataHolder.getInstance().getLongWaitStatusStoreService();
+        if (longWaitStatusStoreService == null) {
+            return null;
+        }
+        return longWaitStatusStoreService.getCompletionNotifier();
+    }
+}
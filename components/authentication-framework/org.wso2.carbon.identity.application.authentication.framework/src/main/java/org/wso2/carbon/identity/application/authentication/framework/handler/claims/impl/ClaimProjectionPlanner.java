@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.handler.claims.impl;
+
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.application.authentication.framework.config.model.ApplicationConfig;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
+import org.wso2.carbon.identity.application.common.model.LocalAndOutboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.model.script.AuthenticationScriptConfig;
+import org.wso2.carbon.identity.application.mgt.ApplicationConstants;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plans the local claims to be retrieved from the user store for a local user.
+ * Instead of all the claims of the local dialect, only the claims the application depends on are projected: the
+ * requested and mandatory claims, the subject claim, the role claim, the local claims referred to in the adaptive
+ * authentication script and the claims which are always included. Claim URIs of other dialects are converted to the
+ * local dialect, and those which cannot be converted are left out. If the script reads the local or remote claims
+ * in a way other than a literal claim URI key, all the local claims are retrieved.
+ */
+final class ClaimProjectionPlanner {
+
+    private static final Pattern LOCAL_CLAIM_URI_PATTERN =
+            Pattern.compile(Pattern.quote(ApplicationConstants.LOCAL_IDP_DEFAULT_CLAIM_DIALECT) + "/[\\w./-]+");
+    private static final Pattern SCRIPT_CLAIMS_PATTERN = Pattern.compile("\\b(" +
+            FrameworkConstants.JSAttributes.JS_LOCAL_CLAIMS + "|" + FrameworkConstants.JSAttributes.JS_REMOTE_CLAIMS +
+            ")\\b");
+    private static final Pattern SCRIPT_CLAIM_KEY_PATTERN = Pattern.compile("\\s*\\[\\s*(['\"])([^'\"\\\\]+)\\1\\s*]");
+
+    private ClaimProjectionPlanner() {
+
+    }
+
+    /**
+     * Compute the local claim URIs to be retrieved for the application.
+     *
+     * @param appConfig                Application config.
+     * @param toLocalClaimMappings     Mappings of claim URIs of the application's dialect to local claim URIs.
+     * @param alwaysIncludedClaimURIs  Local claim URIs to be retrieved for every application.
+     * @return Local claim URIs to be retrieved, or null if the application depends on all the local claims.
+     */
+    static Set<String> plan(ApplicationConfig appConfig, Map<String, String> toLocalClaimMappings,
+                            Collection<String> alwaysIncludedClaimURIs) {
+
+        Map<String, String> requestedClaimMappings = appConfig.getRequestedClaimMappings();
+        if (MapUtils.isEmpty(requestedClaimMappings)) {
+            // All the local claims are sent when the application does not request any claim.
+            return null;
+        }
+
+        Set<String> claimURIs = new HashSet<>();
+        addLocalClaims(appConfig, toLocalClaimMappings, requestedClaimMappings.values(), claimURIs);
+        if (appConfig.getMandatoryClaimMappings() != null) {
+            addLocalClaims(appConfig, toLocalClaimMappings, appConfig.getMandatoryClaimMappings().values(),
+                    claimURIs);
+        }
+        claimURIs.add(toLocalClaimURI(appConfig, toLocalClaimMappings, appConfig.getSubjectClaimUri()));
+        claimURIs.add(toLocalClaimURI(appConfig, toLocalClaimMappings, appConfig.getRoleClaim()));
+        if (!addScriptClaims(appConfig, toLocalClaimMappings, claimURIs)) {
+            // The claims read by the script cannot be determined.
+            return null;
+        }
+        if (alwaysIncludedClaimURIs != null) {
+            claimURIs.addAll(alwaysIncludedClaimURIs);
+        }
+        // Claim URIs of other dialects must not reach the user store.
+        claimURIs.removeIf(claimURI -> !isLocalClaimURI(claimURI));
+        return claimURIs;
+    }
+
+    /**
+     * Convert a claim URI to a local claim URI.
+     *
+     * @param appConfig            Application config.
+     * @param toLocalClaimMappings Mappings of claim URIs of the application's dialect to local claim URIs.
+     * @param claimURI             Claim URI.
+     * @return Local claim URI, or null if the claim URI cannot be converted to a local claim URI.
+     */
+    static String toLocalClaimURI(ApplicationConfig appConfig, Map<String, String> toLocalClaimMappings,
+                                  String claimURI) {
+
+        if (StringUtils.isBlank(claimURI) || isLocalClaimURI(claimURI)) {
+            return claimURI;
+        }
+        String localClaimURI = null;
+        if (toLocalClaimMappings != null) {
+            localClaimURI = toLocalClaimMappings.get(claimURI);
+        }
+        if (localClaimURI == null && appConfig.getClaimMappings() != null) {
+            localClaimURI = appConfig.getClaimMappings().get(claimURI);
+        }
+        return isLocalClaimURI(localClaimURI) ? localClaimURI : null;
+    }
+
+    private static boolean isLocalClaimURI(String claimURI) {
+
+        return claimURI != null && claimURI.startsWith(ApplicationConstants.LOCAL_IDP_DEFAULT_CLAIM_DIALECT);
+    }
+
+    private static void addLocalClaims(ApplicationConfig appConfig, Map<String, String> toLocalClaimMappings,
+                                       Collection<String> claimURIs, Set<String> localClaimURIs) {
+
+        for (String claimURI : claimURIs) {
+            localClaimURIs.add(toLocalClaimURI(appConfig, toLocalClaimMappings, claimURI));
+        }
+    }
+
+    /**
+     * Add the local claims referred to in the adaptive authentication script.
+     *
+     * @return False if the script reads the local or remote claims in a way other than a literal claim URI key
+     * which can be converted to a local claim URI.
+     */
+    private static boolean addScriptClaims(ApplicationConfig appConfig, Map<String, String> toLocalClaimMappings,
+                                           Set<String> claimURIs) {
+
+        ServiceProvider serviceProvider = appConfig.getServiceProvider();
+        if (serviceProvider == null) {
+            return true;
+        }
+        LocalAndOutboundAuthenticationConfig authenticationConfig =
+                serviceProvider.getLocalAndOutBoundAuthenticationConfig();
+        if (authenticationConfig == null) {
+            return true;
+        }
+        AuthenticationScriptConfig scriptConfig = authenticationConfig.getAuthenticationScriptConfig();
+        if (scriptConfig == null || !scriptConfig.isEnabled() || StringUtils.isBlank(scriptConfig.getContent())) {
+            return true;
+        }
+        String script = scriptConfig.getContent();
+        Matcher claimsMatcher = SCRIPT_CLAIMS_PATTERN.matcher(script);
+        Matcher keyMatcher = SCRIPT_CLAIM_KEY_PATTERN.matcher(script);
+        while (claimsMatcher.find()) {
+            keyMatcher.region(claimsMatcher.end(), script.length());
+            if (!keyMatcher.lookingAt()) {
+                return false;
+            }
+            String localClaimURI = toLocalClaimURI(appConfig, toLocalClaimMappings, keyMatcher.group(2));
+            if (localClaimURI == null) {
+                return false;
+            }
+            claimURIs.add(localClaimURI);
+        }
+        Matcher matcher = LOCAL_CLAIM_URI_PATTERN.matcher(script);
+        while (matcher.find()) {
+            claimURIs.add(matcher.group());
+        }
+        return true;
+    }
+}
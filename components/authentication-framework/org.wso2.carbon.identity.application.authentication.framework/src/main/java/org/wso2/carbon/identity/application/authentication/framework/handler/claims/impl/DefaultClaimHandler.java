@@ -63,6 +63,7 @@ import org.wso2.carbon.utils.DiagnosticLog;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -735,8 +736,15 @@ public class DefaultClaimHandler implements ClaimHandler {
         // key:value -> sp_dialect:claim_value
         Map<String, String> spRequestedClaims = new HashMap<>();
 
-        // Retrieve all non-null user claim values against local claim uris.
-        allLocalClaims = retrieveAllNunNullUserClaimValues(authenticatedUser, claimManager, appConfig, userStore);
+        // if standard dialect get all claim mappings from standard dialect to carbon dialect
+        spToLocalClaimMappings = getStandardDialectToCarbonMapping(spStandardDialect, context, spToLocalClaimMappings,
+                tenantDomain);
+
+        // Retrieve the non-null user claim values against the projected local claim uris, or against all the local
+        // claim uris if claim projection is disabled or the application depends on all the local claims.
+        Set<String> projectedClaimURIs = getProjectedLocalClaimURIs(appConfig, spToLocalClaimMappings);
+        allLocalClaims = retrieveAllNunNullUserClaimValues(authenticatedUser, claimManager, appConfig, userStore,
+                projectedClaimURIs);
 
         boolean useAppAssociatedRoles = isAppRoleResolverExists() || !CarbonConstants.ENABLE_LEGACY_AUTHZ_RUNTIME;
         boolean isRoleClaimRequested = (requestedClaimMappings.get(FrameworkConstants.ROLES_CLAIM) != null);
@@ -771,9 +779,6 @@ public class DefaultClaimHandler implements ClaimHandler {
 
         handleRoleClaim(context, allLocalClaims);
 
-        // if standard dialect get all claim mappings from standard dialect to carbon dialect
-        spToLocalClaimMappings = getStandardDialectToCarbonMapping(spStandardDialect, context, spToLocalClaimMappings,
-                tenantDomain);
         if (StringUtils.isNotBlank(spStandardDialect) && (!StringUtils.equals(spStandardDialect, ApplicationConstants
                 .LOCAL_IDP_DEFAULT_CLAIM_DIALECT))) {
             carbonToStandardClaimMapping = getCarbonToStandardDialectMapping(spStandardDialect, context,
@@ -783,6 +788,11 @@ public class DefaultClaimHandler implements ClaimHandler {
             context.setProperty(FrameworkConstants.SP_TO_CARBON_CLAIM_MAPPING, requestedClaimMappings);
         }
 
+        if (projectedClaimURIs != null) {
+            widenProjectedLocalClaims(authenticatedUser, userStore, appConfig, spStandardDialect,
+                    requestedClaimMappings, spToLocalClaimMappings, projectedClaimURIs, allLocalClaims);
+        }
+
         mapSPClaimsAndFilterRequestedClaims(spToLocalClaimMappings, requestedClaimMappings, allLocalClaims,
                                             allSPMappedClaims, spRequestedClaims);
         if (stepConfig == null || stepConfig.isSubjectAttributeStep()) {
@@ -910,22 +920,106 @@ public class DefaultClaimHandler implements ClaimHandler {
         return spToLocalClaimMappings;
     }
 
+    /**
+     * Get the local claim URIs to be retrieved for the application when claim projection is enabled.
+     *
+     * @param appConfig              Application config.
+     * @param spToLocalClaimMappings Mappings of the claim URIs of the application's dialect to local claim URIs.
+     * @return Projected local claim URIs, or null if all the local claims should be retrieved.
+     */
+    private Set<String> getProjectedLocalClaimURIs(ApplicationConfig appConfig,
+                                                   Map<String, String> spToLocalClaimMappings) {
+
+        if (!Boolean.parseBoolean(IdentityUtil.getProperty(FrameworkConstants.Config.CLAIM_PROJECTION_ENABLED))) {
+            return null;
+        }
+        Set<String> alwaysIncludedClaimURIs = new HashSet<>();
+        alwaysIncludedClaimURIs.add(getLocalGroupsClaimURI());
+        alwaysIncludedClaimURIs.add(FrameworkConstants.IDP_TYPE_CLAIM);
+        String additionalClaims =
+                IdentityUtil.getProperty(FrameworkConstants.Config.CLAIM_PROJECTION_ADDITIONAL_CLAIMS);
+        if (StringUtils.isNotBlank(additionalClaims)) {
+            for (String claimURI : additionalClaims.split(",")) {
+                alwaysIncludedClaimURIs.add(claimURI.trim());
+            }
+        }
+        return ClaimProjectionPlanner.plan(appConfig, spToLocalClaimMappings, alwaysIncludedClaimURIs);
+    }
+
+    /**
+     * Retrieve the local claims which became known only after resolving the claim mappings of the standard dialect
+     * and were not part of the initial projection.
+     */
+    private void widenProjectedLocalClaims(AuthenticatedUser authenticatedUser, AbstractUserStoreManager userStore,
+                                           ApplicationConfig appConfig, String spStandardDialect,
+                                           Map<String, String> requestedClaimMappings,
+                                           Map<String, String> spToLocalClaimMappings,
+                                           Set<String> projectedClaimURIs, Map<String, String> allLocalClaims)
+            throws FrameworkException {
+
+        Set<String> missingClaimURIs = new HashSet<>();
+        for (String claimURI : requestedClaimMappings.values()) {
+            missingClaimURIs.add(ClaimProjectionPlanner.toLocalClaimURI(appConfig, spToLocalClaimMappings, claimURI));
+        }
+        String subjectURI = appConfig.getSubjectClaimUri();
+        if (spStandardDialect != null && subjectURI != null && spToLocalClaimMappings.get(subjectURI) != null) {
+            missingClaimURIs.add(ClaimProjectionPlanner.toLocalClaimURI(appConfig, spToLocalClaimMappings,
+                    spToLocalClaimMappings.get(subjectURI)));
+        }
+        missingClaimURIs.remove(null);
+        missingClaimURIs.remove(StringUtils.EMPTY);
+        missingClaimURIs.removeAll(projectedClaimURIs);
+        if (missingClaimURIs.isEmpty()) {
+            return;
+        }
+        projectedClaimURIs.addAll(missingClaimURIs);
+        Map<String, String> missingClaims = getUserClaimValues(authenticatedUser, userStore, missingClaimURIs);
+        // Values already in the map are runtime claims or app associated roles, which take priority.
+        missingClaims.forEach(allLocalClaims::putIfAbsent);
+        if (log.isDebugEnabled()) {
+            log.debug("Widened the claim projection of user: " + authenticatedUser.getLoggableUserId() + " by "
+                    + missingClaimURIs.size() + " claims and retrieved " + missingClaims.size() + " claim values.");
+        }
+    }
+
     private Map<String, String> retrieveAllNunNullUserClaimValues(AuthenticatedUser authenticatedUser,
-            ClaimManager claimManager, ApplicationConfig appConfig,
-            AbstractUserStoreManager userStore) throws FrameworkException {
+            ClaimManager claimManager, ApplicationConfig appConfig, AbstractUserStoreManager userStore,
+            Set<String> projectedClaimURIs) throws FrameworkException {
+
+        String tenantDomain = authenticatedUser.getTenantDomain();
+
+        Collection<String> localClaimURIs = projectedClaimURIs;
+        if (localClaimURIs == null) {
+            try {
+                org.wso2.carbon.user.api.ClaimMapping[] claimMappings = claimManager
+                        .getAllClaimMappings(ApplicationConstants.LOCAL_IDP_DEFAULT_CLAIM_DIALECT);
+                localClaimURIs = new ArrayList<>();
+                for (org.wso2.carbon.user.api.ClaimMapping mapping : claimMappings) {
+                    String claimURI = mapping.getClaim().getClaimUri();
+                    localClaimURIs.add(claimURI);
+                }
+            } catch (UserStoreException e) {
+                throw new FrameworkException("Error occurred while getting all local claim mappings for " +
+                        tenantDomain, e);
+            }
+        }
+        Map<String, String> allLocalClaims = getUserClaimValues(authenticatedUser, userStore, localClaimURIs);
+        if (log.isDebugEnabled()) {
+            log.debug("Retrieved " + allLocalClaims.size() + " claim values against " + localClaimURIs.size()
+                    + (projectedClaimURIs != null ? " projected" : "") + " local claims for user: "
+                    + authenticatedUser.getLoggableUserId());
+        }
+        return allLocalClaims;
+    }
+
+    private Map<String, String> getUserClaimValues(AuthenticatedUser authenticatedUser,
+                                                   AbstractUserStoreManager userStore,
+                                                   Collection<String> localClaimURIs) throws FrameworkException {
 
         String tenantDomain = authenticatedUser.getTenantDomain();
 
         Map<String, String> allLocalClaims = new HashMap<>();
         try {
-
-            org.wso2.carbon.user.api.ClaimMapping[] claimMappings = claimManager
-                    .getAllClaimMappings(ApplicationConstants.LOCAL_IDP_DEFAULT_CLAIM_DIALECT);
-            List<String> localClaimURIs = new ArrayList<>();
-            for (org.wso2.carbon.user.api.ClaimMapping mapping : claimMappings) {
-                String claimURI = mapping.getClaim().getClaimUri();
-                localClaimURIs.add(claimURI);
-            }
             allLocalClaims = userStore.getUserClaimValuesWithID(authenticatedUser.getUserId(),
                     localClaimURIs.toArray(new String[0]), null);
 
@@ -938,7 +1032,7 @@ public class DefaultClaimHandler implements ClaimHandler {
                     log.debug("User " + authenticatedUser.getLoggableUserId() + " not found in user store");
                 }
             } else {
-                throw new FrameworkException("Error occurred while getting all user claims for " +
+                throw new FrameworkException("Error occurred while getting user claims for " +
                         authenticatedUser.getLoggableUserId() + " in " + tenantDomain, e);
             }
         } catch (UserIdNotFoundException e) {
@@ -78,6 +78,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.Cookie;
@@ -394,50 +395,37 @@ public class DefaultAuthenticationRequestHandler implements AuthenticationReques
                 }
             }
 
-            DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = null;
-            if (LoggerUtils.isDiagnosticLogsEnabled()) {
-                diagnosticLogBuilder = new DiagnosticLog.DiagnosticLogBuilder(
-                        FrameworkConstants.LogConstants.AUTHENTICATION_FRAMEWORK,
-                        FrameworkConstants.LogConstants.ActionIDs.HANDLE_AUTH_REQUEST)
-                        .inputParam(LogConstants.InputKeys.APPLICATION_NAME, context.getServiceProviderName())
-                        .inputParam(FrameworkConstants.LogConstants.TENANT_DOMAIN, context.getTenantDomain())
-                        .inputParam(FrameworkConstants.LogConstants.USER, LoggerUtils.isLogMaskingEnable
-                                ? LoggerUtils.getMaskedContent(sequenceConfig.getAuthenticatedUser().getUserName())
-                                : sequenceConfig.getAuthenticatedUser().getUserName())
-                        .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
-                        .resultStatus(DiagnosticLog.ResultStatus.FAILED);
-            }
+            // The builder is created only when a failure is logged and diagnostic logs are enabled.
+            Supplier<DiagnosticLog.DiagnosticLogBuilder> diagnosticLogBuilder = () ->
+                    new DiagnosticLog.DiagnosticLogBuilder(
+                            FrameworkConstants.LogConstants.AUTHENTICATION_FRAMEWORK,
+                            FrameworkConstants.LogConstants.ActionIDs.HANDLE_AUTH_REQUEST)
+                            .inputParam(LogConstants.InputKeys.APPLICATION_NAME, context.getServiceProviderName())
+                            .inputParam(FrameworkConstants.LogConstants.TENANT_DOMAIN, context.getTenantDomain())
+                            .inputParam(FrameworkConstants.LogConstants.USER, LoggerUtils.isLogMaskingEnable
+                                    ? LoggerUtils.getMaskedContent(sequenceConfig.getAuthenticatedUser().getUserName())
+                                    : sequenceConfig.getAuthenticatedUser().getUserName())
+                            .logDetailLevel(DiagnosticLog.LogDetailLevel.APPLICATION)
+                            .resultStatus(DiagnosticLog.ResultStatus.FAILED);
             // Break the flow if the authenticated subject identifier or user id is null.
             if (StringUtils.isBlank(sequenceConfig.getAuthenticatedUser().getAuthenticatedSubjectIdentifier())) {
-                if (diagnosticLogBuilder != null) {
-                    // diagnosticLogBuilder is null when diagnostic logs are disabled.
-                    diagnosticLogBuilder.resultMessage(
-                            ERROR_WHILE_CONCLUDING_AUTHENTICATION_SUBJECT_ID_NULL.getMessage());
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
+                LoggerUtils.triggerDiagnosticLogEvent(() -> diagnosticLogBuilder.get()
+                        .resultMessage(ERROR_WHILE_CONCLUDING_AUTHENTICATION_SUBJECT_ID_NULL.getMessage()));
                 throw new PostAuthenticationFailedException(
                         ERROR_WHILE_CONCLUDING_AUTHENTICATION_SUBJECT_ID_NULL.getCode(),
                         ERROR_WHILE_CONCLUDING_AUTHENTICATION_SUBJECT_ID_NULL.getMessage());
             }
             try {
                 if (StringUtils.isBlank(sequenceConfig.getAuthenticatedUser().getUserId())) {
-                    if (diagnosticLogBuilder != null) {
-                        // diagnosticLogBuilder is null when diagnostic logs are disabled.
-                        diagnosticLogBuilder.resultMessage(
-                                ERROR_WHILE_CONCLUDING_AUTHENTICATION_USER_ID_NULL.getMessage());
-                        LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                    }
+                    LoggerUtils.triggerDiagnosticLogEvent(() -> diagnosticLogBuilder.get()
+                            .resultMessage(ERROR_WHILE_CONCLUDING_AUTHENTICATION_USER_ID_NULL.getMessage()));
                     throw new PostAuthenticationFailedException(
                             ERROR_WHILE_CONCLUDING_AUTHENTICATION_USER_ID_NULL.getCode(),
                             ERROR_WHILE_CONCLUDING_AUTHENTICATION_USER_ID_NULL.getMessage());
                 }
             } catch (UserIdNotFoundException e) {
-                if (diagnosticLogBuilder != null) {
-                    // diagnosticLogBuilder is null when diagnostic logs are disabled.
-                    diagnosticLogBuilder.resultMessage(
-                            ERROR_WHILE_CONCLUDING_AUTHENTICATION_USER_ID_NULL.getMessage());
-                    LoggerUtils.triggerDiagnosticLogEvent(diagnosticLogBuilder);
-                }
+                LoggerUtils.triggerDiagnosticLogEvent(() -> diagnosticLogBuilder.get()
+                        .resultMessage(ERROR_WHILE_CONCLUDING_AUTHENTICATION_USER_ID_NULL.getMessage()));
                 throw new PostAuthenticationFailedException(
                         ERROR_WHILE_CONCLUDING_AUTHENTICATION_USER_ID_NULL.getCode(),
                         ERROR_WHILE_CONCLUDING_AUTHENTICATION_USER_ID_NULL.getMessage(), e);
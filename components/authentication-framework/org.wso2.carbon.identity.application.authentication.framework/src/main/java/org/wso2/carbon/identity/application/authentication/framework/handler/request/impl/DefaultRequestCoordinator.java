@@ -22,7 +22,6 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.slf4j.MDC;
@@ -51,11 +50,12 @@ import org.wso2.carbon.identity.application.authentication.framework.internal.Fr
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedIdPData;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
 import org.wso2.carbon.identity.application.authentication.framework.model.CommonAuthResponseWrapper;
+import org.wso2.carbon.identity.application.authentication.framework.model.UserAccountStatus;
+import org.wso2.carbon.identity.application.authentication.framework.services.UserAccountStatusService;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
 import org.wso2.carbon.identity.application.authentication.framework.util.LoginContextManagementUtil;
 import org.wso2.carbon.identity.application.common.model.ClaimMapping;
-import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.application.common.model.ServiceProvider;
 import org.wso2.carbon.identity.application.common.model.ServiceProviderProperty;
 import org.wso2.carbon.identity.central.log.mgt.utils.LogConstants;
@@ -63,10 +63,6 @@ import org.wso2.carbon.identity.central.log.mgt.utils.LoggerUtils;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.user.api.Tenant;
-import org.wso2.carbon.user.api.UserStoreException;
-import org.wso2.carbon.user.core.UserCoreConstants;
-import org.wso2.carbon.user.core.UserRealm;
-import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 import org.wso2.carbon.utils.DiagnosticLog;
 
@@ -90,9 +86,6 @@ import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ACCOUNT_DISABLED_CLAIM_URI;
-import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ACCOUNT_LOCKED_CLAIM_URI;
-import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ACCOUNT_UNLOCK_TIME_CLAIM;
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.AnalyticsAttributes.SESSION_ID;
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.BACK_TO_FIRST_STEP;
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.IS_API_BASED;
@@ -104,7 +97,6 @@ import static org.wso2.carbon.identity.application.authentication.framework.util
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.RequestParams.IDF;
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.RequestParams.RESTART_FLOW;
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.RequestParams.TENANT_DOMAIN;
-import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ResidentIdpPropertyName.ACCOUNT_DISABLE_HANDLER_ENABLE_PROPERTY;
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.USER_TENANT_DOMAIN;
 import static org.wso2.carbon.identity.application.authentication.framework.util.SessionNonceCookieUtil.NONCE_ERROR_CODE;
 import static org.wso2.carbon.identity.organization.management.service.constant.OrganizationManagementConstants.IS_APP_SHARED;
@@ -918,7 +910,7 @@ public class DefaultRequestCoordinator extends AbstractRequestCoordinator implem
 
                     if (authenticatedUser != null) {
 
-                        if (isUserAllowedToLogin(authenticatedUser)) {
+                        if (isUserAllowedToLogin(authenticatedUser, request)) {
                             String authenticatedUserTenantDomain = authenticatedUser.getTenantDomain();
                             // set the user for the current authentication/logout flow
                             context.setSubject(authenticatedUser);
@@ -1090,29 +1082,24 @@ public class DefaultRequestCoordinator extends AbstractRequestCoordinator implem
      * Checks whether AuthenticatedUser object contains a valid user for authentication.
      * Returns false if user verification is failed.
      *
-     * @param user
+     * @param user    Authenticated user.
+     * @param request Current request, used to reuse the account status resolved in the same request.
      * @return boolean
-     * @throws FrameworkException
      */
-    private boolean isUserAllowedToLogin(AuthenticatedUser user) {
+    private boolean isUserAllowedToLogin(AuthenticatedUser user, HttpServletRequest request) {
 
         if (user.isFederatedUser()) {
             return true;
         }
 
-        int tenantId = IdentityTenantUtil.getTenantId(user.getTenantDomain());
         try {
-            UserRealm userRealm = (UserRealm) FrameworkServiceComponent.getRealmService().
-                    getTenantUserRealm(tenantId);
-            AbstractUserStoreManager userStoreManager = (AbstractUserStoreManager) userRealm.getUserStoreManager();
-
-            if (userStoreManager.isExistingUserWithID(user.getUserId())) {
-                return !(isUserDisabled(userStoreManager, user) || isUserLocked(userStoreManager, user));
+            UserAccountStatus accountStatus = getUserAccountStatusService().getAccountStatus(user.getUserId(),
+                    user.getTenantDomain(), request);
+            if (accountStatus.isExisting()) {
+                return accountStatus.isAllowedToLogin();
             } else {
                 log.error("Trying to authenticate non existing user: " + user.getLoggableUserId());
             }
-        } catch (UserStoreException e) {
-            log.error("Error while checking existence of user: " + user.getLoggableUserId(), e);
         } catch (FrameworkException e) {
             log.error("Error while validating user: " + user.getLoggableUserId(), e);
         } catch (UserIdNotFoundException e) {
@@ -1121,87 +1108,14 @@ public class DefaultRequestCoordinator extends AbstractRequestCoordinator implem
         return false;
     }
 
-    /**
-     * Checks whether the given user is locked and returns true for locked users
-     *
-     * @param userStoreManager
-     * @param user
-     * @return boolean
-     * @throws FrameworkException
-     */
-    private boolean isUserLocked(AbstractUserStoreManager userStoreManager, AuthenticatedUser user)
-            throws FrameworkException, UserIdNotFoundException {
-
-        String accountLockedClaimValue = getClaimValue(user.getUserId(), userStoreManager, ACCOUNT_LOCKED_CLAIM_URI);
-        boolean accountLocked = Boolean.parseBoolean(accountLockedClaimValue);
-
-        if (accountLocked) {
-            long unlockTime = 0;
-            String accountUnlockTimeClaimValue = getClaimValue(
-                    user.getUserId(), userStoreManager, ACCOUNT_UNLOCK_TIME_CLAIM);
-
-            if (NumberUtils.isNumber(accountUnlockTimeClaimValue)) {
-                unlockTime = Long.parseLong(accountUnlockTimeClaimValue);
-            }
-
-            if (unlockTime != 0 && System.currentTimeMillis() >= unlockTime) {
-                return false;
-            }
-        }
-        return accountLocked;
-    }
-
-    /**
-     * Checks whether the given user is disabled and returns true for disabled users
-     * @param userStoreManager
-     * @param user
-     * @return boolean
-     * @throws FrameworkException
-     */
-    private boolean isUserDisabled(AbstractUserStoreManager userStoreManager, AuthenticatedUser user)
-            throws FrameworkException, UserIdNotFoundException {
-
-        if (!isAccountDisablingEnabled(user.getTenantDomain())) {
-            return false;
-        }
-
-        String accountDisabledClaimValue = getClaimValue(
-                user.getUserId(), userStoreManager, ACCOUNT_DISABLED_CLAIM_URI);
-        return Boolean.parseBoolean(accountDisabledClaimValue);
-    }
-
-    private boolean isAccountDisablingEnabled(String tenantDomain) throws FrameworkException {
-
-        Property accountDisableConfigProperty = FrameworkUtils.getResidentIdpConfiguration(
-                ACCOUNT_DISABLE_HANDLER_ENABLE_PROPERTY, tenantDomain);
-
-        return accountDisableConfigProperty != null && Boolean.parseBoolean(accountDisableConfigProperty.getValue());
-    }
-
-    /**
-     * This method retrieves requested claim value from the user store
-     *
-     * @param userId
-     * @param userStoreManager
-     * @param claimURI
-     * @return claim value as a String
-     * @throws FrameworkException
-     */
-    private String getClaimValue(String userId, AbstractUserStoreManager userStoreManager, String claimURI) throws
-            FrameworkException {
-
-        try {
-            Map<String, String> values = userStoreManager.getUserClaimValuesWithID(userId, new String[]{claimURI},
-                    UserCoreConstants.DEFAULT_PROFILE);
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("%s claim value of user %s is set to: " + values.get(claimURI),
-                        claimURI, userId));
-            }
-            return values.get(claimURI);
+    private UserAccountStatusService getUserAccountStatusService() {
 
-        } catch (UserStoreException e) {
-            throw new FrameworkException("Error occurred while retrieving claim: " + claimURI, e);
+        UserAccountStatusService userAccountStatusService =
+                FrameworkServiceDataHolder.getInstance().getUserAccountStatusService();
+        if (userAccountStatusService == null) {
+            userAccountStatusService = new UserAccountStatusService();
         }
+        return userAccountStatusService;
     }
 
     private void setStepConfigAuthenticatorList(SequenceConfig effectiveSequence) {
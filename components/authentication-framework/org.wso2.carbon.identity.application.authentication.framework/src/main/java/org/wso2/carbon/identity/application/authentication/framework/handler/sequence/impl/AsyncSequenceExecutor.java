@@ -133,6 +133,7 @@ public class AsyncSequenceExecutor {
                 }
                 longWaitStatus.setStatus(LongWaitStatus.Status.COMPLETED);
                 returnFunction.accept(authenticationContext, data, result);
+                longWaitStatusStoreService.notifyCompletion(authenticationContext.getContextIdentifier());
             } catch (FrameworkException e) {
                 log.error("Error while resuming from the wait. ", e);
             } finally {
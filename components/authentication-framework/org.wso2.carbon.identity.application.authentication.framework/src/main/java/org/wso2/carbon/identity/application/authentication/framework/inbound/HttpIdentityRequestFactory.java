@@ -28,8 +28,10 @@ import org.wso2.carbon.identity.core.model.IdentityEventListenerConfig;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -76,6 +78,18 @@ public class HttpIdentityRequestFactory extends AbstractIdentityHandler {
         return true;
     }
 
+    /**
+     * Get the static selectors of the requests this factory can handle. When selectors are returned,
+     * {@link #canHandle(HttpServletRequest, HttpServletResponse)} is called only for the requests matching one of
+     * them. By default no selectors are returned and the factory is asked for every request.
+     *
+     * @return Dispatch selectors of the factory
+     */
+    public List<InboundDispatchSelector> getDispatchSelectors() {
+
+        return Collections.emptyList();
+    }
+
     public IdentityRequest.IdentityRequestBuilder create(HttpServletRequest request,
                                                          HttpServletResponse response) throws FrameworkClientException {
 
@@ -39,14 +39,26 @@ public class IdentityProcessCoordinator {
             if (log.isDebugEnabled()) {
                 log.debug("Starting to process IdentityProcessor : " + processor.getName());
             }
-            return processor.process(identityRequest).build();
+            long startTime = System.nanoTime();
+            boolean failed = true;
+            try {
+                IdentityResponse identityResponse = processor.process(identityRequest).build();
+                failed = false;
+                return identityResponse;
+            } finally {
+                FrameworkServiceDataHolder.getInstance().getIdentityProcessorMetrics()
+                        .record(processor.getName(), System.nanoTime() - startTime, failed);
+            }
         } else {
             throw new FrameworkResourceNotFoundException("No IdentityProcessor found to process the request");
         }
     }
 
     private IdentityProcessor getIdentityProcessor(IdentityRequest identityRequest) {
-        List<IdentityProcessor> processors = FrameworkServiceDataHolder.getInstance().getIdentityProcessors();
+
+        List<IdentityProcessor> processors = FrameworkServiceDataHolder.getInstance().getIdentityProcessorIndex()
+                .getCandidates(identityRequest.getMethod(), identityRequest.getPathInfo(),
+                        parameter -> identityRequest.getParameter(parameter) != null);
         for (IdentityProcessor requestProcessor : processors) {
             try {
                 if (requestProcessor.canHandle(identityRequest)) {
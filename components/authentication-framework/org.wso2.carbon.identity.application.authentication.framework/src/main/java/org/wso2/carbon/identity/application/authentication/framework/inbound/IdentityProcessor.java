@@ -43,7 +43,9 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -196,6 +198,18 @@ public abstract class IdentityProcessor extends AbstractIdentityHandler {
      */
     public abstract boolean canHandle(IdentityRequest identityRequest);
 
+    /**
+     * Get the static selectors of the requests this processor can handle. When selectors are returned,
+     * {@link #canHandle(IdentityRequest)} is called only for the requests matching one of them. By default no
+     * selectors are returned and the processor is asked for every request.
+     *
+     * @return Dispatch selectors of the processor
+     */
+    public List<InboundDispatchSelector> getDispatchSelectors() {
+
+        return Collections.emptyList();
+    }
+
     /**
      * Get IdentityResponseBuilder for framework login
      *
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.inbound;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Processing time metrics of the {@link IdentityProcessor}s, kept per processor name.
+ */
+public class IdentityProcessorMetrics {
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Record a call of a processor.
+     *
+     * @param processorName Name of the processor.
+     * @param durationNanos Time taken by the call in nanoseconds.
+     * @param failed        Whether the call ended with an exception.
+     */
+    public void record(String processorName, long durationNanos, boolean failed) {
+
+        if (processorName == null) {
+            return;
+        }
+        timers.computeIfAbsent(processorName, name -> new Timer()).record(durationNanos, failed);
+    }
+
+    /**
+     * Get a snapshot of the metrics of all the processors which have been called.
+     *
+     * @return Metrics by processor name.
+     */
+    public Map<String, ProcessorTiming> getTimings() {
+
+        Map<String, ProcessorTiming> timings = new HashMap<>();
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            timings.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableMap(timings);
+    }
+
+    /**
+     * Get a snapshot of the metrics of a processor.
+     *
+     * @param processorName Name of the processor.
+     * @return Metrics, or null if the processor has not been called.
+     */
+    public ProcessorTiming getTiming(String processorName) {
+
+        Timer timer = timers.get(processorName);
+        return timer == null ? null : timer.snapshot();
+    }
+
+    /**
+     * Clear all the metrics.
+     */
+    public void reset() {
+
+        timers.clear();
+    }
+
+    /**
+     * Processing time metrics of a processor.
+     */
+    public static class ProcessorTiming {
+
+        private final long count;
+        private final long failureCount;
+        private final long totalTimeNanos;
+        private final long maxTimeNanos;
+
+        ProcessorTiming(long count, long failureCount, long totalTimeNanos, long maxTimeNanos) {
+
+            this.count = count;
+            this.failureCount = failureCount;
+            this.totalTimeNanos = totalTimeNanos;
+            this.maxTimeNanos = maxTimeNanos;
+        }
+
+        public long getCount() {
+
+            return count;
+        }
+
+        public long getFailureCount() {
+
+            return failureCount;
+        }
+
+        public long getTotalTimeNanos() {
+
+            return totalTimeNanos;
+        }
+
+        public long getMaxTimeNanos() {
+
+            return maxTimeNanos;
+        }
+
+        public long getAverageTimeNanos() {
+
+            return count == 0 ? 0 : totalTimeNanos / count;
+        }
+    }
+
+    private static class Timer {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failureCount = new LongAdder();
+        private final LongAdder totalTimeNanos = new LongAdder();
+        private final AtomicLong maxTimeNanos = new AtomicLong();
+
+        void record(long durationNanos, boolean failed) {
+
+            count.increment();
+            if (failed) {
+                failureCount.increment();
+            }
+            totalTimeNanos.add(durationNanos);
+            maxTimeNanos.accumulateAndGet(durationNanos, Math::max);
+        }
+
+        ProcessorTiming snapshot() {
+
+            return new ProcessorTiming(count.sum(), failureCount.sum(), totalTimeNanos.sum(), maxTimeNanos.get());
+        }
+    }
+}
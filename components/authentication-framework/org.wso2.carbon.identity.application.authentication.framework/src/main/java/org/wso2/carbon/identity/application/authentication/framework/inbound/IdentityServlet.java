@@ -188,7 +188,8 @@ public class IdentityServlet extends HttpServlet {
             HttpServletResponse response) {
 
         List<HttpIdentityRequestFactory> factories = FrameworkServiceDataHolder.getInstance()
-                .getHttpIdentityRequestFactories();
+                .getHttpIdentityRequestFactoryIndex().getCandidates(request.getMethod(), request.getPathInfo(),
+                        parameter -> request.getParameter(parameter) != null);
         for (HttpIdentityRequestFactory requestBuilder : factories) {
             if (requestBuilder.canHandle(request, response)) {
                 return requestBuilder;
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.inbound;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Lookup structure built from the {@link InboundDispatchSelector}s of an ordered list of inbound handlers.
+ * <p>
+ * The selectors of each handler are indexed by path. A lookup returns, in the original handler order, the handlers
+ * with a selector matching the request and all the handlers which do not declare selectors. The caller asks the
+ * returned handlers through their {@code canHandle} methods as before, so a handler without selectors behaves as
+ * in a full scan, and a handler with selectors is skipped without calling {@code canHandle} when none of its
+ * selectors match.
+ * <p>
+ * An index is immutable. It is rebuilt when the handler list it was built from changes.
+ *
+ * @param <T> Handler type.
+ */
+public class InboundDispatchIndex<T> {
+
+    private static final Log log = LogFactory.getLog(InboundDispatchIndex.class);
+
+    private final List<T> handlers;
+    private final boolean indexed;
+    private final Map<String, List<Entry<T>>> entriesByPath;
+    private final List<Entry<T>> anyPathEntries;
+
+    private InboundDispatchIndex(List<T> handlers, boolean indexed, Map<String, List<Entry<T>>> entriesByPath,
+                                 List<Entry<T>> anyPathEntries) {
+
+        this.handlers = handlers;
+        this.indexed = indexed;
+        this.entriesByPath = entriesByPath;
+        this.anyPathEntries = anyPathEntries;
+    }
+
+    /**
+     * Build an index from the given handlers.
+     *
+     * @param handlers          Handlers in the order they should be asked.
+     * @param selectorsFunction Function which returns the selectors of a handler.
+     * @param <T>               Handler type.
+     * @return Index.
+     */
+    public static <T> InboundDispatchIndex<T> build(List<T> handlers,
+                                                    Function<T, List<InboundDispatchSelector>> selectorsFunction) {
+
+        List<T> snapshot = Collections.unmodifiableList(new ArrayList<>(handlers));
+        Map<String, List<Entry<T>>> entriesByPath = new HashMap<>();
+        List<Entry<T>> anyPathEntries = new ArrayList<>();
+        boolean indexed = false;
+
+        for (int order = 0; order < snapshot.size(); order++) {
+            T handler = snapshot.get(order);
+            List<InboundDispatchSelector> selectors = getSelectors(handler, selectorsFunction);
+            if (selectors.isEmpty()) {
+                anyPathEntries.add(new Entry<>(order, handler, null));
+                continue;
+            }
+            indexed = true;
+            for (InboundDispatchSelector selector : selectors) {
+                Entry<T> entry = new Entry<>(order, handler, selector);
+                if (selector.getPath() == null) {
+                    anyPathEntries.add(entry);
+                } else {
+                    entriesByPath.computeIfAbsent(selector.getPath(), path -> new ArrayList<>()).add(entry);
+                }
+            }
+        }
+        return new InboundDispatchIndex<>(snapshot, indexed, entriesByPath, anyPathEntries);
+    }
+
+    /**
+     * Get the handlers to be asked for a request, in the original handler order.
+     *
+     * @param method       HTTP method of the request.
+     * @param path         Path info of the request.
+     * @param hasParameter Predicate which tells whether the request has a parameter.
+     * @return Candidate handlers.
+     */
+    public List<T> getCandidates(String method, String path, Predicate<String> hasParameter) {
+
+        if (!indexed) {
+            return handlers;
+        }
+        List<Entry<T>> pathEntries = path == null ? null : entriesByPath.get(path);
+        if (pathEntries == null) {
+            pathEntries = Collections.emptyList();
+        }
+
+        // Both entry lists are in handler order, so merge them and keep each handler once.
+        List<T> candidates = new ArrayList<>();
+        int lastOrder = -1;
+        int i = 0;
+        int j = 0;
+        while (i < pathEntries.size() || j < anyPathEntries.size()) {
+            Entry<T> entry;
+            if (j >= anyPathEntries.size()
+                    || (i < pathEntries.size() && pathEntries.get(i).order <= anyPathEntries.get(j).order)) {
+                entry = pathEntries.get(i++);
+            } else {
+                entry = anyPathEntries.get(j++);
+            }
+            if (entry.order == lastOrder) {
+                continue;
+            }
+            if (entry.selector == null || entry.selector.matches(method, hasParameter)) {
+                candidates.add(entry.handler);
+                lastOrder = entry.order;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Get all the handlers of this index, in order.
+     *
+     * @return Handlers.
+     */
+    public List<T> getHandlers() {
+
+        return handlers;
+    }
+
+    private static <T> List<InboundDispatchSelector> getSelectors(
+            T handler, Function<T, List<InboundDispatchSelector>> selectorsFunction) {
+
+        try {
+            List<InboundDispatchSelector> selectors = selectorsFunction.apply(handler);
+            return selectors == null ? Collections.emptyList() : selectors;
+        } catch (RuntimeException e) {
+            log.error("Error while reading the dispatch selectors of " + handler.getClass().getName() +
+                    ". The handler will be asked for every request.", e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static class Entry<T> {
+
+        private final int order;
+        private final T handler;
+        private final InboundDispatchSelector selector;
+
+        Entry(int order, T handler, InboundDispatchSelector selector) {
+
+            this.order = order;
+            this.handler = handler;
+            this.selector = selector;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.inbound;
+
+import java.util.function.Predicate;
+
+/**
+ * Static description of the requests an inbound handler can handle. A selector matches a request when the path
+ * info of the request is equal to the path, the HTTP method is equal to the method and the request has the
+ * parameter. A selector property which is not set matches any request.
+ * <p>
+ * Selectors only narrow down the handlers which are asked whether they can handle a request. A handler whose
+ * selector matches is still asked through its {@code canHandle} method.
+ */
+public class InboundDispatchSelector {
+
+    private final String path;
+    private final String method;
+    private final String parameter;
+
+    private InboundDispatchSelector(String path, String method, String parameter) {
+
+        this.path = path;
+        this.method = method;
+        this.parameter = parameter;
+    }
+
+    /**
+     * Create a selector.
+     *
+     * @param path      Path info of the request, or null to match any path.
+     * @param method    HTTP method of the request, or null to match any method.
+     * @param parameter Name of a parameter the request must have, or null.
+     * @return Selector.
+     */
+    public static InboundDispatchSelector of(String path, String method, String parameter) {
+
+        return new InboundDispatchSelector(path, method, parameter);
+    }
+
+    /**
+     * Create a selector which matches any request to the given path.
+     *
+     * @param path Path info of the request.
+     * @return Selector.
+     */
+    public static InboundDispatchSelector forPath(String path) {
+
+        return new InboundDispatchSelector(path, null, null);
+    }
+
+    public String getPath() {
+
+        return path;
+    }
+
+    public String getMethod() {
+
+        return method;
+    }
+
+    public String getParameter() {
+
+        return parameter;
+    }
+
+    /**
+     * Check whether the method and the parameter of this selector match a request. The path is matched by the
+     * {@link InboundDispatchIndex}.
+     *
+     * @param requestMethod HTTP method of the request.
+     * @param hasParameter  Predicate which tells whether the request has a parameter.
+     * @return True if the selector matches.
+     */
+    boolean matches(String requestMethod, Predicate<String> hasParameter) {
+
+        if (method != null && !method.equalsIgnoreCase(requestMethod)) {
+            return false;
+        }
+        return parameter == null || hasParameter.test(parameter);
+    }
+
+    @Override
+    public String toString() {
+
+        return "InboundDispatchSelector{path='" + path + "', method='" + method + "', parameter='" + parameter +
+                "'}";
+    }
+}
@@ -73,6 +73,7 @@ import org.wso2.carbon.identity.application.authentication.framework.inbound.Fra
 import org.wso2.carbon.identity.application.authentication.framework.inbound.HttpIdentityRequestFactory;
 import org.wso2.carbon.identity.application.authentication.framework.inbound.HttpIdentityResponseFactory;
 import org.wso2.carbon.identity.application.authentication.framework.inbound.IdentityProcessor;
+import org.wso2.carbon.identity.application.authentication.framework.inbound.IdentityProcessorMetrics;
 import org.wso2.carbon.identity.application.authentication.framework.inbound.IdentityServlet;
 import org.wso2.carbon.identity.application.authentication.framework.internal.impl.AuthenticationMethodNameTranslatorImpl;
 import org.wso2.carbon.identity.application.authentication.framework.internal.impl.ServerSessionManagementServiceImpl;
@@ -80,6 +81,7 @@ import org.wso2.carbon.identity.application.authentication.framework.internal.im
 import org.wso2.carbon.identity.application.authentication.framework.listener.AuthenticationEndpointTenantActivityListener;
 import org.wso2.carbon.identity.application.authentication.framework.listener.SessionContextMgtListener;
 import org.wso2.carbon.identity.application.authentication.framework.services.PostAuthenticationMgtService;
+import org.wso2.carbon.identity.application.authentication.framework.services.UserAccountStatusService;
 import org.wso2.carbon.identity.application.authentication.framework.servlet.CommonAuthenticationServlet;
 import org.wso2.carbon.identity.application.authentication.framework.servlet.LoginContextServlet;
 import org.wso2.carbon.identity.application.authentication.framework.servlet.LongWaitStatusServlet;
@@ -212,6 +214,8 @@ public class FrameworkServiceComponent {
 
         bundleContext.registerService(ApplicationRolesResolver.class.getName(), new AppAssociatedRolesResolverImpl(),
                 null);
+        bundleContext.registerService(IdentityProcessorMetrics.class.getName(),
+                dataHolder.getIdentityProcessorMetrics(), null);
 
         ServerSessionManagementService serverSessionManagementService = new ServerSessionManagementServiceImpl();
         bundleContext.registerService(ServerSessionManagementService.class.getName(),
@@ -271,6 +275,7 @@ public class FrameworkServiceComponent {
 
         dataHolder.setBundleContext(bundleContext);
         dataHolder.getHttpIdentityRequestFactories().add(new HttpIdentityRequestFactory());
+        dataHolder.rebuildHttpIdentityRequestFactoryIndex();
         dataHolder.getHttpIdentityResponseFactories().add(new FrameworkLoginResponseFactory());
         dataHolder.getHttpIdentityResponseFactories().add(new FrameworkLogoutResponseFactory());
         UIBasedConfigurationLoader uiBasedConfigurationLoader = new UIBasedConfigurationLoader();
@@ -290,6 +295,9 @@ public class FrameworkServiceComponent {
         PostAuthenticationMgtService postAuthenticationMgtService = new PostAuthenticationMgtService();
         bundleContext.registerService(PostAuthenticationMgtService.class.getName(), postAuthenticationMgtService, null);
         dataHolder.setPostAuthenticationMgtService(postAuthenticationMgtService);
+        UserAccountStatusService userAccountStatusService = new UserAccountStatusService();
+        bundleContext.registerService(UserAccountStatusService.class.getName(), userAccountStatusService, null);
+        dataHolder.setUserAccountStatusService(userAccountStatusService);
         // Registering missing mandatory claim handler as a post authn handler
         PostAuthenticationHandler postAuthnMissingClaimHandler = new PostAuthnMissingClaimHandler();
         bundleContext.registerService(PostAuthenticationHandler.class.getName(), postAuthnMissingClaimHandler, null);
@@ -611,6 +619,7 @@ public class FrameworkServiceComponent {
         Collections.sort(FrameworkServiceDataHolder.getInstance().getIdentityProcessors(),
                 new HandlerComparator());
         Collections.reverse(FrameworkServiceDataHolder.getInstance().getIdentityProcessors());
+        FrameworkServiceDataHolder.getInstance().rebuildIdentityProcessorIndex();
         if (log.isDebugEnabled()) {
             log.debug("Added IdentityProcessor : " + requestProcessor.getName());
         }
@@ -619,6 +628,7 @@ public class FrameworkServiceComponent {
     protected void removeIdentityProcessor(IdentityProcessor requestProcessor) {
 
         FrameworkServiceDataHolder.getInstance().getIdentityProcessors().remove(requestProcessor);
+        FrameworkServiceDataHolder.getInstance().rebuildIdentityProcessorIndex();
 
         if (log.isDebugEnabled()) {
             log.debug("Removed IdentityProcessor : " + requestProcessor.getName());
@@ -638,6 +648,7 @@ public class FrameworkServiceComponent {
         Collections.sort(FrameworkServiceDataHolder.getInstance().getHttpIdentityRequestFactories(),
                 new HandlerComparator());
         Collections.reverse(FrameworkServiceDataHolder.getInstance().getHttpIdentityRequestFactories());
+        FrameworkServiceDataHolder.getInstance().rebuildHttpIdentityRequestFactoryIndex();
         if (log.isDebugEnabled()) {
             log.debug("Added HttpIdentityRequestFactory : " + factory.getName());
         }
@@ -646,6 +657,7 @@ public class FrameworkServiceComponent {
     protected void removeHttpIdentityRequestFactory(HttpIdentityRequestFactory factory) {
 
         FrameworkServiceDataHolder.getInstance().getHttpIdentityRequestFactories().remove(factory);
+        FrameworkServiceDataHolder.getInstance().rebuildHttpIdentityRequestFactoryIndex();
         if (log.isDebugEnabled()) {
             log.debug("Removed HttpIdentityRequestFactory : " + factory.getName());
         }
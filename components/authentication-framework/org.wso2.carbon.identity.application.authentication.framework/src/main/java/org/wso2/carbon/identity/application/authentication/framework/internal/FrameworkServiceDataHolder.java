@@ -40,8 +40,11 @@ import org.wso2.carbon.identity.application.authentication.framework.handler.seq
 import org.wso2.carbon.identity.application.authentication.framework.inbound.HttpIdentityRequestFactory;
 import org.wso2.carbon.identity.application.authentication.framework.inbound.HttpIdentityResponseFactory;
 import org.wso2.carbon.identity.application.authentication.framework.inbound.IdentityProcessor;
+import org.wso2.carbon.identity.application.authentication.framework.inbound.IdentityProcessorMetrics;
+import org.wso2.carbon.identity.application.authentication.framework.inbound.InboundDispatchIndex;
 import org.wso2.carbon.identity.application.authentication.framework.listener.SessionContextMgtListener;
 import org.wso2.carbon.identity.application.authentication.framework.services.PostAuthenticationMgtService;
+import org.wso2.carbon.identity.application.authentication.framework.services.UserAccountStatusService;
 import org.wso2.carbon.identity.application.authentication.framework.store.LongWaitStatusStoreService;
 import org.wso2.carbon.identity.application.authentication.framework.store.SessionSerializer;
 import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
@@ -81,12 +84,18 @@ public class FrameworkServiceDataHolder {
     private List<IdentityProcessor> identityProcessors = new ArrayList<>();
     private List<HttpIdentityRequestFactory> httpIdentityRequestFactories = new ArrayList<>();
     private List<HttpIdentityResponseFactory> httpIdentityResponseFactories = new ArrayList<>();
+    private volatile InboundDispatchIndex<IdentityProcessor> identityProcessorIndex =
+            InboundDispatchIndex.build(identityProcessors, IdentityProcessor::getDispatchSelectors);
+    private volatile InboundDispatchIndex<HttpIdentityRequestFactory> httpIdentityRequestFactoryIndex =
+            InboundDispatchIndex.build(httpIdentityRequestFactories, HttpIdentityRequestFactory::getDispatchSelectors);
+    private final IdentityProcessorMetrics identityProcessorMetrics = new IdentityProcessorMetrics();
     private AuthenticationDataPublisher authnDataPublisherProxy = null;
     private SequenceLoader sequenceLoader = null;
     private JsBaseGraphBuilderFactory jsGraphBuilderFactory;
     private AuthenticationMethodNameTranslator authenticationMethodNameTranslator;
     private List<PostAuthenticationHandler> postAuthenticationHandlers = new ArrayList<>();
     private PostAuthenticationMgtService postAuthenticationMgtService = null;
+    private UserAccountStatusService userAccountStatusService = null;
     private ConsentManager consentManager = null;
     private ClaimMetadataManagementService claimMetadataManagementService = null;
     private SSOConsentService ssoConsentService;
@@ -251,6 +260,53 @@ public class FrameworkServiceDataHolder {
         return httpIdentityResponseFactories;
     }
 
+    /**
+     * Get the dispatch index of the identity processors, as built by the last
+     * {@link #rebuildIdentityProcessorIndex()}.
+     *
+     * @return Dispatch index of the identity processors.
+     */
+    public InboundDispatchIndex<IdentityProcessor> getIdentityProcessorIndex() {
+
+        return identityProcessorIndex;
+    }
+
+    /**
+     * Rebuild the dispatch index of the identity processors. This should be called whenever the processor list is
+     * changed.
+     */
+    public void rebuildIdentityProcessorIndex() {
+
+        identityProcessorIndex = InboundDispatchIndex.build(identityProcessors,
+                IdentityProcessor::getDispatchSelectors);
+    }
+
+    /**
+     * Get the dispatch index of the HTTP identity request factories, as built by the last
+     * {@link #rebuildHttpIdentityRequestFactoryIndex()}.
+     *
+     * @return Dispatch index of the HTTP identity request factories.
+     */
+    public InboundDispatchIndex<HttpIdentityRequestFactory> getHttpIdentityRequestFactoryIndex() {
+
+        return httpIdentityRequestFactoryIndex;
+    }
+
+    /**
+     * Rebuild the dispatch index of the HTTP identity request factories. This should be called whenever the factory
+     * list is changed.
+     */
+    public void rebuildHttpIdentityRequestFactoryIndex() {
+
+        httpIdentityRequestFactoryIndex = InboundDispatchIndex.build(httpIdentityRequestFactories,
+                HttpIdentityRequestFactory::getDispatchSelectors);
+    }
+
+    public IdentityProcessorMetrics getIdentityProcessorMetrics() {
+
+        return identityProcessorMetrics;
+    }
+
     public AuthenticationDataPublisher getAuthnDataPublisherProxy() {
 
         return authnDataPublisherProxy;
@@ -345,6 +401,26 @@ public class FrameworkServiceDataHolder {
         this.postAuthenticationMgtService = postAuthenticationMgtService;
     }
 
+    /**
+     * Get user account status service.
+     *
+     * @return User account status service.
+     */
+    public UserAccountStatusService getUserAccountStatusService() {
+
+        return userAccountStatusService;
+    }
+
+    /**
+     * Set user account status service.
+     *
+     * @param userAccountStatusService User account status service.
+     */
+    public void setUserAccountStatusService(UserAccountStatusService userAccountStatusService) {
+
+        this.userAccountStatusService = userAccountStatusService;
+    }
+
     /**
      * Get {@link ConsentManager} service.
      *
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.model;
+
+import java.io.Serializable;
+
+/**
+ * Account status of a local user, as resolved by
+ * {@link org.wso2.carbon.identity.application.authentication.framework.services.UserAccountStatusService}.
+ */
+public class UserAccountStatus implements Serializable {
+
+    private static final long serialVersionUID = -3419627350718735209L;
+
+    private final boolean existing;
+    private final boolean disabled;
+    private final boolean locked;
+    private final long unlockTime;
+
+    public UserAccountStatus(boolean existing, boolean disabled, boolean locked, long unlockTime) {
+
+        this.existing = existing;
+        this.disabled = disabled;
+        this.locked = locked;
+        this.unlockTime = unlockTime;
+    }
+
+    /**
+     * Whether the user exists in the user store.
+     *
+     * @return True if the user exists.
+     */
+    public boolean isExisting() {
+
+        return existing;
+    }
+
+    /**
+     * Whether the account is disabled. This is false when account disabling is not enabled for the tenant.
+     *
+     * @return True if the account is disabled.
+     */
+    public boolean isDisabled() {
+
+        return disabled;
+    }
+
+    /**
+     * Whether the account locked claim of the user is set. Use {@link #isLockedAt(long)} to take the unlock time
+     * into account.
+     *
+     * @return True if the account locked claim is set.
+     */
+    public boolean isLocked() {
+
+        return locked;
+    }
+
+    /**
+     * Get the time the account is unlocked at, in milliseconds since the epoch, or 0 if it is not set.
+     *
+     * @return Unlock time.
+     */
+    public long getUnlockTime() {
+
+        return unlockTime;
+    }
+
+    /**
+     * Whether the account is locked at the given time. A locked account with an unlock time which has passed is
+     * not locked.
+     *
+     * @param currentTimeMillis Time to check, in milliseconds since the epoch.
+     * @return True if the account is locked at the given time.
+     */
+    public boolean isLockedAt(long currentTimeMillis) {
+
+        if (!locked) {
+            return false;
+        }
+        return unlockTime == 0 || currentTimeMillis < unlockTime;
+    }
+
+    /**
+     * Whether the user is allowed to log in, i.e. the user exists and the account is neither disabled nor locked.
+     *
+     * @return True if the user is allowed to log in.
+     */
+    public boolean isAllowedToLogin() {
+
+        return existing && !disabled && !isLockedAt(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.services;
+
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+import org.wso2.carbon.identity.application.authentication.framework.internal.FrameworkServiceDataHolder;
+import org.wso2.carbon.identity.application.authentication.framework.model.UserAccountStatus;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
+import org.wso2.carbon.identity.application.common.model.Property;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.user.api.UserStoreException;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.UserRealm;
+import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ACCOUNT_DISABLED_CLAIM_URI;
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ACCOUNT_LOCKED_CLAIM_URI;
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ACCOUNT_UNLOCK_TIME_CLAIM;
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ResidentIdpPropertyName.ACCOUNT_DISABLE_HANDLER_ENABLE_PROPERTY;
+
+/**
+ * Resolves the account status of local users. The disabled, locked and unlock time claims are read from the user
+ * store in one call, and the account disabling configuration of the tenant is read only for users whose disabled
+ * claim is set.
+ */
+public class UserAccountStatusService {
+
+    private static final Log log = LogFactory.getLog(UserAccountStatusService.class);
+    private static final String ACCOUNT_STATUS_REQUEST_ATTRIBUTE =
+            UserAccountStatusService.class.getName() + ".accountStatuses";
+
+    /**
+     * Resolve the account status of a user.
+     *
+     * @param userId       Unique id of the user.
+     * @param tenantDomain Tenant domain of the user.
+     * @return Account status of the user.
+     * @throws FrameworkException If the user store or the resident IdP configuration cannot be read.
+     */
+    public UserAccountStatus getAccountStatus(String userId, String tenantDomain) throws FrameworkException {
+
+        int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+        try {
+            UserRealm userRealm = (UserRealm) FrameworkServiceDataHolder.getInstance().getRealmService()
+                    .getTenantUserRealm(tenantId);
+            AbstractUserStoreManager userStoreManager = (AbstractUserStoreManager) userRealm.getUserStoreManager();
+            if (!userStoreManager.isExistingUserWithID(userId)) {
+                return new UserAccountStatus(false, false, false, 0);
+            }
+
+            Map<String, String> claimValues = userStoreManager.getUserClaimValuesWithID(userId,
+                    new String[]{ACCOUNT_DISABLED_CLAIM_URI, ACCOUNT_LOCKED_CLAIM_URI, ACCOUNT_UNLOCK_TIME_CLAIM},
+                    UserCoreConstants.DEFAULT_PROFILE);
+            if (claimValues == null) {
+                claimValues = Collections.emptyMap();
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Account status claim values of user %s are set to: %s", userId,
+                        claimValues));
+            }
+
+            boolean disabled = Boolean.parseBoolean(claimValues.get(ACCOUNT_DISABLED_CLAIM_URI))
+                    && isAccountDisablingEnabled(tenantDomain);
+            boolean locked = Boolean.parseBoolean(claimValues.get(ACCOUNT_LOCKED_CLAIM_URI));
+            long unlockTime = 0;
+            String unlockTimeClaimValue = claimValues.get(ACCOUNT_UNLOCK_TIME_CLAIM);
+            if (NumberUtils.isNumber(unlockTimeClaimValue)) {
+                unlockTime = Long.parseLong(unlockTimeClaimValue);
+            }
+            return new UserAccountStatus(true, disabled, locked, unlockTime);
+        } catch (UserStoreException e) {
+            throw new FrameworkException("Error occurred while retrieving the account status of user: " + userId, e);
+        }
+    }
+
+    /**
+     * Resolve the account status of a user once per request. The status is kept as a request attribute, so later
+     * calls for the same user in the same request do not read the user store again.
+     *
+     * @param userId       Unique id of the user.
+     * @param tenantDomain Tenant domain of the user.
+     * @param request      Current request, or null to resolve without reuse.
+     * @return Account status of the user.
+     * @throws FrameworkException If the user store or the resident IdP configuration cannot be read.
+     */
+    public UserAccountStatus getAccountStatus(String userId, String tenantDomain, HttpServletRequest request)
+            throws FrameworkException {
+
+        if (request == null) {
+            return getAccountStatus(userId, tenantDomain);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, UserAccountStatus> accountStatuses =
+                (Map<String, UserAccountStatus>) request.getAttribute(ACCOUNT_STATUS_REQUEST_ATTRIBUTE);
+        if (accountStatuses == null) {
+            accountStatuses = new HashMap<>();
+            request.setAttribute(ACCOUNT_STATUS_REQUEST_ATTRIBUTE, accountStatuses);
+        }
+        String key = tenantDomain + "/" + userId;
+        UserAccountStatus accountStatus = accountStatuses.get(key);
+        if (accountStatus == null) {
+            accountStatus = getAccountStatus(userId, tenantDomain);
+            accountStatuses.put(key, accountStatus);
+        }
+        return accountStatus;
+    }
+
+    private boolean isAccountDisablingEnabled(String tenantDomain) throws FrameworkException {
+
+        Property accountDisableConfigProperty = FrameworkUtils.getResidentIdpConfiguration(
+                ACCOUNT_DISABLE_HANDLER_ENABLE_PROPERTY, tenantDomain);
+
+        return accountDisableConfigProperty != null && Boolean.parseBoolean(accountDisableConfigProperty.getValue());
+    }
+}
@@ -19,30 +19,65 @@
 package org.wso2.carbon.identity.application.authentication.framework.servlet;
 
 import com.google.gson.Gson;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
 import org.wso2.carbon.identity.application.authentication.framework.internal.FrameworkServiceDataHolder;
 import org.wso2.carbon.identity.application.authentication.framework.javascript.flow.LongWaitStatusRequest;
 import org.wso2.carbon.identity.application.authentication.framework.javascript.flow.LongWaitStatusResponse;
 import org.wso2.carbon.identity.application.authentication.framework.model.LongWaitStatus;
+import org.wso2.carbon.identity.application.authentication.framework.store.LongWaitCompletionNotifier;
 import org.wso2.carbon.identity.application.authentication.framework.store.LongWaitStatusStoreService;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.AdaptiveAuthentication.ADAPTIVE_AUTH_LONG_WAIT_STATUS_PARK_TIMEOUT;
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.AdaptiveAuthentication.DEFAULT_LONG_WAIT_STATUS_PARK_TIMEOUT;
+
 /**
  * Servlet to get the status of long wait process.
+ * When the container supports asynchronous requests, a request for a wait which is still in progress is parked
+ * until the wait completes on this node, the wait is changed by another node, or the park timeout is reached.
+ * The request thread is released while the request is parked. A parked request which times out is answered with
+ * the waiting status, so the client polls again as it does without parking.
  */
 public class LongWaitStatusServlet extends HttpServlet {
 
     private static final long serialVersionUID = -3714283612680472526L;
+    private static final Log log = LogFactory.getLog(LongWaitStatusServlet.class);
     private static final String PROP_WAITING_ID = "waitingId";
+    private static final Gson GSON = new Gson();
+
+    private long parkTimeout = DEFAULT_LONG_WAIT_STATUS_PARK_TIMEOUT;
+
+    @Override
+    public void init() throws ServletException {
+
+        String parkTimeoutValue = IdentityUtil.getProperty(ADAPTIVE_AUTH_LONG_WAIT_STATUS_PARK_TIMEOUT);
+        if (parkTimeoutValue != null) {
+            try {
+                parkTimeout = Long.parseLong(parkTimeoutValue.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Error while reading the long wait status park timeout. Default value of " +
+                        DEFAULT_LONG_WAIT_STATUS_PARK_TIMEOUT + " milliseconds will be used.", e);
+            }
+        }
+    }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
@@ -62,10 +97,11 @@ public class LongWaitStatusServlet extends HttpServlet {
         if (id == null) {
             if (request.getContentType() != null && request.getContentType().startsWith
                     (FrameworkConstants.ContentTypes.TYPE_APPLICATION_JSON)) {
-                Gson gson = new Gson();
-                LongWaitStatusRequest longWaitStatusRequest = gson.fromJson(request.getReader(),
+                LongWaitStatusRequest longWaitStatusRequest = GSON.fromJson(request.getReader(),
                                                                             LongWaitStatusRequest.class);
-                id = longWaitStatusRequest.getWaitId();
+                if (longWaitStatusRequest != null) {
+                    id = longWaitStatusRequest.getWaitId();
+                }
             }
         }
 
@@ -80,33 +116,145 @@ public class LongWaitStatusServlet extends HttpServlet {
             if (longWaitStatusStoreService == null) {
                 response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             } else {
-                LongWaitStatus longWaitStatus = null;
-                try {
-                    longWaitStatus = longWaitStatusStoreService.getWait(id);
-                } catch (FrameworkException e) {
-                    response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-                }
-                if (longWaitStatus == null) {
-                    longWaitResponse.setStatus(LongWaitStatus.Status.COMPLETED.name());
-                } else {
-                    if (longWaitStatus.getStatus() != null) {
-                        if (longWaitStatus.getStatus() == LongWaitStatus.Status.UNKNOWN) {
-                            longWaitResponse.setStatus(LongWaitStatus.Status.COMPLETED.name());
-                        } else {
-                            longWaitResponse.setStatus(longWaitStatus.getStatus().name());
-                        }
-                    } else {
-                        longWaitResponse.setStatus(LongWaitStatus.Status.COMPLETED.name());
-                    }
+                LongWaitStatus.Status status = resolveStatus(longWaitStatusStoreService, id, response);
+                if (status == LongWaitStatus.Status.WAITING && isParkingAllowed(request)) {
+                    park(request, longWaitStatusStoreService, id);
+                    return;
                 }
+                longWaitResponse.setStatus(status.name());
             }
         }
 
+        writeResponse(response, longWaitResponse);
+    }
+
+    private LongWaitStatus.Status resolveStatus(LongWaitStatusStoreService longWaitStatusStoreService, String id,
+                                                HttpServletResponse response) {
+
+        LongWaitStatus longWaitStatus = null;
+        try {
+            longWaitStatus = longWaitStatusStoreService.getWait(id);
+        } catch (FrameworkException e) {
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+        if (longWaitStatus == null || longWaitStatus.getStatus() == null
+                || longWaitStatus.getStatus() == LongWaitStatus.Status.UNKNOWN) {
+            return LongWaitStatus.Status.COMPLETED;
+        }
+        return longWaitStatus.getStatus();
+    }
+
+    private boolean isParkingAllowed(HttpServletRequest request) {
+
+        return parkTimeout > 0 && request.isAsyncSupported() && !request.isAsyncStarted();
+    }
+
+    private void park(HttpServletRequest request, LongWaitStatusStoreService longWaitStatusStoreService, String id) {
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(parkTimeout);
+        LongWaitCompletionNotifier notifier = longWaitStatusStoreService.getCompletionNotifier();
+        ParkedStatusRequest parkedRequest = new ParkedStatusRequest(asyncContext, notifier, id);
+        asyncContext.addListener(parkedRequest);
+        notifier.register(id, parkedRequest);
+
+        // The wait may have completed between the first status read and the registration, in which case the
+        // notification has already been sent. Read the status once more so that the completion is not missed.
+        LongWaitStatus.Status status = resolveStatus(longWaitStatusStoreService, id,
+                (HttpServletResponse) asyncContext.getResponse());
+        if (status != LongWaitStatus.Status.WAITING) {
+            notifier.unregister(id, parkedRequest);
+            parkedRequest.accept(status);
+        }
+    }
+
+    private static void writeResponse(ServletResponse response, LongWaitStatusResponse longWaitResponse)
+            throws IOException {
+
         response.setContentType(FrameworkConstants.ContentTypes.TYPE_APPLICATION_JSON);
-        String json = new Gson().toJson(longWaitResponse);
+        String json = GSON.toJson(longWaitResponse);
         try (PrintWriter out = response.getWriter()) {
             out.print(json);
             out.flush();
         }
     }
+
+    /**
+     * A status request parked until its long wait changes. The request is answered only once, by whichever of the
+     * notification, the timeout or the error comes first.
+     */
+    private static class ParkedStatusRequest implements Consumer<LongWaitStatus.Status>, AsyncListener {
+
+        private final AsyncContext asyncContext;
+        private final LongWaitCompletionNotifier notifier;
+        private final String waitId;
+        private final AtomicBoolean answered = new AtomicBoolean(false);
+
+        ParkedStatusRequest(AsyncContext asyncContext, LongWaitCompletionNotifier notifier, String waitId) {
+
+            this.asyncContext = asyncContext;
+            this.notifier = notifier;
+            this.waitId = waitId;
+        }
+
+        @Override
+        public void accept(LongWaitStatus.Status status) {
+
+            if (!answered.compareAndSet(false, true)) {
+                return;
+            }
+            LongWaitStatusResponse longWaitResponse = new LongWaitStatusResponse();
+            longWaitResponse.setWaitId(waitId);
+            longWaitResponse.setStatus(status.name());
+            try {
+                writeResponse(asyncContext.getResponse(), longWaitResponse);
+            } catch (IOException | IllegalStateException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Error while writing the status of the long wait: " + waitId, e);
+                }
+            } finally {
+                try {
+                    asyncContext.complete();
+                } catch (IllegalStateException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("The status request of the long wait: " + waitId + " is already completed.", e);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+
+            notifier.unregister(waitId, this);
+            accept(LongWaitStatus.Status.WAITING);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+
+            notifier.unregister(waitId, this);
+            if (answered.compareAndSet(false, true)) {
+                try {
+                    asyncContext.complete();
+                } catch (IllegalStateException e) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("The status request of the long wait: " + waitId + " is already completed.", e);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+
+            notifier.unregister(waitId, this);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+
+            // Not restarted by this servlet.
+        }
+    }
 }
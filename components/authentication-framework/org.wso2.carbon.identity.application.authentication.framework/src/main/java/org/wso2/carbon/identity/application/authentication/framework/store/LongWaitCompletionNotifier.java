@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.store;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authentication.framework.model.LongWaitStatus;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the listeners waiting on long wait processes of this node and notifies them when a wait changes.
+ * Listeners are removed once they are notified, so each listener is called at most once.
+ */
+public class LongWaitCompletionNotifier {
+
+    private static final Log log = LogFactory.getLog(LongWaitCompletionNotifier.class);
+
+    private final ConcurrentMap<String, Set<Consumer<LongWaitStatus.Status>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Register a listener for the given wait. The listener set of a wait is only modified inside the map's atomic
+     * compute operations, so a listener is either notified or still registered, never lost in between.
+     *
+     * @param waitKey  Long wait key.
+     * @param listener Listener called with the status of the wait.
+     */
+    public void register(String waitKey, Consumer<LongWaitStatus.Status> listener) {
+
+        listeners.compute(waitKey, (key, waitListeners) -> {
+            if (waitListeners == null) {
+                waitListeners = new HashSet<>();
+            }
+            waitListeners.add(listener);
+            return waitListeners;
+        });
+    }
+
+    /**
+     * Remove a listener that is no longer waiting, e.g. on a timeout or a closed connection.
+     *
+     * @param waitKey  Long wait key.
+     * @param listener Listener to remove.
+     */
+    public void unregister(String waitKey, Consumer<LongWaitStatus.Status> listener) {
+
+        listeners.computeIfPresent(waitKey, (key, waitListeners) -> {
+            waitListeners.remove(listener);
+            return waitListeners.isEmpty() ? null : waitListeners;
+        });
+    }
+
+    /**
+     * Notify the listeners of the given wait that the wait is completed.
+     *
+     * @param waitKey Long wait key.
+     */
+    public void notifyCompletion(String waitKey) {
+
+        notifyListeners(waitKey, LongWaitStatus.Status.COMPLETED);
+    }
+
+    /**
+     * Release the listeners of the given wait without a final status. This is used when the wait is changed by
+     * another node, where the listeners should read the status again from the store.
+     *
+     * @param waitKey Long wait key.
+     */
+    public void release(String waitKey) {
+
+        notifyListeners(waitKey, LongWaitStatus.Status.WAITING);
+    }
+
+    /**
+     * Get the number of waits which have registered listeners.
+     *
+     * @return Number of waits with listeners.
+     */
+    public int getWaitCount() {
+
+        return listeners.size();
+    }
+
+    private void notifyListeners(String waitKey, LongWaitStatus.Status status) {
+
+        if (waitKey == null) {
+            return;
+        }
+        Set<Consumer<LongWaitStatus.Status>> waitListeners = listeners.remove(waitKey);
+        if (waitListeners == null) {
+            return;
+        }
+        for (Consumer<LongWaitStatus.Status> listener : Collections.unmodifiableSet(waitListeners)) {
+            try {
+                listener.accept(status);
+            } catch (RuntimeException e) {
+                log.error("Error while notifying the status of the long wait: " + waitKey, e);
+            }
+        }
+    }
+}
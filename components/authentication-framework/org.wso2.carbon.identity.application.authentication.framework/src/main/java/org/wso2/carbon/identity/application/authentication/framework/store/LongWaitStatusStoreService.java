@@ -32,6 +32,7 @@ public class LongWaitStatusStoreService {
 
     private LongWaitStatusDAO statusDAO;
     private int connectionTimeout;
+    private final LongWaitCompletionNotifier completionNotifier = new LongWaitCompletionNotifier();
 
     public LongWaitStatusStoreService(LongWaitStatusDAO statusDAO, int connectionTimeout) {
 
@@ -45,6 +46,9 @@ public class LongWaitStatusStoreService {
         Timestamp createdTime = new Timestamp(now.getTime());
         Timestamp expireTime = new Timestamp(now.getTime() + connectionTimeout);
         statusDAO.addWaitStatus(tenantId, sessionId, longWaitStatus, createdTime, expireTime);
+        if (longWaitStatus != null && longWaitStatus.getStatus() != LongWaitStatus.Status.WAITING) {
+            completionNotifier.notifyCompletion(sessionId);
+        }
     }
 
     public LongWaitStatus getWait(String sessionId) throws FrameworkException {
@@ -55,5 +59,21 @@ public class LongWaitStatusStoreService {
     public void removeWait(String sessionId) throws FrameworkException {
 
         statusDAO.removeWaitStatus(sessionId);
+        completionNotifier.notifyCompletion(sessionId);
+    }
+
+    /**
+     * Notify the requests waiting on this node that the given long wait is completed.
+     *
+     * @param sessionId Long wait key.
+     */
+    public void notifyCompletion(String sessionId) {
+
+        completionNotifier.notifyCompletion(sessionId);
+    }
+
+    public LongWaitCompletionNotifier getCompletionNotifier() {
+
+        return completionNotifier;
     }
 }
@@ -284,6 +284,8 @@ public abstract class FrameworkConstants {
                 + ".ReturnOnlyMappedLocalRoles";
         public static final String SEND_MANUALLY_ADDED_LOCAL_ROLES_OF_IDP = "FederatedRoleManagement"
                 + ".ReturnManuallyAddedLocalRoles";
+        public static final String CLAIM_PROJECTION_ENABLED = "ClaimProjection.Enable";
+        public static final String CLAIM_PROJECTION_ADDITIONAL_CLAIMS = "ClaimProjection.AdditionalClaims";
 
         /**
          * Configuration name for setting the url for receiving tenant list upon any modification to a tenant
@@ -649,6 +651,9 @@ public abstract class FrameworkConstants {
     public static class AdaptiveAuthentication {
 
         public static final String ADAPTIVE_AUTH_LONG_WAIT_TIMEOUT = "AdaptiveAuth.LongWaitTimeout";
+        public static final String ADAPTIVE_AUTH_LONG_WAIT_STATUS_PARK_TIMEOUT =
+                "AdaptiveAuth.LongWaitStatusParkTimeout";
+        public static final long DEFAULT_LONG_WAIT_STATUS_PARK_TIMEOUT = 20000L;
         public static final String CONF_EXECUTION_SUPERVISOR_ENABLE =
                 "AdaptiveAuth.ExecutionSupervisor.Enable";
         public static final String CONF_EXECUTION_SUPERVISOR_THREAD_COUNT =
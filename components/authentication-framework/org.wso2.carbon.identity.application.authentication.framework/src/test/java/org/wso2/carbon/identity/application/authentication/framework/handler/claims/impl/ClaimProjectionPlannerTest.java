@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.handler.claims.impl;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.config.model.ApplicationConfig;
+import org.wso2.carbon.identity.application.common.model.LocalAndOutboundAuthenticationConfig;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.common.model.script.AuthenticationScriptConfig;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.when;
+
+public class ClaimProjectionPlannerTest {
+
+    private static final String EMAIL_CLAIM = "http://wso2.org/claims/emailaddress";
+    private static final String USERNAME_CLAIM = "http://wso2.org/claims/username";
+    private static final String COUNTRY_CLAIM = "http://wso2.org/claims/country";
+    private static final String GROUPS_CLAIM = "http://wso2.org/claims/groups";
+    private static final String MOBILE_CLAIM = "http://wso2.org/claims/mobile";
+    private static final String OIDC_EMAIL_CLAIM = "http://wso2.org/oidc/claim/email";
+    private static final String OIDC_NICKNAME_CLAIM = "http://wso2.org/oidc/claim/nickname";
+
+    @Mock
+    private ApplicationConfig applicationConfig;
+
+    @BeforeMethod
+    public void setUp() {
+
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testPlanWithoutRequestedClaims() {
+
+        when(applicationConfig.getRequestedClaimMappings()).thenReturn(new HashMap<>());
+
+        Assert.assertNull(ClaimProjectionPlanner.plan(applicationConfig, null, Collections.singleton(GROUPS_CLAIM)));
+    }
+
+    @Test
+    public void testPlan() {
+
+        Map<String, String> claimMappings = new HashMap<>();
+        claimMappings.put("email", EMAIL_CLAIM);
+        claimMappings.put("uid", USERNAME_CLAIM);
+        claimMappings.put("country", COUNTRY_CLAIM);
+        Map<String, String> requestedClaimMappings = new HashMap<>();
+        requestedClaimMappings.put("email", EMAIL_CLAIM);
+        Map<String, String> mandatoryClaimMappings = new HashMap<>();
+        mandatoryClaimMappings.put("country", COUNTRY_CLAIM);
+
+        AuthenticationScriptConfig scriptConfig = new AuthenticationScriptConfig();
+        scriptConfig.setEnabled(true);
+        scriptConfig.setContent("var onLoginRequest = function(context) { executeStep(1, { onSuccess: " +
+                "function (context) { var mobile = context.currentKnownSubject.localClaims['" + MOBILE_CLAIM +
+                "']; } }); };");
+        LocalAndOutboundAuthenticationConfig authenticationConfig = new LocalAndOutboundAuthenticationConfig();
+        authenticationConfig.setAuthenticationScriptConfig(scriptConfig);
+        ServiceProvider serviceProvider = new ServiceProvider();
+        serviceProvider.setLocalAndOutBoundAuthenticationConfig(authenticationConfig);
+
+        when(applicationConfig.getClaimMappings()).thenReturn(claimMappings);
+        when(applicationConfig.getRequestedClaimMappings()).thenReturn(requestedClaimMappings);
+        when(applicationConfig.getMandatoryClaimMappings()).thenReturn(mandatoryClaimMappings);
+        when(applicationConfig.getSubjectClaimUri()).thenReturn("uid");
+        when(applicationConfig.getServiceProvider()).thenReturn(serviceProvider);
+
+        Set<String> claimURIs = ClaimProjectionPlanner.plan(applicationConfig, null,
+                Collections.singleton(GROUPS_CLAIM));
+
+        Set<String> expectedClaimURIs = new HashSet<>();
+        expectedClaimURIs.add(EMAIL_CLAIM);
+        expectedClaimURIs.add(COUNTRY_CLAIM);
+        expectedClaimURIs.add(USERNAME_CLAIM);
+        expectedClaimURIs.add(MOBILE_CLAIM);
+        expectedClaimURIs.add(GROUPS_CLAIM);
+        Assert.assertEquals(claimURIs, expectedClaimURIs);
+    }
+
+    @Test
+    public void testPlanWithLocalSubjectClaim() {
+
+        Map<String, String> requestedClaimMappings = new HashMap<>();
+        requestedClaimMappings.put(EMAIL_CLAIM, EMAIL_CLAIM);
+
+        when(applicationConfig.getRequestedClaimMappings()).thenReturn(requestedClaimMappings);
+        when(applicationConfig.getSubjectClaimUri()).thenReturn(USERNAME_CLAIM);
+        when(applicationConfig.getRoleClaim()).thenReturn("roles");
+
+        Set<String> claimURIs = ClaimProjectionPlanner.plan(applicationConfig, null, null);
+
+        Set<String> expectedClaimURIs = new HashSet<>();
+        expectedClaimURIs.add(EMAIL_CLAIM);
+        expectedClaimURIs.add(USERNAME_CLAIM);
+        Assert.assertEquals(claimURIs, expectedClaimURIs);
+    }
+
+    @Test
+    public void testPlanWithStandardDialectClaims() {
+
+        Map<String, String> requestedClaimMappings = new HashMap<>();
+        requestedClaimMappings.put("email", OIDC_EMAIL_CLAIM);
+        requestedClaimMappings.put("nickname", OIDC_NICKNAME_CLAIM);
+        Map<String, String> mandatoryClaimMappings = new HashMap<>();
+        mandatoryClaimMappings.put("country", COUNTRY_CLAIM);
+        Map<String, String> standardToLocalClaimMappings = new HashMap<>();
+        standardToLocalClaimMappings.put(OIDC_EMAIL_CLAIM, EMAIL_CLAIM);
+
+        when(applicationConfig.getRequestedClaimMappings()).thenReturn(requestedClaimMappings);
+        when(applicationConfig.getMandatoryClaimMappings()).thenReturn(mandatoryClaimMappings);
+
+        Set<String> claimURIs = ClaimProjectionPlanner.plan(applicationConfig, standardToLocalClaimMappings, null);
+
+        // The claim without a local mapping must not reach the user store.
+        Set<String> expectedClaimURIs = new HashSet<>();
+        expectedClaimURIs.add(EMAIL_CLAIM);
+        expectedClaimURIs.add(COUNTRY_CLAIM);
+        Assert.assertEquals(claimURIs, expectedClaimURIs);
+    }
+
+    @DataProvider(name = "scriptClaimsDataProvider")
+    public Object[][] scriptClaimsData() {
+
+        return new Object[][]{
+                {"var email = context.currentKnownSubject.localClaims[claimUri];", false},
+                {"var claims = context.currentKnownSubject.localClaims; var email = claims['" + EMAIL_CLAIM + "'];",
+                        false},
+                {"var email = context.currentKnownSubject.remoteClaims['unmappedClaim'];", false},
+                {"var email = context.currentKnownSubject.localClaims[\"" + EMAIL_CLAIM + "\"];", true},
+                {"var email = context.currentKnownSubject.remoteClaims['email'];", true}
+        };
+    }
+
+    @Test(dataProvider = "scriptClaimsDataProvider")
+    public void testPlanWithScriptClaims(String script, boolean projected) {
+
+        Map<String, String> claimMappings = new HashMap<>();
+        claimMappings.put("email", EMAIL_CLAIM);
+        Map<String, String> requestedClaimMappings = new HashMap<>();
+        requestedClaimMappings.put("email", EMAIL_CLAIM);
+
+        AuthenticationScriptConfig scriptConfig = new AuthenticationScriptConfig();
+        scriptConfig.setEnabled(true);
+        scriptConfig.setContent(script);
+        LocalAndOutboundAuthenticationConfig authenticationConfig = new LocalAndOutboundAuthenticationConfig();
+        authenticationConfig.setAuthenticationScriptConfig(scriptConfig);
+        ServiceProvider serviceProvider = new ServiceProvider();
+        serviceProvider.setLocalAndOutBoundAuthenticationConfig(authenticationConfig);
+
+        when(applicationConfig.getClaimMappings()).thenReturn(claimMappings);
+        when(applicationConfig.getRequestedClaimMappings()).thenReturn(requestedClaimMappings);
+        when(applicationConfig.getServiceProvider()).thenReturn(serviceProvider);
+
+        Set<String> claimURIs = ClaimProjectionPlanner.plan(applicationConfig, null, null);
+
+        if (projected) {
+            Assert.assertEquals(claimURIs, Collections.singleton(EMAIL_CLAIM));
+        } else {
+            Assert.assertNull(claimURIs);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.handler.sequence.impl;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.application.authentication.framework.dao.LongWaitStatusDAO;
+import org.wso2.carbon.identity.application.authentication.framework.internal.FrameworkServiceDataHolder;
+import org.wso2.carbon.identity.application.authentication.framework.model.LongWaitStatus;
+import org.wso2.carbon.identity.application.authentication.framework.store.LongWaitStatusStoreService;
+import org.wso2.carbon.identity.common.testng.WithCarbonHome;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AsyncSequenceExecutor}.
+ */
+@WithCarbonHome
+public class AsyncSequenceExecutorTest {
+
+    private static final String CONTEXT_ID = "async-context-id";
+
+    private LongWaitStatusStoreService longWaitStatusStoreService;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        LongWaitStatusDAO longWaitStatusDAO = mock(LongWaitStatusDAO.class);
+        LongWaitStatus longWaitStatus = new LongWaitStatus();
+        longWaitStatus.setStatus(LongWaitStatus.Status.WAITING);
+        when(longWaitStatusDAO.getWaitStatus(CONTEXT_ID)).thenReturn(longWaitStatus);
+        longWaitStatusStoreService = new LongWaitStatusStoreService(longWaitStatusDAO, 5000);
+        FrameworkServiceDataHolder.getInstance().setLongWaitStatusStoreService(longWaitStatusStoreService);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        FrameworkServiceDataHolder.getInstance().setLongWaitStatusStoreService(null);
+    }
+
+    @Test
+    public void testParkedRequestIsWokenAfterReturn() throws Exception {
+
+        AtomicBoolean returned = new AtomicBoolean(false);
+        AtomicBoolean returnedBeforeWakeUp = new AtomicBoolean(false);
+        AtomicReference<LongWaitStatus.Status> notifiedStatus = new AtomicReference<>();
+        CountDownLatch wokenUp = new CountDownLatch(1);
+        longWaitStatusStoreService.getCompletionNotifier().register(CONTEXT_ID, status -> {
+            returnedBeforeWakeUp.set(returned.get());
+            notifiedStatus.set(status);
+            wokenUp.countDown();
+        });
+
+        AuthenticationContext context = new AuthenticationContext();
+        context.setContextIdentifier(CONTEXT_ID);
+
+        AsyncSequenceExecutor asyncSequenceExecutor = new AsyncSequenceExecutor();
+        asyncSequenceExecutor.init();
+        asyncSequenceExecutor.exec((ctx, asyncReturn) -> asyncReturn.accept(ctx, Collections.emptyMap(), "success"),
+                (ctx, data, result) -> returned.set(true), context);
+
+        assertTrue(wokenUp.await(10, TimeUnit.SECONDS), "The parked request was not woken up.");
+        assertTrue(returnedBeforeWakeUp.get(), "The parked request was woken up before the return function ran.");
+        assertEquals(notifiedStatus.get(), LongWaitStatus.Status.COMPLETED);
+        assertEquals(longWaitStatusStoreService.getCompletionNotifier().getWaitCount(), 0);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.inbound;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Unit tests for {@link InboundDispatchIndex}.
+ */
+public class InboundDispatchIndexTest {
+
+    private static final String OAUTH = "oauth";
+    private static final String SAML = "saml";
+    private static final String FALLBACK = "fallback";
+    private static final String ANY_PATH = "anyPath";
+
+    private final Map<String, List<InboundDispatchSelector>> selectors = new HashMap<>();
+
+    public InboundDispatchIndexTest() {
+
+        selectors.put(OAUTH, Arrays.asList(InboundDispatchSelector.of("/oauth2/authorize", "GET", null),
+                InboundDispatchSelector.of("/oauth2/authorize", "POST", null)));
+        selectors.put(SAML, Collections.singletonList(InboundDispatchSelector.of("/samlsso", null, "SAMLRequest")));
+        selectors.put(ANY_PATH, Collections.singletonList(InboundDispatchSelector.of(null, "POST", "logout")));
+    }
+
+    @Test
+    public void testCandidatesKeepHandlerOrder() {
+
+        InboundDispatchIndex<String> index = InboundDispatchIndex.build(
+                Arrays.asList(SAML, OAUTH, FALLBACK, ANY_PATH), this::getSelectors);
+
+        assertEquals(index.getCandidates("GET", "/oauth2/authorize", parameter -> false),
+                Arrays.asList(OAUTH, FALLBACK));
+        assertEquals(index.getCandidates("POST", "/oauth2/authorize", "logout"::equals),
+                Arrays.asList(OAUTH, FALLBACK, ANY_PATH));
+        assertEquals(index.getCandidates("POST", "/samlsso", "SAMLRequest"::equals),
+                Arrays.asList(SAML, FALLBACK));
+        assertEquals(index.getCandidates("POST", "/samlsso", parameter -> false),
+                Collections.singletonList(FALLBACK));
+        assertEquals(index.getCandidates("GET", null, parameter -> false),
+                Collections.singletonList(FALLBACK));
+    }
+
+    @Test
+    public void testHandlerWithMultipleMatchingSelectorsIsReturnedOnce() {
+
+        selectors.put("duplicate", Arrays.asList(InboundDispatchSelector.forPath("/commonauth"),
+                InboundDispatchSelector.of(null, "GET", null)));
+        InboundDispatchIndex<String> index = InboundDispatchIndex.build(
+                Arrays.asList("duplicate", FALLBACK), this::getSelectors);
+
+        assertEquals(index.getCandidates("GET", "/commonauth", parameter -> false),
+                Arrays.asList("duplicate", FALLBACK));
+        selectors.remove("duplicate");
+    }
+
+    @Test
+    public void testIndexWithoutSelectorsReturnsAllHandlers() {
+
+        List<String> handlers = Arrays.asList(FALLBACK, "other");
+        InboundDispatchIndex<String> index = InboundDispatchIndex.build(handlers, this::getSelectors);
+
+        assertEquals(index.getCandidates("GET", "/any", parameter -> false), handlers);
+        assertSame(index.getCandidates("POST", "/other", parameter -> true), index.getHandlers());
+    }
+
+    @Test
+    public void testFailingSelectorsFallBackToCanHandle() {
+
+        InboundDispatchIndex<String> index = InboundDispatchIndex.build(Arrays.asList(OAUTH, "broken"),
+                handler -> {
+                    if ("broken".equals(handler)) {
+                        throw new IllegalStateException("Selectors are not available.");
+                    }
+                    return getSelectors(handler);
+                });
+
+        assertEquals(index.getCandidates("GET", "/samlsso", parameter -> false),
+                Collections.singletonList("broken"));
+    }
+
+    @Test
+    public void testIndexIsNotChangedByHandlerList() {
+
+        List<String> handlers = new ArrayList<>(Arrays.asList(OAUTH, FALLBACK));
+        InboundDispatchIndex<String> index = InboundDispatchIndex.build(handlers, this::getSelectors);
+        handlers.remove(OAUTH);
+
+        assertEquals(index.getHandlers(), Arrays.asList(OAUTH, FALLBACK));
+    }
+
+    @Test
+    public void testProcessorMetrics() {
+
+        IdentityProcessorMetrics metrics = new IdentityProcessorMetrics();
+        metrics.record(OAUTH, 100L, false);
+        metrics.record(OAUTH, 300L, true);
+
+        IdentityProcessorMetrics.ProcessorTiming timing = metrics.getTiming(OAUTH);
+        assertEquals(timing.getCount(), 2L);
+        assertEquals(timing.getFailureCount(), 1L);
+        assertEquals(timing.getTotalTimeNanos(), 400L);
+        assertEquals(timing.getMaxTimeNanos(), 300L);
+        assertEquals(timing.getAverageTimeNanos(), 200L);
+        assertEquals(metrics.getTimings().size(), 1);
+    }
+
+    private List<InboundDispatchSelector> getSelectors(String handler) {
+
+        return selectors.get(handler);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.services;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.internal.FrameworkServiceDataHolder;
+import org.wso2.carbon.identity.application.authentication.framework.model.UserAccountStatus;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
+import org.wso2.carbon.identity.application.common.model.Property;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.user.core.UserRealm;
+import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
+import org.wso2.carbon.user.core.service.RealmService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.verifyStatic;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ACCOUNT_DISABLED_CLAIM_URI;
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ACCOUNT_LOCKED_CLAIM_URI;
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.ACCOUNT_UNLOCK_TIME_CLAIM;
+
+/**
+ * Unit tests for {@link UserAccountStatusService}.
+ */
+@PrepareForTest({FrameworkServiceDataHolder.class, IdentityTenantUtil.class, FrameworkUtils.class})
+public class UserAccountStatusServiceTest extends PowerMockTestCase {
+
+    private static final String USER_ID = "4b4414e1-916b-4475-aaee-6b0751c29ff6";
+    private static final String TENANT_DOMAIN = "carbon.super";
+
+    private AbstractUserStoreManager userStoreManager;
+    private Map<String, String> claimValues;
+    private UserAccountStatusService userAccountStatusService;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        userStoreManager = mock(AbstractUserStoreManager.class);
+        UserRealm userRealm = mock(UserRealm.class);
+        RealmService realmService = mock(RealmService.class);
+        FrameworkServiceDataHolder dataHolder = mock(FrameworkServiceDataHolder.class);
+        when(userRealm.getUserStoreManager()).thenReturn(userStoreManager);
+        when(realmService.getTenantUserRealm(anyInt())).thenReturn(userRealm);
+        when(dataHolder.getRealmService()).thenReturn(realmService);
+
+        mockStatic(FrameworkServiceDataHolder.class);
+        when(FrameworkServiceDataHolder.getInstance()).thenReturn(dataHolder);
+        mockStatic(IdentityTenantUtil.class);
+        when(IdentityTenantUtil.getTenantId(TENANT_DOMAIN)).thenReturn(-1234);
+        mockStatic(FrameworkUtils.class);
+
+        claimValues = new HashMap<>();
+        when(userStoreManager.isExistingUserWithID(USER_ID)).thenReturn(true);
+        when(userStoreManager.getUserClaimValuesWithID(eq(USER_ID), any(String[].class), anyString()))
+                .thenReturn(claimValues);
+        userAccountStatusService = new UserAccountStatusService();
+    }
+
+    @Test
+    public void testActiveUserIsResolvedWithOneClaimRead() throws Exception {
+
+        UserAccountStatus accountStatus = userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN);
+
+        assertTrue(accountStatus.isExisting());
+        assertTrue(accountStatus.isAllowedToLogin());
+        verify(userStoreManager, times(1)).getUserClaimValuesWithID(eq(USER_ID), any(String[].class),
+                anyString());
+        verifyStatic(FrameworkUtils.class, never());
+        FrameworkUtils.getResidentIdpConfiguration(anyString(), anyString());
+    }
+
+    @Test
+    public void testNonExistingUser() throws Exception {
+
+        when(userStoreManager.isExistingUserWithID(USER_ID)).thenReturn(false);
+
+        UserAccountStatus accountStatus = userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN);
+
+        assertFalse(accountStatus.isExisting());
+        assertFalse(accountStatus.isAllowedToLogin());
+        verify(userStoreManager, never()).getUserClaimValuesWithID(anyString(), any(String[].class), anyString());
+    }
+
+    @Test
+    public void testDisabledUser() throws Exception {
+
+        claimValues.put(ACCOUNT_DISABLED_CLAIM_URI, "true");
+        Property property = new Property();
+        property.setValue("true");
+        when(FrameworkUtils.getResidentIdpConfiguration(anyString(), eq(TENANT_DOMAIN))).thenReturn(property);
+
+        assertFalse(userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN).isAllowedToLogin());
+
+        property.setValue("false");
+        assertTrue(userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN).isAllowedToLogin());
+    }
+
+    @Test
+    public void testLockedUser() throws Exception {
+
+        claimValues.put(ACCOUNT_LOCKED_CLAIM_URI, "true");
+        assertFalse(userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN).isAllowedToLogin());
+
+        claimValues.put(ACCOUNT_UNLOCK_TIME_CLAIM, String.valueOf(System.currentTimeMillis() + 60000));
+        assertFalse(userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN).isAllowedToLogin());
+
+        claimValues.put(ACCOUNT_UNLOCK_TIME_CLAIM, String.valueOf(System.currentTimeMillis() - 60000));
+        UserAccountStatus accountStatus = userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN);
+        assertTrue(accountStatus.isLocked());
+        assertTrue(accountStatus.isAllowedToLogin());
+    }
+
+    @Test
+    public void testLockedUserWithInvalidUnlockTime() throws Exception {
+
+        claimValues.put(ACCOUNT_LOCKED_CLAIM_URI, "true");
+        claimValues.put(ACCOUNT_UNLOCK_TIME_CLAIM, "never");
+
+        UserAccountStatus accountStatus = userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN);
+        assertEquals(accountStatus.getUnlockTime(), 0L);
+        assertFalse(accountStatus.isAllowedToLogin());
+    }
+
+    @Test
+    public void testAccountStatusIsReusedWithinRequest() throws Exception {
+
+        Map<String, Object> attributes = new HashMap<>();
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getAttribute(anyString())).thenAnswer(invocation -> attributes.get(invocation.getArgument(0)));
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0),
+                invocation.getArgument(1))).when(request).setAttribute(anyString(), any());
+
+        UserAccountStatus first = userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN, request);
+        UserAccountStatus second = userAccountStatusService.getAccountStatus(USER_ID, TENANT_DOMAIN, request);
+
+        assertSame(second, first);
+        verify(userStoreManager, times(1)).isExistingUserWithID(USER_ID);
+        verify(userStoreManager, times(1)).getUserClaimValuesWithID(eq(USER_ID), any(String[].class),
+                anyString());
+    }
+}
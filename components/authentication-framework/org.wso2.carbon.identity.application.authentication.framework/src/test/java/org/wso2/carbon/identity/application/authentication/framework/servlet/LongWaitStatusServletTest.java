@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.servlet;
+
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.dao.LongWaitStatusDAO;
+import org.wso2.carbon.identity.application.authentication.framework.internal.FrameworkServiceDataHolder;
+import org.wso2.carbon.identity.application.authentication.framework.model.LongWaitStatus;
+import org.wso2.carbon.identity.application.authentication.framework.store.LongWaitStatusStoreService;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for parking status requests in {@link LongWaitStatusServlet}.
+ */
+public class LongWaitStatusServletTest {
+
+    private static final String WAIT_ID = "wait-id";
+
+    private LongWaitStatusDAO longWaitStatusDAO;
+    private LongWaitStatusStoreService longWaitStatusStoreService;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private AsyncContext asyncContext;
+    private StringWriter responseContent;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        longWaitStatusDAO = mock(LongWaitStatusDAO.class);
+        longWaitStatusStoreService = new LongWaitStatusStoreService(longWaitStatusDAO, 5000);
+        FrameworkServiceDataHolder.getInstance().setLongWaitStatusStoreService(longWaitStatusStoreService);
+
+        request = mock(HttpServletRequest.class);
+        HttpSession session = mock(HttpSession.class);
+        when(session.getMaxInactiveInterval()).thenReturn(900);
+        when(request.getSession()).thenReturn(session);
+        when(request.getParameter("waitingId")).thenReturn(WAIT_ID);
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.isAsyncStarted()).thenReturn(false);
+
+        response = mock(HttpServletResponse.class);
+        responseContent = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(responseContent));
+
+        asyncContext = mock(AsyncContext.class);
+        when(asyncContext.getResponse()).thenReturn(response);
+        when(request.startAsync()).thenReturn(asyncContext);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        FrameworkServiceDataHolder.getInstance().setLongWaitStatusStoreService(null);
+    }
+
+    @Test
+    public void testParkedRequestIsAnsweredOnCompletion() throws Exception {
+
+        when(longWaitStatusDAO.getWaitStatus(WAIT_ID)).thenReturn(createStatus(LongWaitStatus.Status.WAITING));
+
+        new LongWaitStatusServlet().doPost(request, response);
+
+        verify(request).startAsync();
+        assertEquals(responseContent.toString(), "");
+        assertEquals(longWaitStatusStoreService.getCompletionNotifier().getWaitCount(), 1);
+
+        longWaitStatusStoreService.notifyCompletion(WAIT_ID);
+
+        assertTrue(responseContent.toString().contains("\"status\":\"COMPLETED\""));
+        verify(asyncContext).complete();
+        assertEquals(longWaitStatusStoreService.getCompletionNotifier().getWaitCount(), 0);
+    }
+
+    @Test
+    public void testParkedRequestIsAnsweredWithWaitingOnTimeout() throws Exception {
+
+        when(longWaitStatusDAO.getWaitStatus(WAIT_ID)).thenReturn(createStatus(LongWaitStatus.Status.WAITING));
+
+        new LongWaitStatusServlet().doPost(request, response);
+
+        ArgumentCaptor<AsyncListener> listenerCaptor = ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listenerCaptor.capture());
+        listenerCaptor.getValue().onTimeout(new AsyncEvent(asyncContext));
+
+        assertTrue(responseContent.toString().contains("\"status\":\"WAITING\""));
+        verify(asyncContext).complete();
+        assertEquals(longWaitStatusStoreService.getCompletionNotifier().getWaitCount(), 0);
+
+        // A completion after the timeout must not answer the request again.
+        longWaitStatusStoreService.notifyCompletion(WAIT_ID);
+        verify(asyncContext, times(1)).complete();
+    }
+
+    @Test
+    public void testCompletionBeforeRegistrationIsNotMissed() throws Exception {
+
+        // The wait completes after the first status read and before the request is registered for notifications.
+        when(longWaitStatusDAO.getWaitStatus(WAIT_ID)).thenReturn(createStatus(LongWaitStatus.Status.WAITING),
+                createStatus(LongWaitStatus.Status.COMPLETED));
+
+        new LongWaitStatusServlet().doPost(request, response);
+
+        verify(request).startAsync();
+        assertTrue(responseContent.toString().contains("\"status\":\"COMPLETED\""));
+        verify(asyncContext).complete();
+        assertEquals(longWaitStatusStoreService.getCompletionNotifier().getWaitCount(), 0);
+    }
+
+    @Test
+    public void testCompletedWaitIsNotParked() throws Exception {
+
+        when(longWaitStatusDAO.getWaitStatus(WAIT_ID)).thenReturn(createStatus(LongWaitStatus.Status.COMPLETED));
+
+        new LongWaitStatusServlet().doPost(request, response);
+
+        verify(request, never()).startAsync();
+        assertTrue(responseContent.toString().contains("\"status\":\"COMPLETED\""));
+    }
+
+    private LongWaitStatus createStatus(LongWaitStatus.Status status) {
+
+        LongWaitStatus longWaitStatus = new LongWaitStatus();
+        longWaitStatus.setStatus(status);
+        return longWaitStatus;
+    }
+}
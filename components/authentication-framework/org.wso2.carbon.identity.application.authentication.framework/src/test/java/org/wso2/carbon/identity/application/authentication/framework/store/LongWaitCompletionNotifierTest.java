@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.store;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.model.LongWaitStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link LongWaitCompletionNotifier}.
+ */
+public class LongWaitCompletionNotifierTest {
+
+    private static final String WAIT_KEY = "wait-key";
+
+    @Test
+    public void testNotifyCompletionCallsListenersOnce() {
+
+        LongWaitCompletionNotifier notifier = new LongWaitCompletionNotifier();
+        List<LongWaitStatus.Status> received = new ArrayList<>();
+        notifier.register(WAIT_KEY, received::add);
+        notifier.register(WAIT_KEY, received::add);
+        notifier.register("other-wait-key", received::add);
+
+        notifier.notifyCompletion(WAIT_KEY);
+        notifier.notifyCompletion(WAIT_KEY);
+
+        assertEquals(received.size(), 2);
+        assertEquals(received.get(0), LongWaitStatus.Status.COMPLETED);
+        assertEquals(notifier.getWaitCount(), 1);
+    }
+
+    @Test
+    public void testReleaseNotifiesWaitingStatus() {
+
+        LongWaitCompletionNotifier notifier = new LongWaitCompletionNotifier();
+        List<LongWaitStatus.Status> received = new ArrayList<>();
+        notifier.register(WAIT_KEY, received::add);
+
+        notifier.release(WAIT_KEY);
+
+        assertEquals(received.size(), 1);
+        assertEquals(received.get(0), LongWaitStatus.Status.WAITING);
+        assertEquals(notifier.getWaitCount(), 0);
+    }
+
+    @Test
+    public void testUnregisteredListenerIsNotCalled() {
+
+        LongWaitCompletionNotifier notifier = new LongWaitCompletionNotifier();
+        List<LongWaitStatus.Status> received = new ArrayList<>();
+        Consumer<LongWaitStatus.Status> listener = received::add;
+        notifier.register(WAIT_KEY, listener);
+
+        notifier.unregister(WAIT_KEY, listener);
+        notifier.notifyCompletion(WAIT_KEY);
+
+        assertTrue(received.isEmpty());
+        assertEquals(notifier.getWaitCount(), 0);
+    }
+
+    @Test
+    public void testFailingListenerDoesNotStopOtherListeners() {
+
+        LongWaitCompletionNotifier notifier = new LongWaitCompletionNotifier();
+        List<LongWaitStatus.Status> received = new ArrayList<>();
+        notifier.register(WAIT_KEY, status -> {
+            throw new IllegalStateException("Response already committed.");
+        });
+        notifier.register(WAIT_KEY, received::add);
+
+        notifier.notifyCompletion(WAIT_KEY);
+
+        assertEquals(received.size(), 1);
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.wso2.carbon.identity.central.log.mgt.internal;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.BundleContext;
@@ -30,10 +31,20 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.carbon.identity.central.log.mgt.hanlder.CentralLogger;
+import org.wso2.carbon.identity.central.log.mgt.publisher.AsyncLogEventPublisher;
 import org.wso2.carbon.identity.central.log.mgt.utils.LoggerUtils;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.ASYNC_PUBLISHING_ENABLED;
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.ASYNC_PUBLISHING_MAX_QUEUED_EVENTS_PER_TENANT;
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.ASYNC_PUBLISHING_OVERFLOW_POLICY;
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.ASYNC_PUBLISHING_QUEUE_SIZE;
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.ASYNC_PUBLISHING_SHUTDOWN_TIMEOUT;
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.DEFAULT_ASYNC_PUBLISHING_MAX_QUEUED_EVENTS_PER_TENANT;
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.DEFAULT_ASYNC_PUBLISHING_QUEUE_SIZE;
+
 /**
  * OSGi declarative services component which handled activation and deactivation of central logger event handler.
  */
@@ -57,6 +68,8 @@ public class CentralLogMgtServiceComponent {
             log.debug("Central logger event handler is activated.");
         }
         LoggerUtils.getLogMaskingConfigValue();
+        LoggerUtils.getDiagnosticLogModeCacheConfigValue();
+        startAsyncLogEventPublisher();
     }
 
     @Deactivate
@@ -65,12 +78,72 @@ public class CentralLogMgtServiceComponent {
         if (log.isDebugEnabled()) {
             log.debug("Central logger event handler is deactivated.");
         }
+        AsyncLogEventPublisher asyncLogEventPublisher =
+                CentralLogMgtServiceComponentHolder.getInstance().getAsyncLogEventPublisher();
+        if (asyncLogEventPublisher != null) {
+            CentralLogMgtServiceComponentHolder.getInstance().setAsyncLogEventPublisher(null);
+            asyncLogEventPublisher.shutdown(ASYNC_PUBLISHING_SHUTDOWN_TIMEOUT);
+        }
         // Unregistering Central logger event handler.
         if (serviceRegistration != null) {
             serviceRegistration.unregister();
         }
     }
 
+    private void startAsyncLogEventPublisher() {
+
+        // Asynchronous publishing is disabled unless it is explicitly enabled.
+        String asyncPublishingEnabled = IdentityUtil.getProperty(ASYNC_PUBLISHING_ENABLED);
+        if (StringUtils.isBlank(asyncPublishingEnabled) || !Boolean.parseBoolean(asyncPublishingEnabled.trim())) {
+            if (log.isDebugEnabled()) {
+                log.debug("Asynchronous publishing of log events is disabled.");
+            }
+            return;
+        }
+        int queueSize = getPositiveIntProperty(ASYNC_PUBLISHING_QUEUE_SIZE, DEFAULT_ASYNC_PUBLISHING_QUEUE_SIZE);
+        int maxQueuedEventsPerTenant = getPositiveIntProperty(ASYNC_PUBLISHING_MAX_QUEUED_EVENTS_PER_TENANT,
+                DEFAULT_ASYNC_PUBLISHING_MAX_QUEUED_EVENTS_PER_TENANT);
+        AsyncLogEventPublisher.OverflowPolicy overflowPolicy = AsyncLogEventPublisher.OverflowPolicy.DROP;
+        String overflowPolicyValue = IdentityUtil.getProperty(ASYNC_PUBLISHING_OVERFLOW_POLICY);
+        if (StringUtils.isNotBlank(overflowPolicyValue)) {
+            try {
+                overflowPolicy = AsyncLogEventPublisher.OverflowPolicy.valueOf(overflowPolicyValue.trim());
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid value: " + overflowPolicyValue + " for " + ASYNC_PUBLISHING_OVERFLOW_POLICY +
+                        ". Default policy: " + overflowPolicy + " will be used.");
+            }
+        }
+
+        AsyncLogEventPublisher asyncLogEventPublisher = new AsyncLogEventPublisher(queueSize,
+                maxQueuedEventsPerTenant, overflowPolicy);
+        asyncLogEventPublisher.start();
+        CentralLogMgtServiceComponentHolder.getInstance().setAsyncLogEventPublisher(asyncLogEventPublisher);
+        if (log.isDebugEnabled()) {
+            log.debug("Asynchronous log event publisher is started with queue size: " + queueSize +
+                    ", max queued events per tenant: " + maxQueuedEventsPerTenant + " and overflow policy: " +
+                    overflowPolicy);
+        }
+    }
+
+    private int getPositiveIntProperty(String propertyName, int defaultValue) {
+
+        String value = IdentityUtil.getProperty(propertyName);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            if (intValue > 0) {
+                return intValue;
+            }
+        } catch (NumberFormatException e) {
+            // Fall back to the default value below.
+        }
+        log.warn("Invalid value: " + value + " for " + propertyName + ". Default value: " + defaultValue +
+                " will be used.");
+        return defaultValue;
+    }
+
     @Reference(
             name = "identity.event.service",
             service = IdentityEventService.class,
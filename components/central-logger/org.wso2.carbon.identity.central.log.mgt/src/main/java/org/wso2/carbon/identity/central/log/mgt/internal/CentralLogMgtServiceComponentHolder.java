@@ -18,6 +18,7 @@
 
 package org.wso2.carbon.identity.central.log.mgt.internal;
 
+import org.wso2.carbon.identity.central.log.mgt.publisher.AsyncLogEventPublisher;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 
 /**
@@ -38,6 +39,7 @@ public class CentralLogMgtServiceComponentHolder {
     }
 
     private IdentityEventService identityEventService;
+    private volatile AsyncLogEventPublisher asyncLogEventPublisher;
 
     /**
      * Set identity event service.
@@ -58,4 +60,24 @@ public class CentralLogMgtServiceComponentHolder {
 
         return identityEventService;
     }
+
+    /**
+     * Set the asynchronous log event publisher.
+     *
+     * @param asyncLogEventPublisher Asynchronous log event publisher.
+     */
+    public void setAsyncLogEventPublisher(AsyncLogEventPublisher asyncLogEventPublisher) {
+
+        this.asyncLogEventPublisher = asyncLogEventPublisher;
+    }
+
+    /**
+     * Return the asynchronous log event publisher.
+     *
+     * @return Asynchronous log event publisher, or null if log events are published on the calling thread.
+     */
+    public AsyncLogEventPublisher getAsyncLogEventPublisher() {
+
+        return asyncLogEventPublisher;
+    }
 }
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (https://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.central.log.mgt.publisher;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.slf4j.MDC;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.central.log.mgt.internal.CentralLogMgtServiceComponentHolder;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.identity.event.services.IdentityEventService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes audit and diagnostic log events to the identity event service from a dedicated thread.
+ * <p>
+ * The calling thread only adds the event to a bounded queue. The publisher thread takes the queued events one at a
+ * time and hands each of them to the event service in the order they were queued. The number of queued diagnostic log
+ * events of a tenant can be limited, so that a single tenant cannot fill the queue. A diagnostic log event which
+ * does not fit in the queue, or exceeds the limit of its tenant, is dropped or published on the calling thread
+ * according to the {@link OverflowPolicy}. An audit log event is never dropped. When the queue is full, the calling
+ * thread waits for space in the queue, so that audit log events are published in the order they were raised.
+ * <p>
+ * The tenant and the MDC of the calling thread are captured when an event is queued, and are restored on the
+ * publisher thread while the event is published, so that the log layouts resolve the tenant and the correlation id
+ * of the request which raised the event.
+ */
+public class AsyncLogEventPublisher {
+
+    private static final Log log = LogFactory.getLog(AsyncLogEventPublisher.class);
+    private static final String PUBLISHER_THREAD_NAME = "CentralLogEventPublisher";
+    private static final long POLL_INTERVAL_MILLIS = 1000L;
+    private static final long DROPPED_EVENTS_WARN_INTERVAL = 1000L;
+    private static final long AUDIT_EVENT_OFFER_TIMEOUT_MILLIS = 1000L;
+
+    /**
+     * What to do with a diagnostic log event which cannot be queued.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Drop the event.
+         */
+        DROP,
+
+        /**
+         * Publish the event on the calling thread, which slows down the caller until the queue drains.
+         */
+        CALLER_RUNS
+    }
+
+    private final BlockingQueue<QueuedEvent> queue;
+    private final int maxQueuedEventsPerTenant;
+    private final OverflowPolicy overflowPolicy;
+    private final ConcurrentMap<Integer, AtomicInteger> queuedEventCountByTenant = new ConcurrentHashMap<>();
+    private final LongAdder droppedEventCount = new LongAdder();
+    private final Thread publisherThread;
+    private volatile boolean running;
+
+    /**
+     * Create a publisher.
+     *
+     * @param queueSize                Maximum number of queued events.
+     * @param maxQueuedEventsPerTenant Maximum number of queued diagnostic log events of a tenant, or 0 for no limit.
+     * @param overflowPolicy           Policy for the diagnostic log events which cannot be queued.
+     */
+    public AsyncLogEventPublisher(int queueSize, int maxQueuedEventsPerTenant, OverflowPolicy overflowPolicy) {
+
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.maxQueuedEventsPerTenant = maxQueuedEventsPerTenant;
+        this.overflowPolicy = overflowPolicy;
+        this.publisherThread = new Thread(this::publishQueuedEvents, PUBLISHER_THREAD_NAME);
+        this.publisherThread.setDaemon(true);
+    }
+
+    /**
+     * Start the publisher thread.
+     */
+    public void start() {
+
+        running = true;
+        publisherThread.start();
+    }
+
+    /**
+     * Stop the publisher thread after the queued events are published. If the publisher thread does not stop
+     * within the timeout, it is interrupted and the events which are still queued are published on the calling
+     * thread.
+     *
+     * @param timeoutMillis Time to wait for the publisher thread in milliseconds.
+     */
+    public void shutdown(long timeoutMillis) {
+
+        running = false;
+        try {
+            publisherThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (publisherThread.isAlive()) {
+            log.warn("Log event publisher did not stop within " + timeoutMillis + " milliseconds. The remaining " +
+                    queue.size() + " queued log events are published on the calling thread.");
+            publisherThread.interrupt();
+        }
+        List<QueuedEvent> remainingEvents = new ArrayList<>();
+        queue.drainTo(remainingEvents);
+        for (QueuedEvent queuedEvent : remainingEvents) {
+            publish(queuedEvent);
+        }
+    }
+
+    /**
+     * Queue a diagnostic log event.
+     *
+     * @param event    Diagnostic log event.
+     * @param tenantId Tenant id of the event.
+     * @return False if the event was dropped.
+     */
+    public boolean publishDiagnosticLogEvent(Event event, int tenantId) {
+
+        if (!running) {
+            publish(event);
+            return true;
+        }
+        AtomicInteger tenantEventCount = null;
+        if (maxQueuedEventsPerTenant > 0) {
+            tenantEventCount = queuedEventCountByTenant.computeIfAbsent(tenantId, id -> new AtomicInteger());
+            if (tenantEventCount.incrementAndGet() > maxQueuedEventsPerTenant) {
+                tenantEventCount.decrementAndGet();
+                return handleOverflow(event, tenantId);
+            }
+        }
+        if (!queue.offer(new QueuedEvent(event, tenantEventCount))) {
+            if (tenantEventCount != null) {
+                tenantEventCount.decrementAndGet();
+            }
+            return handleOverflow(event, tenantId);
+        }
+        return true;
+    }
+
+    /**
+     * Queue an audit log event. If the queue is full, the calling thread waits until the event can be queued. The
+     * event is published on the calling thread only if the publisher is stopped or the calling thread is
+     * interrupted while waiting.
+     *
+     * @param event Audit log event.
+     */
+    public void publishAuditLogEvent(Event event) {
+
+        QueuedEvent queuedEvent = new QueuedEvent(event, null);
+        try {
+            while (running) {
+                if (queue.offer(queuedEvent, AUDIT_EVENT_OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                log.warn("Log event queue is full. Waiting to queue the audit log event: " + event.getEventName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publish(event);
+    }
+
+    /**
+     * Get the number of diagnostic log events dropped since the publisher was created.
+     *
+     * @return Number of dropped events.
+     */
+    public long getDroppedEventCount() {
+
+        return droppedEventCount.sum();
+    }
+
+    /**
+     * Get the number of events waiting in the queue.
+     *
+     * @return Number of queued events.
+     */
+    public int getQueuedEventCount() {
+
+        return queue.size();
+    }
+
+    private boolean handleOverflow(Event event, int tenantId) {
+
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            publish(event);
+            return true;
+        }
+        droppedEventCount.increment();
+        long droppedEvents = droppedEventCount.sum();
+        if (droppedEvents % DROPPED_EVENTS_WARN_INTERVAL == 1) {
+            log.warn("Diagnostic log event queue is full. " + droppedEvents + " diagnostic log events have been " +
+                    "dropped so far.");
+        } else if (log.isDebugEnabled()) {
+            log.debug("Diagnostic log event of tenant: " + tenantId + " is dropped as the queue is full.");
+        }
+        return false;
+    }
+
+    private void publishQueuedEvents() {
+
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedEvent queuedEvent = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (queuedEvent != null) {
+                    publish(queuedEvent);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void publish(QueuedEvent queuedEvent) {
+
+        if (queuedEvent.tenantEventCount != null) {
+            queuedEvent.tenantEventCount.decrementAndGet();
+        }
+        publishInContext(queuedEvent);
+    }
+
+    /**
+     * Publish a queued event with the tenant and the MDC of the thread which queued it.
+     */
+    private void publishInContext(QueuedEvent queuedEvent) {
+
+        Map<String, String> currentContextMap = MDC.getCopyOfContextMap();
+        PrivilegedCarbonContext.startTenantFlow();
+        try {
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantId(queuedEvent.tenantId);
+            carbonContext.setTenantDomain(queuedEvent.tenantDomain);
+            setContextMap(queuedEvent.contextMap);
+            publish(queuedEvent.event);
+        } finally {
+            setContextMap(currentContextMap);
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private static void setContextMap(Map<String, String> contextMap) {
+
+        if (contextMap == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(contextMap);
+        }
+    }
+
+    private void publish(Event event) {
+
+        IdentityEventService eventMgtService =
+                CentralLogMgtServiceComponentHolder.getInstance().getIdentityEventService();
+        if (eventMgtService == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Identity event service is not available. Log event: " + event.getEventName() +
+                        " is not published.");
+            }
+            return;
+        }
+        try {
+            eventMgtService.handleEvent(event);
+        } catch (IdentityEventException | RuntimeException e) {
+            log.error("Error occurred when firing the log event: " + event.getEventName(), e);
+        }
+    }
+
+    private static class QueuedEvent {
+
+        private final Event event;
+        private final AtomicInteger tenantEventCount;
+        private final int tenantId;
+        private final String tenantDomain;
+        private final Map<String, String> contextMap;
+
+        QueuedEvent(Event event, AtomicInteger tenantEventCount) {
+
+            this.event = event;
+            this.tenantEventCount = tenantEventCount;
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            this.tenantId = carbonContext.getTenantId();
+            this.tenantDomain = carbonContext.getTenantDomain();
+            this.contextMap = MDC.getCopyOfContextMap();
+        }
+    }
+}
@@ -36,6 +36,24 @@ public class LogConstants {
     public static final String ENABLE_LOG_MASKING = "MaskingLogs.Enabled";
     public static final Pattern LOG_MASKING_PATTERN = Pattern.compile("(?<=.).(?=.)");
 
+    /**
+     * Constants related to asynchronous publishing of log events.
+     */
+    public static final String ASYNC_PUBLISHING_ENABLED = "CentralLogger.AsyncPublishing.Enabled";
+    public static final String ASYNC_PUBLISHING_QUEUE_SIZE = "CentralLogger.AsyncPublishing.QueueSize";
+    public static final String ASYNC_PUBLISHING_MAX_QUEUED_EVENTS_PER_TENANT =
+            "CentralLogger.AsyncPublishing.MaxQueuedEventsPerTenant";
+    public static final String ASYNC_PUBLISHING_OVERFLOW_POLICY = "CentralLogger.AsyncPublishing.OverflowPolicy";
+    public static final int DEFAULT_ASYNC_PUBLISHING_QUEUE_SIZE = 10000;
+    public static final int DEFAULT_ASYNC_PUBLISHING_MAX_QUEUED_EVENTS_PER_TENANT = 5000;
+    public static final long ASYNC_PUBLISHING_SHUTDOWN_TIMEOUT = 5000L;
+
+    /**
+     * Time in seconds for which the diagnostic log mode of a tenant is reused before it is read again.
+     */
+    public static final String DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT = "CentralLogger.DiagnosticLogModeCacheTimeout";
+    public static final long DEFAULT_DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT = 10L;
+
     /**
      * Define common and reusable Input keys for diagnostic logs.
      */
@@ -26,6 +26,7 @@ import org.slf4j.MDC;
 import org.wso2.carbon.CarbonConstants;
 import org.wso2.carbon.context.CarbonContext;
 import org.wso2.carbon.identity.central.log.mgt.internal.CentralLogMgtServiceComponentHolder;
+import org.wso2.carbon.identity.central.log.mgt.publisher.AsyncLogEventPublisher;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.event.IdentityEventException;
@@ -34,16 +35,24 @@ import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.utils.AuditLog;
 import org.wso2.carbon.utils.CarbonUtils;
 import org.wso2.carbon.utils.DiagnosticLog;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
-import java.time.DateTimeException;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.DEFAULT_DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT;
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT;
 import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.ENABLE_LOG_MASKING;
 import static org.wso2.carbon.identity.event.IdentityEventConstants.Event.PUBLISH_AUDIT_LOG;
 import static org.wso2.carbon.identity.event.IdentityEventConstants.Event.PUBLISH_DIAGNOSTIC_LOG;
@@ -57,6 +66,10 @@ public class LoggerUtils {
     private static final String CORRELATION_ID_MDC = "Correlation-ID";
     private static final String FLOW_ID_MDC = "Flow-ID";
     private static final String TENANT_DOMAIN = "tenantDomain";
+    private static final ConcurrentMap<Integer, DiagnosticLogModeSnapshot> diagnosticLogModes =
+            new ConcurrentHashMap<>();
+    private static volatile long diagnosticLogModeCacheTimeoutNanos =
+            TimeUnit.SECONDS.toNanos(DEFAULT_DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT);
 
     /**
     * Config value related to masking sensitive information from logs.
@@ -76,10 +89,16 @@ public class LoggerUtils {
             if (!isLoggingEnabled) {
                 return;
             }
-            IdentityEventService eventMgtService =
-                    CentralLogMgtServiceComponentHolder.getInstance().getIdentityEventService();
             Event auditEvent = new Event(PUBLISH_AUDIT_LOG,
                     Map.of(CarbonConstants.LogEventConstants.AUDIT_LOG, auditLogBuilder.build()));
+            AsyncLogEventPublisher asyncLogEventPublisher =
+                    CentralLogMgtServiceComponentHolder.getInstance().getAsyncLogEventPublisher();
+            if (asyncLogEventPublisher != null) {
+                asyncLogEventPublisher.publishAuditLogEvent(auditEvent);
+                return;
+            }
+            IdentityEventService eventMgtService =
+                    CentralLogMgtServiceComponentHolder.getInstance().getIdentityEventService();
             eventMgtService.handleEvent(auditEvent);
         } catch (IdentityEventException e) {
             String errorLog = "Error occurred when firing the event. Unable to audit the request.";
@@ -106,20 +125,17 @@ public class LoggerUtils {
 
         try {
             Map<String, Object> diagnosticLogProperties = new HashMap<>();
-            String id = UUID.randomUUID().toString();
-            Instant recordedAt = parseDateTime(Instant.now().toString());
+            String id = generateLogId();
+            Instant recordedAt = Instant.now();
             String requestId = MDC.get(CORRELATION_ID_MDC);
             String flowId = MDC.get(FLOW_ID_MDC);
             DiagnosticLog diagnosticLog = new DiagnosticLog(id, recordedAt, requestId, flowId, resultStatus,
                     resultMessage, actionId, componentId, input, configurations);
-            IdentityEventService eventMgtService =
-                    CentralLogMgtServiceComponentHolder.getInstance().getIdentityEventService();
             diagnosticLogProperties.put(CarbonConstants.LogEventConstants.DIAGNOSTIC_LOG, diagnosticLog);
-            int tenantId =
-                    IdentityTenantUtil.getTenantId(CarbonContext.getThreadLocalCarbonContext().getTenantDomain());
+            int tenantId = resolveContextTenantId();
             diagnosticLogProperties.put(CarbonConstants.LogEventConstants.TENANT_ID, tenantId);
             Event diagnosticLogEvent = new Event(PUBLISH_DIAGNOSTIC_LOG, diagnosticLogProperties);
-            eventMgtService.handleEvent(diagnosticLogEvent);
+            publishDiagnosticLogEvent(diagnosticLogEvent, diagnosticLog, tenantId);
         } catch (IdentityEventException e) {
             String errorLog = "Error occurred when firing the diagnostic log event.";
             log.error(errorLog, e);
@@ -136,18 +152,112 @@ public class LoggerUtils {
         try {
             Map<String, Object> diagnosticLogProperties = new HashMap<>();
             DiagnosticLog diagnosticLog = diagnosticLogBuilder.build();
-            IdentityEventService eventMgtService =
-                    CentralLogMgtServiceComponentHolder.getInstance().getIdentityEventService();
+            int tenantId = resolveTenantId();
             diagnosticLogProperties.put(CarbonConstants.LogEventConstants.DIAGNOSTIC_LOG, diagnosticLog);
-            diagnosticLogProperties.put(CarbonConstants.LogEventConstants.TENANT_ID, resolveTenantId());
+            diagnosticLogProperties.put(CarbonConstants.LogEventConstants.TENANT_ID, tenantId);
             Event diagnosticLogEvent = new Event(PUBLISH_DIAGNOSTIC_LOG, diagnosticLogProperties);
-            eventMgtService.handleEvent(diagnosticLogEvent);
+            publishDiagnosticLogEvent(diagnosticLogEvent, diagnosticLog, tenantId);
         } catch (IdentityEventException e) {
             String errorLog = "Error occurred when firing the diagnostic log event.";
             log.error(errorLog, e);
         }
     }
 
+    /**
+     * Trigger Diagnostic Log Event only if diagnostic logs are enabled. The builder, including any masking of its
+     * input parameters, is created only when the log is published.
+     *
+     * @param diagnosticLogBuilderSupplier Supplier of the diagnostic log builder. The log is skipped if the supplier
+     *                                     returns null.
+     */
+    public static void triggerDiagnosticLogEvent(
+            Supplier<DiagnosticLog.DiagnosticLogBuilder> diagnosticLogBuilderSupplier) {
+
+        if (!isDiagnosticLogsEnabled()) {
+            return;
+        }
+        DiagnosticLog.DiagnosticLogBuilder diagnosticLogBuilder = diagnosticLogBuilderSupplier.get();
+        if (diagnosticLogBuilder != null) {
+            triggerDiagnosticLogEvent(diagnosticLogBuilder);
+        }
+    }
+
+    /**
+     * Publish a diagnostic log event through the asynchronous publisher, or on the calling thread if asynchronous
+     * publishing is disabled.
+     *
+     * @param diagnosticLogEvent Diagnostic log event.
+     * @param diagnosticLog      Diagnostic log of the event.
+     * @param tenantId           Tenant id of the event.
+     * @throws IdentityEventException If an error occurs while publishing on the calling thread.
+     */
+    private static void publishDiagnosticLogEvent(Event diagnosticLogEvent, DiagnosticLog diagnosticLog,
+                                                  int tenantId) throws IdentityEventException {
+
+        AsyncLogEventPublisher asyncLogEventPublisher =
+                CentralLogMgtServiceComponentHolder.getInstance().getAsyncLogEventPublisher();
+        if (asyncLogEventPublisher != null) {
+            // The log is serialized on the publisher thread, after the caller may have changed its parameters.
+            copyMutableParams(diagnosticLog.getInput());
+            copyMutableParams(diagnosticLog.getConfigurations());
+            asyncLogEventPublisher.publishDiagnosticLogEvent(diagnosticLogEvent, tenantId);
+            return;
+        }
+        IdentityEventService eventMgtService =
+                CentralLogMgtServiceComponentHolder.getInstance().getIdentityEventService();
+        eventMgtService.handleEvent(diagnosticLogEvent);
+    }
+
+    /**
+     * Replace the map, collection and array values of the parameters of a diagnostic log with copies, so that
+     * changes made by the caller after the log is queued are not published. The parameter map itself is shared with
+     * the builder of the log, hence a builder must not be changed after its log is triggered.
+     *
+     * @param params Input or configuration parameters of a diagnostic log.
+     */
+    static void copyMutableParams(Map<String, Object> params) {
+
+        if (params == null) {
+            return;
+        }
+        try {
+            for (Map.Entry<String, Object> param : params.entrySet()) {
+                param.setValue(copyParamValue(param.getValue()));
+            }
+        } catch (UnsupportedOperationException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Parameters of the diagnostic log are not modifiable, hence they are not copied.");
+            }
+        }
+    }
+
+    private static Object copyParamValue(Object value) {
+
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), copyParamValue(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof Collection) {
+            List<Object> copy = new ArrayList<>(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                copy.add(copyParamValue(element));
+            }
+            return copy;
+        }
+        if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            Object[] copy = new Object[array.length];
+            for (int i = 0; i < array.length; i++) {
+                copy[i] = copyParamValue(array[i]);
+            }
+            return copy;
+        }
+        return value;
+    }
+
     /**
      * Resolves the tenant id
      *
@@ -157,11 +267,41 @@ public class LoggerUtils {
 
         String tenantDomain = MDC.get(TENANT_DOMAIN);
         if (StringUtils.isBlank(tenantDomain)) {
-            tenantDomain = CarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+            return resolveContextTenantId();
         }
         return IdentityTenantUtil.getTenantId(tenantDomain);
     }
 
+    /**
+     * Resolve the tenant id of the thread local carbon context. The tenant id is resolved from the tenant domain
+     * only when the context does not hold it.
+     *
+     * @return Tenant id.
+     */
+    private static int resolveContextTenantId() {
+
+        CarbonContext carbonContext = CarbonContext.getThreadLocalCarbonContext();
+        int tenantId = carbonContext.getTenantId();
+        if (tenantId != MultitenantConstants.INVALID_TENANT_ID) {
+            return tenantId;
+        }
+        return IdentityTenantUtil.getTenantId(carbonContext.getTenantDomain());
+    }
+
+    /**
+     * Generate a random id for a log. The id has the format of a version 4 UUID, but is generated from a thread
+     * local random instead of a secure random, as it does not need to be unpredictable.
+     *
+     * @return Log id.
+     */
+    private static String generateLogId() {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long leastSigBits = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
     /**
      * Checks whether diagnostic logs are enabled.
      *
@@ -169,33 +309,50 @@ public class LoggerUtils {
      */
     public static boolean isDiagnosticLogsEnabled() {
 
-        CarbonConstants.DiagnosticLogMode diagnosticLogMode = CarbonUtils.getDiagnosticLogMode(resolveTenantId());
+        CarbonConstants.DiagnosticLogMode diagnosticLogMode = getDiagnosticLogMode(resolveTenantId());
 
         return !CarbonConstants.DiagnosticLogMode.NONE.equals(diagnosticLogMode);
     }
 
     /**
-     * Parse Date Time into UTC format.
+     * Get the diagnostic log mode of a tenant. The mode read for a tenant is reused until the cache timeout is
+     * reached.
      *
-     * @param dateTimeString Date time.
-     * @return Date time in ISO_OFFSET_DATE_TIME format.
+     * @param tenantId Tenant id.
+     * @return Diagnostic log mode.
      */
-    private static Instant parseDateTime(String dateTimeString) {
+    public static CarbonConstants.DiagnosticLogMode getDiagnosticLogMode(int tenantId) {
 
-        Instant localDateTime = null;
-        if (StringUtils.isEmpty(dateTimeString)) {
-            return null;
+        long timeoutNanos = diagnosticLogModeCacheTimeoutNanos;
+        if (timeoutNanos <= 0) {
+            return CarbonUtils.getDiagnosticLogMode(tenantId);
         }
-        try {
-            localDateTime = LocalDateTime.parse(dateTimeString).toInstant(ZoneOffset.UTC);
-        } catch (DateTimeException e) {
+        long now = System.nanoTime();
+        DiagnosticLogModeSnapshot snapshot = diagnosticLogModes.get(tenantId);
+        if (snapshot != null && now - snapshot.readAt < timeoutNanos) {
+            return snapshot.diagnosticLogMode;
+        }
+        CarbonConstants.DiagnosticLogMode diagnosticLogMode = CarbonUtils.getDiagnosticLogMode(tenantId);
+        diagnosticLogModes.put(tenantId, new DiagnosticLogModeSnapshot(diagnosticLogMode, now));
+        return diagnosticLogMode;
+    }
+
+    /**
+     * Get the diagnostic log mode cache timeout from the config file. The cached modes are dropped so that the new
+     * timeout applies to every tenant.
+     */
+    public static void getDiagnosticLogModeCacheConfigValue() {
+
+        String timeout = IdentityUtil.getProperty(DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT);
+        if (StringUtils.isNotBlank(timeout)) {
             try {
-                return OffsetDateTime.parse(dateTimeString).toInstant();
-            } catch (DateTimeException dte) {
-                log.error("Error in parsing date time. Date time should adhere to ISO_OFFSET_DATE_TIME format", e);
+                diagnosticLogModeCacheTimeoutNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(timeout.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid value: " + timeout + " for " + DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT +
+                        ". Default value: " + DEFAULT_DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT + " will be used.");
             }
         }
-        return localDateTime;
+        diagnosticLogModes.clear();
     }
 
     /**
@@ -215,11 +372,38 @@ public class LoggerUtils {
     public static String getMaskedContent(String content) {
 
         if (StringUtils.isNotEmpty(content)) {
+            if (isSingleLineBasicContent(content)) {
+                // Same result as the masking pattern, which keeps the first and the last characters.
+                if (content.length() <= 2) {
+                    return content;
+                }
+                return content.charAt(0) + StringUtils.repeat(LogConstants.MASKING_CHARACTER,
+                        content.length() - 2) + content.charAt(content.length() - 1);
+            }
             return LogConstants.LOG_MASKING_PATTERN.matcher(content).replaceAll(LogConstants.MASKING_CHARACTER);
         }
         return content;
     }
 
+    /**
+     * Check whether every character of the content is a single char code point which is matched by '.' of the
+     * masking pattern, i.e. the content has no line terminators and no surrogate pairs.
+     *
+     * @param content Content.
+     * @return True if the content can be masked without the pattern.
+     */
+    private static boolean isSingleLineBasicContent(String content) {
+
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029'
+                    || Character.isSurrogate(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Util function to mask claim values except userid claim.
      *
@@ -285,4 +469,19 @@ public class LoggerUtils {
         }
         return errorMessage;
     }
+
+    /**
+     * Diagnostic log mode of a tenant with the time it was read.
+     */
+    private static class DiagnosticLogModeSnapshot {
+
+        private final CarbonConstants.DiagnosticLogMode diagnosticLogMode;
+        private final long readAt;
+
+        DiagnosticLogModeSnapshot(CarbonConstants.DiagnosticLogMode diagnosticLogMode, long readAt) {
+
+            this.diagnosticLogMode = diagnosticLogMode;
+            this.readAt = readAt;
+        }
+    }
 }
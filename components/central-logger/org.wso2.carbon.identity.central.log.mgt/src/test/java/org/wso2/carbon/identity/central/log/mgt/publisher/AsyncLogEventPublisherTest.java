@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.central.log.mgt.publisher;
+
+import org.slf4j.MDC;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.central.log.mgt.internal.CentralLogMgtServiceComponentHolder;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.identity.event.services.IdentityEventService;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link AsyncLogEventPublisher}.
+ */
+public class AsyncLogEventPublisherTest {
+
+    private static final String BLOCKING_EVENT = "blockingEvent";
+    private static final int TENANT_ID = 1;
+    private static final int OTHER_TENANT_ID = 2;
+    private static final int BLOCKING_TENANT_ID = 3;
+
+    private static final String TENANT_DOMAIN = "tenant.com";
+    private static final String CORRELATION_ID_MDC = "Correlation-ID";
+
+    private final List<String> publishedEvents = new CopyOnWriteArrayList<>();
+    private final Map<String, String> publishedContexts = new ConcurrentHashMap<>();
+    private CountDownLatch publisherBlocked;
+    private CountDownLatch releasePublisher;
+    private AsyncLogEventPublisher publisher;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        System.setProperty("carbon.home", Paths.get(System.getProperty("user.dir"), "target").toString());
+        publishedEvents.clear();
+        publishedContexts.clear();
+        publisherBlocked = new CountDownLatch(1);
+        releasePublisher = new CountDownLatch(1);
+        IdentityEventService identityEventService = mock(IdentityEventService.class);
+        doAnswer(invocation -> {
+            Event event = invocation.getArgument(0);
+            if (BLOCKING_EVENT.equals(event.getEventName())) {
+                publisherBlocked.countDown();
+                try {
+                    releasePublisher.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            publishedContexts.put(event.getEventName(), carbonContext.getTenantId() + ":" +
+                    carbonContext.getTenantDomain() + ":" + MDC.get(CORRELATION_ID_MDC));
+            publishedEvents.add(event.getEventName());
+            return null;
+        }).when(identityEventService).handleEvent(any(Event.class));
+        CentralLogMgtServiceComponentHolder.getInstance().setIdentityEventService(identityEventService);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        releasePublisher.countDown();
+        if (publisher != null) {
+            publisher.shutdown(1000);
+        }
+        CentralLogMgtServiceComponentHolder.getInstance().setIdentityEventService(null);
+    }
+
+    @Test
+    public void testTenantLimitWithDropPolicy() throws Exception {
+
+        publisher = startBlockedPublisher(10, 2, AsyncLogEventPublisher.OverflowPolicy.DROP);
+
+        assertTrue(publisher.publishDiagnosticLogEvent(new Event("tenant-1"), TENANT_ID));
+        assertTrue(publisher.publishDiagnosticLogEvent(new Event("tenant-2"), TENANT_ID));
+        assertFalse(publisher.publishDiagnosticLogEvent(new Event("tenant-3"), TENANT_ID));
+        // The limit applies to each tenant separately.
+        assertTrue(publisher.publishDiagnosticLogEvent(new Event("other-tenant-1"), OTHER_TENANT_ID));
+        assertEquals(publisher.getDroppedEventCount(), 1L);
+        assertEquals(publisher.getQueuedEventCount(), 3);
+
+        releasePublisher.countDown();
+        publisher.shutdown(5000);
+
+        assertFalse(publishedEvents.contains("tenant-3"));
+        assertTrue(publishedEvents.containsAll(Arrays.asList("tenant-1", "tenant-2", "other-tenant-1")));
+    }
+
+    @Test
+    public void testTenantLimitIsReleasedAfterPublishing() throws Exception {
+
+        publisher = startBlockedPublisher(10, 1, AsyncLogEventPublisher.OverflowPolicy.DROP);
+
+        assertTrue(publisher.publishDiagnosticLogEvent(new Event("tenant-1"), TENANT_ID));
+        releasePublisher.countDown();
+        waitForPublishedEvents(2);
+
+        assertTrue(publisher.publishDiagnosticLogEvent(new Event("tenant-2"), TENANT_ID));
+        assertEquals(publisher.getDroppedEventCount(), 0L);
+    }
+
+    @Test
+    public void testTenantLimitWithCallerRunsPolicy() throws Exception {
+
+        publisher = startBlockedPublisher(10, 1, AsyncLogEventPublisher.OverflowPolicy.CALLER_RUNS);
+
+        assertTrue(publisher.publishDiagnosticLogEvent(new Event("tenant-1"), TENANT_ID));
+        assertTrue(publisher.publishDiagnosticLogEvent(new Event("tenant-2"), TENANT_ID));
+
+        // The publisher thread is still blocked, so the event over the limit was published on the calling thread.
+        assertEquals(publishedEvents, Collections.singletonList("tenant-2"));
+        assertEquals(publisher.getDroppedEventCount(), 0L);
+        assertEquals(publisher.getQueuedEventCount(), 1);
+    }
+
+    @Test
+    public void testFullQueueWithDropPolicy() throws Exception {
+
+        publisher = startBlockedPublisher(1, 0, AsyncLogEventPublisher.OverflowPolicy.DROP);
+
+        assertTrue(publisher.publishDiagnosticLogEvent(new Event("diagnostic-1"), TENANT_ID));
+        assertFalse(publisher.publishDiagnosticLogEvent(new Event("diagnostic-2"), OTHER_TENANT_ID));
+        assertEquals(publisher.getDroppedEventCount(), 1L);
+        assertTrue(publishedEvents.isEmpty());
+    }
+
+    @Test
+    public void testAuditEventWaitsForQueueWhenQueueIsFull() throws Exception {
+
+        publisher = startBlockedPublisher(1, 0, AsyncLogEventPublisher.OverflowPolicy.DROP);
+        publisher.publishAuditLogEvent(new Event("audit-1"));
+
+        Thread auditThread = new Thread(() -> publisher.publishAuditLogEvent(new Event("audit-2")));
+        auditThread.start();
+        auditThread.join(200);
+        // The audit event waits for the queue instead of being published ahead of the queued events.
+        assertTrue(auditThread.isAlive());
+        assertTrue(publishedEvents.isEmpty());
+
+        releasePublisher.countDown();
+        auditThread.join(10000);
+        waitForPublishedEvents(3);
+
+        assertEquals(publishedEvents, Arrays.asList(BLOCKING_EVENT, "audit-1", "audit-2"));
+        assertEquals(publisher.getDroppedEventCount(), 0L);
+    }
+
+    @Test
+    public void testEventIsPublishedWithContextOfCaller() throws Exception {
+
+        publisher = startBlockedPublisher(10, 0, AsyncLogEventPublisher.OverflowPolicy.DROP);
+        PrivilegedCarbonContext.startTenantFlow();
+        try {
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(TENANT_ID);
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(TENANT_DOMAIN);
+            MDC.put(CORRELATION_ID_MDC, "correlation-1");
+            publisher.publishDiagnosticLogEvent(new Event("diagnostic-1"), TENANT_ID);
+            publisher.publishAuditLogEvent(new Event("audit-1"));
+        } finally {
+            MDC.clear();
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+
+        releasePublisher.countDown();
+        waitForPublishedEvents(3);
+
+        String expectedContext = TENANT_ID + ":" + TENANT_DOMAIN + ":correlation-1";
+        assertEquals(publishedContexts.get("diagnostic-1"), expectedContext);
+        assertEquals(publishedContexts.get("audit-1"), expectedContext);
+    }
+
+    @Test
+    public void testShutdownPublishesQueuedEvents() throws Exception {
+
+        publisher = startBlockedPublisher(10, 0, AsyncLogEventPublisher.OverflowPolicy.DROP);
+        publisher.publishAuditLogEvent(new Event("audit-1"));
+        publisher.publishDiagnosticLogEvent(new Event("diagnostic-1"), TENANT_ID);
+
+        releasePublisher.countDown();
+        publisher.shutdown(5000);
+
+        assertEquals(publishedEvents, Arrays.asList(BLOCKING_EVENT, "audit-1", "diagnostic-1"));
+        assertEquals(publisher.getQueuedEventCount(), 0);
+    }
+
+    @Test
+    public void testShutdownDrainsQueueWhenPublisherDoesNotStop() throws Exception {
+
+        publisher = startBlockedPublisher(10, 0, AsyncLogEventPublisher.OverflowPolicy.DROP);
+        publisher.publishAuditLogEvent(new Event("audit-1"));
+        publisher.publishDiagnosticLogEvent(new Event("diagnostic-1"), TENANT_ID);
+
+        // The publisher thread is blocked, so the join times out and the queue is drained on this thread.
+        publisher.shutdown(100);
+
+        assertTrue(publishedEvents.containsAll(Arrays.asList("audit-1", "diagnostic-1")));
+        assertEquals(publisher.getQueuedEventCount(), 0);
+
+        // Events after the shutdown are published on the calling thread.
+        publisher.publishAuditLogEvent(new Event("audit-2"));
+        assertTrue(publishedEvents.contains("audit-2"));
+    }
+
+    /**
+     * Start a publisher whose thread is blocked publishing an event, so that the next events stay in the queue
+     * until {@link #releasePublisher} is released.
+     */
+    private AsyncLogEventPublisher startBlockedPublisher(int queueSize, int maxQueuedEventsPerTenant,
+                                                         AsyncLogEventPublisher.OverflowPolicy overflowPolicy)
+            throws InterruptedException {
+
+        AsyncLogEventPublisher asyncLogEventPublisher = new AsyncLogEventPublisher(queueSize,
+                maxQueuedEventsPerTenant, overflowPolicy);
+        asyncLogEventPublisher.start();
+        asyncLogEventPublisher.publishDiagnosticLogEvent(new Event(BLOCKING_EVENT), BLOCKING_TENANT_ID);
+        assertTrue(publisherBlocked.await(10, TimeUnit.SECONDS), "Publisher thread did not take the event.");
+        return asyncLogEventPublisher;
+    }
+
+    private void waitForPublishedEvents(int count) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (publishedEvents.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(publishedEvents.size(), count);
+    }
+}
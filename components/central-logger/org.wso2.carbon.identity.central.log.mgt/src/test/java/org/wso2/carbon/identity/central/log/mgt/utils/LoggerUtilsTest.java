@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.central.log.mgt.utils;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.powermock.reflect.Whitebox;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.CarbonConstants;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.utils.CarbonUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.times;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.verifyStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.DEFAULT_DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT;
+import static org.wso2.carbon.identity.central.log.mgt.utils.LogConstants.DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT;
+
+/**
+ * Unit tests for {@link LoggerUtils}.
+ */
+@PrepareForTest({CarbonUtils.class, IdentityUtil.class})
+public class LoggerUtilsTest extends PowerMockTestCase {
+
+    private static final int TENANT_ID = 1;
+    private static final int OTHER_TENANT_ID = 2;
+
+    @BeforeMethod
+    public void setUp() {
+
+        mockStatic(CarbonUtils.class);
+        mockStatic(IdentityUtil.class);
+        when(CarbonUtils.getDiagnosticLogMode(TENANT_ID)).thenReturn(CarbonConstants.DiagnosticLogMode.NONE);
+        when(CarbonUtils.getDiagnosticLogMode(OTHER_TENANT_ID)).thenReturn(CarbonConstants.DiagnosticLogMode.NONE);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        Whitebox.setInternalState(LoggerUtils.class, "diagnosticLogModeCacheTimeoutNanos",
+                TimeUnit.SECONDS.toNanos(DEFAULT_DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT));
+        when(IdentityUtil.getProperty(DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT)).thenReturn(null);
+        LoggerUtils.getDiagnosticLogModeCacheConfigValue();
+    }
+
+    @Test
+    public void testDiagnosticLogModeIsReusedWithinTimeout() {
+
+        LoggerUtils.getDiagnosticLogModeCacheConfigValue();
+
+        assertEquals(LoggerUtils.getDiagnosticLogMode(TENANT_ID), CarbonConstants.DiagnosticLogMode.NONE);
+        assertEquals(LoggerUtils.getDiagnosticLogMode(TENANT_ID), CarbonConstants.DiagnosticLogMode.NONE);
+        LoggerUtils.getDiagnosticLogMode(OTHER_TENANT_ID);
+
+        verifyStatic(CarbonUtils.class, times(1));
+        CarbonUtils.getDiagnosticLogMode(TENANT_ID);
+        verifyStatic(CarbonUtils.class, times(1));
+        CarbonUtils.getDiagnosticLogMode(OTHER_TENANT_ID);
+    }
+
+    @Test
+    public void testDiagnosticLogModeIsReadAgainAfterTimeout() throws Exception {
+
+        when(IdentityUtil.getProperty(DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT)).thenReturn("1");
+        LoggerUtils.getDiagnosticLogModeCacheConfigValue();
+
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+        Thread.sleep(1100);
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+
+        verifyStatic(CarbonUtils.class, times(2));
+        CarbonUtils.getDiagnosticLogMode(TENANT_ID);
+    }
+
+    @Test
+    public void testZeroTimeoutDisablesDiagnosticLogModeCache() {
+
+        when(IdentityUtil.getProperty(DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT)).thenReturn("0");
+        LoggerUtils.getDiagnosticLogModeCacheConfigValue();
+
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+
+        verifyStatic(CarbonUtils.class, times(3));
+        CarbonUtils.getDiagnosticLogMode(TENANT_ID);
+    }
+
+    @Test
+    public void testConfigReloadDropsCachedDiagnosticLogModes() {
+
+        LoggerUtils.getDiagnosticLogModeCacheConfigValue();
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+
+        LoggerUtils.getDiagnosticLogModeCacheConfigValue();
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+
+        verifyStatic(CarbonUtils.class, times(2));
+        CarbonUtils.getDiagnosticLogMode(TENANT_ID);
+    }
+
+    @Test
+    public void testInvalidTimeoutKeepsDiagnosticLogModeCache() {
+
+        when(IdentityUtil.getProperty(DIAGNOSTIC_LOG_MODE_CACHE_TIMEOUT)).thenReturn("invalid");
+        LoggerUtils.getDiagnosticLogModeCacheConfigValue();
+
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+        LoggerUtils.getDiagnosticLogMode(TENANT_ID);
+
+        verifyStatic(CarbonUtils.class, times(1));
+        CarbonUtils.getDiagnosticLogMode(TENANT_ID);
+    }
+
+    @DataProvider(name = "maskingContentProvider")
+    public Object[][] maskingContentProvider() {
+
+        return new Object[][]{
+                {"a"},
+                {"ab"},
+                {"abc"},
+                {"abcd"},
+                {" "},
+                {"a b"},
+                {"a\tb\tc"},
+                {"john@wso2.com"},
+                {"\u00F1and\u00FA"},
+                {"\n"},
+                {"a\n"},
+                {"a\nb"},
+                {"ab\ncd"},
+                {"ab\r\ncd"},
+                {"abc\r"},
+                {"a\u0085bc"},
+                {"ab\u2028cd"},
+                {"ab\u2029cd"},
+                {"\uD83D\uDE00"},
+                {"a\uD83D\uDE00"},
+                {"a\uD83D\uDE00b"},
+                {"\uD83D\uDE00\uD83D\uDE00\uD83D\uDE00"},
+                {"ab\uD83Dcd"},
+                {"ab\uDE00"}
+        };
+    }
+
+    @Test(dataProvider = "maskingContentProvider")
+    public void testGetMaskedContentMatchesMaskingPattern(String content) {
+
+        String expected = LogConstants.LOG_MASKING_PATTERN.matcher(content).replaceAll(LogConstants.MASKING_CHARACTER);
+
+        assertEquals(LoggerUtils.getMaskedContent(content), expected);
+    }
+
+    @Test
+    public void testGetMaskedContentWithEmptyContent() {
+
+        assertNull(LoggerUtils.getMaskedContent(null));
+        assertEquals(LoggerUtils.getMaskedContent(""), "");
+    }
+
+    @Test
+    public void testCopyMutableParams() {
+
+        List<String> scopes = new ArrayList<>(Arrays.asList("openid", "profile"));
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("groups", scopes);
+        Map<String, Object> params = new HashMap<>();
+        params.put("scopes", scopes);
+        params.put("claims", claims);
+        params.put("clientId", "client-1");
+
+        LoggerUtils.copyMutableParams(params);
+        scopes.add("email");
+        claims.put("roles", "admin");
+
+        assertEquals(params.get("scopes"), Arrays.asList("openid", "profile"));
+        assertEquals(params.get("claims"), Collections.singletonMap("groups", Arrays.asList("openid", "profile")));
+        assertEquals(params.get("clientId"), "client-1");
+    }
+}
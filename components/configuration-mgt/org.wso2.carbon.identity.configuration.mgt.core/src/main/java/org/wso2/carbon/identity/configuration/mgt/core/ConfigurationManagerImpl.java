@@ -26,6 +26,8 @@ import org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationCon
 import org.wso2.carbon.identity.configuration.mgt.core.dao.ConfigurationDAO;
 import org.wso2.carbon.identity.configuration.mgt.core.exception.ConfigurationManagementClientException;
 import org.wso2.carbon.identity.configuration.mgt.core.exception.ConfigurationManagementException;
+import org.wso2.carbon.identity.configuration.mgt.core.internal.ConfigurationManagerComponentDataHolder;
+import org.wso2.carbon.identity.configuration.mgt.core.listener.ResourceChangeListener;
 import org.wso2.carbon.identity.configuration.mgt.core.model.Attribute;
 import org.wso2.carbon.identity.configuration.mgt.core.model.ConfigurationManagerConfigurationHolder;
 import org.wso2.carbon.identity.configuration.mgt.core.model.Resource;
@@ -229,6 +231,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         validateResourceDeleteRequest(resourceTypeName, resourceName);
         ResourceType resourceType = getResourceType(resourceTypeName);
         this.getConfigurationDAO().deleteResourceByName(getTenantId(), resourceType.getId(), resourceName);
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug("Resource: " + resourceName + " is deleted successfully.");
         }
@@ -248,6 +251,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         }
         resource.setResourceId(resourceId);
         this.getConfigurationDAO().addResource(resource);
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug(resourceAdd.getName() + " resource created successfully.");
         }
@@ -264,6 +268,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         }
         resource.setResourceId(resourceId);
         this.getConfigurationDAO().addResource(resource);
+        notifyResourceChange(resourceTypeName);
         log.info("Resource: " + resource.getResourceName() + " added successfully");
         return resource;
     }
@@ -279,6 +284,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         Resource resource = generateResourceFromRequest(resourceTypeName, resourceAdd);
         resource.setResourceId(resourceId);
         this.getConfigurationDAO().replaceResource(resource);
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug(resourceAdd.getName() + " resource created successfully.");
         }
@@ -293,6 +299,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         String resourceId = generateResourceId(resourceTypeName, resource.getResourceName());
         resource.setResourceId(resourceId);
         this.getConfigurationDAO().replaceResourceWithFiles(resource);
+        notifyResourceChange(resourceTypeName);
         log.info(resource.getResourceName() + " resource created successfully.");
         return resource;
     }
@@ -385,6 +392,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         Attribute existingAttribute = getAttribute(resourceTypeName, resourceName, attributeKey);
         getConfigurationDAO().deleteAttribute(
                 existingAttribute.getAttributeId(), getResourceId(resourceTypeName, resourceName), attributeKey);
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug("Attribute: " + attributeKey + " successfully deleted.");
         }
@@ -422,6 +430,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         Attribute existingAttribute = getAttribute(resourceTypeName, resourceName, attribute.getKey());
         getConfigurationDAO().updateAttribute(
                 existingAttribute.getAttributeId(), getResourceId(resourceTypeName, resourceName), attribute);
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug("Attribute: " + attribute.getKey() + " successfully updated.");
         }
@@ -441,6 +450,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
             log.debug("Attribute id generated: " + attributeId);
         }
         getConfigurationDAO().addAttribute(attributeId, resourceId, attribute);
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug("Attribute: " + attribute.getKey() + " successfully updated.");
         }
@@ -457,6 +467,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         String resourceId = getResourceId(resourceTypeName, resourceName);
         String attributeId = generateAttributeId(resourceTypeName, resourceName, attribute);
         getConfigurationDAO().replaceAttribute(attributeId, resourceId, attribute);
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug("Attribute: " + attribute.getKey() + " successfully replaced.");
         }
@@ -478,6 +489,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
 
         ResourceType resourceType = getResourceType(resourceTypeName);
         this.getConfigurationDAO().deleteResourcesByType(getTenantId(), resourceType.getId());
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug("Resources belongs to Resource Type : " + resourceTypeName + " is deleted successfully.");
         }
@@ -516,6 +528,27 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         return PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
     }
 
+    /**
+     * Notify the registered resource change listeners about a change to the resources of the current tenant. A
+     * failing listener is logged and does not fail the change, which is already persisted.
+     *
+     * @param resourceTypeName Name of the resource type of the changed resource, or null if it is not known.
+     */
+    private void notifyResourceChange(String resourceTypeName) {
+
+        String tenantDomain = getTenantDomain();
+        for (ResourceChangeListener listener :
+                ConfigurationManagerComponentDataHolder.getInstance().getResourceChangeListeners()) {
+            try {
+                listener.onResourceChange(resourceTypeName, tenantDomain);
+            } catch (RuntimeException e) {
+                log.error("Error while notifying the resource change listener: " + listener.getClass().getName() +
+                        " about a change of the resource type: " + resourceTypeName + " in tenant: " + tenantDomain,
+                        e);
+            }
+        }
+    }
+
     private void validateResourceDeleteRequest(String resourceTypeName, String resourceName)
             throws ConfigurationManagementException {
 
@@ -915,6 +948,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
                     + "name: " + resourceTypeName);
         }
         getConfigurationDAO().addFile(fileId, resourceId, fileName, fileStream);
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug("File: " + fileId + " successfully added for resource name: " + resourceName
                     + " resource type name: " + resourceTypeName);
@@ -966,6 +1000,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         validateRequest(resourceTypeName, resourceName);
         String resourceId = getResourceId(resourceTypeName, resourceName);
         getConfigurationDAO().deleteFiles(resourceId);
+        notifyResourceChange(resourceTypeName);
         if (log.isDebugEnabled()) {
             log.debug("All the files were deleted in the resource: " + resourceName + ".");
         }
@@ -996,6 +1031,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         validateRequest(resourceType, resourceName, fileId);
         validateFileExistence(resourceType, resourceName, fileId);
         getConfigurationDAO().deleteFileById(resourceType, resourceName, fileId);
+        notifyResourceChange(resourceType);
         if (log.isDebugEnabled()) {
             log.debug("File: " + fileId + " successfully deleted.");
         }
@@ -1094,6 +1130,8 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         }
         if (isResourceExistsById(resourceId)) {
             this.getConfigurationDAO().deleteResourceById(getTenantId(), resourceId);
+            // The resource type is not known from the resource id.
+            notifyResourceChange(null);
             if (log.isDebugEnabled()) {
                 log.debug("Resource id: " + resourceId + " in tenant: " + getTenantDomain() + " deleted successfully.");
             }
@@ -1111,6 +1149,7 @@ public class ConfigurationManagerImpl implements ConfigurationManager {
         }
         if (isResourceExistsById(resource.getResourceId())) {
             this.getConfigurationDAO().replaceResourceWithFiles(resource);
+            notifyResourceChange(resource.getResourceType());
             if (log.isDebugEnabled()) {
                 log.debug("Resource id: " + resourceId + " in tenant: " + getTenantDomain() + " updated successfully.");
             }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.configuration.mgt.core.cache;
+
+import org.wso2.carbon.identity.application.common.cache.BaseCache;
+import org.wso2.carbon.identity.application.common.listener.AbstractCacheListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryExpiredListener;
+import javax.cache.event.CacheEntryListenerException;
+import javax.cache.event.CacheEntryRemovedListener;
+
+import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.getFileCacheMaxTotalSize;
+
+/**
+ * Cache for the content of {@link org.wso2.carbon.identity.configuration.mgt.core.model.ResourceFile}s by the file id.
+ * The total size of the content cached by a node is limited. Once the limit is exceeded, the least recently used
+ * entries are removed. Entries which expire or are invalidated by another node of the cluster are removed from the
+ * size accounting through a cache entry listener, and any entry found missing on read is removed as well.
+ */
+public class ResourceFileCache extends BaseCache<ResourceFileCacheKey, ResourceFileCacheEntry> {
+
+    private static final String RESOURCE_FILE_CACHE_NAME = "ConfigurationResourceFileCache";
+    private static volatile ResourceFileCache instance;
+
+    private final long maxTotalSize;
+    // Content size of the entries added by this node, in the least recently used order.
+    private final LinkedHashMap<ResourceFileCacheKey, Integer> contentSizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+
+    private ResourceFileCache() {
+
+        super(RESOURCE_FILE_CACHE_NAME);
+        this.maxTotalSize = getFileCacheMaxTotalSize();
+        addListener(new ContentSizeListener(this));
+    }
+
+    public static ResourceFileCache getInstance() {
+
+        if (instance == null) {
+            synchronized (ResourceFileCache.class) {
+                if (instance == null) {
+                    instance = new ResourceFileCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public void addToCache(ResourceFileCacheKey key, ResourceFileCacheEntry entry) {
+
+        int contentSize = entry.getContent().length;
+        if (contentSize > maxTotalSize) {
+            return;
+        }
+        List<ResourceFileCacheKey> evictedKeys = new ArrayList<>();
+        synchronized (contentSizes) {
+            Integer previousSize = contentSizes.put(key, contentSize);
+            totalSize += contentSize - (previousSize != null ? previousSize : 0);
+            Iterator<Map.Entry<ResourceFileCacheKey, Integer>> iterator = contentSizes.entrySet().iterator();
+            while (totalSize > maxTotalSize && iterator.hasNext()) {
+                Map.Entry<ResourceFileCacheKey, Integer> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                totalSize -= eldest.getValue();
+                evictedKeys.add(eldest.getKey());
+                iterator.remove();
+            }
+        }
+        for (ResourceFileCacheKey evictedKey : evictedKeys) {
+            super.clearCacheEntry(evictedKey);
+        }
+        super.addToCache(key, entry);
+    }
+
+    @Override
+    public ResourceFileCacheEntry getValueFromCache(ResourceFileCacheKey key) {
+
+        ResourceFileCacheEntry entry = super.getValueFromCache(key);
+        if (entry != null) {
+            synchronized (contentSizes) {
+                // Mark the entry as recently used.
+                contentSizes.get(key);
+            }
+        } else {
+            // The entry may have been removed without a listener notification.
+            removeContentSize(key);
+        }
+        return entry;
+    }
+
+    @Override
+    public void clearCacheEntry(ResourceFileCacheKey key) {
+
+        removeContentSize(key);
+        super.clearCacheEntry(key);
+    }
+
+    @Override
+    public void clear() {
+
+        synchronized (contentSizes) {
+            contentSizes.clear();
+            totalSize = 0;
+        }
+        super.clear();
+    }
+
+    private void removeContentSize(ResourceFileCacheKey key) {
+
+        synchronized (contentSizes) {
+            Integer contentSize = contentSizes.remove(key);
+            if (contentSize != null) {
+                totalSize -= contentSize;
+            }
+        }
+    }
+
+    /**
+     * Removes the size of the entries which expire or are removed by the cache itself, such as on the cluster
+     * invalidation of an entry.
+     */
+    private static class ContentSizeListener extends AbstractCacheListener<ResourceFileCacheKey,
+            ResourceFileCacheEntry> implements CacheEntryRemovedListener<ResourceFileCacheKey, ResourceFileCacheEntry>,
+            CacheEntryExpiredListener<ResourceFileCacheKey, ResourceFileCacheEntry> {
+
+        private final ResourceFileCache resourceFileCache;
+
+        ContentSizeListener(ResourceFileCache resourceFileCache) {
+
+            this.resourceFileCache = resourceFileCache;
+        }
+
+        @Override
+        public void entryRemoved(CacheEntryEvent<? extends ResourceFileCacheKey, ? extends ResourceFileCacheEntry>
+                                         event) throws CacheEntryListenerException {
+
+            onEntryRemoved(event);
+        }
+
+        @Override
+        public void entryExpired(CacheEntryEvent<? extends ResourceFileCacheKey, ? extends ResourceFileCacheEntry>
+                                         event) throws CacheEntryListenerException {
+
+            onEntryRemoved(event);
+        }
+
+        private void onEntryRemoved(CacheEntryEvent<? extends ResourceFileCacheKey, ? extends ResourceFileCacheEntry>
+                                            event) {
+
+            if (event != null && event.getKey() != null) {
+                resourceFileCache.removeContentSize(event.getKey());
+            }
+        }
+    }
+}
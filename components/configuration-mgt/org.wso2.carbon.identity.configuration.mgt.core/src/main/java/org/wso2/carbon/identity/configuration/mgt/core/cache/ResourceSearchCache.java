@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.configuration.mgt.core.cache;
+
+import org.wso2.carbon.identity.application.common.cache.BaseCache;
+
+/**
+ * Cache for the results of the tenant resource searches by the normalized search condition.
+ */
+public class ResourceSearchCache extends BaseCache<ResourceSearchCacheKey, ResourceSearchCacheEntry> {
+
+    private static final String RESOURCE_SEARCH_CACHE_NAME = "ConfigurationResourceSearchCache";
+    private static volatile ResourceSearchCache instance;
+
+    private ResourceSearchCache() {
+
+        super(RESOURCE_SEARCH_CACHE_NAME);
+    }
+
+    public static ResourceSearchCache getInstance() {
+
+        if (instance == null) {
+            synchronized (ResourceSearchCache.class) {
+                if (instance == null) {
+                    instance = new ResourceSearchCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -70,6 +70,15 @@ public class ConfigurationConstants {
     public static final String TENANT_NAME_FROM_CONTEXT = "TenantNameFromContext";
     public static final String PATH_SEPARATOR = "/";
     public static final String CORRELATION_ID_MDC = "Correlation-ID";
+    public static final String FILE_STORE_TYPE = "ConfigurationStore.FileStore.Type";
+    public static final String FILE_STORE_TYPE_FILE_SYSTEM = "filesystem";
+    public static final String FILE_STORE_LOCATION = "ConfigurationStore.FileStore.Location";
+    public static final String FILE_CACHE_MAX_FILE_SIZE = "ConfigurationStore.FileCache.MaxFileSizeInBytes";
+    public static final int DEFAULT_FILE_CACHE_MAX_FILE_SIZE = 1048576;
+    public static final String FILE_CACHE_MAX_TOTAL_SIZE = "ConfigurationStore.FileCache.MaxTotalSizeInBytes";
+    public static final long DEFAULT_FILE_CACHE_MAX_TOTAL_SIZE = 33554432;
+    public static final String SLOW_SEARCH_THRESHOLD = "ConfigurationStore.SlowSearchThresholdInMillis";
+    public static final long DEFAULT_SLOW_SEARCH_THRESHOLD = 1000;
 
 
     public enum ErrorMessages {
@@ -477,6 +477,10 @@ public class SQLConstants {
             "  RESOURCE_ID = ?";
     public static final String DELETE_FILE_SQL = "DELETE FROM IDN_CONFIG_FILE WHERE ID = ?";
     public static final String DELETE_FILES_SQL = "DELETE FROM IDN_CONFIG_FILE WHERE RESOURCE_ID = ?";
+    public static final String GET_FILE_IDS_BY_RESOURCE_TYPE_NAME_SQL = "SELECT IDN_CONFIG_FILE.ID FROM " +
+            "IDN_CONFIG_FILE INNER JOIN IDN_CONFIG_RESOURCE ON IDN_CONFIG_FILE.RESOURCE_ID = IDN_CONFIG_RESOURCE.ID " +
+            "INNER JOIN IDN_CONFIG_TYPE ON IDN_CONFIG_RESOURCE.TYPE_ID = IDN_CONFIG_TYPE.ID " +
+            "WHERE IDN_CONFIG_TYPE.NAME = ?";
     public static final String UPDATE_HAS_FILE_SQL = "UPDATE IDN_CONFIG_RESOURCE SET HAS_FILE = ? " +
             "WHERE ID = ?";
     public static final String UPDATE_HAS_ATTRIBUTE_SQL = "UPDATE IDN_CONFIG_RESOURCE SET HAS_ATTRIBUTE = ? " +
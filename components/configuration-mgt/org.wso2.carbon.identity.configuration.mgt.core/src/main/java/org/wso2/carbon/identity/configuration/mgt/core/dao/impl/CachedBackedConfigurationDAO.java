@@ -16,6 +16,7 @@
 
 package org.wso2.carbon.identity.configuration.mgt.core.dao.impl;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
@@ -24,6 +25,12 @@ import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceByNameCache
 import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceByNameCacheKey;
 import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceCacheEntry;
 import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceByIdCacheKey;
+import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceFileCache;
+import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceFileCacheEntry;
+import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceFileCacheKey;
+import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceSearchCache;
+import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceSearchCacheEntry;
+import org.wso2.carbon.identity.configuration.mgt.core.cache.ResourceSearchCacheKey;
 import org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants;
 import org.wso2.carbon.identity.configuration.mgt.core.dao.ConfigurationDAO;
 import org.wso2.carbon.identity.configuration.mgt.core.exception.ConfigurationManagementException;
@@ -34,13 +41,21 @@ import org.wso2.carbon.identity.configuration.mgt.core.model.ResourceFile;
 import org.wso2.carbon.identity.configuration.mgt.core.model.ResourceType;
 import org.wso2.carbon.identity.configuration.mgt.core.model.Resources;
 import org.wso2.carbon.identity.configuration.mgt.core.search.Condition;
+import org.wso2.carbon.identity.configuration.mgt.core.search.NormalizedCondition;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.List;
 
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.ErrorMessages.ERROR_CODE_GET_FILE;
+import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.getFileCacheMaxFileSize;
 import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.handleClientException;
+import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.handleServerException;
 
 /**
  * This is a wrapper data access object to the default data access object to provide caching functionalities.
@@ -51,12 +66,18 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
     private final ConfigurationDAO configurationDAO;
     private final ResourceByIdCache resourceByIdCache;
     private final ResourceByNameCache resourceByNameCache;
+    private final ResourceFileCache resourceFileCache;
+    private final ResourceSearchCache resourceSearchCache;
+    private final int maxCachedFileSize;
 
     public CachedBackedConfigurationDAO(ConfigurationDAO configurationDAO) {
     
         this.configurationDAO = configurationDAO;
         this.resourceByIdCache = ResourceByIdCache.getInstance();
         this.resourceByNameCache = ResourceByNameCache.getInstance();
+        this.resourceFileCache = ResourceFileCache.getInstance();
+        this.resourceSearchCache = ResourceSearchCache.getInstance();
+        this.maxCachedFileSize = getFileCacheMaxFileSize();
     }
 
     @Override
@@ -68,7 +89,28 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
     @Override
     public Resources getTenantResources(Condition condition) throws ConfigurationManagementException {
 
-        return configurationDAO.getTenantResources(condition);
+        NormalizedCondition normalizedCondition = NormalizedCondition.normalize(condition);
+        if (normalizedCondition == null) {
+            return configurationDAO.getTenantResources(condition);
+        }
+        ResourceSearchCacheKey resourceSearchCacheKey = new ResourceSearchCacheKey(normalizedCondition.getKey(),
+                getTenantDomain());
+        ResourceSearchCacheEntry resourceSearchCacheEntry =
+                resourceSearchCache.getValueFromCache(resourceSearchCacheKey);
+        if (resourceSearchCacheEntry != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Cache hit for the tenant resource search with the condition shape: " +
+                        normalizedCondition.getShape());
+            }
+            return resourceSearchCacheEntry.getResources();
+        }
+        Resources resources = configurationDAO.getTenantResources(condition);
+        resourceSearchCache.addToCache(resourceSearchCacheKey, new ResourceSearchCacheEntry(resources));
+        if (log.isDebugEnabled()) {
+            log.debug("Cached the tenant resource search result for the condition shape: " +
+                    normalizedCondition.getShape());
+        }
+        return resources;
     }
 
     @Override
@@ -125,29 +167,41 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
     @Override
     public void deleteResourceById(int tenantId, String resourceId) throws ConfigurationManagementException {
 
+        List<ResourceFile> resourceFiles = configurationDAO.getFiles(resourceId, null, null);
         configurationDAO.deleteResourceById(tenantId, resourceId);
+        clearSearchResultCache();
         deleteCacheByResourceId(resourceId, tenantId);
+        deleteFilesFromCache(resourceFiles);
     }
 
     @Override
     public void replaceResourceWithFiles(Resource resource) throws ConfigurationManagementException {
 
+        List<ResourceFile> resourceFiles = configurationDAO.getFiles(resource.getResourceId(), null, null);
         configurationDAO.replaceResourceWithFiles(resource);
+        clearSearchResultCache();
         deleteResourceFromCache(resource);
+        deleteFilesFromCache(resourceFiles);
     }
 
     @Override
     public void deleteResourceByName(int tenantId, String resourceTypeId, String name)
             throws ConfigurationManagementException {
 
+        Resource resource = getResourceByName(tenantId, resourceTypeId, name);
         configurationDAO.deleteResourceByName(tenantId, resourceTypeId, name);
+        clearSearchResultCache();
         deleteCacheByResourceByName(name, tenantId);
+        if (resource != null) {
+            deleteFilesFromCache(resource.getFiles());
+        }
     }
 
     @Override
     public void addResource(Resource resource) throws ConfigurationManagementException {
 
         configurationDAO.addResource(resource);
+        clearSearchResultCache();
         addResourceToCache(resource);
     }
 
@@ -155,6 +209,7 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
     public void replaceResource(Resource resource) throws ConfigurationManagementException {
 
         configurationDAO.replaceResource(resource);
+        clearSearchResultCache();
         deleteResourceFromCache(resource);
     }
 
@@ -168,6 +223,7 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
     public void replaceResourceType(ResourceType resourceType) throws ConfigurationManagementException {
 
         configurationDAO.replaceResourceType(resourceType);
+        clearSearchResultCache();
     }
 
     @Override
@@ -186,6 +242,9 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
     public void deleteResourceTypeByName(String resourceTypeName) throws ConfigurationManagementException {
 
         configurationDAO.deleteResourceTypeByName(resourceTypeName);
+        clearSearchResultCache();
+        // Files of all the tenants are removed along with the resource type.
+        resourceFileCache.clear();
     }
 
     @Override
@@ -199,6 +258,7 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
             throws ConfigurationManagementException {
 
         configurationDAO.updateAttribute(attributeId, resourceId, attribute);
+        clearSearchResultCache();
     }
 
     @Override
@@ -206,6 +266,7 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
             throws ConfigurationManagementException {
 
         configurationDAO.addAttribute(attributeId, resourceId, attribute);
+        clearSearchResultCache();
     }
 
     @Override
@@ -213,6 +274,7 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
             throws ConfigurationManagementException {
 
         configurationDAO.replaceAttribute(attributeId, resourceId, attribute);
+        clearSearchResultCache();
     }
 
     @Override
@@ -220,6 +282,7 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
             throws ConfigurationManagementException {
 
         configurationDAO.deleteAttribute(attributeId, resourceId, attributeKey);
+        clearSearchResultCache();
     }
 
     @Override
@@ -227,13 +290,28 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
             throws ConfigurationManagementException {
 
         configurationDAO.addFile(fileId, resourceId, fileName, fileStream);
+        clearSearchResultCache();
     }
 
     @Override
     public InputStream getFileById(String resourceType, String resourceName, String fileId)
             throws ConfigurationManagementException {
 
-        return configurationDAO.getFileById(resourceType, resourceName, fileId);
+        ResourceFileCacheKey resourceFileCacheKey = new ResourceFileCacheKey(fileId, getTenantDomain());
+        ResourceFileCacheEntry resourceFileCacheEntry = resourceFileCache.getValueFromCache(resourceFileCacheKey);
+        if (resourceFileCacheEntry != null && StringUtils.equals(resourceType, resourceFileCacheEntry.getResourceType())
+                && StringUtils.equals(resourceName, resourceFileCacheEntry.getResourceName())) {
+            if (log.isDebugEnabled()) {
+                log.debug("Cache hit for the resource file: " + fileId);
+            }
+            return new ByteArrayInputStream(resourceFileCacheEntry.getContent());
+        }
+
+        InputStream fileStream = configurationDAO.getFileById(resourceType, resourceName, fileId);
+        if (fileStream == null) {
+            return null;
+        }
+        return addFileToCache(resourceFileCacheKey, fileId, resourceType, resourceName, fileStream);
     }
 
     @Override
@@ -255,12 +333,17 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
             throws ConfigurationManagementException {
 
         configurationDAO.deleteFileById(resourceType, resourceName, fileId);
+        clearSearchResultCache();
+        resourceFileCache.clearCacheEntry(new ResourceFileCacheKey(fileId, getTenantDomain()));
     }
 
     @Override
     public void deleteFiles(String resourceId) throws ConfigurationManagementException {
 
+        List<ResourceFile> resourceFiles = configurationDAO.getFiles(resourceId, null, null);
         configurationDAO.deleteFiles(resourceId);
+        clearSearchResultCache();
+        deleteFilesFromCache(resourceFiles);
     }
 
     @Override
@@ -286,8 +369,10 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
             throw handleClientException(ConfigurationConstants.ErrorMessages.ERROR_CODE_RESOURCES_DOES_NOT_EXISTS);
         }
         configurationDAO.deleteResourcesByType(tenantId, resourceTypeId);
+        clearSearchResultCache();
         for (Resource resource : resourceList) {
             deleteResourceFromCache(resource);
+            deleteFilesFromCache(resource.getFiles());
         }
     }
 
@@ -407,4 +492,62 @@ public class CachedBackedConfigurationDAO implements ConfigurationDAO {
         }
         deleteResourceFromCache(resource);
     }
+
+    /**
+     * Buffer the content of a file read from the underlying DAO and add it to the cache. Files larger than the
+     * configured maximum size are not cached, and are returned as a stream continuing from the buffered content.
+     */
+    private InputStream addFileToCache(ResourceFileCacheKey resourceFileCacheKey, String fileId, String resourceType,
+                                       String resourceName, InputStream fileStream)
+            throws ConfigurationManagementException {
+
+        try {
+            ByteArrayOutputStream bufferedContent = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = fileStream.read(buffer)) != -1) {
+                bufferedContent.write(buffer, 0, read);
+                if (bufferedContent.size() > maxCachedFileSize) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Resource file: " + fileId + " exceeds the maximum cacheable " +
+                                "file size of " + maxCachedFileSize + " bytes.");
+                    }
+                    return new SequenceInputStream(new ByteArrayInputStream(bufferedContent.toByteArray()),
+                            fileStream);
+                }
+            }
+            fileStream.close();
+            byte[] content = bufferedContent.toByteArray();
+            resourceFileCache.addToCache(resourceFileCacheKey,
+                    new ResourceFileCacheEntry(resourceType, resourceName, content));
+            return new ByteArrayInputStream(content);
+        } catch (IOException e) {
+            throw handleServerException(ERROR_CODE_GET_FILE, fileId, e);
+        }
+    }
+
+    private void deleteFilesFromCache(List<ResourceFile> resourceFiles) {
+
+        if (resourceFiles == null) {
+            return;
+        }
+        String tenantDomain = getTenantDomain();
+        for (ResourceFile resourceFile : resourceFiles) {
+            resourceFileCache.clearCacheEntry(new ResourceFileCacheKey(resourceFile.getId(), tenantDomain));
+        }
+    }
+
+    /**
+     * Search results can contain resources of any tenant in cross tenant searches, hence all the cached results are
+     * cleared on a write.
+     */
+    private void clearSearchResultCache() {
+
+        resourceSearchCache.clear();
+    }
+
+    private String getTenantDomain() {
+
+        return PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+    }
 }
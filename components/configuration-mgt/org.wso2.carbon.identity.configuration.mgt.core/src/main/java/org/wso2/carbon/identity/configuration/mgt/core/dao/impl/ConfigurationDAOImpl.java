@@ -36,14 +36,20 @@ import org.wso2.carbon.identity.configuration.mgt.core.model.ResourceSearchBean;
 import org.wso2.carbon.identity.configuration.mgt.core.model.ResourceType;
 import org.wso2.carbon.identity.configuration.mgt.core.model.Resources;
 import org.wso2.carbon.identity.configuration.mgt.core.search.Condition;
+import org.wso2.carbon.identity.configuration.mgt.core.search.NormalizedCondition;
 import org.wso2.carbon.identity.configuration.mgt.core.search.PlaceholderSQL;
+import org.wso2.carbon.identity.configuration.mgt.core.search.PrimitiveCondition;
 import org.wso2.carbon.identity.configuration.mgt.core.search.PrimitiveConditionValidator;
+import org.wso2.carbon.identity.configuration.mgt.core.search.SearchBean;
 import org.wso2.carbon.identity.configuration.mgt.core.search.exception.PrimitiveConditionValidationException;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.JdbcUtils;
 import org.wso2.carbon.identity.core.util.LambdaExceptionUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.sql.Blob;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -51,9 +57,13 @@ import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -151,6 +161,7 @@ import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConsta
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConstants.DELETE_RESOURCE_ATTRIBUTES_SQL;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConstants.GET_ATTRIBUTES_BY_RESOURCE_ID_SQL;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConstants.GET_FILES_BY_RESOURCE_ID_SQL;
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConstants.GET_FILE_IDS_BY_RESOURCE_TYPE_NAME_SQL;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConstants.GET_FILES_BY_RESOURCE_TYPE_ID_SQL;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConstants
         .GET_RESOURCES_BY_RESOURCE_TYPE_ID_SQL;
@@ -214,9 +225,12 @@ import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConsta
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConstants.UPDATE_RESOURCE_H2;
 import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.generateUniqueID;
 import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.getFilePath;
+import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.getFileStoreLocation;
 import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.getMaximumQueryLengthInBytes;
+import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.getSlowSearchThresholdInMillis;
 import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.handleClientException;
 import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.handleServerException;
+import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.isFileSystemFileStoreEnabled;
 import static org.wso2.carbon.identity.configuration.mgt.core.util.ConfigurationUtils.useCreatedTimeField;
 import static org.wso2.carbon.identity.core.util.JdbcUtils.isH2DB;
 import static org.wso2.carbon.identity.core.util.JdbcUtils.isMariaDB;
@@ -233,6 +247,33 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
 
     private static final Log log = LogFactory.getLog(ConfigurationDAOImpl.class);
     private static final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(UTC));
+    private static final int SEARCH_QUERY_PLAN_CACHE_SIZE = 256;
+
+    /*
+    Placeholder SQL of the tenant resource searches by the shape of the normalized search condition. The SQL only
+    depends on the shape of the condition, hence a cached query is reused for any condition values.
+     */
+    private static final Map<String, String> searchQueryPlans = Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+
+                    return size() > SEARCH_QUERY_PLAN_CACHE_SIZE;
+                }
+            });
+
+    /*
+    Content of the resource files is kept in the file system when the file system file store is configured. The
+    IDN_CONFIG_FILE table then only holds the file metadata, hence the store location is shared by all the nodes of a
+    cluster. Null when the content is kept in the database.
+     */
+    private final FileSystemResourceFileStore fileSystemFileStore;
+
+    public ConfigurationDAOImpl() {
+
+        this.fileSystemFileStore = isFileSystemFileStoreEnabled() ?
+                new FileSystemResourceFileStore(getFileStoreLocation()) : null;
+    }
 
     /**
      * {@inheritDoc}
@@ -249,7 +290,8 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
     @Override
     public Resources getTenantResources(Condition condition) throws ConfigurationManagementException {
 
-        PlaceholderSQL placeholderSQL = buildPlaceholderSQL(condition, useCreatedTimeField());
+        NormalizedCondition normalizedCondition = NormalizedCondition.normalize(condition);
+        PlaceholderSQL placeholderSQL = buildPlaceholderSQL(condition, normalizedCondition, useCreatedTimeField());
         if (placeholderSQL.getQuery().getBytes().length > getMaximumQueryLengthInBytes()) {
             if (log.isDebugEnabled()) {
                 log.debug("Error building SQL query for the search. Search expression " +
@@ -260,6 +302,7 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
         }
         JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
         List<ConfigurationRawDataCollector> configurationRawDataCollectors;
+        long searchStartTime = System.currentTimeMillis();
         try {
             configurationRawDataCollectors = jdbcTemplate.executeQuery(placeholderSQL.getQuery(),
                     (resultSet, rowNumber) -> {
@@ -299,6 +342,7 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                             }
                         }
                     });
+            logSlowSearch(normalizedCondition, System.currentTimeMillis() - searchStartTime);
             /*
             Database call can contain duplicate data for some columns. Need to filter them in order to build the
             resource.
@@ -512,9 +556,13 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
 
         JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
         try {
+            List<String> storedFileIds = Collections.emptyList();
             if (isMySQLDB()) {
                 String resourceId = getResourceId(tenantId, resourceTypeId, resourceName);
                 deleteFiles(resourceId);
+            } else if (fileSystemFileStore != null) {
+                // Files are removed from the database by the cascade delete.
+                storedFileIds = getFileIds(getResourceId(tenantId, resourceTypeId, resourceName));
             }
             jdbcTemplate.executeUpdate(SQLConstants.DELETE_RESOURCE_SQL, preparedStatement -> {
                 int initialParameterIndex = 1;
@@ -522,6 +570,7 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                 preparedStatement.setInt(++initialParameterIndex, tenantId);
                 preparedStatement.setString(++initialParameterIndex, resourceTypeId);
             });
+            deleteStoredFiles(storedFileIds);
         } catch (DataAccessException | TransactionException e) {
             throw handleServerException(ERROR_CODE_DELETE_RESOURCE_TYPE, resourceName, e);
         }
@@ -535,14 +584,19 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
 
         JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
         try {
+            List<String> storedFileIds = Collections.emptyList();
             if (isMySQLDB()) {
                 deleteFiles(resourceId);
+            } else if (fileSystemFileStore != null) {
+                // Files are removed from the database by the cascade delete.
+                storedFileIds = getFileIds(resourceId);
             }
             jdbcTemplate.executeUpdate(SQLConstants.DELETE_RESOURCE_BY_ID_SQL, preparedStatement -> {
                 int initialParameterIndex = 1;
                 preparedStatement.setString(initialParameterIndex, resourceId);
                 preparedStatement.setInt(++initialParameterIndex, tenantId);
             });
+            deleteStoredFiles(storedFileIds);
         } catch (DataAccessException e) {
             throw handleServerException(ERROR_CODE_DELETE_RESOURCE, resourceId, e);
         }
@@ -604,6 +658,8 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
         Timestamp currentTime = new java.sql.Timestamp(new Date().getTime());
 
         JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
+        List<String> replacedFileIds = new ArrayList<>();
+        List<FileSystemResourceFileStore.StagedFile> stagedFiles = new ArrayList<>();
         try {
             Timestamp createdTime = jdbcTemplate.withTransaction(template -> {
                 boolean isAttributeExists = resource.getAttributes() != null && !resource.getAttributes().isEmpty();
@@ -619,11 +675,18 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
 
                 // Update Files.
                 if (isFileExists) {
+                    if (fileSystemFileStore != null) {
+                        replacedFileIds.addAll(template.executeQuery(GET_FILES_BY_RESOURCE_ID_SQL,
+                                (resultSet, rowNumber) -> resultSet.getString(DB_SCHEMA_COLUMN_NAME_ID),
+                                preparedStatement -> preparedStatement.setString(1, resource.getResourceId())));
+                    }
                     template.executeUpdate(DELETE_FILES_SQL, (
                             preparedStatement -> preparedStatement.setString(1, resource.getResourceId())
                     ));
                     for (ResourceFile file : resource.getFiles()) {
-                        insertResourceFile(template, resource, file.getId(), file.getName(), file.getInputStream());
+                        insertResourceFile(template, resource, file.getId(), file.getName(), file.getInputStream(),
+                                stagedFiles);
+                        replacedFileIds.remove(file.getId());
                     }
                 }
                 updateResourceMetadata(template, resource, isAttributeExists, isFileExists, currentTime);
@@ -633,6 +696,8 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                     return null;
                 }
             });
+            commitStagedFiles(stagedFiles);
+            deleteStoredFiles(replacedFileIds);
             resource.setLastModified(currentTime.toInstant().toString());
             if (createdTime != null) {
                 resource.setCreatedTime(createdTime.toInstant().toString());
@@ -642,6 +707,8 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                 throw (ConfigurationManagementException) e.getCause();
             }
             throw handleServerException(ERROR_CODE_REPLACE_RESOURCE, resource.getResourceName(), e);
+        } finally {
+            discardStagedFiles(stagedFiles);
         }
     }
 
@@ -673,6 +740,7 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
         Timestamp currentTime = new java.sql.Timestamp(new Date().getTime());
 
         JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
+        List<FileSystemResourceFileStore.StagedFile> stagedFiles = new ArrayList<>();
         try {
             boolean isOracleOrMssql = isOracleDB() || isMSSqlDB();
             jdbcTemplate.withTransaction(template -> {
@@ -711,11 +779,12 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                 if (isFileExists) {
                     for (ResourceFile file : resource.getFiles()) {
                         insertResourceFile(template, resource, file.getId(), file.getName(),
-                                file.getInputStream());
+                                file.getInputStream(), stagedFiles);
                     }
                 }
                 return null;
             });
+            commitStagedFiles(stagedFiles);
             resource.setLastModified(currentTime.toInstant().toString());
             if (useCreatedTimeField()) {
                 resource.setCreatedTime(currentTime.toInstant().toString());
@@ -724,6 +793,8 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
             throw handleServerException(ERROR_CODE_ADD_RESOURCE, resource.getResourceName(), e);
         } catch (DataAccessException e) {
             throw handleServerException(ERROR_CODE_CHECK_DB_METADATA, e.getMessage(), e);
+        } finally {
+            discardStagedFiles(stagedFiles);
         }
     }
 
@@ -831,9 +902,17 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
 
         JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
         try {
+            List<String> storedFileIds = Collections.emptyList();
+            if (fileSystemFileStore != null && !isMySQLDB()) {
+                // Files are removed from the database by the cascade delete.
+                storedFileIds = jdbcTemplate.executeQuery(GET_FILE_IDS_BY_RESOURCE_TYPE_NAME_SQL,
+                        (resultSet, rowNumber) -> resultSet.getString(DB_SCHEMA_COLUMN_NAME_ID),
+                        preparedStatement -> preparedStatement.setString(1, resourceTypeName));
+            }
             jdbcTemplate.executeUpdate(selectDeleteResourceTypeQuery(null), (
                     preparedStatement -> preparedStatement.setString(1, resourceTypeName)
             ));
+            deleteStoredFiles(storedFileIds);
         } catch (DataAccessException e) {
             throw handleServerException(ERROR_CODE_DELETE_RESOURCE_TYPE, resourceTypeName, e);
         }
@@ -1151,32 +1230,42 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
         return resourceId != null;
     }
 
-    private PlaceholderSQL buildPlaceholderSQL(Condition condition, boolean useCreatedTime)
-            throws ConfigurationManagementException {
-
-        String queryWithCreatedTime = GET_TENANT_RESOURCES_SELECT_COLUMNS_MYSQL;
-        String queryWithOutCreatedTime = GET_TENANT_RESOURCES_SELECT_COLUMNS_MYSQL_WITHOUT_CREATED_TIME;
+    private PlaceholderSQL buildPlaceholderSQL(Condition condition, NormalizedCondition normalizedCondition,
+                                               boolean useCreatedTime) throws ConfigurationManagementException {
 
+        boolean isOracleOrMssql;
         try {
-            if (isOracleDB() || isMSSqlDB()) {
-                queryWithCreatedTime = GET_TENANT_RESOURCES_SELECT_COLUMNS_MSSQL_OR_ORACLE;
-            }
+            isOracleOrMssql = isOracleDB() || isMSSqlDB();
         } catch (DataAccessException e) {
             throw handleServerException(ERROR_CODE_CHECK_DB_METADATA, e.getMessage(), e);
         }
+        String queryWithCreatedTime = isOracleOrMssql ? GET_TENANT_RESOURCES_SELECT_COLUMNS_MSSQL_OR_ORACLE :
+                GET_TENANT_RESOURCES_SELECT_COLUMNS_MYSQL;
+        String selectQuery = useCreatedTime ? queryWithCreatedTime :
+                GET_TENANT_RESOURCES_SELECT_COLUMNS_MYSQL_WITHOUT_CREATED_TIME;
 
-        StringBuilder sb = new StringBuilder();
-
-        sb.append(
-                useCreatedTime ? queryWithCreatedTime : queryWithOutCreatedTime);
-        sb.append("WHERE\n");
         try {
-            PlaceholderSQL placeholderSQL = condition.buildQuery(
-                    new PrimitiveConditionValidator(new ResourceSearchBean())
-            );
-            placeholderSQL.setQuery(
-                    sb.append(placeholderSQL.getQuery()).toString()
-            );
+            if (normalizedCondition == null) {
+                return buildPlaceholderSQL(condition, selectQuery);
+            }
+            String planKey = (useCreatedTime ? "C" : "-") + (isOracleOrMssql ? "O" : "-") + ":" +
+                    normalizedCondition.getShape();
+            String cachedQuery = searchQueryPlans.get(planKey);
+            if (cachedQuery != null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Using the cached search query for the condition shape: " +
+                            normalizedCondition.getShape());
+                }
+                PlaceholderSQL placeholderSQL = new PlaceholderSQL();
+                placeholderSQL.setQuery(cachedQuery);
+                placeholderSQL.setData(bindSearchParameters(normalizedCondition, new ResourceSearchBean()));
+                return placeholderSQL;
+            }
+            PlaceholderSQL placeholderSQL = buildPlaceholderSQL(normalizedCondition.getCondition(), selectQuery);
+            searchQueryPlans.put(planKey, placeholderSQL.getQuery());
+            if (log.isDebugEnabled()) {
+                log.debug("Cached the search query for the condition shape: " + normalizedCondition.getShape());
+            }
             return placeholderSQL;
         } catch (PrimitiveConditionValidationException e) {
             throw handleClientException(
@@ -1184,6 +1273,55 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
         }
     }
 
+    private PlaceholderSQL buildPlaceholderSQL(Condition condition, String selectQuery)
+            throws PrimitiveConditionValidationException {
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(selectQuery);
+        sb.append("WHERE\n");
+        PlaceholderSQL placeholderSQL = condition.buildQuery(
+                new PrimitiveConditionValidator(new ResourceSearchBean())
+        );
+        placeholderSQL.setQuery(
+                sb.append(placeholderSQL.getQuery()).toString()
+        );
+        return placeholderSQL;
+    }
+
+    /**
+     * Build the prepared statement data for a condition whose shape has already been validated while building the
+     * cached query. Only the value mapping of the search bean is applied.
+     *
+     * @param normalizedCondition Normalized search condition.
+     * @param searchBean          Search bean used to build the cached query.
+     * @return Data in the order of the placeholders of the query.
+     * @throws PrimitiveConditionValidationException If a condition value cannot be mapped.
+     */
+    private ArrayList<Object> bindSearchParameters(NormalizedCondition normalizedCondition, SearchBean searchBean)
+            throws PrimitiveConditionValidationException {
+
+        List<PrimitiveCondition> primitiveConditions = normalizedCondition.getPrimitiveConditions();
+        List<Object> values = normalizedCondition.getValues();
+        ArrayList<Object> data = new ArrayList<>(primitiveConditions.size());
+        for (int i = 0; i < primitiveConditions.size(); i++) {
+            PrimitiveCondition primitiveCondition = primitiveConditions.get(i);
+            data.add(searchBean.mapPrimitiveCondition(new PrimitiveCondition(primitiveCondition.getProperty(),
+                    primitiveCondition.getOperator(), values.get(i))).getValue());
+        }
+        return data;
+    }
+
+    private void logSlowSearch(NormalizedCondition normalizedCondition, long searchTime) {
+
+        if (searchTime > getSlowSearchThresholdInMillis()) {
+            log.warn("Tenant resource search took " + searchTime + " ms. Condition shape: " +
+                    (normalizedCondition != null ? normalizedCondition.getShape() : "unknown"));
+        } else if (log.isDebugEnabled()) {
+            log.debug("Tenant resource search took " + searchTime + " ms. Condition shape: " +
+                    (normalizedCondition != null ? normalizedCondition.getShape() : "unknown"));
+        }
+    }
+
     private Resources buildResourcesFromRawData(List<ConfigurationRawDataCollector> configurationRawDataCollectors) {
 
         Map<String, Resource> resourcesCollector = new HashMap<>();
@@ -1387,6 +1525,8 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
             throws ConfigurationManagementException {
 
         JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
+        List<FileSystemResourceFileStore.StagedFile> stagedFiles = new ArrayList<>();
+        InputStream fileValueStream = storeFileContent(fileId, fileStream, stagedFiles);
         try {
             boolean isOracleOrMssql = isOracleDB() || isMSSqlDB();
             boolean isPostgreSQL = isPostgreSQLDB();
@@ -1396,9 +1536,9 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                 template.executeUpdate(sqlStmt, preparedStatement -> {
                     preparedStatement.setString(1, fileId);
                     if (isPostgreSQL) {
-                        preparedStatement.setBinaryStream(2, fileStream);
+                        preparedStatement.setBinaryStream(2, fileValueStream);
                     } else {
-                        preparedStatement.setBlob(2, fileStream);
+                        preparedStatement.setBlob(2, fileValueStream);
                     }
                     preparedStatement.setString(3, resourceId);
                     preparedStatement.setString(4, fileName);
@@ -1414,10 +1554,13 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                 updateResourceLastModified(template, resourceId);
                 return null;
             });
+            commitStagedFiles(stagedFiles);
         } catch (TransactionException e) {
             throw handleServerException(ERROR_CODE_INSERT_FILE, fileId, e);
         } catch (DataAccessException e) {
             throw handleServerException(ERROR_CODE_CHECK_DB_METADATA, e.getMessage(), e);
+        } finally {
+            discardStagedFiles(stagedFiles);
         }
     }
 
@@ -1426,20 +1569,58 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
 
         JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
         try {
+            InputStream fileStream;
             if (isPostgreSQLDB()) {
-                return jdbcTemplate.fetchSingleRecord(getFileGetByIdSQL(), (resultSet, rowNumber) ->
+                fileStream = jdbcTemplate.fetchSingleRecord(getFileGetByIdSQL(), (resultSet, rowNumber) ->
                                 resultSet.getBinaryStream(DB_SCHEMA_COLUMN_NAME_VALUE), preparedStatement ->
                         setPreparedStatementForFileGetById(resourceType, resourceName, fileId, preparedStatement));
+            } else {
+                Blob fileBlob = jdbcTemplate.fetchSingleRecord(getFileGetByIdSQL(),
+                        (resultSet, rowNumber) -> resultSet.getBlob(DB_SCHEMA_COLUMN_NAME_VALUE), preparedStatement ->
+                                setPreparedStatementForFileGetById(resourceType, resourceName, fileId,
+                                        preparedStatement));
+                fileStream = fileBlob != null ? fileBlob.getBinaryStream() : null;
             }
-            Blob fileBlob = jdbcTemplate.fetchSingleRecord(getFileGetByIdSQL(),
-                    (resultSet, rowNumber) -> resultSet.getBlob(DB_SCHEMA_COLUMN_NAME_VALUE), preparedStatement ->
-                            setPreparedStatementForFileGetById(resourceType, resourceName, fileId, preparedStatement));
-            return fileBlob != null ? fileBlob.getBinaryStream() : null;
-        } catch (DataAccessException | SQLException e) {
+            if (fileStream != null) {
+                return resolveFileContent(fileId, fileStream);
+            }
+            return fileStream;
+        } catch (DataAccessException | SQLException | IOException e) {
             throw handleServerException(ERROR_CODE_GET_FILE, fileId, e);
         }
     }
 
+    /**
+     * Resolve the content of a file from its database value. Files stored through the file system file store only
+     * keep a content reference in the database, see {@link FileSystemResourceFileStore#getContentReference(String)}.
+     * Any other value, including an empty one, is the content of the file.
+     *
+     * @param fileId     Id of the file.
+     * @param fileStream Value of the file read from the database.
+     * @return Stream of the file content.
+     * @throws IOException                            If an error occurs while reading the content.
+     * @throws ConfigurationManagementServerException If the referred content is not available in the file store.
+     */
+    private InputStream resolveFileContent(String fileId, InputStream fileStream)
+            throws IOException, ConfigurationManagementServerException {
+
+        PushbackInputStream valueStream = new PushbackInputStream(fileStream,
+                FileSystemResourceFileStore.CONTENT_REFERENCE_LENGTH + 1);
+        String contentHash = FileSystemResourceFileStore.readContentReference(valueStream);
+        if (contentHash == null) {
+            return valueStream;
+        }
+        valueStream.close();
+        InputStream storedFileStream = fileSystemFileStore != null ? fileSystemFileStore.getContent(contentHash) : null;
+        if (storedFileStream == null) {
+            log.error("Content of the file: " + fileId + " is not available in the file store at: " +
+                    getFileStoreLocation() + ". The file store must be enabled with a location shared by all the " +
+                    "nodes of a cluster.");
+            throw handleServerException(ERROR_CODE_GET_FILE, fileId);
+        }
+        return storedFileStream;
+    }
+
     @Override
     public void deleteFileById(String resourceType, String resourceName, String fileId) throws ConfigurationManagementException {
 
@@ -1478,6 +1659,7 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                 updateResourceLastModified(template, resourceId);
                 return null;
             });
+            deleteStoredFiles(Collections.singletonList(fileId));
         } catch (TransactionException e) {
             throw handleServerException(ERROR_CODE_DELETE_FILE, fileId, e);
         } catch (DataAccessException e) {
@@ -1544,8 +1726,14 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
         JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
         try {
             boolean isOracleOrMssql = isOracleDB() || isMSSqlDB();
-            jdbcTemplate.withTransaction(template -> {
+            List<String> storedFileIds = jdbcTemplate.withTransaction(template -> {
 
+                List<String> fileIds = Collections.emptyList();
+                if (fileSystemFileStore != null) {
+                    fileIds = template.executeQuery(GET_FILES_BY_RESOURCE_ID_SQL,
+                            (resultSet, rowNumber) -> resultSet.getString(DB_SCHEMA_COLUMN_NAME_ID),
+                            preparedStatement -> preparedStatement.setString(1, resourceId));
+                }
                 template.executeUpdate(DELETE_FILES_SQL, (
                         preparedStatement -> preparedStatement.setString(1, resourceId)
                 ));
@@ -1559,8 +1747,9 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                     preparedStatement.setString(2, resourceId);
                 });
                 updateResourceLastModified(template, resourceId);
-                return null;
+                return fileIds;
             });
+            deleteStoredFiles(storedFileIds);
         } catch (TransactionException e) {
             throw handleServerException(ERROR_CODE_DELETE_FILES, resourceId, e);
         } catch (DataAccessException e) {
@@ -1627,11 +1816,19 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
                     }
                 }
             }
+            List<String> storedFileIds = new ArrayList<>();
+            if (fileSystemFileStore != null && !isMySQLDB()) {
+                // Files are removed from the database by the cascade delete.
+                for (ResourceFile resourceFile : getFilesByResourceType(resourceTypeId, tenantId)) {
+                    storedFileIds.add(resourceFile.getId());
+                }
+            }
             jdbcTemplate.executeUpdate(SQLConstants.DELETE_RESOURCES_BY_RESOURCE_TYPE_ID_SQL, preparedStatement -> {
                 int initialParameterIndex = 1;
                 preparedStatement.setString(initialParameterIndex, resourceTypeId);
                 preparedStatement.setInt(++initialParameterIndex, tenantId);
             });
+            deleteStoredFiles(storedFileIds);
         } catch (DataAccessException e) {
             throw handleServerException(ERROR_CODE_RESOURCES_DOES_NOT_EXISTS, e);
         }
@@ -1682,9 +1879,10 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
     }
 
     private void insertResourceFile(Template<?> template, Resource resource, String fileId, String fileName,
-                                    InputStream fileStream)
+                                    InputStream fileStream, List<FileSystemResourceFileStore.StagedFile> stagedFiles)
             throws ConfigurationManagementServerException {
 
+        InputStream fileValueStream = storeFileContent(fileId, fileStream, stagedFiles);
         try {
             boolean isPostgreSQL = isPostgreSQLDB();
             String sqlStmt = isH2DB() ? SQLConstants.INSERT_FILE_SQL_H2 : SQLConstants.INSERT_FILE_SQL;
@@ -1692,9 +1890,9 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
             template.executeUpdate(sqlStmt, preparedStatement -> {
                 preparedStatement.setString(1, fileId);
                 if (isPostgreSQL) {
-                    preparedStatement.setBinaryStream(2, fileStream);
+                    preparedStatement.setBinaryStream(2, fileValueStream);
                 } else {
-                    preparedStatement.setBlob(2, fileStream);
+                    preparedStatement.setBlob(2, fileValueStream);
                 }
                 preparedStatement.setString(3, resource.getResourceId());
                 preparedStatement.setString(4, fileName);
@@ -1704,6 +1902,108 @@ public class ConfigurationDAOImpl implements ConfigurationDAO {
         }
     }
 
+    /**
+     * Stage the content of a file in the file system file store, if configured. The staged content must be committed
+     * with {@link #commitStagedFiles(List)} once the database row of the file is committed, and discarded with
+     * {@link #discardStagedFiles(List)} otherwise.
+     *
+     * @param fileId      Id of the file.
+     * @param fileStream  Content of the file.
+     * @param stagedFiles Files staged by the current operation. The staged file is added to this list.
+     * @return Stream to be written to the VALUE column of the file. This is a content reference if the content is
+     * kept in the file system.
+     * @throws ConfigurationManagementServerException If an error occurs while staging the file content.
+     */
+    private InputStream storeFileContent(String fileId, InputStream fileStream,
+                                         List<FileSystemResourceFileStore.StagedFile> stagedFiles)
+            throws ConfigurationManagementServerException {
+
+        if (fileSystemFileStore == null) {
+            return fileStream;
+        }
+        FileSystemResourceFileStore.StagedFile stagedFile;
+        try {
+            stagedFile = fileSystemFileStore.stageFile(fileId, fileStream);
+        } catch (IOException e) {
+            throw handleServerException(ERROR_CODE_INSERT_FILE, fileId, e);
+        }
+        stagedFiles.add(stagedFile);
+        return new ByteArrayInputStream(FileSystemResourceFileStore.getContentReference(stagedFile.getContentHash()));
+    }
+
+    /**
+     * Promote the files staged by an operation after its database transaction is committed. Committed files are
+     * removed from the given list.
+     *
+     * @param stagedFiles Files staged by the operation.
+     * @throws ConfigurationManagementServerException If an error occurs while promoting a staged file.
+     */
+    private void commitStagedFiles(List<FileSystemResourceFileStore.StagedFile> stagedFiles)
+            throws ConfigurationManagementServerException {
+
+        Iterator<FileSystemResourceFileStore.StagedFile> iterator = stagedFiles.iterator();
+        while (iterator.hasNext()) {
+            FileSystemResourceFileStore.StagedFile stagedFile = iterator.next();
+            try {
+                fileSystemFileStore.commitFile(stagedFile);
+            } catch (IOException e) {
+                log.error("Content of the file: " + stagedFile.getFileId() + " could not be moved to the file " +
+                        "store after its database row was committed.", e);
+                throw handleServerException(ERROR_CODE_INSERT_FILE, stagedFile.getFileId(), e);
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove the files staged by an operation which are not committed, i.e. when the database transaction is rolled
+     * back.
+     *
+     * @param stagedFiles Files staged by the operation.
+     */
+    private void discardStagedFiles(List<FileSystemResourceFileStore.StagedFile> stagedFiles) {
+
+        for (FileSystemResourceFileStore.StagedFile stagedFile : stagedFiles) {
+            try {
+                fileSystemFileStore.discardFile(stagedFile);
+            } catch (IOException e) {
+                log.error("Error while discarding the staged content of the file: " + stagedFile.getFileId(), e);
+            }
+        }
+        stagedFiles.clear();
+    }
+
+    /**
+     * Remove the content of the given files from the file system file store, if configured. Failures are logged since
+     * the files are already removed from the database at this point.
+     *
+     * @param fileIds Ids of the files.
+     */
+    private void deleteStoredFiles(Collection<String> fileIds) {
+
+        if (fileSystemFileStore == null) {
+            return;
+        }
+        for (String fileId : fileIds) {
+            try {
+                fileSystemFileStore.deleteFile(fileId);
+            } catch (IOException e) {
+                log.error("Error while deleting the content of the file: " + fileId + " from the file store.", e);
+            }
+        }
+    }
+
+    private List<String> getFileIds(String resourceId) throws DataAccessException {
+
+        if (resourceId == null) {
+            return Collections.emptyList();
+        }
+        JdbcTemplate jdbcTemplate = JdbcUtils.getNewTemplate();
+        return jdbcTemplate.executeQuery(GET_FILES_BY_RESOURCE_ID_SQL,
+                (resultSet, rowNumber) -> resultSet.getString(DB_SCHEMA_COLUMN_NAME_ID),
+                preparedStatement -> preparedStatement.setString(1, resourceId));
+    }
+
     private void setPreparedStatementForFileGetById(String resourceType, String resourceName, String fileId,
                                                     PreparedStatement preparedStatement) throws SQLException {
 
@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.configuration.mgt.core.dao.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Local file system store for the content of configuration resource files.
+ * File content is stored once per SHA-256 content hash under {@code objects/}, so identical files uploaded for
+ * different resources or tenants share the same copy. Each stored file id is mapped to its content hash under
+ * {@code files/}, and the file ids referring to a content object are tracked under {@code objects/<hash>.links/}.
+ * A content object is removed when the last file id referring to it is deleted.
+ * <p>
+ * New content is first staged under {@code staging/}, and is only promoted to a content object once the database
+ * row of the file is committed. A staged file of a rolled back transaction is discarded, hence the content of a
+ * committed file is never replaced before the new row is committed. The database row refers to the content through
+ * a content reference, see {@link #getContentReference(String)}.
+ * <p>
+ * Content objects are never modified after they are written, hence they are read through a file channel without
+ * any additional locking. The database only keeps the file metadata, therefore all the nodes of a cluster must use
+ * the same store location on a shared file system. Reference tracking is guarded by a file lock per object
+ * directory, hence the shared file system must support file locking.
+ */
+public class FileSystemResourceFileStore {
+
+    private static final Log log = LogFactory.getLog(FileSystemResourceFileStore.class);
+
+    private static final String OBJECTS_DIRECTORY = "objects";
+    private static final String FILES_DIRECTORY = "files";
+    private static final String STAGING_DIRECTORY = "staging";
+    private static final String LINKS_DIRECTORY_SUFFIX = ".links";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final Pattern FILE_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+    private static final String LOCK_FILE_NAME = ".lock";
+    private static final int LOCK_STRIPES = 256;
+    private static final int CONTENT_HASH_LENGTH = 64;
+    private static final byte[] CONTENT_REFERENCE_PREFIX =
+            "wso2-configuration-file-store:sha256:".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Length of a content reference in bytes.
+     */
+    public static final int CONTENT_REFERENCE_LENGTH = CONTENT_REFERENCE_PREFIX.length + CONTENT_HASH_LENGTH;
+
+    private final Path objectsPath;
+    private final Path filesPath;
+    private final Path stagingPath;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public FileSystemResourceFileStore(Path rootPath) {
+
+        this.objectsPath = rootPath.resolve(OBJECTS_DIRECTORY);
+        this.filesPath = rootPath.resolve(FILES_DIRECTORY);
+        this.stagingPath = rootPath.resolve(STAGING_DIRECTORY);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Write the content of a file to the staging area. The content is not visible through the file id until the
+     * staged file is committed with {@link #commitFile(StagedFile)}.
+     *
+     * @param fileId     Id of the file.
+     * @param fileStream Content of the file. The stream is consumed but not closed.
+     * @return The staged file.
+     * @throws IOException If an error occurs while writing to the file system.
+     */
+    public StagedFile stageFile(String fileId, InputStream fileStream) throws IOException {
+
+        validateFileId(fileId);
+        Files.createDirectories(stagingPath);
+
+        Path tempFile = Files.createTempFile(stagingPath, fileId, TEMP_FILE_SUFFIX);
+        try {
+            MessageDigest messageDigest = getMessageDigest();
+            Files.copy(new DigestInputStream(fileStream, messageDigest), tempFile,
+                    StandardCopyOption.REPLACE_EXISTING);
+            return new StagedFile(fileId, tempFile, toHex(messageDigest.digest()));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Promote a staged file to the content of its file id. If a file is already stored with the same file id, it is
+     * replaced.
+     *
+     * @param stagedFile The staged file.
+     * @throws IOException If an error occurs while writing to the file system.
+     */
+    public void commitFile(StagedFile stagedFile) throws IOException {
+
+        String fileId = stagedFile.getFileId();
+        String contentHash = stagedFile.getContentHash();
+        Files.createDirectories(filesPath);
+        withObjectLock(contentHash, () -> {
+            Path objectPath = getObjectPath(contentHash);
+            if (Files.notExists(objectPath)) {
+                Files.move(stagedFile.getPath(), objectPath, StandardCopyOption.ATOMIC_MOVE);
+            } else if (log.isDebugEnabled()) {
+                log.debug("Content of the file: " + fileId + " is already stored with the hash: " + contentHash);
+            }
+            Path linksPath = getLinksPath(contentHash);
+            Files.createDirectories(linksPath);
+            Files.write(linksPath.resolve(fileId), new byte[0]);
+        });
+        Files.deleteIfExists(stagedFile.getPath());
+
+        String previousContentHash = getContentHash(fileId);
+        Path tempMappingFile = Files.createTempFile(filesPath, fileId, TEMP_FILE_SUFFIX);
+        try {
+            Files.write(tempMappingFile, contentHash.getBytes(StandardCharsets.UTF_8));
+            Files.move(tempMappingFile, filesPath.resolve(fileId), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempMappingFile);
+        }
+        if (previousContentHash != null && !previousContentHash.equals(contentHash)) {
+            unlink(fileId, previousContentHash);
+        }
+    }
+
+    /**
+     * Remove a staged file which was not committed. Does nothing if the staged file is already committed.
+     *
+     * @param stagedFile The staged file.
+     * @throws IOException If an error occurs while deleting from the file system.
+     */
+    public void discardFile(StagedFile stagedFile) throws IOException {
+
+        Files.deleteIfExists(stagedFile.getPath());
+    }
+
+    /**
+     * Open a content object by its content hash.
+     *
+     * @param contentHash SHA-256 hash of the content.
+     * @return A stream reading the content through a file channel, or null if the content is not in this store.
+     * @throws IOException If an error occurs while reading from the file system.
+     */
+    public InputStream getContent(String contentHash) throws IOException {
+
+        if (!isValidContentHash(contentHash)) {
+            return null;
+        }
+        try {
+            return Channels.newInputStream(FileChannel.open(getObjectPath(contentHash), StandardOpenOption.READ));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Build the content reference kept in the database row of a file whose content is in this store. An explicit
+     * reference distinguishes such rows from files whose content, which may be empty, is kept in the database.
+     *
+     * @param contentHash SHA-256 hash of the content.
+     * @return The content reference.
+     */
+    public static byte[] getContentReference(String contentHash) {
+
+        byte[] reference = Arrays.copyOf(CONTENT_REFERENCE_PREFIX, CONTENT_REFERENCE_LENGTH);
+        byte[] hash = contentHash.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(hash, 0, reference, CONTENT_REFERENCE_PREFIX.length, hash.length);
+        return reference;
+    }
+
+    /**
+     * Read a content reference from the database value of a file. If the value is not a content reference, the
+     * bytes read are pushed back to the stream.
+     *
+     * @param valueStream Database value of the file. The push back buffer must hold at least
+     *                    {@link #CONTENT_REFERENCE_LENGTH} + 1 bytes.
+     * @return The content hash, or null if the value is not a content reference.
+     * @throws IOException If an error occurs while reading the value.
+     */
+    public static String readContentReference(PushbackInputStream valueStream) throws IOException {
+
+        // One more byte than a reference is read, so that content which only starts like a reference is kept.
+        byte[] buffer = new byte[CONTENT_REFERENCE_LENGTH + 1];
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = valueStream.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        if (length == CONTENT_REFERENCE_LENGTH && startsWithReferencePrefix(buffer)) {
+            String contentHash = new String(buffer, CONTENT_REFERENCE_PREFIX.length, CONTENT_HASH_LENGTH,
+                    StandardCharsets.US_ASCII);
+            if (isValidContentHash(contentHash)) {
+                return contentHash;
+            }
+        }
+        if (length > 0) {
+            valueStream.unread(buffer, 0, length);
+        }
+        return null;
+    }
+
+    /**
+     * Delete a stored file. The content is removed once no other file refers to it.
+     *
+     * @param fileId Id of the file.
+     * @throws IOException If an error occurs while deleting from the file system.
+     */
+    public void deleteFile(String fileId) throws IOException {
+
+        if (!isValidFileId(fileId)) {
+            return;
+        }
+        String contentHash = getContentHash(fileId);
+        if (contentHash == null) {
+            return;
+        }
+        Files.deleteIfExists(filesPath.resolve(fileId));
+        unlink(fileId, contentHash);
+    }
+
+    private void unlink(String fileId, String contentHash) throws IOException {
+
+        withObjectLock(contentHash, () -> {
+            Path linksPath = getLinksPath(contentHash);
+            Files.deleteIfExists(linksPath.resolve(fileId));
+            if (Files.exists(linksPath)) {
+                try (DirectoryStream<Path> links = Files.newDirectoryStream(linksPath)) {
+                    if (links.iterator().hasNext()) {
+                        return;
+                    }
+                }
+                Files.deleteIfExists(linksPath);
+            }
+            Files.deleteIfExists(getObjectPath(contentHash));
+            if (log.isDebugEnabled()) {
+                log.debug("Removed the unreferenced file content with the hash: " + contentHash);
+            }
+        });
+    }
+
+    /**
+     * Run an action holding the lock of the directory of a content object. Threads of this node are serialized by a
+     * monitor, since a file lock is held on behalf of the whole JVM. Other nodes are serialized by the file lock.
+     */
+    private void withObjectLock(String contentHash, ObjectAction action) throws IOException {
+
+        Path objectDirectory = getObjectPath(contentHash).getParent();
+        synchronized (getLock(contentHash)) {
+            Files.createDirectories(objectDirectory);
+            try (FileChannel lockChannel = FileChannel.open(objectDirectory.resolve(LOCK_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                action.run();
+            }
+        }
+    }
+
+    private static boolean startsWithReferencePrefix(byte[] value) {
+
+        for (int i = 0; i < CONTENT_REFERENCE_PREFIX.length; i++) {
+            if (value[i] != CONTENT_REFERENCE_PREFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidContentHash(String contentHash) {
+
+        if (contentHash == null || contentHash.length() != CONTENT_HASH_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < contentHash.length(); i++) {
+            char c = contentHash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getContentHash(String fileId) throws IOException {
+
+        try {
+            return new String(Files.readAllBytes(filesPath.resolve(fileId)), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private Path getObjectPath(String contentHash) {
+
+        return objectsPath.resolve(contentHash.substring(0, 2)).resolve(contentHash);
+    }
+
+    private Path getLinksPath(String contentHash) {
+
+        return objectsPath.resolve(contentHash.substring(0, 2)).resolve(contentHash + LINKS_DIRECTORY_SUFFIX);
+    }
+
+    private Object getLock(String contentHash) {
+
+        // One monitor per object directory, matching the file lock.
+        return locks[Integer.parseInt(contentHash.substring(0, 2), 16)];
+    }
+
+    private void validateFileId(String fileId) throws IOException {
+
+        if (!isValidFileId(fileId)) {
+            throw new IOException("Invalid file id: " + fileId);
+        }
+    }
+
+    private boolean isValidFileId(String fileId) {
+
+        return fileId != null && FILE_ID_PATTERN.matcher(fileId).matches();
+    }
+
+    private MessageDigest getMessageDigest() throws IOException {
+
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Hash algorithm: " + HASH_ALGORITHM + " is not available.", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_CHARS[(bytes[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX_CHARS[bytes[i] & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Content of a file written to the staging area, which is not yet visible through its file id.
+     */
+    public static class StagedFile {
+
+        private final String fileId;
+        private final Path path;
+        private final String contentHash;
+
+        private StagedFile(String fileId, Path path, String contentHash) {
+
+            this.fileId = fileId;
+            this.path = path;
+            this.contentHash = contentHash;
+        }
+
+        public String getFileId() {
+
+            return fileId;
+        }
+
+        public String getContentHash() {
+
+            return contentHash;
+        }
+
+        private Path getPath() {
+
+            return path;
+        }
+    }
+
+    /**
+     * File system action run while holding the lock of a content object directory.
+     */
+    private interface ObjectAction {
+
+        void run() throws IOException;
+    }
+}
@@ -32,6 +32,7 @@ import org.wso2.carbon.identity.configuration.mgt.core.ConfigurationManagerImpl;
 import org.wso2.carbon.identity.configuration.mgt.core.dao.ConfigurationDAO;
 import org.wso2.carbon.identity.configuration.mgt.core.dao.impl.CachedBackedConfigurationDAO;
 import org.wso2.carbon.identity.configuration.mgt.core.dao.impl.ConfigurationDAOImpl;
+import org.wso2.carbon.identity.configuration.mgt.core.listener.ResourceChangeListener;
 import org.wso2.carbon.identity.configuration.mgt.core.model.ConfigurationManagerConfigurationHolder;
 import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.user.core.service.RealmService;
@@ -145,6 +146,32 @@ public class ConfigurationManagerComponent {
         this.configurationDAOs.remove(configurationDAO);
     }
 
+    @Reference(
+            name = "configuration.resource.change.listener",
+            service = ResourceChangeListener.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetResourceChangeListener"
+    )
+    protected void setResourceChangeListener(ResourceChangeListener resourceChangeListener) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Resource change listener: " + resourceChangeListener.getClass().getName() +
+                    " is registered in ConfigurationManager service.");
+        }
+        ConfigurationManagerComponentDataHolder.getInstance().getResourceChangeListeners().add(resourceChangeListener);
+    }
+
+    protected void unsetResourceChangeListener(ResourceChangeListener resourceChangeListener) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Resource change listener: " + resourceChangeListener.getClass().getName() +
+                    " is unregistered in ConfigurationManager service.");
+        }
+        ConfigurationManagerComponentDataHolder.getInstance().getResourceChangeListeners()
+                .remove(resourceChangeListener);
+    }
+
     @Reference(
             name = "user.realmservice.default",
             service = RealmService.class,
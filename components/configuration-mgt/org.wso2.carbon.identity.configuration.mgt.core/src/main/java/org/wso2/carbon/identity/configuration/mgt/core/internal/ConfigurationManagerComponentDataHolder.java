@@ -16,8 +16,12 @@
 
 package org.wso2.carbon.identity.configuration.mgt.core.internal;
 
+import org.wso2.carbon.identity.configuration.mgt.core.listener.ResourceChangeListener;
 import org.wso2.carbon.user.core.service.RealmService;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * A class to keep the data of the configuration manager component.
  */
@@ -28,6 +32,7 @@ public class ConfigurationManagerComponentDataHolder {
 
     private boolean configurationManagementEnabled;
     private RealmService realmService;
+    private final List<ResourceChangeListener> resourceChangeListeners = new CopyOnWriteArrayList<>();
 
     public static ConfigurationManagerComponentDataHolder getInstance() {
 
@@ -63,4 +68,9 @@ public class ConfigurationManagerComponentDataHolder {
 
         this.realmService = realmService;
     }
+
+    public List<ResourceChangeListener> getResourceChangeListeners() {
+
+        return resourceChangeListeners;
+    }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.configuration.mgt.core.listener;
+
+/**
+ * Listener notified by the configuration manager after the resources of a tenant are changed. Implementations are
+ * registered as OSGi services and are typically used to clear caches built from the resources.
+ */
+public interface ResourceChangeListener {
+
+    /**
+     * Called after a resource of a tenant is added, replaced or deleted, or after its attributes or files are
+     * changed.
+     *
+     * @param resourceTypeName Name of the resource type of the changed resource, or null if it is not known.
+     * @param tenantDomain     Tenant domain of the changed resource.
+     */
+    void onResourceChange(String resourceTypeName, String tenantDomain);
+}
@@ -39,6 +39,11 @@ public class ComplexCondition implements Condition {
         this.conditions = conditions;
     }
 
+    public ConditionType.ComplexOperator getOperator() {
+
+        return operator;
+    }
+
     public List<Condition> getConditions() {
 
         return conditions;
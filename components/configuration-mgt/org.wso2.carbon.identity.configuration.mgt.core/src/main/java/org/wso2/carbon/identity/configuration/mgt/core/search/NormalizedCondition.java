@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.configuration.mgt.core.search;
+
+import org.wso2.carbon.identity.configuration.mgt.core.search.constant.ConditionType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Normalized form of a search {@link Condition} tree.
+ * Nested {@link ComplexCondition}s with the same AND or OR operator are flattened and complex conditions with a single
+ * condition are unwrapped, so that equivalent trees share the same shape. The shape describes the tree without the
+ * condition values: the structure, the properties, the operators and the value types. Two conditions with the same
+ * shape produce the same placeholder SQL, hence the shape is used as the key of the query plan cache, while the
+ * shape together with the values identifies a search result.
+ * <p>
+ * The primitive conditions of the normalized tree are copies, so building a query from the normalized tree does not
+ * modify the original condition.
+ */
+public class NormalizedCondition {
+
+    private final Condition condition;
+    private final String shape;
+    private final List<PrimitiveCondition> primitiveConditions;
+    private final List<Object> values;
+
+    private NormalizedCondition(Condition condition, String shape, List<PrimitiveCondition> primitiveConditions,
+                                List<Object> values) {
+
+        this.condition = condition;
+        this.shape = shape;
+        this.primitiveConditions = primitiveConditions;
+        this.values = values;
+    }
+
+    /**
+     * Normalize the given condition.
+     *
+     * @param condition Search condition.
+     * @return Normalized condition, or null if the condition tree contains a {@link Condition} implementation other
+     * than {@link ComplexCondition} and {@link PrimitiveCondition}.
+     */
+    public static NormalizedCondition normalize(Condition condition) {
+
+        StringBuilder shape = new StringBuilder();
+        List<PrimitiveCondition> primitiveConditions = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        Condition normalizedCondition = normalize(condition, shape, primitiveConditions, values);
+        if (normalizedCondition == null) {
+            return null;
+        }
+        return new NormalizedCondition(normalizedCondition, shape.toString(),
+                Collections.unmodifiableList(primitiveConditions), Collections.unmodifiableList(values));
+    }
+
+    /**
+     * Get the normalized condition tree.
+     *
+     * @return Normalized condition.
+     */
+    public Condition getCondition() {
+
+        return condition;
+    }
+
+    /**
+     * Get the shape of the condition, which excludes the condition values.
+     *
+     * @return Shape of the condition.
+     */
+    public String getShape() {
+
+        return shape;
+    }
+
+    /**
+     * Get the primitive conditions of the normalized tree in the order of the placeholders of the built query.
+     *
+     * @return Primitive conditions.
+     */
+    public List<PrimitiveCondition> getPrimitiveConditions() {
+
+        return primitiveConditions;
+    }
+
+    /**
+     * Get the original condition values in the order of the placeholders of the built query.
+     *
+     * @return Condition values.
+     */
+    public List<Object> getValues() {
+
+        return values;
+    }
+
+    /**
+     * Get a key which uniquely identifies the condition including the values.
+     *
+     * @return Shape of the condition followed by the length prefixed values.
+     */
+    public String getKey() {
+
+        StringBuilder key = new StringBuilder(shape);
+        for (Object value : values) {
+            String stringValue = String.valueOf(value);
+            key.append('|').append(stringValue.length()).append(':').append(stringValue);
+        }
+        return key.toString();
+    }
+
+    private static Condition normalize(Condition condition, StringBuilder shape,
+                                       List<PrimitiveCondition> primitiveConditions, List<Object> values) {
+
+        if (condition instanceof PrimitiveCondition) {
+            PrimitiveCondition primitiveCondition = (PrimitiveCondition) condition;
+            Object value = primitiveCondition.getValue();
+            shape.append(primitiveCondition.getProperty()).append(' ').append(primitiveCondition.getOperator())
+                    .append(' ').append(value == null ? null : value.getClass().getName());
+            PrimitiveCondition copy = new PrimitiveCondition(primitiveCondition.getProperty(),
+                    primitiveCondition.getOperator(), value);
+            primitiveConditions.add(copy);
+            values.add(value);
+            return copy;
+        }
+        if (!(condition instanceof ComplexCondition)) {
+            return null;
+        }
+
+        ComplexCondition complexCondition = (ComplexCondition) condition;
+        ConditionType.ComplexOperator operator = complexCondition.getOperator();
+        List<Condition> conditions = new ArrayList<>();
+        flatten(complexCondition, operator, conditions);
+        if (conditions.size() == 1) {
+            return normalize(conditions.get(0), shape, primitiveConditions, values);
+        }
+
+        shape.append(operator).append('(');
+        List<Condition> normalizedConditions = new ArrayList<>(conditions.size());
+        for (int i = 0; i < conditions.size(); i++) {
+            if (i > 0) {
+                shape.append(',');
+            }
+            Condition normalizedCondition = normalize(conditions.get(i), shape, primitiveConditions, values);
+            if (normalizedCondition == null) {
+                return null;
+            }
+            normalizedConditions.add(normalizedCondition);
+        }
+        shape.append(')');
+        return new ComplexCondition(operator, normalizedConditions);
+    }
+
+    private static void flatten(ComplexCondition complexCondition, ConditionType.ComplexOperator operator,
+                                List<Condition> conditions) {
+
+        if (complexCondition.getConditions() == null) {
+            return;
+        }
+        for (Condition condition : complexCondition.getConditions()) {
+            if (condition instanceof ComplexCondition && isAssociative(operator) &&
+                    ((ComplexCondition) condition).getOperator() == operator) {
+                flatten((ComplexCondition) condition, operator, conditions);
+            } else {
+                conditions.add(condition);
+            }
+        }
+    }
+
+    private static boolean isAssociative(ConditionType.ComplexOperator operator) {
+
+        return operator == ConditionType.ComplexOperator.AND || operator == ConditionType.ComplexOperator.OR;
+    }
+}
@@ -29,14 +29,26 @@ import org.wso2.carbon.identity.core.ServiceURLBuilder;
 import org.wso2.carbon.identity.core.URLBuilderException;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.utils.CarbonUtils;
 
 import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.UUID;
 
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.DEFAULT_FILE_CACHE_MAX_FILE_SIZE;
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.DEFAULT_FILE_CACHE_MAX_TOTAL_SIZE;
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.DEFAULT_SLOW_SEARCH_THRESHOLD;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.FILE;
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.FILE_CACHE_MAX_FILE_SIZE;
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.FILE_CACHE_MAX_TOTAL_SIZE;
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.FILE_STORE_LOCATION;
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.FILE_STORE_TYPE;
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.FILE_STORE_TYPE_FILE_SYSTEM;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.PATH_SEPARATOR;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.RESOURCE_PATH;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.SERVER_API_PATH_COMPONENT;
+import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.SLOW_SEARCH_THRESHOLD;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.TENANT_CONTEXT_PATH_COMPONENT;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.ConfigurationConstants.TENANT_NAME_FROM_CONTEXT;
 import static org.wso2.carbon.identity.configuration.mgt.core.constant.SQLConstants.MAX_QUERY_LENGTH_IN_BYTES_SQL;
@@ -159,6 +171,88 @@ public class ConfigurationUtils {
         return StringUtils.isEmpty(MAX_QUERY_LENGTH_IN_BYTES_SQL) ? 4194304 : Integer.parseInt(MAX_QUERY_LENGTH_IN_BYTES_SQL);
     }
 
+    /**
+     * Check whether the content of the resource files is stored in the local file system instead of the database.
+     *
+     * @return True if the file system file store is configured.
+     */
+    public static boolean isFileSystemFileStoreEnabled() {
+
+        return FILE_STORE_TYPE_FILE_SYSTEM.equalsIgnoreCase(IdentityUtil.getProperty(FILE_STORE_TYPE));
+    }
+
+    /**
+     * Get the root directory of the file system file store.
+     *
+     * @return Configured location, or repository/data/configuration-store of the server if not configured.
+     */
+    public static Path getFileStoreLocation() {
+
+        String location = IdentityUtil.getProperty(FILE_STORE_LOCATION);
+        if (StringUtils.isBlank(location)) {
+            return Paths.get(CarbonUtils.getCarbonHome(), "repository", "data", "configuration-store");
+        }
+        return Paths.get(location);
+    }
+
+    /**
+     * Get the maximum size of a file which is kept in the resource file cache.
+     *
+     * @return Maximum file size in bytes.
+     */
+    public static int getFileCacheMaxFileSize() {
+
+        String maxFileSize = IdentityUtil.getProperty(FILE_CACHE_MAX_FILE_SIZE);
+        if (StringUtils.isNotBlank(maxFileSize)) {
+            try {
+                return Integer.parseInt(maxFileSize.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid value: " + maxFileSize + " configured for " + FILE_CACHE_MAX_FILE_SIZE +
+                        ". Using the default value: " + DEFAULT_FILE_CACHE_MAX_FILE_SIZE);
+            }
+        }
+        return DEFAULT_FILE_CACHE_MAX_FILE_SIZE;
+    }
+
+    /**
+     * Get the execution time above which a tenant resource search is logged as a slow search.
+     *
+     * @return Slow search threshold in milliseconds.
+     */
+    public static long getSlowSearchThresholdInMillis() {
+
+        String threshold = IdentityUtil.getProperty(SLOW_SEARCH_THRESHOLD);
+        if (StringUtils.isNotBlank(threshold)) {
+            try {
+                return Long.parseLong(threshold.trim());
+            } catch (NumberFormatException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Invalid value: " + threshold + " configured for " + SLOW_SEARCH_THRESHOLD, e);
+                }
+            }
+        }
+        return DEFAULT_SLOW_SEARCH_THRESHOLD;
+    }
+
+    /**
+     * Get the maximum total size of the file content kept in the resource file cache of a node.
+     *
+     * @return Maximum total size in bytes.
+     */
+    public static long getFileCacheMaxTotalSize() {
+
+        String maxTotalSize = IdentityUtil.getProperty(FILE_CACHE_MAX_TOTAL_SIZE);
+        if (StringUtils.isNotBlank(maxTotalSize)) {
+            try {
+                return Long.parseLong(maxTotalSize.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid value: " + maxTotalSize + " configured for " + FILE_CACHE_MAX_TOTAL_SIZE +
+                        ". Using the default value: " + DEFAULT_FILE_CACHE_MAX_TOTAL_SIZE);
+            }
+        }
+        return DEFAULT_FILE_CACHE_MAX_TOTAL_SIZE;
+    }
+
     public static boolean useCreatedTimeField() {
 
         return ConfigurationManagerComponentDataHolder.getUseCreatedTime();
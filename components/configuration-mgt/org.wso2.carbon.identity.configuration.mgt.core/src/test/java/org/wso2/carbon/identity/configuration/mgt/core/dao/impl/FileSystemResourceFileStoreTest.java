@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.configuration.mgt.core.dao.impl;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class FileSystemResourceFileStoreTest {
+
+    private Path rootPath;
+    private FileSystemResourceFileStore fileStore;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+
+        rootPath = Files.createTempDirectory("configuration-store");
+        fileStore = new FileSystemResourceFileStore(rootPath);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testStoreAndGetContent() throws IOException {
+
+        String contentHash = storeFile(fileStore, "file-1", "sample-content");
+
+        assertEquals(read(fileStore.getContent(contentHash)), "sample-content");
+        assertTrue(isMapped("file-1"));
+        assertFalse(isMapped("file-2"));
+    }
+
+    @Test
+    public void testIdenticalContentIsStoredOnce() throws IOException {
+
+        String contentHash = storeFile(fileStore, "file-1", "shared-content");
+        assertEquals(storeFile(fileStore, "file-2", "shared-content"), contentHash);
+        assertEquals(countObjects(), 1);
+
+        fileStore.deleteFile("file-1");
+        assertFalse(isMapped("file-1"));
+        assertEquals(read(fileStore.getContent(contentHash)), "shared-content");
+        assertEquals(countObjects(), 1);
+
+        fileStore.deleteFile("file-2");
+        assertFalse(isMapped("file-2"));
+        assertNull(fileStore.getContent(contentHash));
+        assertEquals(countObjects(), 0);
+    }
+
+    @Test
+    public void testReplaceFile() throws IOException {
+
+        String oldContentHash = storeFile(fileStore, "file-1", "old-content");
+        String newContentHash = storeFile(fileStore, "file-1", "new-content");
+
+        assertNull(fileStore.getContent(oldContentHash));
+        assertEquals(read(fileStore.getContent(newContentHash)), "new-content");
+        assertEquals(countObjects(), 1);
+    }
+
+    @Test
+    public void testStoreSharedBetweenNodes() throws IOException {
+
+        FileSystemResourceFileStore otherNodeFileStore = new FileSystemResourceFileStore(rootPath);
+        String contentHash = storeFile(fileStore, "file-1", "shared-content");
+        storeFile(otherNodeFileStore, "file-2", "shared-content");
+
+        assertEquals(read(otherNodeFileStore.getContent(contentHash)), "shared-content");
+        otherNodeFileStore.deleteFile("file-1");
+        assertFalse(isMapped("file-1"));
+        assertEquals(read(fileStore.getContent(contentHash)), "shared-content");
+        assertEquals(countObjects(), 1);
+    }
+
+    @Test
+    public void testStagedFileIsOnlyVisibleAfterCommit() throws IOException {
+
+        String committedContentHash = storeFile(fileStore, "file-1", "committed-content");
+        FileSystemResourceFileStore.StagedFile stagedFile = fileStore.stageFile("file-1", toStream("new-content"));
+        assertNull(fileStore.getContent(stagedFile.getContentHash()));
+        assertEquals(read(fileStore.getContent(committedContentHash)), "committed-content");
+
+        fileStore.commitFile(stagedFile);
+        assertEquals(read(fileStore.getContent(stagedFile.getContentHash())), "new-content");
+        assertNull(fileStore.getContent(committedContentHash));
+        assertEquals(countObjects(), 1);
+        assertEquals(countStagedFiles(), 0);
+    }
+
+    @Test
+    public void testDiscardStagedFile() throws IOException {
+
+        String committedContentHash = storeFile(fileStore, "file-1", "committed-content");
+        FileSystemResourceFileStore.StagedFile stagedFile = fileStore.stageFile("file-1", toStream("new-content"));
+        fileStore.discardFile(stagedFile);
+
+        assertEquals(read(fileStore.getContent(committedContentHash)), "committed-content");
+        assertNull(fileStore.getContent(stagedFile.getContentHash()));
+        assertEquals(countStagedFiles(), 0);
+    }
+
+    @Test
+    public void testContentReference() throws IOException {
+
+        FileSystemResourceFileStore.StagedFile stagedFile = fileStore.stageFile("file-1", toStream("content"));
+        byte[] reference = FileSystemResourceFileStore.getContentReference(stagedFile.getContentHash());
+        fileStore.discardFile(stagedFile);
+
+        assertEquals(FileSystemResourceFileStore.readContentReference(toPushbackStream(reference)),
+                stagedFile.getContentHash());
+
+        // Database content, including empty content and content which only starts like a reference, is kept.
+        byte[] longerContent = Arrays.copyOf(reference, reference.length + 1);
+        longerContent[reference.length] = 'x';
+        for (byte[] content : new byte[][]{new byte[0], "content".getBytes(StandardCharsets.UTF_8),
+                longerContent}) {
+            PushbackInputStream contentStream = toPushbackStream(content);
+            assertNull(FileSystemResourceFileStore.readContentReference(contentStream));
+            assertEquals(read(contentStream), new String(content, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testInvalidFileId() throws IOException {
+
+        fileStore.deleteFile("../file-1");
+        fileStore.stageFile("../file-1", toStream("content"));
+    }
+
+    private String storeFile(FileSystemResourceFileStore store, String fileId, String content) throws IOException {
+
+        FileSystemResourceFileStore.StagedFile stagedFile = store.stageFile(fileId, toStream(content));
+        try {
+            store.commitFile(stagedFile);
+        } finally {
+            store.discardFile(stagedFile);
+        }
+        return stagedFile.getContentHash();
+    }
+
+    private boolean isMapped(String fileId) {
+
+        return Files.exists(rootPath.resolve("files").resolve(fileId));
+    }
+
+    private InputStream toStream(String content) {
+
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(InputStream inputStream) throws IOException {
+
+        try (InputStream stream = inputStream) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private PushbackInputStream toPushbackStream(byte[] content) {
+
+        return new PushbackInputStream(new ByteArrayInputStream(content),
+                FileSystemResourceFileStore.CONTENT_REFERENCE_LENGTH + 1);
+    }
+
+    private long countStagedFiles() throws IOException {
+
+        try (Stream<Path> paths = Files.list(rootPath.resolve("staging"))) {
+            return paths.count();
+        }
+    }
+
+    private long countObjects() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(rootPath.resolve("objects"))) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> !path.getParent().getFileName().toString().endsWith(".links"))
+                    .filter(path -> !".lock".equals(path.getFileName().toString()))
+                    .count();
+        }
+    }
+}
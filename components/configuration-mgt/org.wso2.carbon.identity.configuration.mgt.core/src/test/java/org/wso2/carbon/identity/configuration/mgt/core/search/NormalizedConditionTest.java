@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.configuration.mgt.core.search;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.configuration.mgt.core.search.constant.ConditionType;
+
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class NormalizedConditionTest {
+
+    @Test
+    public void testNestedConditionsAreFlattened() {
+
+        Condition nested = and(equals("resourceTypeName", "type"),
+                and(equals("resourceName", "name"), equals("attributeKey", "key")));
+        Condition flat = and(equals("resourceTypeName", "type"), equals("resourceName", "name"),
+                equals("attributeKey", "key"));
+
+        NormalizedCondition normalizedNested = NormalizedCondition.normalize(nested);
+        NormalizedCondition normalizedFlat = NormalizedCondition.normalize(flat);
+        assertEquals(normalizedNested.getShape(), normalizedFlat.getShape());
+        assertEquals(normalizedNested.getKey(), normalizedFlat.getKey());
+        assertEquals(normalizedNested.getValues(), Arrays.asList("type", "name", "key"));
+        assertEquals(normalizedNested.getPrimitiveConditions().size(), 3);
+    }
+
+    @Test
+    public void testSingleConditionIsUnwrapped() {
+
+        NormalizedCondition wrapped = NormalizedCondition.normalize(
+                new ComplexCondition(ConditionType.ComplexOperator.OR,
+                        Arrays.<Condition>asList(equals("resourceName", "name"))));
+        NormalizedCondition primitive = NormalizedCondition.normalize(equals("resourceName", "name"));
+
+        assertEquals(wrapped.getShape(), primitive.getShape());
+        assertTrue(wrapped.getCondition() instanceof PrimitiveCondition);
+    }
+
+    @Test
+    public void testShapeExcludesValues() {
+
+        NormalizedCondition first = NormalizedCondition.normalize(
+                and(equals("resourceName", "a, b"), equals("attributeKey", "c")));
+        NormalizedCondition second = NormalizedCondition.normalize(
+                and(equals("resourceName", "a"), equals("attributeKey", "b, c")));
+
+        assertEquals(first.getShape(), second.getShape());
+        assertNotEquals(first.getKey(), second.getKey());
+    }
+
+    @Test
+    public void testOriginalConditionIsNotShared() {
+
+        PrimitiveCondition condition = equals("resourceName", "name");
+        NormalizedCondition normalizedCondition = NormalizedCondition.normalize(condition);
+
+        assertTrue(normalizedCondition.getCondition() != condition);
+    }
+
+    @Test
+    public void testUnknownConditionType() {
+
+        Condition unknown = primitiveConditionValidator -> new PlaceholderSQL();
+        assertNull(NormalizedCondition.normalize(and(equals("resourceName", "name"), unknown)));
+    }
+
+    private static PrimitiveCondition equals(String property, Object value) {
+
+        return new PrimitiveCondition(property, ConditionType.PrimitiveOperator.EQUALS, value);
+    }
+
+    private static ComplexCondition and(Condition... conditions) {
+
+        return new ComplexCondition(ConditionType.ComplexOperator.AND, Arrays.asList(conditions));
+    }
+}
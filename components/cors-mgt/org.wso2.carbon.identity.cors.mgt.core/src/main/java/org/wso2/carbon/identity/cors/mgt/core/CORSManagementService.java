@@ -18,10 +18,12 @@
 
 package org.wso2.carbon.identity.cors.mgt.core;
 
+import org.wso2.carbon.identity.cors.mgt.core.exception.CORSManagementServiceClientException;
 import org.wso2.carbon.identity.cors.mgt.core.exception.CORSManagementServiceException;
 import org.wso2.carbon.identity.cors.mgt.core.model.CORSApplication;
 import org.wso2.carbon.identity.cors.mgt.core.model.CORSConfiguration;
 import org.wso2.carbon.identity.cors.mgt.core.model.CORSOrigin;
+import org.wso2.carbon.identity.cors.mgt.core.model.Origin;
 
 import java.util.List;
 
@@ -50,6 +52,62 @@ public interface CORSManagementService {
     List<CORSOrigin> getApplicationCORSOrigins(String applicationId, String tenantDomain)
             throws CORSManagementServiceException;
 
+    /**
+     * Check whether an origin is registered as a CORS origin of the tenant. The default implementation scans the
+     * origins returned by {@link #getTenantCORSOrigins(String)}. The default service implementation checks against a
+     * compiled matcher cached per tenant, hence the cost does not grow with the number of registered origins.
+     * The CORS valve, which currently scans {@link #getTenantCORSOrigins(String)} for each request, should use this
+     * method instead.
+     *
+     * @param origin          Value of the Origin header of the request.
+     * @param allowSubdomains Whether sub domains of the registered origins should be allowed.
+     * @param tenantDomain    The tenant domain.
+     * @return True if the origin is allowed for the tenant.
+     * @throws CORSManagementServiceException
+     */
+    default boolean isAllowedOrigin(String origin, boolean allowSubdomains, String tenantDomain)
+            throws CORSManagementServiceException {
+
+        if (origin == null) {
+            return false;
+        }
+        Origin requestOrigin;
+        try {
+            requestOrigin = new Origin(origin);
+        } catch (CORSManagementServiceClientException e) {
+            requestOrigin = null;
+        }
+        for (CORSOrigin corsOrigin : getTenantCORSOrigins(tenantDomain)) {
+            if (corsOrigin == null || corsOrigin.getOrigin() == null) {
+                continue;
+            }
+            if (origin.equals(corsOrigin.getOrigin())) {
+                return true;
+            }
+            if (requestOrigin == null || requestOrigin.getHost() == null) {
+                continue;
+            }
+            Origin registeredOrigin;
+            try {
+                registeredOrigin = new Origin(corsOrigin.getOrigin());
+            } catch (CORSManagementServiceClientException e) {
+                continue;
+            }
+            if (registeredOrigin.getHost() == null
+                    || !registeredOrigin.getScheme().equals(requestOrigin.getScheme())) {
+                continue;
+            }
+            if (registeredOrigin.getSuffix().equals(requestOrigin.getSuffix())) {
+                return true;
+            }
+            if (allowSubdomains && registeredOrigin.getPort() == requestOrigin.getPort()
+                    && requestOrigin.getHost().endsWith("." + registeredOrigin.getHost())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Set the CORS Origins. This method replaces any existing origins.
      *
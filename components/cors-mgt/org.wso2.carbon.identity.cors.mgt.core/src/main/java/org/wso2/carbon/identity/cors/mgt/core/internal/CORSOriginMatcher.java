@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.cors.mgt.core.internal;
+
+import org.wso2.carbon.identity.cors.mgt.core.exception.CORSManagementServiceClientException;
+import org.wso2.carbon.identity.cors.mgt.core.model.CORSOrigin;
+import org.wso2.carbon.identity.cors.mgt.core.model.Origin;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, compiled form of the CORS origins of a tenant.
+ * Exact origins are kept in hash sets, both in the raw form they were registered with and in the canonical
+ * scheme://host[:port] form. Hosts are also kept in a trie keyed by DNS labels from right to left, which resolves
+ * sub domain matches in time proportional to the number of labels of the requested host instead of the number of
+ * registered origins.
+ */
+public final class CORSOriginMatcher implements Serializable {
+
+    private static final long serialVersionUID = 3518254976417283910L;
+
+    private final Set<String> rawOrigins;
+    private final Set<String> canonicalOrigins;
+    private final HostNode hostTrie;
+
+    private CORSOriginMatcher(Set<String> rawOrigins, Set<String> canonicalOrigins, HostNode hostTrie) {
+
+        this.rawOrigins = rawOrigins;
+        this.canonicalOrigins = canonicalOrigins;
+        this.hostTrie = hostTrie;
+    }
+
+    /**
+     * Compile a matcher for the given CORS origins.
+     *
+     * @param corsOrigins CORS origins of the tenant.
+     * @return Compiled matcher.
+     */
+    public static CORSOriginMatcher compile(Collection<CORSOrigin> corsOrigins) {
+
+        CORSOriginMatcher matcher = new CORSOriginMatcher(new HashSet<>(), new HashSet<>(), new HostNode());
+        matcher.addAll(corsOrigins);
+        return matcher;
+    }
+
+    /**
+     * Check whether the origin is allowed.
+     *
+     * @param origin          Value of the Origin header.
+     * @param allowSubdomains Whether the sub domains of the registered origins are allowed.
+     * @return True if the origin is allowed.
+     */
+    public boolean isAllowed(String origin, boolean allowSubdomains) {
+
+        if (origin == null) {
+            return false;
+        }
+        // Browsers send the origin in the canonical form, hence most of the requests are resolved without parsing.
+        if (rawOrigins.contains(origin)) {
+            return true;
+        }
+
+        Origin parsedOrigin;
+        try {
+            parsedOrigin = new Origin(origin);
+        } catch (CORSManagementServiceClientException e) {
+            return false;
+        }
+        if (parsedOrigin.getHost() == null) {
+            return false;
+        }
+        if (canonicalOrigins.contains(toCanonicalForm(parsedOrigin))) {
+            return true;
+        }
+        return allowSubdomains && isAllowedSubdomain(parsedOrigin);
+    }
+
+    public int size() {
+
+        return rawOrigins.size();
+    }
+
+    private boolean isAllowedSubdomain(Origin origin) {
+
+        String[] labels = origin.getHost().split("\\.");
+        String schemeAndPort = toSchemeAndPort(origin);
+        HostNode node = hostTrie;
+        // The requested host should have at least one more label than the registered host.
+        for (int i = labels.length - 1; i > 0; i--) {
+            node = node.children.get(labels[i]);
+            if (node == null) {
+                return false;
+            }
+            if (node.schemesAndPorts.contains(schemeAndPort)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addAll(Collection<CORSOrigin> corsOrigins) {
+
+        for (CORSOrigin corsOrigin : corsOrigins) {
+            if (corsOrigin == null || corsOrigin.getOrigin() == null) {
+                continue;
+            }
+            Origin origin;
+            try {
+                origin = new Origin(corsOrigin.getOrigin());
+            } catch (CORSManagementServiceClientException e) {
+                // Origins are validated when they are registered.
+                continue;
+            }
+            rawOrigins.add(corsOrigin.getOrigin());
+            if (origin.getHost() == null) {
+                continue;
+            }
+            canonicalOrigins.add(toCanonicalForm(origin));
+
+            String[] labels = origin.getHost().split("\\.");
+            HostNode node = hostTrie;
+            for (int i = labels.length - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(labels[i], label -> new HostNode());
+            }
+            node.schemesAndPorts.add(toSchemeAndPort(origin));
+        }
+    }
+
+    private static String toCanonicalForm(Origin origin) {
+
+        return origin.getScheme() + "://" + origin.getSuffix();
+    }
+
+    private static String toSchemeAndPort(Origin origin) {
+
+        return origin.getScheme() + ":" + origin.getPort();
+    }
+
+    /**
+     * Node of the host trie. Holds the scheme and port combinations registered for the host ending at the node.
+     */
+    private static final class HostNode implements Serializable {
+
+        private static final long serialVersionUID = -6038592741605271843L;
+
+        private final Map<String, HostNode> children = new HashMap<>();
+        private final Set<String> schemesAndPorts = new HashSet<>();
+    }
+}
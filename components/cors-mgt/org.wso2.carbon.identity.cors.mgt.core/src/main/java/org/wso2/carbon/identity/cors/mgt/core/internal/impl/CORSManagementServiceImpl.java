@@ -32,6 +32,10 @@ import org.wso2.carbon.identity.cors.mgt.core.dao.CORSOriginDAO;
 import org.wso2.carbon.identity.cors.mgt.core.exception.CORSManagementServiceClientException;
 import org.wso2.carbon.identity.cors.mgt.core.exception.CORSManagementServiceException;
 import org.wso2.carbon.identity.cors.mgt.core.internal.CORSManagementServiceHolder;
+import org.wso2.carbon.identity.cors.mgt.core.internal.CORSOriginMatcher;
+import org.wso2.carbon.identity.cors.mgt.core.internal.cache.CORSOriginCacheKey;
+import org.wso2.carbon.identity.cors.mgt.core.internal.cache.CORSOriginMatcherCache;
+import org.wso2.carbon.identity.cors.mgt.core.internal.cache.CORSOriginMatcherCacheEntry;
 import org.wso2.carbon.identity.cors.mgt.core.internal.util.CORSConfigurationUtils;
 import org.wso2.carbon.identity.cors.mgt.core.model.CORSApplication;
 import org.wso2.carbon.identity.cors.mgt.core.model.CORSConfiguration;
@@ -81,6 +85,18 @@ public class CORSManagementServiceImpl implements CORSManagementService {
                 applicationBasicInfo.getApplicationId(), tenantId));
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isAllowedOrigin(String origin, boolean allowSubdomains, String tenantDomain)
+            throws CORSManagementServiceException {
+
+        int tenantId = getTenantId(tenantDomain);
+
+        return getCORSOriginMatcher(tenantId).isAllowed(origin, allowSubdomains);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -99,13 +115,14 @@ public class CORSManagementServiceImpl implements CORSManagementService {
         List<Origin> originList = CORSConfigurationUtils.createOriginList(origins);
 
         // Set the CORS origins.
-        getCORSOriginDAO().setCORSOrigins(applicationBasicInfo.getApplicationId(),
-                originList.stream().map(origin -> {
-                    // Create the CORS origin.
-                    CORSOrigin corsOrigin = new CORSOrigin();
-                    corsOrigin.setOrigin(origin.getValue());
-                    return corsOrigin;
-                }).collect(Collectors.toList()), tenantId);
+        List<CORSOrigin> corsOrigins = originList.stream().map(origin -> {
+            // Create the CORS origin.
+            CORSOrigin corsOrigin = new CORSOrigin();
+            corsOrigin.setOrigin(origin.getValue());
+            return corsOrigin;
+        }).collect(Collectors.toList());
+        getCORSOriginDAO().setCORSOrigins(applicationBasicInfo.getApplicationId(), corsOrigins, tenantId);
+        clearCORSOriginMatcher(tenantId);
     }
 
     /**
@@ -137,14 +154,14 @@ public class CORSManagementServiceImpl implements CORSManagementService {
         }
 
         // Add the CORS origins.
-        getCORSOriginDAO().addCORSOrigins(applicationBasicInfo.getApplicationId(),
-                originList.stream().map(origin -> {
-                    // Create the CORS origin.
-                    CORSOrigin corsOrigin = new CORSOrigin();
-                    corsOrigin.setOrigin(origin.getValue());
-                    return corsOrigin;
-                }).collect(Collectors.toList()), tenantId
-        );
+        List<CORSOrigin> corsOrigins = originList.stream().map(origin -> {
+            // Create the CORS origin.
+            CORSOrigin corsOrigin = new CORSOrigin();
+            corsOrigin.setOrigin(origin.getValue());
+            return corsOrigin;
+        }).collect(Collectors.toList());
+        getCORSOriginDAO().addCORSOrigins(applicationBasicInfo.getApplicationId(), corsOrigins, tenantId);
+        clearCORSOriginMatcher(tenantId);
     }
 
     /**
@@ -172,6 +189,8 @@ public class CORSManagementServiceImpl implements CORSManagementService {
         }
 
         // Delete the CORS origin application associations.
+        // The origins are only detached from the application and stay registered in the tenant, hence the compiled
+        // tenant origin matcher does not change. Rebuild it if the dangling origin cleanup is enabled in the DAO.
         getCORSOriginDAO().deleteCORSOrigins(applicationBasicInfo.getApplicationId(), originIds, tenantId);
     }
 
@@ -210,6 +229,46 @@ public class CORSManagementServiceImpl implements CORSManagementService {
         getCORSConfigurationDAO().setCORSConfigurationByTenantDomain(corsConfiguration, tenantDomain);
     }
 
+    /**
+     * Get the compiled CORS origin matcher of the tenant. The matcher is compiled from the tenant CORS origins on a
+     * cache miss.
+     *
+     * @param tenantId The tenant ID.
+     * @return The CORS origin matcher of the tenant.
+     * @throws CORSManagementServiceException
+     */
+    private CORSOriginMatcher getCORSOriginMatcher(int tenantId) throws CORSManagementServiceException {
+
+        CORSOriginCacheKey cacheKey = new CORSOriginCacheKey(tenantId);
+        CORSOriginMatcherCacheEntry cacheEntry = CORSOriginMatcherCache.getInstance().getValueFromCache(cacheKey,
+                tenantId);
+        if (cacheEntry != null && cacheEntry.getOriginMatcher() != null) {
+            return cacheEntry.getOriginMatcher();
+        }
+
+        CORSOriginMatcher originMatcher = CORSOriginMatcher.compile(
+                getCORSOriginDAO().getCORSOriginsByTenantId(tenantId));
+        if (log.isDebugEnabled()) {
+            log.debug("Compiled the CORS origin matcher with " + originMatcher.size() + " origins for the tenant: "
+                    + tenantId);
+        }
+        CORSOriginMatcherCache.getInstance().addToCache(cacheKey, new CORSOriginMatcherCacheEntry(originMatcher),
+                tenantId);
+        return originMatcher;
+    }
+
+    /**
+     * Clear the cached matcher of the tenant after new CORS origins are registered. The matcher is compiled again
+     * from the stored origins on the next lookup. Updating the cached matcher in place is not safe, since concurrent
+     * updates of the same tenant could overwrite each other.
+     *
+     * @param tenantId The tenant ID.
+     */
+    private void clearCORSOriginMatcher(int tenantId) {
+
+        CORSOriginMatcherCache.getInstance().clearCacheEntry(new CORSOriginCacheKey(tenantId), tenantId);
+    }
+
     /**
      * Returns a CORSOriginDAO instance.
      *
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.cors.mgt.core.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.carbon.identity.cors.mgt.core.internal.CORSOriginMatcher;
+import org.wso2.carbon.identity.cors.mgt.core.model.CORSOrigin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per request cost of validating an origin with the compiled {@link CORSOriginMatcher} as the number of
+ * tenant CORS origins grows, and the cost of compiling the matcher when the origins are loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CORSOriginMatcherBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int originCount;
+
+    private List<CORSOrigin> corsOrigins;
+    private CORSOriginMatcher originMatcher;
+    private String lastOrigin;
+    private String subdomainOrigin;
+    private String unknownOrigin;
+
+    @Setup
+    public void setup() {
+
+        corsOrigins = new ArrayList<>(originCount);
+        for (int i = 0; i < originCount; i++) {
+            CORSOrigin corsOrigin = new CORSOrigin();
+            corsOrigin.setOrigin("https://spa" + i + ".example.com");
+            corsOrigins.add(corsOrigin);
+        }
+        originMatcher = CORSOriginMatcher.compile(corsOrigins);
+        lastOrigin = "https://spa" + (originCount - 1) + ".example.com";
+        subdomainOrigin = "https://console.spa" + (originCount - 1) + ".example.com";
+        unknownOrigin = "https://spa" + originCount + ".example.org";
+    }
+
+    @Benchmark
+    public CORSOriginMatcher matcherCompile() {
+
+        return CORSOriginMatcher.compile(corsOrigins);
+    }
+
+    @Benchmark
+    public boolean matcherExactOrigin() {
+
+        return originMatcher.isAllowed(lastOrigin, false);
+    }
+
+    @Benchmark
+    public boolean matcherSubdomainOrigin() {
+
+        return originMatcher.isAllowed(subdomainOrigin, true);
+    }
+
+    @Benchmark
+    public boolean matcherUnknownOrigin() {
+
+        return originMatcher.isAllowed(unknownOrigin, true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(CORSOriginMatcherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
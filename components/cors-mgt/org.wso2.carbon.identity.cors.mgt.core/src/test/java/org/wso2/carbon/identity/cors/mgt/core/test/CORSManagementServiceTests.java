@@ -58,6 +58,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 import static org.wso2.carbon.base.MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
@@ -261,6 +262,18 @@ public class CORSManagementServiceTests extends PowerMockTestCase {
                 SAMPLE_ORIGIN_LIST_1);
     }
 
+    @Test
+    public void testIsAllowedOriginAfterAddingCORSOrigins() throws CORSManagementServiceException {
+
+        corsManagementService.addCORSOrigins(SampleApp1.UUID, SAMPLE_ORIGIN_LIST_1, SUPER_TENANT_DOMAIN_NAME);
+        assertTrue(corsManagementService.isAllowedOrigin("http://foo.com", false, SUPER_TENANT_DOMAIN_NAME));
+        assertFalse(corsManagementService.isAllowedOrigin("http://abc.com", false, SUPER_TENANT_DOMAIN_NAME));
+
+        corsManagementService.addCORSOrigins(SampleApp1.UUID, SAMPLE_ORIGIN_LIST_2, SUPER_TENANT_DOMAIN_NAME);
+        assertTrue(corsManagementService.isAllowedOrigin("http://abc.com", false, SUPER_TENANT_DOMAIN_NAME));
+        assertTrue(corsManagementService.isAllowedOrigin("http://foo.com", false, SUPER_TENANT_DOMAIN_NAME));
+    }
+
     @Test
     public void testAddCORSOriginsWithInvalidApp() {
 
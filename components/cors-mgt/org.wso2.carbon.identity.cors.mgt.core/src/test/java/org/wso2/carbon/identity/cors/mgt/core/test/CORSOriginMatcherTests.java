@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.cors.mgt.core.test;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.cors.mgt.core.CORSManagementService;
+import org.wso2.carbon.identity.cors.mgt.core.internal.CORSOriginMatcher;
+import org.wso2.carbon.identity.cors.mgt.core.model.CORSOrigin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the compiled CORS origin matcher.
+ */
+public class CORSOriginMatcherTests {
+
+    @Test
+    public void testExactOriginMatch() {
+
+        CORSOriginMatcher matcher = CORSOriginMatcher.compile(createCORSOrigins("https://example.com",
+                "http://localhost:8080"));
+
+        assertTrue(matcher.isAllowed("https://example.com", false));
+        assertTrue(matcher.isAllowed("http://localhost:8080", false));
+        assertFalse(matcher.isAllowed("http://example.com", false));
+        assertFalse(matcher.isAllowed("http://localhost:9443", false));
+        assertFalse(matcher.isAllowed(null, false));
+    }
+
+    @Test
+    public void testCanonicalOriginMatch() {
+
+        CORSOriginMatcher matcher = CORSOriginMatcher.compile(createCORSOrigins("https://example.com"));
+
+        assertTrue(matcher.isAllowed("HTTPS://EXAMPLE.COM", false));
+    }
+
+    @Test
+    public void testSubdomainMatch() {
+
+        CORSOriginMatcher matcher = CORSOriginMatcher.compile(createCORSOrigins("https://example.com",
+                "http://apps.example.org:8080"));
+
+        assertTrue(matcher.isAllowed("https://app.example.com", true));
+        assertTrue(matcher.isAllowed("https://a.b.example.com", true));
+        assertTrue(matcher.isAllowed("http://console.apps.example.org:8080", true));
+        assertFalse(matcher.isAllowed("https://app.example.com", false));
+        assertFalse(matcher.isAllowed("http://app.example.com", true));
+        assertFalse(matcher.isAllowed("https://badexample.com", true));
+        assertFalse(matcher.isAllowed("http://console.apps.example.org", true));
+        assertFalse(matcher.isAllowed("http://example.org:8080", true));
+    }
+
+    @Test
+    public void testInvalidOriginsAreIgnored() {
+
+        List<CORSOrigin> corsOrigins = new ArrayList<>(createCORSOrigins("https://example.com"));
+        corsOrigins.add(new CORSOrigin());
+        CORSOriginMatcher matcher = CORSOriginMatcher.compile(corsOrigins);
+
+        assertEquals(matcher.size(), 1);
+        assertFalse(matcher.isAllowed("not a uri", true));
+        assertFalse(CORSOriginMatcher.compile(Collections.emptyList()).isAllowed("https://example.com", true));
+    }
+
+    @Test
+    public void testDefaultIsAllowedOriginMatchesMatcher() throws Exception {
+
+        List<CORSOrigin> corsOrigins = createCORSOrigins("https://example.com", "http://apps.example.org:8080");
+        CORSManagementService corsManagementService = mock(CORSManagementService.class, CALLS_REAL_METHODS);
+        doReturn(corsOrigins).when(corsManagementService).getTenantCORSOrigins(anyString());
+        CORSOriginMatcher matcher = CORSOriginMatcher.compile(corsOrigins);
+
+        for (String origin : Arrays.asList("https://example.com", "HTTPS://EXAMPLE.COM", "http://example.com",
+                "https://app.example.com", "https://badexample.com", "http://console.apps.example.org:8080",
+                "http://console.apps.example.org", "not a uri", null)) {
+            for (boolean allowSubdomains : new boolean[]{true, false}) {
+                assertEquals(corsManagementService.isAllowedOrigin(origin, allowSubdomains, "carbon.super"),
+                        matcher.isAllowed(origin, allowSubdomains), origin + " " + allowSubdomains);
+            }
+        }
+    }
+
+    private static List<CORSOrigin> createCORSOrigins(String... origins) {
+
+        List<CORSOrigin> corsOrigins = new ArrayList<>();
+        for (String origin : Arrays.asList(origins)) {
+            CORSOrigin corsOrigin = new CORSOrigin();
+            corsOrigin.setOrigin(origin);
+            corsOrigins.add(corsOrigin);
+        }
+        return corsOrigins;
+    }
+}
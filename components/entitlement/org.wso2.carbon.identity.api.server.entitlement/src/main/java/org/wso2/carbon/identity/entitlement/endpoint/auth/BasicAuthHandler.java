@@ -22,6 +22,7 @@ import org.apache.axiom.om.util.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.entitlement.cache.VerifiedCredentialCache;
 import org.wso2.carbon.identity.entitlement.endpoint.util.EntitlementEndpointConstants;
 import org.wso2.carbon.user.api.UserRealm;
 import org.wso2.carbon.user.api.UserStoreException;
@@ -104,11 +105,19 @@ public class BasicAuthHandler implements EntitlementAuthenticationHandler {
                             log.error("Invalid tenant domain " + tenantDomain);
                             return false;
                         }
+                        VerifiedCredentialCache credentialCache = VerifiedCredentialCache.getInstance();
+                        if (credentialCache.isVerified(tenantId, tenantAwareUsername, password)) {
+                            // credential verified recently. set the username for authorization header and
+                            // proceed the REST call
+                            authzHeaders.set(0, userName);
+                            return true;
+                        }
                         // get tenant's user realm
                         UserRealm userRealm = realmService.getTenantUserRealm(tenantId);
                         boolean authenticated = userRealm.getUserStoreManager().authenticate(
                                 tenantAwareUsername, password);
                         if (authenticated) {
+                            credentialCache.addVerified(tenantId, tenantAwareUsername, password);
                             // authentication success. set the username for authorization header and
                             // proceed the REST call
                             authzHeaders.set(0, userName);
@@ -19,6 +19,12 @@
 package org.wso2.carbon.identity.entitlement.endpoint.resources;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -28,6 +34,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.balana.ctx.ResponseCtx;
 import org.wso2.balana.ctx.xacml3.RequestCtx;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.entitlement.dto.EntitledResultSetDTO;
 import org.wso2.carbon.identity.entitlement.endpoint.exception.ExceptionBean;
 import org.wso2.carbon.identity.entitlement.endpoint.exception.RequestParseException;
@@ -50,6 +57,9 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
 
 /**
  * Entry point class for the REST API end points
@@ -126,13 +136,139 @@ public class DecisionResource extends AbstractResource {
         if (contentType.equals(EntitlementEndpointConstants.APPLICATION_JSON)) {
             RequestCtx requestCtx = JSONRequestParser.parse(xacmlRequest);
             ResponseCtx responseCtx = entitlementEngine.evaluate(requestCtx, xacmlRequest);
-            return gson.toJson(JSONResponseWriter.write(responseCtx));
+            StringWriter response = new StringWriter();
+            JSONResponseWriter.write(responseCtx, response);
+            return response.toString();
         } else {
             return entitlementEngine.evaluate(xacmlRequest);
         }
 
     }
 
+    /**
+     * API endpoint for evaluating a batch of XACML JSON requests with a single HTTP request
+     *
+     * @return JSON array with the XACML JSON response of each request, in request order
+     */
+    @POST
+    @Path("pdp-batch")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get responses by evaluating a JSON array of JSON XACML requests", response = String.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "JSON array of XACML JSON Responses"),
+            @ApiResponse(code = 40010, message = EntitlementEndpointConstants.ERROR_UNAUTHORIZED_MESSAGE,
+                    response = ExceptionBean.class),
+            @ApiResponse(code = 40020, message = EntitlementEndpointConstants.ERROR_REQUEST_PARSE_MESSAGE,
+                    response = ExceptionBean.class),
+            @ApiResponse(code = 40010, message = EntitlementEndpointConstants.ERROR_RESPONSE_READ_MESSAGE,
+                    response = ExceptionBean.class)
+    })
+    public String getDecisions(@ApiParam(value = "Request Media Type", required = true)
+                               @HeaderParam(EntitlementEndpointConstants.ACCEPT_HEADER) String format,
+                               @ApiParam(value = "Authentication Type", required = true)
+                               @HeaderParam(EntitlementEndpointConstants.AUTHENTICATION_TYPE_HEADER)
+                                       String authMechanism,
+                               @ApiParam(value = "Add HTTP Basic Authorization", required = true)
+                               @HeaderParam(EntitlementEndpointConstants.AUTHORIZATION_HEADER) String authorization,
+                               @ApiParam(value = "Response Media Type", required = true)
+                               @HeaderParam(EntitlementEndpointConstants.CONTENT_TYPE_HEADER) String contentType,
+                               @ApiParam(value = "JSON array of XACML JSON Requests", required = true)
+                                       Reader xacmlRequests) throws Exception {
+
+        if (!EntitlementEndpointConstants.APPLICATION_JSON.equals(contentType)) {
+            throw new RequestParseException(40023, "Batch requests should be XACML JSON requests");
+        }
+        if (xacmlRequests == null) {
+            throw new RequestParseException(40023, "Batch requests should be a JSON array of XACML JSON requests");
+        }
+
+        int maxBatchRequests = getMaxBatchRequests();
+        EntitlementEngine entitlementEngine = EntitlementEngine.getInstance();
+        StringWriter response = new StringWriter();
+        JsonWriter writer = gson.newJsonWriter(response);
+        writer.beginArray();
+        // The requests are read one at a time, so that only the request being evaluated is kept in memory.
+        JsonReader reader = gson.newJsonReader(xacmlRequests);
+        beginBatch(reader);
+        int requestCount = 0;
+        JsonElement request;
+        while ((request = nextRequest(reader)) != null) {
+            if (++requestCount > maxBatchRequests) {
+                throw new RequestParseException(40024, "Batch requests should not have more than " +
+                        maxBatchRequests + " XACML JSON requests");
+            }
+            if (!request.isJsonObject()) {
+                throw new JsonParseException("Error in JSON Request String");
+            }
+            // The compact form of the request is the decision cache key. The request is parsed from the JSON tree
+            // already read, instead of from the compact form.
+            String xacmlRequest = request.toString();
+            if (log.isDebugEnabled()) {
+                log.debug("recieved :" + xacmlRequest);
+            }
+            RequestCtx requestCtx = JSONRequestParser.parse(request.getAsJsonObject());
+            ResponseCtx responseCtx = entitlementEngine.evaluate(requestCtx, xacmlRequest);
+            JSONResponseWriter.write(responseCtx, writer);
+        }
+        writer.endArray();
+        writer.flush();
+        return response.toString();
+    }
+
+    private static void beginBatch(JsonReader reader) throws RequestParseException {
+
+        try {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                throw new RequestParseException(40023, "Batch requests should be a JSON array of XACML JSON " +
+                        "requests");
+            }
+            reader.beginArray();
+        } catch (IOException | IllegalStateException e) {
+            throw new RequestParseException(40023, "Batch requests should be a JSON array of XACML JSON requests");
+        }
+    }
+
+    /**
+     * Read the next request of a batch.
+     *
+     * @param reader Reader positioned inside the batch array.
+     * @return The next request, or null if the batch has no more requests.
+     * @throws RequestParseException If the batch is not a valid JSON array.
+     */
+    private static JsonElement nextRequest(JsonReader reader) throws RequestParseException {
+
+        try {
+            if (!reader.hasNext()) {
+                reader.endArray();
+                if (reader.peek() != JsonToken.END_DOCUMENT) {
+                    throw new RequestParseException(40023, "Batch requests should be a JSON array of XACML JSON " +
+                            "requests");
+                }
+                return null;
+            }
+            JsonElement request = gson.fromJson(reader, JsonElement.class);
+            return request == null ? JsonNull.INSTANCE : request;
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            throw new RequestParseException(40023, "Batch requests should be a JSON array of XACML JSON requests");
+        }
+    }
+
+    private static int getMaxBatchRequests() {
+
+        String maxBatchRequests = IdentityUtil.getProperty(EntitlementEndpointConstants.MAX_BATCH_REQUESTS_PROPERTY);
+        if (maxBatchRequests != null) {
+            try {
+                return Integer.parseInt(maxBatchRequests.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid value: " + maxBatchRequests + " for " +
+                        EntitlementEndpointConstants.MAX_BATCH_REQUESTS_PROPERTY + ". Default value of " +
+                        EntitlementEndpointConstants.DEFAULT_MAX_BATCH_REQUESTS + " will be used.");
+            }
+        }
+        return EntitlementEndpointConstants.DEFAULT_MAX_BATCH_REQUESTS;
+    }
+
     /**
      * API endpoint for evaluating policy by attributes as queries
      *
@@ -153,6 +153,7 @@ public class EntitlementEndpointConstants {
     public static final String ATTRIBUTE_DATA_TYPE_XPATH_EXPRESSION_SHORT = "xpathExpression";
 
 
+    public static final String REQUEST = "Request";
     public static final String XPATH_VERSION = "XPathVersion";
     public static final String MULTI_REQUESTS = "MultiRequests";
     public static final String REFERENCE_ID = "ReferenceId";
@@ -160,6 +161,9 @@ public class EntitlementEndpointConstants {
 
     public static final String RESPONSE = "Response";
 
+    public static final String MAX_BATCH_REQUESTS_PROPERTY = "EntitlementSettings.RestAPI.MaxBatchRequests";
+    public static final int DEFAULT_MAX_BATCH_REQUESTS = 100;
+
     public static final String DECISION = "Decision";
     public static final String STATUS = "Status";
     public static final String OBLIGATIONS = "Obligations";
@@ -24,6 +24,10 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.bind.JsonTreeReader;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.wso2.balana.Balana;
@@ -37,17 +41,17 @@ import org.wso2.balana.xacml3.AttributesReference;
 import org.wso2.balana.xacml3.MultiRequests;
 import org.wso2.balana.xacml3.RequestDefaults;
 import org.wso2.balana.xacml3.RequestReference;
-import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.entitlement.endpoint.exception.RequestParseException;
+import org.wso2.carbon.identity.entitlement.policy.DocumentBuilderPool;
+import org.xml.sax.InputSource;
 
 import javax.xml.bind.DatatypeConverter;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -56,9 +60,12 @@ import java.util.Set;
  */
 public class JSONRequestParser {
     private static Gson gson = new Gson();
+    private static TypeAdapter<JsonElement> jsonElementAdapter = gson.getAdapter(JsonElement.class);
 
     /**
-     * Static method that will convert a XACML JSON Request to a <code>{@link RequestCtx}</code> instance
+     * Static method that will convert a XACML JSON Request to a <code>{@link RequestCtx}</code> instance. The request
+     * is read with a streaming JSON reader and mapped straight to Balana request attributes, without building a JSON
+     * tree of the request.
      *
      * @param jsonRequest <code>String</code> with JSON request
      * @return <code>{@link RequestCtx}</code> instance that can be used to evaluate on Balana
@@ -68,152 +75,192 @@ public class JSONRequestParser {
      */
     public static RequestCtx parse(String jsonRequest) throws JsonParseException, RequestParseException,
             UnknownIdentifierException {
-        JsonObject requestObject = null;
+
+        if (jsonRequest == null) {
+            throw new JsonParseException("Error in JSON Request String");
+        }
+        try (JsonReader reader = new JsonReader(new StringReader(jsonRequest))) {
+            reader.setLenient(true);
+            return parse(reader);
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonParseException("Error in JSON Request String", e);
+        }
+    }
+
+    /**
+     * Static method that will convert a XACML JSON Request, which is already read into a
+     * <code>{@link JsonObject}</code>, to a <code>{@link RequestCtx}</code> instance without serializing and reading
+     * the request again.
+     *
+     * @param jsonRequest <code>{@link JsonObject}</code> with JSON request
+     * @return <code>{@link RequestCtx}</code> instance that can be used to evaluate on Balana
+     * @throws JsonParseException         <code>{@link JsonParseException}</code>
+     * @throws RequestParseException      <code>{@link RequestParseException}</code>
+     * @throws UnknownIdentifierException <code>{@link UnknownIdentifierException}</code>
+     */
+    public static RequestCtx parse(JsonObject jsonRequest) throws JsonParseException, RequestParseException,
+            UnknownIdentifierException {
+
+        if (jsonRequest == null) {
+            throw new JsonParseException("Error in JSON Request String");
+        }
+        try (JsonReader reader = new JsonTreeReader(jsonRequest)) {
+            return parse(reader);
+        } catch (IOException | IllegalStateException e) {
+            throw new JsonParseException("Error in JSON Request String", e);
+        }
+    }
+
+    /**
+     * Reads a XACML JSON Request from the given reader, which is positioned at the start of the request.
+     *
+     * @param reader <code>{@link JsonReader}</code> of the JSON request
+     * @return <code>{@link RequestCtx}</code> instance that can be used to evaluate on Balana
+     * @throws IOException                If the request can not be read
+     * @throws RequestParseException      <code>{@link RequestParseException}</code>
+     * @throws UnknownIdentifierException <code>{@link UnknownIdentifierException}</code>
+     */
+    private static RequestCtx parse(JsonReader reader) throws IOException, RequestParseException,
+            UnknownIdentifierException {
+
+        RequestCtx requestCtx = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (EntitlementEndpointConstants.REQUEST.equals(reader.nextName())) {
+                requestCtx = readRequest(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (requestCtx == null) {
+            throw new JsonParseException("Error in JSON Request String");
+        }
+        return requestCtx;
+    }
+
+    private static RequestCtx readRequest(JsonReader reader) throws IOException, RequestParseException,
+            UnknownIdentifierException {
+
         Set<Attributes> categories = new HashSet<>();
         boolean returnPolicyIdList = false;
         boolean combinedDecision = false;
         MultiRequests multiRequests = null;
         RequestDefaults requestDefaults = null;
 
-        try {
-            requestObject = gson.fromJson(jsonRequest, JsonObject.class);
-            requestObject = requestObject.get("Request").getAsJsonObject();
-        } catch (Exception e) {
-            throw new JsonParseException("Error in JSON Request String");
-        }
-
-        Set<Map.Entry<String, JsonElement>> jsonAttributes = requestObject.entrySet();
-
-        for (Map.Entry<String, JsonElement> jsonAttribute : jsonAttributes) {
-            if (jsonAttribute.getValue().isJsonPrimitive()) {
-                switch (jsonAttribute.getKey()) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            JsonToken token = reader.peek();
+            if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+                JsonPrimitive value = readPrimitive(reader);
+                switch (name) {
                     case XACMLConstants.RETURN_POLICY_LIST:
-                        if (jsonAttribute.getValue().getAsBoolean() == true) {
+                        if (value.getAsBoolean()) {
                             returnPolicyIdList = true;
                         }
                         break;
 
                     case XACMLConstants.COMBINE_DECISION:
-                        if (jsonAttribute.getValue().getAsBoolean() == true) {
+                        if (value.getAsBoolean()) {
                             combinedDecision = true;
                         }
                         break;
 
                     case EntitlementEndpointConstants.XPATH_VERSION:
-                        String xPathVersion = jsonAttribute.getValue().getAsString();
+                        String xPathVersion = value.getAsString();
                         requestDefaults = new RequestDefaults(xPathVersion);
                         break;
                 }
-            } else if (!jsonAttribute.getValue().isJsonNull()) {
-                JsonObject jsonCategory = null;
-                if (jsonAttribute.getValue().isJsonObject()) {
-                    jsonCategory = jsonAttribute.getValue().getAsJsonObject();
-                    jsonAttributeSeperator(jsonAttribute, jsonCategory, categories);
-
-                } else if (jsonAttribute.getValue().isJsonArray()) {
-                    for (JsonElement jsonElement : jsonAttribute.getValue().getAsJsonArray()) {
-                        jsonCategory = jsonElement.getAsJsonObject();
-                        jsonAttributeSeperator(jsonAttribute, jsonCategory, categories);
-                    }
-                } else if (EntitlementEndpointConstants.MULTI_REQUESTS.equals(jsonAttribute.getKey())) {
-                    Set<Map.Entry<String, JsonElement>> jsonRequestReferences = jsonCategory.entrySet();
-                    Set<RequestReference> requestReferences = new HashSet<>();
-
-                    if (jsonRequestReferences.isEmpty()) {
-                        throw new RequestParseException("MultiRequest should contain at least one Reference Request");
-                    }
-                    for (Map.Entry<String, JsonElement> jsonRequstReference : jsonRequestReferences) {
-                        requestReferences.add(jsonObjectToRequestReference(jsonRequstReference.getValue()
-                                .getAsJsonObject()));
-                    }
-                    multiRequests = new MultiRequests(requestReferences);
+            } else if (EntitlementEndpointConstants.MULTI_REQUESTS.equals(name) && token == JsonToken.BEGIN_OBJECT) {
+                multiRequests = readMultiRequests(reader);
+            } else if (token == JsonToken.BEGIN_OBJECT) {
+                readCategory(name, reader, categories);
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    readCategory(name, reader, categories);
                 }
+                reader.endArray();
+            } else {
+                reader.skipValue();
             }
-
         }
+        reader.endObject();
 
         return new RequestCtx(null,
                 categories, returnPolicyIdList, combinedDecision, multiRequests, requestDefaults);
-
     }
 
     /**
-     * This is to seperate JSON to attributes
-     * @param jsonAttribute - the map of category string and the JSON Element
-     * @param jsonCategory - the  main object category
+     * Reads a category object of the request to attributes
+     *
+     * @param name       - the name of the category in the request
+     * @param reader     - the reader positioned at the category object
      * @param categories - the set of categories
+     * @throws IOException
      * @throws RequestParseException
      * @throws UnknownIdentifierException
      */
-    private static void jsonAttributeSeperator(Map.Entry<String, JsonElement> jsonAttribute, JsonObject jsonCategory,
-                                               Set<Attributes> categories) throws
-            RequestParseException, UnknownIdentifierException {
+    private static void readCategory(String name, JsonReader reader, Set<Attributes> categories) throws
+            IOException, RequestParseException, UnknownIdentifierException {
 
         Node content = null;
         URI category = null;
         Set<Attribute> attributes = null;
         String id = null;
+        boolean defaultCategory = EntitlementEndpointConstants.CATEGORY_DEFAULT.equals(name);
 
-        if (EntitlementEndpointConstants.CATEGORY_DEFAULT.equals(jsonAttribute.getKey())) {
-            if (jsonCategory.has(EntitlementEndpointConstants.CATEGORY_ID)) {
-                category = stringCateogryToURI(jsonCategory
-                        .get(EntitlementEndpointConstants.CATEGORY_ID)
-                        .getAsString());
-            }
-        } else {
-            if (category == null) {
-                category = stringCateogryToURI(jsonAttribute.getKey());
-            }
-            if (jsonCategory.has(EntitlementEndpointConstants.ID)) {
-                id = jsonCategory.get(EntitlementEndpointConstants.ID).getAsString();
-            }
-            if (jsonCategory.has(EntitlementEndpointConstants.CONTENT)) {
-                DocumentBuilderFactory dbf;
-                Document doc = null;
-
-                String xmlContent = stringContentToXMLContent(jsonCategory
-                        .get(EntitlementEndpointConstants.CONTENT)
-                        .getAsString());
-                dbf = IdentityUtil.getSecuredDocumentBuilderFactory();
-                dbf.setNamespaceAware(true);
-
-                try (ByteArrayInputStream inputStream = new ByteArrayInputStream(xmlContent.getBytes())) {
-                    doc = dbf.newDocumentBuilder().parse(inputStream);
-                } catch (Exception e) {
-                    throw new JsonParseException("DOM of request element can not be created from String.", e);
-                }
-                if (doc != null) {
-                    content = doc.getDocumentElement();
+        if (!defaultCategory) {
+            category = stringCateogryToURI(name);
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String property = reader.nextName();
+            if (defaultCategory) {
+                if (EntitlementEndpointConstants.CATEGORY_ID.equals(property)) {
+                    category = stringCateogryToURI(readPrimitive(reader).getAsString());
+                } else {
+                    reader.skipValue();
                 }
-            }
-
-            // Add all category attributes
-            if (jsonCategory.has(EntitlementEndpointConstants.ATTRIBUTE)) {
-                if (jsonCategory.get(EntitlementEndpointConstants.ATTRIBUTE).isJsonArray()) {
+            } else if (EntitlementEndpointConstants.ID.equals(property)) {
+                id = readPrimitive(reader).getAsString();
+            } else if (EntitlementEndpointConstants.CONTENT.equals(property)) {
+                content = stringContentToNode(readPrimitive(reader).getAsString());
+            } else if (EntitlementEndpointConstants.ATTRIBUTE.equals(property)) {
+                // Add all category attributes
+                if (reader.peek() == JsonToken.BEGIN_ARRAY) {
                     attributes = new HashSet<>();
-                    for (JsonElement jsonElement : jsonCategory.get(EntitlementEndpointConstants.ATTRIBUTE)
-                            .getAsJsonArray()) {
-                        attributes.add(jsonObjectToAttribute(jsonElement.getAsJsonObject()));
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        attributes.add(readAttribute(reader));
                     }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
                 }
+            } else {
+                reader.skipValue();
             }
-
         }
+        reader.endObject();
+
         //Build the Attributes object using above values
         Attributes attributesObj = new Attributes(category, content, attributes, id);
         categories.add(attributesObj);
     }
 
     /**
-     * Private methods used by the parser to convert a given <code>{@link JsonObject}</code>
-     * to a Balana <code>{@link Attribute}</code>
+     * Private methods used by the parser to read a JSON attribute object to a Balana <code>{@link Attribute}</code>
      *
-     * @param jsonObject <code>{@link JsonObject}</code> representing the Attributes
+     * @param reader <code>{@link JsonReader}</code> positioned at the attribute object
      * @return <code>{@link Attribute}</code>
+     * @throws IOException
      * @throws RequestParseException
      * @throws UnknownIdentifierException
      */
-    private static Attribute jsonObjectToAttribute(JsonObject jsonObject) throws RequestParseException,
+    private static Attribute readAttribute(JsonReader reader) throws IOException, RequestParseException,
             UnknownIdentifierException {
         URI id = null;
         URI type = stringAttributeToURI(EntitlementEndpointConstants.ATTRIBUTE_DATA_TYPE_STRING);
@@ -221,29 +268,31 @@ public class JSONRequestParser {
         String issuer = null;
         List<AttributeValue> attributeValues = new ArrayList<>();
 
-        Set<Map.Entry<String, JsonElement>> properties = jsonObject.entrySet();
-        for (Map.Entry<String, JsonElement> property : properties) {
-            if (property.getValue().isJsonPrimitive()) {
-                switch (property.getKey()) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String property = reader.nextName();
+            JsonToken token = reader.peek();
+            if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+                JsonPrimitive value = readPrimitive(reader);
+                switch (property) {
                     case EntitlementEndpointConstants.ATTRIBUTE_ID:
-                        id = stringAttributeToURI(property.getValue().getAsString());
+                        id = stringAttributeToURI(value.getAsString());
                         break;
 
                     case EntitlementEndpointConstants.ATTRIBUTE_ISSUER:
-                        issuer = property.getValue().getAsString();
+                        issuer = value.getAsString();
                         break;
 
                     case EntitlementEndpointConstants.ATTRIBUTE_INCLUDE_IN_RESULT:
-                        includeInResult = property.getValue().getAsBoolean();
+                        includeInResult = value.getAsBoolean();
                         break;
 
                     case EntitlementEndpointConstants.ATTRIBUTE_DATA_TYPE:
-                        type = stringAttributeToURI(property.getValue().getAsString());
+                        type = stringAttributeToURI(value.getAsString());
                         break;
 
                     case EntitlementEndpointConstants.ATTRIBUTE_VALUE:
-                        URI dataType = stringAttributeToURI(
-                                jsonElementToDataType(property.getValue().getAsJsonPrimitive()));
+                        URI dataType = stringAttributeToURI(jsonElementToDataType(value));
 
                         //If a recognizable data type is given, it should replace the above
                         if (type.equals(stringAttributeToURI(EntitlementEndpointConstants.ATTRIBUTE_DATA_TYPE_STRING))
@@ -251,26 +300,32 @@ public class JSONRequestParser {
                             type = dataType;
                         }
 
-                        attributeValues.add(getAttributeValue(property.getValue().getAsString(), dataType, type));
+                        attributeValues.add(getAttributeValue(value.getAsString(), dataType, type));
                 }
-            } else if (property.getValue().isJsonArray()) {
-                if (property.getKey().equals(EntitlementEndpointConstants.ATTRIBUTE_VALUE)) {
-                    JsonArray valueArray = property.getValue().getAsJsonArray();
-                    for (JsonElement value : valueArray) {
-                        if (value.isJsonPrimitive()) {
-                            //check if each value's data type can be determined
-                            URI dataType = stringAttributeToURI(
-                                    jsonElementToDataType(value.getAsJsonPrimitive()));
-                            attributeValues.add(getAttributeValue(value.getAsString(), dataType, type));
-                        }
+            } else if (token == JsonToken.BEGIN_ARRAY && EntitlementEndpointConstants.ATTRIBUTE_VALUE
+                    .equals(property)) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    token = reader.peek();
+                    if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+                        //check if each value's data type can be determined
+                        JsonPrimitive value = readPrimitive(reader);
+                        URI dataType = stringAttributeToURI(jsonElementToDataType(value));
+                        attributeValues.add(getAttributeValue(value.getAsString(), dataType, type));
+                    } else {
+                        reader.skipValue();
                     }
                 }
+                reader.endArray();
 
                 /*
                 Todo: Spec mentions resolve the type by checking all elements at the end
                  */
+            } else {
+                reader.skipValue();
             }
         }
+        reader.endObject();
 
         if (id == null) {
             throw new RequestParseException("Attribute Id should be set");
@@ -284,6 +339,73 @@ public class JSONRequestParser {
                 XACMLConstants.XACML_VERSION_3_0);
     }
 
+    /**
+     * Reads a primitive JSON value the same way as the JSON tree parser, so that numbers keep their lazily parsed
+     * representation.
+     *
+     * @param reader <code>{@link JsonReader}</code> positioned at a primitive value
+     * @return <code>{@link JsonPrimitive}</code>
+     * @throws IOException
+     */
+    private static JsonPrimitive readPrimitive(JsonReader reader) throws IOException {
+
+        return jsonElementAdapter.read(reader).getAsJsonPrimitive();
+    }
+
+    /**
+     * Reads the MultiRequests object of the request. Each property of the object holds a request reference object
+     * or an array of request reference objects, as in the RequestReference property of the JSON profile.
+     *
+     * @param reader <code>{@link JsonReader}</code> positioned at the MultiRequests object
+     * @return <code>{@link MultiRequests}</code>
+     * @throws IOException
+     * @throws RequestParseException
+     */
+    private static MultiRequests readMultiRequests(JsonReader reader) throws IOException, RequestParseException {
+
+        Set<RequestReference> requestReferences = new HashSet<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    requestReferences.add(jsonObjectToRequestReference(
+                            jsonElementAdapter.read(reader).getAsJsonObject()));
+                }
+                reader.endArray();
+            } else {
+                requestReferences.add(jsonObjectToRequestReference(
+                        jsonElementAdapter.read(reader).getAsJsonObject()));
+            }
+        }
+        reader.endObject();
+
+        if (requestReferences.isEmpty()) {
+            throw new RequestParseException("MultiRequest should contain at least one Reference Request");
+        }
+        return new MultiRequests(requestReferences);
+    }
+
+    /**
+     * Parses the XML content of a category with the secured document builder of the current thread.
+     *
+     * @param content XML or Base64 encoded XML
+     * @return root <code>{@link Node}</code> of the content
+     * @throws RequestParseException
+     */
+    private static Node stringContentToNode(String content) throws RequestParseException {
+
+        String xmlContent = stringContentToXMLContent(content);
+        Document doc;
+        try {
+            doc = DocumentBuilderPool.getRequestDocumentBuilder().parse(new InputSource(new StringReader(xmlContent)));
+        } catch (Exception e) {
+            throw new JsonParseException("DOM of request element can not be created from String.", e);
+        }
+        return doc != null ? doc.getDocumentElement() : null;
+    }
+
     /**
      * Private methods constructing a Balana <code>{@link AttributeValue}</code> from given parameters
      *
@@ -22,6 +22,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 import org.wso2.balana.ObligationResult;
 import org.wso2.balana.attr.AttributeValue;
 import org.wso2.balana.attr.StringAttribute;
@@ -38,6 +39,10 @@ import org.wso2.carbon.identity.entitlement.EntitlementUtil;
 import org.wso2.carbon.identity.entitlement.PDPConstants;
 import org.wso2.carbon.identity.entitlement.endpoint.exception.ResponseWriteException;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -64,12 +69,7 @@ public class JSONResponseWriter {
         //JsonObject jsonResponse = new JsonObject();
         JsonArray results = new JsonArray();
 
-        Properties properties = EntitlementUtil.getPropertiesFromEntitlementConfig();
-        if (properties != null) {
-            if (Boolean.parseBoolean(properties.getProperty(PDPConstants.XACML_JSON_SHORT_FORM_ENABLED))) {
-                xacmlJSONProfileShortFormEnable = true;
-            }
-        }
+        loadShortFormConfig();
         //Loop all AbstractResult objects in ResponseCtx and add them as
         //Requests to JSON Response
         //There should be at least 1 request
@@ -87,6 +87,162 @@ public class JSONResponseWriter {
         return responseWrap;
     }
 
+    /**
+     * Writes the contents of a given Balana <code>{@link ResponseCtx}</code> to a JSON stream, without building a JSON
+     * tree of the response. The output is the same as serializing the result of <code>write(ResponseCtx)</code>.
+     *
+     * @param response <code>{@link ResponseCtx}</code>
+     * @param writer   <code>{@link JsonWriter}</code> to write the response to
+     * @throws ResponseWriteException <code>{@link ResponseWriteException}</code>
+     * @throws IOException            If the response can not be written
+     */
+    public static void write(ResponseCtx response, JsonWriter writer) throws ResponseWriteException, IOException {
+
+        loadShortFormConfig();
+        if (response.getResults().size() < 1) {
+            throw new ResponseWriteException(40032, "XACML response should contain at least 1 Result");
+        }
+
+        writer.beginObject();
+        writer.name(EntitlementEndpointConstants.RESPONSE);
+        writer.beginArray();
+        for (AbstractResult result : response.getResults()) {
+            writeAbstractResult(result, writer);
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+
+    /**
+     * Writes the contents of a given Balana <code>{@link ResponseCtx}</code> as a JSON string to the given writer
+     *
+     * @param response <code>{@link ResponseCtx}</code>
+     * @param writer   <code>{@link Writer}</code> to write the response to
+     * @throws ResponseWriteException <code>{@link ResponseWriteException}</code>
+     * @throws IOException            If the response can not be written
+     */
+    public static void write(ResponseCtx response, Writer writer) throws ResponseWriteException, IOException {
+
+        JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        write(response, jsonWriter);
+        jsonWriter.flush();
+    }
+
+    private static void loadShortFormConfig() {
+
+        Properties properties = EntitlementUtil.getPropertiesFromEntitlementConfig();
+        if (properties != null) {
+            if (Boolean.parseBoolean(properties.getProperty(PDPConstants.XACML_JSON_SHORT_FORM_ENABLED))) {
+                xacmlJSONProfileShortFormEnable = true;
+            }
+        }
+    }
+
+    /**
+     * Private method to write a given Balana <code>{@link AbstractResult}</code> to a JSON stream
+     *
+     * @param result <code>{@link AbstractResult}</code>
+     * @param writer <code>{@link JsonWriter}</code>
+     * @throws ResponseWriteException <code>{@link ResponseWriteException}</code>
+     * @throws IOException            If the result can not be written
+     */
+    private static void writeAbstractResult(AbstractResult result, JsonWriter writer) throws ResponseWriteException,
+            IOException {
+
+        //Decision property is mandatory, if not set throw error
+        if (result.getDecision() == -1) {
+            throw new ResponseWriteException(40031, "XACML Result should contain the Decision");
+        }
+        writer.beginObject();
+        writer.name(EntitlementEndpointConstants.DECISION).value(AbstractResult.DECISIONS[result.getDecision()]);
+
+        if (result.getStatus() != null) {
+            writer.name(EntitlementEndpointConstants.STATUS);
+            gson.toJson(statusToJSONObject(result.getStatus()), writer);
+        }
+
+        if (result.getObligations() != null && !result.getObligations().isEmpty()) {
+            writer.name(EntitlementEndpointConstants.OBLIGATIONS);
+            writer.beginArray();
+            for (ObligationResult obligation : result.getObligations()) {
+                if (obligation instanceof Obligation) {
+                    gson.toJson(obligationToJsonObject((Obligation) obligation), writer);
+                } else {
+                    writer.value(obligation.encode());
+                }
+            }
+            writer.endArray();
+        }
+
+        if (result.getAdvices() != null && !result.getAdvices().isEmpty()) {
+            writer.name(EntitlementEndpointConstants.ASSOCIATED_ADVICE);
+            writer.beginArray();
+            for (Advice advice : result.getAdvices()) {
+                gson.toJson(adviceToJsonObject(advice), writer);
+            }
+            writer.endArray();
+        }
+
+        if (((Result) result).getAttributes() != null && !((Result) result).getAttributes().isEmpty()) {
+            // A later category with the same name replaces an earlier one, as it does in a JsonObject.
+            Map<String, Attributes> categories = new LinkedHashMap<>();
+            for (Attributes attribute : ((Result) result).getAttributes()) {
+                categories.put(getCategoryName(attribute), attribute);
+            }
+            for (Map.Entry<String, Attributes> category : categories.entrySet()) {
+                writer.name(category.getKey());
+                writeAttributes(category.getValue(), writer);
+            }
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Write the json object value of an Attribute, as created by <code>getJsonObject(Attributes)</code>
+     *
+     * @param attributes an element of type Attributes
+     * @param writer     <code>{@link JsonWriter}</code>
+     * @throws IOException If the attributes can not be written
+     */
+    private static void writeAttributes(Attributes attributes, JsonWriter writer) throws IOException {
+
+        writer.beginObject();
+        writer.name(EntitlementEndpointConstants.ATTRIBUTE);
+        writer.beginArray();
+        for (Object att : attributes.getAttributes().toArray()) {
+            Attribute attrib = (Attribute) att;
+            if (attrib.isIncludeInResult()) {
+                writer.beginObject();
+                if (attrib.getId() != null) {
+                    writer.name(EntitlementEndpointConstants.ATTRIBUTE_ID).value(xacmlJSONProfileShortFormEnable ?
+                            uriToShortenForm(attrib.getId().toString()) : attrib.getId().toString());
+                }
+                String value = null;
+                if (attrib.getValues() != null) {
+                    // Only the last value is kept, as in the JSON object of the attribute.
+                    for (AttributeValue val : attrib.getValues()) {
+                        if (((StringAttribute) val).getValue() != null) {
+                            value = ((StringAttribute) val).getValue();
+                        }
+                    }
+                }
+                if (value != null) {
+                    writer.name(EntitlementEndpointConstants.ATTRIBUTE_VALUE).value(value);
+                }
+                writer.name(EntitlementEndpointConstants.ATTRIBUTE_INCLUDE_IN_RESULT)
+                        .value(String.valueOf(attrib.isIncludeInResult()));
+                if (attrib.getType() != null) {
+                    writer.name(EntitlementEndpointConstants.ATTRIBUTE_DATA_TYPE).value(
+                            xacmlJSONProfileShortFormEnable ? uriToShortenForm(attrib.getType().toString()) :
+                                    attrib.getType().toString());
+                }
+                writer.endObject();
+            }
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+
     /**
      * Private method to convert a given Balana <code>{@link AbstractResult}</code> to a <code>{@link JsonObject}</code>
      *
@@ -141,53 +297,51 @@ public class JSONResponseWriter {
             Set<Attributes> attributes = ((Result) result).getAttributes();
 
             for (Attributes attribute : attributes) {
-
-                switch (attribute.getCategory().toString()) {
-                    case EntitlementEndpointConstants.CATEGORY_ACTION_URI:
-                        jsonResult.add(EntitlementEndpointConstants.CATEGORY_ACTION, getJsonObject(attribute));
-                        break;
-
-                    case EntitlementEndpointConstants.CATEGORY_RESOURCE_URI:
-                        jsonResult.add(EntitlementEndpointConstants.CATEGORY_RESOURCE, getJsonObject(attribute));
-                        break;
-
-                    case EntitlementEndpointConstants.CATEGORY_ACCESS_SUBJECT_URI:
-                        jsonResult.add(EntitlementEndpointConstants.CATEGORY_ACCESS_SUBJECT, getJsonObject(attribute));
-                        break;
-
-                    case EntitlementEndpointConstants.CATEGORY_ENVIRONMENT_URI:
-                        jsonResult.add(EntitlementEndpointConstants.CATEGORY_ENVIRONMENT, getJsonObject(attribute));
-                        break;
-
-                    case EntitlementEndpointConstants.CATEGORY_RECIPIENT_SUBJECT_URI:
-                        jsonResult.add(EntitlementEndpointConstants.CATEGORY_RECIPIENT_SUBJECT,
-                                getJsonObject(attribute));
-                        break;
-
-                    case EntitlementEndpointConstants.CATEGORY_INTERMEDIARY_SUBJECT_URI:
-                        jsonResult.add(EntitlementEndpointConstants.CATEGORY_INTERMEDIARY_SUBJECT,
-                                getJsonObject(attribute));
-                        break;
-
-                    case EntitlementEndpointConstants.CATEGORY_CODEBASE_URI:
-                        jsonResult.add(EntitlementEndpointConstants.CATEGORY_CODEBASE, getJsonObject(attribute));
-                        break;
-
-                    case EntitlementEndpointConstants.CATEGORY_REQUESTING_MACHINE_URI:
-                        jsonResult.add(EntitlementEndpointConstants.CATEGORY_REQUESTING_MACHINE,
-                                getJsonObject(attribute));
-                        break;
-
-                    default:
-                        jsonResult.add(attribute.getCategory().toString(), getJsonObject(attribute));
-                        break;
-                }
+                jsonResult.add(getCategoryName(attribute), getJsonObject(attribute));
             }
         }
 
         return jsonResult;
     }
 
+    /**
+     * Get the name of the category of an Attribute in the JSON response
+     *
+     * @param attribute an element of type Attributes
+     * @return shorthand name of the category, or the category URI if there is no shorthand name
+     */
+    private static String getCategoryName(Attributes attribute) {
+
+        switch (attribute.getCategory().toString()) {
+            case EntitlementEndpointConstants.CATEGORY_ACTION_URI:
+                return EntitlementEndpointConstants.CATEGORY_ACTION;
+
+            case EntitlementEndpointConstants.CATEGORY_RESOURCE_URI:
+                return EntitlementEndpointConstants.CATEGORY_RESOURCE;
+
+            case EntitlementEndpointConstants.CATEGORY_ACCESS_SUBJECT_URI:
+                return EntitlementEndpointConstants.CATEGORY_ACCESS_SUBJECT;
+
+            case EntitlementEndpointConstants.CATEGORY_ENVIRONMENT_URI:
+                return EntitlementEndpointConstants.CATEGORY_ENVIRONMENT;
+
+            case EntitlementEndpointConstants.CATEGORY_RECIPIENT_SUBJECT_URI:
+                return EntitlementEndpointConstants.CATEGORY_RECIPIENT_SUBJECT;
+
+            case EntitlementEndpointConstants.CATEGORY_INTERMEDIARY_SUBJECT_URI:
+                return EntitlementEndpointConstants.CATEGORY_INTERMEDIARY_SUBJECT;
+
+            case EntitlementEndpointConstants.CATEGORY_CODEBASE_URI:
+                return EntitlementEndpointConstants.CATEGORY_CODEBASE;
+
+            case EntitlementEndpointConstants.CATEGORY_REQUESTING_MACHINE_URI:
+                return EntitlementEndpointConstants.CATEGORY_REQUESTING_MACHINE;
+
+            default:
+                return attribute.getCategory().toString();
+        }
+    }
+
     /**
      * Create json object value of an Attribute
      *
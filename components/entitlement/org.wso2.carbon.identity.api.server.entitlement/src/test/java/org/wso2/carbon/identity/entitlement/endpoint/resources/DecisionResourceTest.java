@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.entitlement.endpoint.resources;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.balana.ctx.AbstractRequestCtx;
+import org.wso2.balana.ctx.AbstractResult;
+import org.wso2.balana.ctx.ResponseCtx;
+import org.wso2.balana.ctx.Status;
+import org.wso2.balana.ctx.xacml3.Result;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.entitlement.endpoint.exception.RequestParseException;
+import org.wso2.carbon.identity.entitlement.endpoint.filter.EntitlementExceptionMapper;
+import org.wso2.carbon.identity.entitlement.endpoint.util.EntitlementEndpointConstants;
+import org.wso2.carbon.identity.entitlement.pdp.EntitlementEngine;
+
+import java.io.StringReader;
+import java.util.Collections;
+
+import javax.ws.rs.core.Response;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for the batch decision endpoint of {@link DecisionResource}.
+ */
+@PrepareForTest({EntitlementEngine.class, IdentityUtil.class})
+public class DecisionResourceTest extends PowerMockTestCase {
+
+    private static final String REQUEST_1 = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":" +
+            "\"subject-id\",\"Value\":\"alice\"}]},\"Action\":{\"Attribute\":[{\"AttributeId\":\"action-id\"," +
+            "\"Value\":\"read\"}]}}}";
+    private static final String REQUEST_2 = "{\"Request\":{\"AccessSubject\":{\"Attribute\":[{\"AttributeId\":" +
+            "\"subject-id\",\"Value\":\"bob\"}]},\"Action\":{\"Attribute\":[{\"AttributeId\":\"action-id\"," +
+            "\"Value\":\"write\"}]}}}";
+
+    private EntitlementEngine entitlementEngine;
+    private DecisionResource decisionResource;
+
+    @BeforeMethod
+    public void setUp() {
+
+        entitlementEngine = mock(EntitlementEngine.class);
+        mockStatic(EntitlementEngine.class);
+        when(EntitlementEngine.getInstance()).thenReturn(entitlementEngine);
+        ResponseCtx responseCtx = new ResponseCtx(new Result(AbstractResult.DECISION_PERMIT,
+                new Status(Collections.singletonList(Status.STATUS_OK)), null, null, null));
+        when(entitlementEngine.evaluate(any(AbstractRequestCtx.class), anyString())).thenReturn(responseCtx);
+        mockStatic(IdentityUtil.class);
+        decisionResource = new DecisionResource();
+    }
+
+    @Test
+    public void testGetDecisions() throws Exception {
+
+        String response = getDecisions("[" + REQUEST_1 + ",\n  " + REQUEST_2 + "]");
+
+        JsonArray responses = new Gson().fromJson(response, JsonArray.class);
+        assertEquals(responses.size(), 2);
+        assertEquals(responses.get(0).getAsJsonObject().getAsJsonArray("Response").get(0).getAsJsonObject()
+                .get("Decision").getAsString(), "Permit");
+        // Each request is evaluated with its compact form as the decision cache key.
+        verify(entitlementEngine).evaluate(any(AbstractRequestCtx.class), eq(REQUEST_1));
+        verify(entitlementEngine).evaluate(any(AbstractRequestCtx.class), eq(REQUEST_2));
+    }
+
+    @Test
+    public void testGetDecisionsForEmptyBatch() throws Exception {
+
+        assertEquals(getDecisions("[]"), "[]");
+        verify(entitlementEngine, never()).evaluate(any(AbstractRequestCtx.class), anyString());
+    }
+
+    @Test
+    public void testGetDecisionsRejectsLargeBatch() throws Exception {
+
+        when(IdentityUtil.getProperty(EntitlementEndpointConstants.MAX_BATCH_REQUESTS_PROPERTY)).thenReturn("1");
+
+        assertBadRequest("[" + REQUEST_1 + "," + REQUEST_2 + "]");
+        verify(entitlementEngine, times(1)).evaluate(any(AbstractRequestCtx.class), anyString());
+    }
+
+    @Test
+    public void testGetDecisionsRejectsInvalidBatch() throws Exception {
+
+        assertBadRequest(REQUEST_1);
+        assertBadRequest("");
+        verify(entitlementEngine, never()).evaluate(any(AbstractRequestCtx.class), anyString());
+
+        assertBadRequest("[" + REQUEST_1);
+        assertBadRequest("[" + REQUEST_1 + "] []");
+    }
+
+    private String getDecisions(String xacmlRequests) throws Exception {
+
+        return decisionResource.getDecisions(null, null, null, EntitlementEndpointConstants.APPLICATION_JSON,
+                new StringReader(xacmlRequests));
+    }
+
+    private void assertBadRequest(String xacmlRequests) throws Exception {
+
+        try {
+            getDecisions(xacmlRequests);
+            fail("Batch request was not rejected: " + xacmlRequests);
+        } catch (RequestParseException e) {
+            Response response = new EntitlementExceptionMapper().toResponse(e);
+            assertEquals(response.getStatus(), Response.Status.BAD_REQUEST.getStatusCode());
+        }
+    }
+}
@@ -18,10 +18,13 @@
 
 package org.wso2.carbon.identity.entitlement.endpoint.util;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import org.wso2.balana.ctx.xacml3.RequestCtx;
 import org.wso2.carbon.identity.testutil.IdentityBaseTest;
 
 public class JSONRequestParserTest extends IdentityBaseTest {
@@ -128,6 +131,15 @@ public class JSONRequestParserTest extends IdentityBaseTest {
                 + JSONRequestParser.parse(request).toString());
     }
 
+    @Test(dataProvider = "BuildRequest")
+    public void testParseJsonObjectRequests(String request) throws Exception {
+
+        RequestCtx requestCtx = JSONRequestParser.parse(new Gson().fromJson(request, JsonObject.class));
+        Assert.assertNotNull(requestCtx, "The request passed context is null. The passed request is :" + request);
+        Assert.assertEquals(requestCtx.getAttributesSet().size(),
+                JSONRequestParser.parse(request).getAttributesSet().size());
+    }
+
     @Test(dataProvider = "BuildNullRequest", expectedExceptions = JsonParseException.class)
     public void testParseEmptyRequests(String request) throws Exception {
 
@@ -135,4 +147,21 @@ public class JSONRequestParserTest extends IdentityBaseTest {
                 " The passed request is :" + request );
     }
 
+    @Test
+    public void testParseMultiRequests() throws Exception {
+
+        String request = "{\"Request\": {" +
+                "\"AccessSubject\": [" +
+                "{\"Id\": \"s1\", \"Attribute\": [{\"AttributeId\": \"subject-id\", \"Value\": \"alice\"}]}," +
+                "{\"Id\": \"s2\", \"Attribute\": [{\"AttributeId\": \"subject-id\", \"Value\": \"bob\"}]}]," +
+                "\"Action\": {\"Id\": \"a1\", " +
+                "\"Attribute\": [{\"AttributeId\": \"action-id\", \"Value\": \"read\"}]}," +
+                "\"MultiRequests\": {\"RequestReference\": [" +
+                "{\"ReferenceId\": [\"s1\", \"a1\"]}, {\"ReferenceId\": [\"s2\", \"a1\"]}]}}}";
+
+        RequestCtx requestCtx = JSONRequestParser.parse(request);
+        Assert.assertEquals(requestCtx.getAttributesSet().size(), 3);
+        Assert.assertNotNull(requestCtx.getMultiRequests(), "MultiRequests of the request are not parsed.");
+        Assert.assertEquals(requestCtx.getMultiRequests().getRequestReferences().size(), 2);
+    }
 }
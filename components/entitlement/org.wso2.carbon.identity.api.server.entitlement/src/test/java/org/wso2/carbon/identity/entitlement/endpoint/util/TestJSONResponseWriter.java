@@ -18,6 +18,7 @@
 
 package org.wso2.carbon.identity.entitlement.endpoint.util;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -35,6 +36,7 @@ import org.wso2.balana.xacml3.Advice;
 import org.wso2.balana.xacml3.Obligation;
 import org.wso2.carbon.identity.entitlement.endpoint.exception.ResponseWriteException;
 
+import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -122,4 +124,28 @@ public class TestJSONResponseWriter extends Assert {
         }
 
     }
+
+    @Test
+    public void testStreamedWrite() throws Exception {
+
+        List<AttributeAssignment> assignments = new ArrayList<>();
+        URI type = new URI("http://www.w3.org/2001/XMLSchema#string");
+        URI attributeId = new URI("urn:oasis:names:tc:xacml:3.0:example:attribute:text");
+        assignments.add(new AttributeAssignment(attributeId, type, null, "Error: Channel request is not WEB.", null));
+
+        List<ObligationResult> obligationResults = new ArrayList<>();
+        obligationResults.add(new Obligation(assignments, new URI("channel_ko")));
+        List<Advice> adviceResults = new ArrayList<>();
+        adviceResults.add(new Advice(new URI("channel_ko"), assignments));
+
+        List<String> codes = new ArrayList<>();
+        codes.add("urn:oasis:names:tc:xacml:1.0:status:ok");
+        AbstractResult abstractResult = new Result(1, new Status(codes), obligationResults, adviceResults, null);
+        ResponseCtx responseCtx = new ResponseCtx(abstractResult);
+
+        StringWriter writer = new StringWriter();
+        JSONResponseWriter.write(responseCtx, writer);
+        assertEquals("Streamed XACML json response differs from the json object response",
+                new Gson().toJson(JSONResponseWriter.write(responseCtx)), writer.toString());
+    }
 }
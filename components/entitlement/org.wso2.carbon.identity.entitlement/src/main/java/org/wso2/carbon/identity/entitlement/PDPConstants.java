@@ -285,6 +285,15 @@ public class PDPConstants {
 
     public static final String XACML_JSON_SHORT_FORM_ENABLED = "JSON.Shorten.Form.Enabled";
 
+    public static final String POLICY_SEARCH_THREAD_POOL_SIZE = "PDP.Search.ThreadPoolSize";
+
+    public static final String AUTHENTICATION_CACHING = "REST.Authentication.CredentialCaching.Enable";
+
+    public static final String AUTHENTICATION_CACHING_INTERVAL =
+            "REST.Authentication.CredentialCaching.CachingInterval";
+
+    public static final String AUTHENTICATION_CACHING_MAX_ENTRIES = "REST.Authentication.CredentialCaching.MaxEntries";
+
     public static final String USER_CATEGORY = "http://wso2.org/identity/user";
 
     public static final String USER_TYPE_ID = USER_CATEGORY + "/user-type";
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.entitlement.cache;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.entitlement.EntitlementUtil;
+import org.wso2.carbon.identity.entitlement.PDPConstants;
+import org.wso2.carbon.user.core.util.UserCoreUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Node local, bounded cache of credentials which were verified against the user store by the entitlement REST
+ * endpoint. Credentials are never stored. An entry is keyed by a keyed hash (HMAC-SHA256) of the tenant, the user name
+ * and the password, computed with a random key which never leaves the node, and is valid only until it expires.
+ * Entries of a user are removed when the credential, the claims or the user are changed on this node. Since other
+ * nodes of a cluster are not notified, the cache is disabled by default. When it is enabled, the expiry bounds the
+ * time a credential changed on another node is accepted.
+ */
+public class VerifiedCredentialCache {
+
+    private static final Log log = LogFactory.getLog(VerifiedCredentialCache.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int DEFAULT_CAPACITY = 1000;
+    private static final long DEFAULT_CACHING_INTERVAL_IN_SECONDS = 60;
+
+    private static volatile VerifiedCredentialCache instance;
+
+    private final boolean enabled;
+    private final long timeoutInMillis;
+    private final SecretKeySpec secretKey;
+    private final ThreadLocal<Mac> macs;
+    private final Map<String, VerifiedCredentialEntry> entries;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    VerifiedCredentialCache(boolean enabled, final int capacity, long timeoutInMillis) {
+
+        this.enabled = enabled;
+        this.timeoutInMillis = timeoutInMillis;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.secretKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(secretKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Error while initializing " + HMAC_ALGORITHM, e);
+            }
+        });
+        this.entries = new LinkedHashMap<String, VerifiedCredentialEntry>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedCredentialEntry> eldest) {
+
+                return size() > capacity;
+            }
+        };
+    }
+
+    public static VerifiedCredentialCache getInstance() {
+
+        if (instance == null) {
+            synchronized (VerifiedCredentialCache.class) {
+                if (instance == null) {
+                    Properties properties = EntitlementUtil.getPropertiesFromEntitlementConfig();
+                    instance = new VerifiedCredentialCache(isCacheEnabled(properties), getCapacity(properties),
+                            TimeUnit.SECONDS.toMillis(getCachingInterval(properties)));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check whether a credential was verified recently.
+     *
+     * @param tenantId Tenant id.
+     * @param userName Tenant aware user name.
+     * @param password Password.
+     * @return True if the credential was verified and the verification has not expired.
+     */
+    public boolean isVerified(int tenantId, String userName, String password) {
+
+        if (!enabled) {
+            return false;
+        }
+        String key = getKey(tenantId, userName, password);
+        synchronized (entries) {
+            VerifiedCredentialEntry entry = entries.get(key);
+            if (entry != null) {
+                if (System.currentTimeMillis() < entry.expiryTime) {
+                    hitCount.incrementAndGet();
+                    return true;
+                }
+                entries.remove(key);
+            }
+        }
+        missCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Add a credential which was verified against the user store.
+     *
+     * @param tenantId Tenant id.
+     * @param userName Tenant aware user name.
+     * @param password Password.
+     */
+    public void addVerified(int tenantId, String userName, String password) {
+
+        if (!enabled) {
+            return;
+        }
+        VerifiedCredentialEntry entry = new VerifiedCredentialEntry(tenantId, getUserKey(userName),
+                System.currentTimeMillis() + timeoutInMillis);
+        String key = getKey(tenantId, userName, password);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Remove the verified credentials of a user. The user is matched without its user store domain, so that the
+     * credentials are removed whether or not the domain was given at authentication.
+     *
+     * @param tenantId Tenant id.
+     * @param userName User name, with or without the user store domain.
+     */
+    public void clearCacheEntries(int tenantId, String userName) {
+
+        if (!enabled || userName == null) {
+            return;
+        }
+        String userKey = getUserKey(userName);
+        synchronized (entries) {
+            Iterator<VerifiedCredentialEntry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                VerifiedCredentialEntry entry = iterator.next();
+                if (entry.tenantId == tenantId && entry.userKey.equals(userKey)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all the verified credentials.
+     */
+    public void clear() {
+
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+
+        return missCount.get();
+    }
+
+    /**
+     * Get the ratio of the lookups which found a verified credential.
+     *
+     * @return Hit rate between 0 and 1, or 0 if there were no lookups.
+     */
+    public double getHitRate() {
+
+        long hits = hitCount.get();
+        long lookups = hits + missCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    private String getKey(int tenantId, String userName, String password) {
+
+        Mac mac = macs.get();
+        mac.update(Integer.toString(tenantId).getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(userName.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String getUserKey(String userName) {
+
+        return UserCoreUtil.removeDomainFromName(userName).toLowerCase();
+    }
+
+    private static boolean isCacheEnabled(Properties properties) {
+
+        String enabled = properties != null ?
+                properties.getProperty(PDPConstants.AUTHENTICATION_CACHING) : null;
+        return StringUtils.isNotBlank(enabled) && Boolean.parseBoolean(enabled.trim());
+    }
+
+    private static int getCapacity(Properties properties) {
+
+        String capacity = properties != null ?
+                properties.getProperty(PDPConstants.AUTHENTICATION_CACHING_MAX_ENTRIES) : null;
+        if (StringUtils.isNotBlank(capacity)) {
+            try {
+                return Integer.parseInt(capacity.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid verified credential cache capacity: " + capacity +
+                        ". Using the default capacity: " + DEFAULT_CAPACITY);
+            }
+        }
+        return DEFAULT_CAPACITY;
+    }
+
+    private static long getCachingInterval(Properties properties) {
+
+        String interval = properties != null ?
+                properties.getProperty(PDPConstants.AUTHENTICATION_CACHING_INTERVAL) : null;
+        if (StringUtils.isNotBlank(interval)) {
+            try {
+                return Long.parseLong(interval.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid verified credential caching interval: " + interval +
+                        ". Using the default caching interval: " + DEFAULT_CACHING_INTERVAL_IN_SECONDS);
+            }
+        }
+        return DEFAULT_CACHING_INTERVAL_IN_SECONDS;
+    }
+
+    private static final class VerifiedCredentialEntry {
+
+        private final int tenantId;
+        private final String userKey;
+        private final long expiryTime;
+
+        private VerifiedCredentialEntry(int tenantId, String userKey, long expiryTime) {
+
+            this.tenantId = tenantId;
+            this.userKey = userKey;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.wso2.carbon.identity.entitlement.listener;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.core.AbstractIdentityUserOperationEventListener;
+import org.wso2.carbon.identity.entitlement.cache.VerifiedCredentialCache;
 import org.wso2.carbon.identity.entitlement.internal.EntitlementServiceComponent;
 import org.wso2.carbon.identity.entitlement.pdp.EntitlementEngine;
 import org.wso2.carbon.identity.entitlement.pip.CarbonAttributeFinder;
@@ -48,6 +49,41 @@ public class CacheClearingUserOperationListener extends AbstractIdentityUserOper
         return 6;
     }
 
+    /**
+     * This method is overridden to clear the verified credentials of the user on doPostUpdateCredential operation
+     *
+     * @param userName         username
+     * @param credential       new credential
+     * @param userStoreManager UserStoreManagerClass
+     * @return Returns true always since no major effect on further procedures
+     * @throws org.wso2.carbon.user.core.UserStoreException
+     */
+    @Override
+    public boolean doPostUpdateCredential(String userName, Object credential, UserStoreManager userStoreManager)
+            throws UserStoreException {
+
+        clearVerifiedCredentials(userName, userStoreManager);
+        return true;
+    }
+
+    /**
+     * This method is overridden to clear the verified credentials of the user on doPostUpdateCredentialByAdmin
+     * operation
+     *
+     * @param userName         username
+     * @param credential       new credential
+     * @param userStoreManager UserStoreManagerClass
+     * @return Returns true always since no major effect on further procedures
+     * @throws org.wso2.carbon.user.core.UserStoreException
+     */
+    @Override
+    public boolean doPostUpdateCredentialByAdmin(String userName, Object credential,
+                                                 UserStoreManager userStoreManager) throws UserStoreException {
+
+        clearVerifiedCredentials(userName, userStoreManager);
+        return true;
+    }
+
     /**
      * TThis method is overridden to clear caches on doPostDeleteUser operation
      *
@@ -59,6 +95,7 @@ public class CacheClearingUserOperationListener extends AbstractIdentityUserOper
     @Override
     public boolean doPostDeleteUser(String userName, UserStoreManager userStoreManager) throws
                                                                                         UserStoreException {
+        clearVerifiedCredentials(userName, userStoreManager);
         if (!isEnable()) {
             return true;
         }
@@ -84,6 +121,7 @@ public class CacheClearingUserOperationListener extends AbstractIdentityUserOper
     @Override
     public boolean doPostSetUserClaimValue(String userName, UserStoreManager userStoreManager)
             throws UserStoreException {
+        clearVerifiedCredentials(userName, userStoreManager);
         if (!isEnable()) {
             return true;
         }
@@ -112,6 +150,7 @@ public class CacheClearingUserOperationListener extends AbstractIdentityUserOper
     public boolean doPostSetUserClaimValues(String userName, Map<String, String> claims,
                                             String profileName, UserStoreManager userStoreManager)
             throws UserStoreException {
+        clearVerifiedCredentials(userName, userStoreManager);
         if (!isEnable()) {
             return true;
         }
@@ -138,6 +177,7 @@ public class CacheClearingUserOperationListener extends AbstractIdentityUserOper
     public boolean doPostDeleteUserClaimValues(String userName,
                                                UserStoreManager userStoreManager) throws
                                                                                   UserStoreException {
+        clearVerifiedCredentials(userName, userStoreManager);
         if (!isEnable()) {
             return true;
         }
@@ -163,6 +203,7 @@ public class CacheClearingUserOperationListener extends AbstractIdentityUserOper
     @Override
     public boolean doPostDeleteUserClaimValue(String userName, UserStoreManager userStoreManager)
             throws UserStoreException {
+        clearVerifiedCredentials(userName, userStoreManager);
         if (!isEnable()) {
             return true;
         }
@@ -294,6 +335,21 @@ public class CacheClearingUserOperationListener extends AbstractIdentityUserOper
         return true;
     }
 
+    /**
+     * Clears the credentials of the user verified by the entitlement REST endpoint. Credential, claim (account lock)
+     * and user changes always clear them, even when the listener is disabled, so that a changed or locked account is
+     * not authenticated from the cache.
+     *
+     * @param userName         username
+     * @param userStoreManager UserStoreManager instance got called
+     * @throws org.wso2.carbon.user.core.UserStoreException
+     */
+    private void clearVerifiedCredentials(String userName, UserStoreManager userStoreManager)
+            throws UserStoreException {
+
+        VerifiedCredentialCache.getInstance().clearCacheEntries(userStoreManager.getTenantId(), userName);
+    }
+
     /**
      * this method is responsible for clearing all 3 major caches of entitlement engine
      * including  PIP_ATTRIBUTE_CACHE , PDP_DECISION_INVALIDATION_CACHE, ENTITLEMENT_POLICY_INVALIDATION_CACHE
@@ -26,15 +26,13 @@ import org.wso2.balana.ParsingException;
 import org.wso2.balana.Policy;
 import org.wso2.balana.PolicySet;
 import org.wso2.balana.finder.PolicyFinder;
-import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.entitlement.policy.DocumentBuilderPool;
 import org.wso2.carbon.identity.entitlement.policy.PolicyTarget;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 
@@ -55,27 +53,12 @@ public class PAPPolicyReader implements ErrorHandler {
     private static final Object lock = new Object();
     private static Log log = LogFactory.getLog(PAPPolicyReader.class);
     private static volatile PAPPolicyReader reader;
-    // the builder used to create DOM documents
-    private DocumentBuilder builder;
-
     // policy finder module to find  policies
     private PolicyFinder policyFinder;
 
     private PAPPolicyReader(PolicyFinder policyFinder) {
 
         this.policyFinder = policyFinder;
-
-        // create the factory
-        DocumentBuilderFactory documentBuilderFactory = IdentityUtil.getSecuredDocumentBuilderFactory();
-        documentBuilderFactory.setIgnoringComments(true);
-
-        // now use the factory to create the document builder
-        try {
-            builder = documentBuilderFactory.newDocumentBuilder();
-            builder.setErrorHandler(this);
-        } catch (ParserConfigurationException pce) {
-            throw new IllegalArgumentException("Failed to create the DocumentBuilder. : ", pce);
-        }
     }
 
     /**
@@ -101,7 +84,7 @@ public class PAPPolicyReader implements ErrorHandler {
         InputStream stream = null;
         try {
             stream = new ByteArrayInputStream(policy.getBytes("UTF-8"));
-            handleDocument(builder.parse(stream));
+            handleDocument(getDocumentBuilder().parse(stream));
         } catch (Exception e) {
             return false;
         }
@@ -112,11 +95,11 @@ public class PAPPolicyReader implements ErrorHandler {
      * @param policy
      * @return
      */
-    public synchronized AbstractPolicy getPolicy(String policy) {
+    public AbstractPolicy getPolicy(String policy) {
         InputStream stream = null;
         try {
             stream = new ByteArrayInputStream(policy.getBytes("UTF-8"));
-            return handleDocument(builder.parse(stream));
+            return handleDocument(getDocumentBuilder().parse(stream));
         } catch (Exception e) {
             log.error("Error while parsing the policy", e);
             return null;
@@ -134,7 +117,7 @@ public class PAPPolicyReader implements ErrorHandler {
         PolicyTarget policyTarget = new PolicyTarget();
         try {
             stream = new ByteArrayInputStream(policy.getBytes("UTF-8"));
-            AbstractPolicy abstractPolicy = handleDocument(builder.parse(stream));
+            AbstractPolicy abstractPolicy = handleDocument(getDocumentBuilder().parse(stream));
             policyTarget.setTarget(abstractPolicy.getTarget());
             policyTarget.setPolicyId(abstractPolicy.getId().toString());
             return policyTarget;
@@ -144,6 +127,18 @@ public class PAPPolicyReader implements ErrorHandler {
         }
     }
 
+    /**
+     * Returns the policy document builder of the current thread, so that policies can be parsed concurrently.
+     *
+     * @return document builder reporting parse errors to this reader
+     */
+    private DocumentBuilder getDocumentBuilder() {
+
+        DocumentBuilder documentBuilder = DocumentBuilderPool.getPolicyDocumentBuilder();
+        documentBuilder.setErrorHandler(this);
+        return documentBuilder;
+    }
+
     /**
      * @param doc
      * @return
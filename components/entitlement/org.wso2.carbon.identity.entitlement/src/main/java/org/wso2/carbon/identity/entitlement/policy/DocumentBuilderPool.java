@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.entitlement.policy;
+
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * Per thread pool of secured document builders used to parse XACML requests and policies. Creating a secured
+ * document builder is costly compared to parsing a small XACML document, and a document builder can not be shared
+ * between threads, so each thread reuses its own builders. A builder is reset before it is returned, and must not
+ * be used after the thread has requested another builder of the same kind.
+ */
+public final class DocumentBuilderPool {
+
+    private static final ThreadLocal<DocumentBuilder> requestDocumentBuilder = new ThreadLocal<DocumentBuilder>() {
+        @Override
+        protected DocumentBuilder initialValue() {
+
+            return newDocumentBuilder(false);
+        }
+    };
+
+    private static final ThreadLocal<DocumentBuilder> policyDocumentBuilder = new ThreadLocal<DocumentBuilder>() {
+        @Override
+        protected DocumentBuilder initialValue() {
+
+            return newDocumentBuilder(true);
+        }
+    };
+
+    private DocumentBuilderPool() {
+
+    }
+
+    /**
+     * Returns the document builder of the current thread for XACML requests.
+     *
+     * @return secured document builder
+     */
+    public static DocumentBuilder getRequestDocumentBuilder() {
+
+        DocumentBuilder documentBuilder = requestDocumentBuilder.get();
+        documentBuilder.reset();
+        return documentBuilder;
+    }
+
+    /**
+     * Returns the document builder of the current thread for XACML policies, which ignores comments.
+     *
+     * @return secured document builder
+     */
+    public static DocumentBuilder getPolicyDocumentBuilder() {
+
+        DocumentBuilder documentBuilder = policyDocumentBuilder.get();
+        documentBuilder.reset();
+        return documentBuilder;
+    }
+
+    private static DocumentBuilder newDocumentBuilder(boolean ignoringComments) {
+
+        DocumentBuilderFactory documentBuilderFactory = IdentityUtil.getSecuredDocumentBuilderFactory();
+        documentBuilderFactory.setIgnoringComments(ignoringComments);
+        try {
+            return documentBuilderFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("Failed to create the DocumentBuilder.", e);
+        }
+    }
+}
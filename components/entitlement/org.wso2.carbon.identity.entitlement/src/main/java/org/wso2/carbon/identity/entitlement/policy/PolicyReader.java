@@ -26,14 +26,11 @@ import org.wso2.balana.ParsingException;
 import org.wso2.balana.Policy;
 import org.wso2.balana.PolicySet;
 import org.wso2.balana.finder.PolicyFinder;
-import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 
@@ -51,25 +48,12 @@ public class PolicyReader implements ErrorHandler {
     private static final Object lock = new Object();
     private static Log log = LogFactory.getLog(PolicyReader.class);
     private static volatile PolicyReader reader;
-    // the builder used to create DOM documents
-    private DocumentBuilder builder;
-
     // policy finder module to find  policies
     private PolicyFinder policyFinder;
 
     private PolicyReader(PolicyFinder policyFinder) {
 
         this.policyFinder = policyFinder;
-        // create the factory
-        DocumentBuilderFactory factory = IdentityUtil.getSecuredDocumentBuilderFactory();
-        factory.setIgnoringComments(true);
-        // now use the factory to create the document builder
-        try {
-            builder = factory.newDocumentBuilder();
-            builder.setErrorHandler(this);
-        } catch (ParserConfigurationException pce) {
-            throw new IllegalArgumentException("Filed to setup repository: ");
-        }
     }
 
     /**
@@ -95,7 +79,7 @@ public class PolicyReader implements ErrorHandler {
         InputStream stream = null;
         try {
             stream = new ByteArrayInputStream(policy.getBytes("UTF-8"));
-            handleDocument(builder.parse(stream));
+            handleDocument(getDocumentBuilder().parse(stream));
         } catch (Exception e) {
             return false;
         }
@@ -106,11 +90,11 @@ public class PolicyReader implements ErrorHandler {
      * @param policy
      * @return
      */
-    public synchronized AbstractPolicy getPolicy(String policy) {
+    public AbstractPolicy getPolicy(String policy) {
         InputStream stream = null;
         try {
             stream = new ByteArrayInputStream(policy.getBytes("UTF-8"));
-            return handleDocument(builder.parse(stream));
+            return handleDocument(getDocumentBuilder().parse(stream));
         } catch (Exception e) {
             log.error("Error while parsing the policy", e);
             return null;
@@ -128,7 +112,7 @@ public class PolicyReader implements ErrorHandler {
         PolicyTarget policyTarget = new PolicyTarget();
         try {
             stream = new ByteArrayInputStream(policy.getBytes("UTF-8"));
-            AbstractPolicy abstractPolicy = handleDocument(builder.parse(stream));
+            AbstractPolicy abstractPolicy = handleDocument(getDocumentBuilder().parse(stream));
             policyTarget.setTarget(abstractPolicy.getTarget());
             policyTarget.setPolicyId(abstractPolicy.getId().toString());
             return policyTarget;
@@ -138,6 +122,18 @@ public class PolicyReader implements ErrorHandler {
         }
     }
 
+    /**
+     * Returns the policy document builder of the current thread, so that policies can be parsed concurrently.
+     *
+     * @return document builder reporting parse errors to this reader
+     */
+    private DocumentBuilder getDocumentBuilder() {
+
+        DocumentBuilder documentBuilder = DocumentBuilderPool.getPolicyDocumentBuilder();
+        documentBuilder.setErrorHandler(this);
+        return documentBuilder;
+    }
+
     /**
      * @param doc
      * @return
@@ -17,27 +17,20 @@
 */
 package org.wso2.carbon.identity.entitlement.policy;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.entitlement.EntitlementException;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
 
 /**
  * XACML request is built
  */
 public class PolicyRequestBuilder {
 
-    private static Log log = LogFactory.getLog(PolicyRequestBuilder.class);
-
     /**
      * creates DOM representation of the XACML request
      *
@@ -47,30 +40,13 @@ public class PolicyRequestBuilder {
      */
     public Element getXacmlRequest(String request) throws EntitlementException {
 
-        ByteArrayInputStream inputStream;
-        DocumentBuilderFactory documentBuilderFactory;
         Document doc;
-        DocumentBuilder documentBuilder;
-
-        inputStream = new ByteArrayInputStream(request.getBytes());
-        documentBuilderFactory = IdentityUtil.getSecuredDocumentBuilderFactory();
-
         try {
-
-            documentBuilder = documentBuilderFactory.newDocumentBuilder();
-            doc = documentBuilder.parse(inputStream);
+            doc = DocumentBuilderPool.getRequestDocumentBuilder().parse(new InputSource(new StringReader(request)));
         } catch (SAXException e) {
             throw new EntitlementException("Error while creating DOM from XACML request");
         } catch (IOException e) {
             throw new EntitlementException("Error while creating DOM from XACML request");
-        } catch (ParserConfigurationException e) {
-            throw new EntitlementException("Error while creating DOM from XACML request");
-        } finally {
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                log.error("Error in closing input stream of XACML request");
-            }
         }
         return doc.getDocumentElement();
     }
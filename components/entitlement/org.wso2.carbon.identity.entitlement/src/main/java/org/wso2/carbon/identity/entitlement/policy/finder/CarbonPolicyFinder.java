@@ -32,6 +32,7 @@ import org.wso2.balana.ctx.Status;
 import org.wso2.balana.finder.PolicyFinder;
 import org.wso2.balana.finder.PolicyFinderResult;
 import org.wso2.carbon.context.CarbonContext;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.entitlement.EntitlementException;
 import org.wso2.carbon.identity.entitlement.PDPConstants;
 import org.wso2.carbon.identity.entitlement.PolicyOrderComparator;
@@ -57,6 +58,13 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Policy finder of the WSO2 entitlement engine.  This an implementation of <code>PolicyFinderModule</code>
@@ -160,9 +168,11 @@ public class CarbonPolicyFinder extends org.wso2.balana.finder.PolicyFinderModul
             for (PolicyFinderModule finderModule : this.finderModules) {
                 log.info("Start retrieving policies from " + finderModule + " at : " + new Date());
                 String[] policies = finderModule.getActivePolicies();
-                for (int a = 0; a < policies.length; a++) {
-                    String policy = policies[a];
-                    AbstractPolicy abstractPolicy = policyReader.getPolicy(policy);
+                // Policies are parsed concurrently, as each thread parses with its own document builder, and
+                // are added to the collection in their original order.
+                List<AbstractPolicy> abstractPolicies = parsePolicies(policies);
+                for (int a = 0; a < abstractPolicies.size(); a++) {
+                    AbstractPolicy abstractPolicy = abstractPolicies.get(a);
                     if (abstractPolicy != null) {
                         PolicyDTO policyDTO = new PolicyDTO();
                         policyDTO.setPolicyId(abstractPolicy.getId().toString());
@@ -183,6 +193,86 @@ public class CarbonPolicyFinder extends org.wso2.balana.finder.PolicyFinderModul
         log.info("Initializing of policy store is finished at :  " + new Date());
     }
 
+    /**
+     * Parses the given policies in parallel. The policies are parsed on a dedicated thread pool, which is bounded by
+     * the number of available processors and is shut down once the policies are parsed. Each policy is parsed in the
+     * tenant flow and with the context class loader of the calling thread.
+     *
+     * @param policies policies as Strings
+     * @return parsed policies in the order of the given policies, with null for the policies which can not be parsed
+     */
+    private List<AbstractPolicy> parsePolicies(String[] policies) {
+
+        List<AbstractPolicy> abstractPolicies = new ArrayList<AbstractPolicy>(policies.length);
+        int poolSize = Math.min(Runtime.getRuntime().availableProcessors(), policies.length);
+        if (poolSize <= 1) {
+            for (String policy : policies) {
+                abstractPolicies.add(policyReader.getPolicy(policy));
+            }
+            return abstractPolicies;
+        }
+
+        CarbonContext carbonContext = CarbonContext.getThreadLocalCarbonContext();
+        final int tenantId = carbonContext.getTenantId();
+        final String tenantDomain = carbonContext.getTenantDomain();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+
+                Thread thread = new Thread(runnable, "policy-loader-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Future<AbstractPolicy>> futures = new ArrayList<Future<AbstractPolicy>>(policies.length);
+            for (final String policy : policies) {
+                futures.add(executor.submit(new Callable<AbstractPolicy>() {
+                    @Override
+                    public AbstractPolicy call() {
+
+                        return parsePolicy(policy, tenantId, tenantDomain, contextClassLoader);
+                    }
+                }));
+            }
+            for (Future<AbstractPolicy> future : futures) {
+                abstractPolicies.add(future.get());
+            }
+            return abstractPolicies;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while parsing the policies", e);
+        } catch (ExecutionException e) {
+            // Policy reader reports the policies which can not be parsed as null, hence this is an unchecked failure.
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Error while parsing the policies", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private AbstractPolicy parsePolicy(String policy, int tenantId, String tenantDomain,
+                                       ClassLoader contextClassLoader) {
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+        currentThread.setContextClassLoader(contextClassLoader);
+        PrivilegedCarbonContext.startTenantFlow();
+        try {
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantId(tenantId);
+            carbonContext.setTenantDomain(tenantDomain);
+            return policyReader.getPolicy(policy);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+            currentThread.setContextClassLoader(previousClassLoader);
+        }
+    }
+
     @Override
     public String getIdentifier() {
         return super.getIdentifier();
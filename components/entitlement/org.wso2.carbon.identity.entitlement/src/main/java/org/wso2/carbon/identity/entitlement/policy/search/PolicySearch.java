@@ -24,6 +24,7 @@ import org.wso2.balana.ctx.AbstractRequestCtx;
 import org.wso2.balana.ctx.AbstractResult;
 import org.wso2.balana.ctx.ResponseCtx;
 import org.wso2.carbon.context.CarbonContext;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.entitlement.EntitlementException;
 import org.wso2.carbon.identity.entitlement.EntitlementUtil;
 import org.wso2.carbon.identity.entitlement.PDPConstants;
@@ -37,12 +38,27 @@ import org.wso2.carbon.identity.entitlement.policy.finder.PolicyFinderModule;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * This contains the searching methods for policies based on policy attribute values and how subjects
@@ -52,6 +68,11 @@ public class PolicySearch {
 
     private static Log log = LogFactory.getLog(PolicySearch.class);
 
+    private static final int SEARCH_QUEUE_CAPACITY = 10000;
+
+    private static volatile ExecutorService searchExecutor;
+
+    private static volatile boolean searchExecutorInitialized;
 
     private List<PolicyFinderModule> finderModules = null;
 
@@ -104,10 +125,52 @@ public class PolicySearch {
             }
         }
 
+        EntitledResultSetDTO resultSetDTO = new EntitledResultSetDTO();
+        final List<EntitledAttributesDTO> resultSet = new ArrayList<EntitledAttributesDTO>();
+
+        streamEntitledAttributes(subjectName, resourceName, subjectId, action, enableChildSearch,
+                new Consumer<EntitledAttributesDTO>() {
+                    @Override
+                    public void accept(EntitledAttributesDTO dto) {
+                        resultSet.add(dto);
+                    }
+                });
+
+        resultSetDTO.setEntitledAttributesDTOs(resultSet.
+                toArray(new EntitledAttributesDTO[resultSet.size()]));
+
+        if (cachingEnable) {
+            SearchResult result = new SearchResult();
+            result.setResultSetDTO(resultSetDTO);
+            policySearchCache.addToCache(cacheKey, result);
+            if (log.isDebugEnabled()) {
+                int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+                log.debug("PDP Decision Cache Updated for tenantId " + tenantId);
+            }
+        }
+        return resultSetDTO;
+    }
+
+    /**
+     * Streams the entitled attributes for given user or role and action to the given consumer, as the
+     * evaluations of the active policies in the PDP complete. The subject is fixed once and every resource and
+     * action combination is evaluated at most once, in parallel on the policy search thread pool. The consumer is
+     * always called on the calling thread, and the results are not cached.
+     *
+     * @param subjectName       subject name
+     * @param resourceName      resource name
+     * @param subjectId         subject attribute Id
+     * @param action            Action Name
+     * @param enableChildSearch whether search is done for the child resources under the given  resource name
+     * @param consumer          consumer of the entitled attributes
+     * @throws EntitlementException throws
+     */
+    public void streamEntitledAttributes(String subjectName, String resourceName, String subjectId, String action,
+                                         boolean enableChildSearch, Consumer<EntitledAttributesDTO> consumer)
+            throws EntitlementException {
+
         AttributeDTO subjectAttributeDTO;
         boolean hierarchicalResource = false;
-        EntitledResultSetDTO resultSetDTO = new EntitledResultSetDTO();
-        Set<EntitledAttributesDTO> resultSet = new HashSet<EntitledAttributesDTO>();
 
         if (subjectName != null && subjectName.trim().length() > 0) {
             subjectAttributeDTO = new AttributeDTO();
@@ -123,15 +186,25 @@ public class PolicySearch {
             throw new EntitlementException("Error : subject value can not be null");
         }
 
-        if (getResponse(Arrays.asList(subjectAttributeDTO))) {
+        final SearchEvaluator evaluator = new SearchEvaluator(EntitlementEngine.getInstance());
+        if (evaluator.isPermitted(Arrays.asList(subjectAttributeDTO))) {
             EntitledAttributesDTO dto = new EntitledAttributesDTO();
             dto.setAllActions(true);
             dto.setAllResources(true);
-            EntitledResultSetDTO setDTO = new EntitledResultSetDTO();
-            setDTO.setEntitledAttributesDTOs(new EntitledAttributesDTO[]{dto});
-            return setDTO;
+            consumer.accept(dto);
+            return;
         }
 
+        AttributeDTO resourceScopeAttribute = new AttributeDTO();
+        resourceScopeAttribute.setAttributeValue(PDPConstants.RESOURCE_DESCENDANTS);
+        resourceScopeAttribute.setAttributeDataType(PDPConstants.STRING_DATA_TYPE);
+        resourceScopeAttribute.setAttributeId(PDPConstants.RESOURCE_SCOPE_ID);
+        resourceScopeAttribute.setCategory(PDPConstants.RESOURCE_CATEGORY_URI);
+
+        // Collect the search attributes of all the finder modules first, so that the same action or resource
+        // found in more than one policy is evaluated only once.
+        Set<AttributeDTO> allActions = new LinkedHashSet<AttributeDTO>();
+        List<ResourceSearch> resourceSearches = new ArrayList<ResourceSearch>();
         for (PolicyFinderModule module : finderModules) {
             if (module.isDefaultCategoriesSupported() &&
                 PolicyFinderModule.COMBINATIONS_BY_CATEGORY_AND_PARAMETER ==
@@ -142,9 +215,9 @@ public class PolicySearch {
                 for (Map.Entry<String, Set<AttributeDTO>> entry : requestMap.entrySet()) {
                     Set<AttributeDTO> attributeDTOs = entry.getValue();
                     if (attributeDTOs != null) {
-                        Set<AttributeDTO> actions = new HashSet<AttributeDTO>();
-                        Set<AttributeDTO> resources = new HashSet<AttributeDTO>();
-                        Set<AttributeDTO> requestAttributes = new HashSet<AttributeDTO>();
+                        List<AttributeDTO> actions = new ArrayList<AttributeDTO>();
+                        List<AttributeDTO> resources = new ArrayList<AttributeDTO>();
+                        List<AttributeDTO> requestAttributes = new ArrayList<AttributeDTO>();
                         if (resourceName != null && resourceName.trim().length() > 0) {
                             AttributeDTO resourceAttribute = new AttributeDTO();
                             resourceAttribute.setAttributeValue(resourceName);
@@ -155,16 +228,9 @@ public class PolicySearch {
                             hierarchicalResource = true;
                         }
 
-                        AttributeDTO resourceScopeAttribute = new AttributeDTO();
-                        resourceScopeAttribute.setAttributeValue(PDPConstants.RESOURCE_DESCENDANTS);
-                        resourceScopeAttribute.setAttributeDataType(PDPConstants.STRING_DATA_TYPE);
-                        resourceScopeAttribute.setAttributeId(PDPConstants.RESOURCE_SCOPE_ID);
-                        resourceScopeAttribute.setCategory(PDPConstants.RESOURCE_CATEGORY_URI);
-
                         for (AttributeDTO attributeDTO : attributeDTOs) {
                             if (PDPConstants.ENVIRONMENT_CATEGORY_URI.equals(attributeDTO.getCategory()) ||
                                 PDPConstants.ENVIRONMENT_ELEMENT.equals(attributeDTO.getCategory())) {
-                                requestAttributes.add(attributeDTO);
                                 attributeDTO.setAttributeId(PDPConstants.ENVIRONMENT_ID_DEFAULT);
                                 requestAttributes.add(attributeDTO);
                             } else if (PDPConstants.ACTION_CATEGORY_URI.equals(attributeDTO.getCategory()) ||
@@ -172,7 +238,6 @@ public class PolicySearch {
                                 if (action != null && action.trim().length() > 0) {
                                     attributeDTO.setAttributeValue(action);
                                 }
-                                actions.add(attributeDTO);
                                 attributeDTO.setAttributeId(PDPConstants.ACTION_ID_DEFAULT);
                                 actions.add(attributeDTO);
                             } else if ((PDPConstants.RESOURCE_CATEGORY_URI.equals(attributeDTO.getCategory()) ||
@@ -184,92 +249,13 @@ public class PolicySearch {
                             }
                         }
 
-                        if (resultSetDTO.getMessage() == null) {
-                            List<String> entitledActions = new ArrayList<String>();
-                            for (AttributeDTO actionDTO : actions) {
-                                List<AttributeDTO> currentRequestAttributes =
-                                        new ArrayList<AttributeDTO>();
-                                currentRequestAttributes.add(subjectAttributeDTO);
-                                currentRequestAttributes.add(actionDTO);
-                                if (getResponse(currentRequestAttributes)) {
-                                    EntitledAttributesDTO dto = new EntitledAttributesDTO();
-                                    dto.setAllResources(true);
-                                    dto.setAction(actionDTO.getAttributeValue());
-                                    resultSet.add(dto);
-                                    entitledActions.add(actionDTO.getAttributeValue());
-                                }
-                            }
-
-                            for (AttributeDTO resource : resources) {
-                                if (PDPConstants.RESOURCE_CATEGORY_URI.equals(resource.getCategory())
-                                    || PDPConstants.RESOURCE_ELEMENT.equals(resource.getCategory())) {
-
-                                    boolean allActionsAllowed = false;
-
-                                    int noOfRequests = 1;
-                                    if (enableChildSearch) {
-                                        noOfRequests = 0;
-                                    }
-
-                                    while (noOfRequests < 2) {
-                                        List<AttributeDTO> currentRequestAttributes =
-                                                new ArrayList<AttributeDTO>();
-                                        for (AttributeDTO dto : requestAttributes) {
-                                            currentRequestAttributes.add(dto);
-                                        }
-                                        if (noOfRequests < 1) {
-                                            currentRequestAttributes.add(resourceScopeAttribute);
-                                        }
-                                        currentRequestAttributes.add(subjectAttributeDTO);
-                                        currentRequestAttributes.add(resource);
-
-                                        if (getResponse(currentRequestAttributes)) {
-                                            EntitledAttributesDTO dto = new EntitledAttributesDTO();
-                                            dto.setResourceName(resource.getAttributeValue());
-                                            dto.setAllActions(true);
-                                            resultSet.add(dto);
-                                            allActionsAllowed = true;
-                                        }
-                                        noOfRequests++;
-                                    }
-
-                                    if (allActionsAllowed) {
-                                        continue;
-                                    }
-
-                                    for (AttributeDTO actionAttributeDTO : actions) {
-
-                                        if (entitledActions.contains(actionAttributeDTO.getAttributeValue())) {
-                                            continue;
-                                        }
-
-                                        noOfRequests = 1;
-                                        if (enableChildSearch) {
-                                            noOfRequests = 0;
-                                        }
-                                        while (noOfRequests < 2) {
-                                            List<AttributeDTO> currentRequestAttributes =
-                                                    new ArrayList<AttributeDTO>();
-                                            for (AttributeDTO dto : requestAttributes) {
-                                                currentRequestAttributes.add(dto);
-                                            }
-                                            if (noOfRequests < 1) {
-                                                currentRequestAttributes.add(resourceScopeAttribute);
-                                            }
-                                            currentRequestAttributes.add(subjectAttributeDTO);
-                                            currentRequestAttributes.add(resource);
-                                            currentRequestAttributes.add(actionAttributeDTO);
-
-                                            if (getResponse(currentRequestAttributes)) {
-                                                EntitledAttributesDTO dto = new EntitledAttributesDTO();
-                                                dto.setResourceName(resource.getAttributeValue());
-                                                dto.setAction(actionAttributeDTO.getAttributeValue());
-                                                resultSet.add(dto);
-                                            }
-                                            noOfRequests++;
-                                        }
-                                    }
-                                }
+                        allActions.addAll(actions);
+                        for (AttributeDTO resource : resources) {
+                            if (PDPConstants.RESOURCE_CATEGORY_URI.equals(resource.getCategory())
+                                || PDPConstants.RESOURCE_ELEMENT.equals(resource.getCategory())) {
+                                resourceSearches.add(new ResourceSearch(new ArrayList<AttributeDTO>(
+                                        new LinkedHashSet<AttributeDTO>(requestAttributes)), resource,
+                                        new ArrayList<AttributeDTO>(new LinkedHashSet<AttributeDTO>(actions))));
                             }
                         }
                     }
@@ -277,21 +263,46 @@ public class PolicySearch {
             }
         }
 
-        resultSetDTO.setEntitledAttributesDTOs(resultSet.
-                toArray(new EntitledAttributesDTO[resultSet.size()]));
+        ResultCollector collector = new ResultCollector(consumer);
 
-        if (cachingEnable) {
-            SearchResult result = new SearchResult();
-            result.setResultSetDTO(resultSetDTO);
-            policySearchCache.addToCache(cacheKey, result);
-            if (log.isDebugEnabled()) {
-                int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
-                log.debug("PDP Decision Cache Updated for tenantId " + tenantId);
-            }
+        // Actions which are permitted for the subject on all the resources.
+        List<Callable<List<EntitledAttributesDTO>>> actionSearches =
+                new ArrayList<Callable<List<EntitledAttributesDTO>>>();
+        for (final AttributeDTO actionDTO : allActions) {
+            final List<AttributeDTO> currentRequestAttributes = Arrays.asList(subjectAttributeDTO, actionDTO);
+            actionSearches.add(new Callable<List<EntitledAttributesDTO>>() {
+                @Override
+                public List<EntitledAttributesDTO> call() {
+
+                    if (evaluator.isPermitted(currentRequestAttributes)) {
+                        EntitledAttributesDTO dto = new EntitledAttributesDTO();
+                        dto.setAllResources(true);
+                        dto.setAction(actionDTO.getAttributeValue());
+                        return Collections.singletonList(dto);
+                    }
+                    return Collections.emptyList();
+                }
+            });
         }
-        return resultSetDTO;
+        evaluate(actionSearches, collector);
+        final Set<String> entitledActions = new HashSet<String>(collector.getAllResourceActions());
+
+        // Resources, and the remaining actions on them, which are permitted for the subject.
+        List<Callable<List<EntitledAttributesDTO>>> resourceSearchTasks =
+                new ArrayList<Callable<List<EntitledAttributesDTO>>>();
+        for (final ResourceSearch resourceSearch : resourceSearches) {
+            final AttributeDTO subject = subjectAttributeDTO;
+            final AttributeDTO scope = enableChildSearch ? resourceScopeAttribute : null;
+            resourceSearchTasks.add(new Callable<List<EntitledAttributesDTO>>() {
+                @Override
+                public List<EntitledAttributesDTO> call() {
+
+                    return resourceSearch.search(evaluator, subject, scope, entitledActions);
+                }
+            });
+        }
+        evaluate(resourceSearchTasks, collector);
     }
-
     /**
      * gets all entitled attributes for given set of attributes
      * this an universal method to do policy search and find entitlement attributes
@@ -368,6 +379,123 @@ public class PolicySearch {
         return result;
     }
 
+    /**
+     * Evaluates the given searches on the policy search thread pool and passes their results to the collector on
+     * the calling thread, in the order the searches complete. The searches are run in the tenant flow of the
+     * calling thread.
+     *
+     * @param searches  searches to evaluate
+     * @param collector collector of the search results
+     * @throws EntitlementException if a search fails or the calling thread is interrupted
+     */
+    private void evaluate(List<Callable<List<EntitledAttributesDTO>>> searches, ResultCollector collector)
+            throws EntitlementException {
+
+        if (searches.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = getSearchExecutor();
+        if (executor == null || searches.size() == 1) {
+            for (Callable<List<EntitledAttributesDTO>> search : searches) {
+                try {
+                    collector.collect(search.call());
+                } catch (Exception e) {
+                    throw new EntitlementException("Error while evaluating the entitled attributes", e);
+                }
+            }
+            return;
+        }
+
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        final int tenantId = carbonContext.getTenantId();
+        final String tenantDomain = carbonContext.getTenantDomain();
+        final String username = carbonContext.getUsername();
+
+        CompletionService<List<EntitledAttributesDTO>> completionService =
+                new ExecutorCompletionService<List<EntitledAttributesDTO>>(executor);
+        List<Future<List<EntitledAttributesDTO>>> futures = new ArrayList<Future<List<EntitledAttributesDTO>>>();
+        try {
+            for (final Callable<List<EntitledAttributesDTO>> search : searches) {
+                futures.add(completionService.submit(new Callable<List<EntitledAttributesDTO>>() {
+                    @Override
+                    public List<EntitledAttributesDTO> call() throws Exception {
+
+                        PrivilegedCarbonContext.startTenantFlow();
+                        try {
+                            PrivilegedCarbonContext context = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+                            context.setTenantId(tenantId);
+                            context.setTenantDomain(tenantDomain);
+                            context.setUsername(username);
+                            return search.call();
+                        } finally {
+                            PrivilegedCarbonContext.endTenantFlow();
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                collector.collect(completionService.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EntitlementException("Interrupted while evaluating the entitled attributes", e);
+        } catch (ExecutionException e) {
+            throw new EntitlementException("Error while evaluating the entitled attributes", e.getCause());
+        } finally {
+            for (Future<List<EntitledAttributesDTO>> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Returns the bounded thread pool which is shared by the policy searches of all the tenants. The size of the
+     * pool is read from the PDP.Search.ThreadPoolSize entitlement property and defaults to the number of available
+     * processors. Searches are evaluated serially on the calling thread if the size is not greater than one. When
+     * the queue of the pool is full, the calling thread evaluates the search itself.
+     *
+     * @return policy search thread pool, or null if searches are evaluated serially
+     */
+    private static ExecutorService getSearchExecutor() {
+
+        if (!searchExecutorInitialized) {
+            synchronized (PolicySearch.class) {
+                if (!searchExecutorInitialized) {
+                    int poolSize = Runtime.getRuntime().availableProcessors();
+                    String poolSizeProperty = EntitlementServiceComponent.getEntitlementConfig().getEngineProperties()
+                            .getProperty(PDPConstants.POLICY_SEARCH_THREAD_POOL_SIZE);
+                    if (poolSizeProperty != null && poolSizeProperty.trim().length() > 0) {
+                        try {
+                            poolSize = Integer.parseInt(poolSizeProperty.trim());
+                        } catch (NumberFormatException e) {
+                            log.warn("Invalid value for " + PDPConstants.POLICY_SEARCH_THREAD_POOL_SIZE +
+                                    ". Using default value " + poolSize + ".");
+                        }
+                    }
+                    if (poolSize > 1) {
+                        final AtomicInteger threadCount = new AtomicInteger();
+                        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L,
+                                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(SEARCH_QUEUE_CAPACITY),
+                                new ThreadFactory() {
+                                    @Override
+                                    public Thread newThread(Runnable runnable) {
+
+                                        Thread thread = new Thread(runnable,
+                                                "policy-search-" + threadCount.incrementAndGet());
+                                        thread.setDaemon(true);
+                                        return thread;
+                                    }
+                                }, new ThreadPoolExecutor.CallerRunsPolicy());
+                        executor.allowCoreThreadTimeOut(true);
+                        searchExecutor = executor;
+                    }
+                    searchExecutorInitialized = true;
+                }
+            }
+        }
+        return searchExecutor;
+    }
+
     public void clearCache() {
 
         policySearchCache.clearCache();
@@ -528,10 +656,22 @@ public class PolicySearch {
      */
     private boolean getResponse(List<AttributeDTO> requestAttributes) {
 
+        return getResponse(EntitlementEngine.getInstance(), requestAttributes);
+    }
+
+    /**
+     * Helper method to get XACML decision from the given entitlement engine
+     *
+     * @param entitlementEngine entitlement engine of the tenant
+     * @param requestAttributes XACML request attributes
+     * @return whether permit or deny
+     */
+    private static boolean getResponse(EntitlementEngine entitlementEngine, List<AttributeDTO> requestAttributes) {
+
         ResponseCtx responseCtx;
         AbstractRequestCtx requestCtx = EntitlementUtil.createRequestContext(requestAttributes);
 
-        responseCtx = EntitlementEngine.getInstance().evaluateByContext(requestCtx);
+        responseCtx = entitlementEngine.evaluateByContext(requestCtx);
 
         if (responseCtx != null) {
             Set<AbstractResult> results = responseCtx.getResults();
@@ -544,4 +684,142 @@ public class PolicySearch {
 
         return false;
     }
+
+    /**
+     * Evaluates search requests against the PDP of a tenant, so that each distinct request of a search is
+     * evaluated only once.
+     */
+    private static class SearchEvaluator {
+
+        private final EntitlementEngine entitlementEngine;
+        private final Map<List<AttributeDTO>, Boolean> decisions = new ConcurrentHashMap<List<AttributeDTO>,
+                Boolean>();
+
+        private SearchEvaluator(EntitlementEngine entitlementEngine) {
+
+            this.entitlementEngine = entitlementEngine;
+        }
+
+        private boolean isPermitted(List<AttributeDTO> requestAttributes) {
+
+            Boolean decision = decisions.get(requestAttributes);
+            if (decision == null) {
+                decision = getResponse(entitlementEngine, requestAttributes);
+                decisions.put(requestAttributes, decision);
+            }
+            return decision;
+        }
+    }
+
+    /**
+     * Search of the actions which are permitted for a subject on a resource found in a policy.
+     */
+    private static class ResourceSearch {
+
+        private final List<AttributeDTO> requestAttributes;
+        private final AttributeDTO resource;
+        private final List<AttributeDTO> actions;
+
+        private ResourceSearch(List<AttributeDTO> requestAttributes, AttributeDTO resource,
+                               List<AttributeDTO> actions) {
+
+            this.requestAttributes = requestAttributes;
+            this.resource = resource;
+            this.actions = actions;
+        }
+
+        /**
+         * Searches the entitled actions on the resource. The resource is evaluated with the resource scope first,
+         * if the scope is given, and then on its own.
+         *
+         * @param evaluator       search evaluator
+         * @param subject         subject attribute
+         * @param scope           resource scope attribute, or null if child resources are not searched
+         * @param entitledActions actions which are already permitted on all the resources
+         * @return entitled attributes of the resource
+         */
+        private List<EntitledAttributesDTO> search(SearchEvaluator evaluator, AttributeDTO subject,
+                                                   AttributeDTO scope, Set<String> entitledActions) {
+
+            List<EntitledAttributesDTO> results = new ArrayList<EntitledAttributesDTO>();
+            if (evaluate(evaluator, subject, scope, null)) {
+                EntitledAttributesDTO dto = new EntitledAttributesDTO();
+                dto.setResourceName(resource.getAttributeValue());
+                dto.setAllActions(true);
+                results.add(dto);
+                return results;
+            }
+
+            for (AttributeDTO actionAttributeDTO : actions) {
+                if (entitledActions.contains(actionAttributeDTO.getAttributeValue())) {
+                    continue;
+                }
+                if (evaluate(evaluator, subject, scope, actionAttributeDTO)) {
+                    EntitledAttributesDTO dto = new EntitledAttributesDTO();
+                    dto.setResourceName(resource.getAttributeValue());
+                    dto.setAction(actionAttributeDTO.getAttributeValue());
+                    results.add(dto);
+                }
+            }
+            return results;
+        }
+
+        private boolean evaluate(SearchEvaluator evaluator, AttributeDTO subject, AttributeDTO scope,
+                                 AttributeDTO action) {
+
+            if (scope != null && evaluator.isPermitted(getRequestAttributes(subject, scope, action))) {
+                return true;
+            }
+            return evaluator.isPermitted(getRequestAttributes(subject, null, action));
+        }
+
+        private List<AttributeDTO> getRequestAttributes(AttributeDTO subject, AttributeDTO scope,
+                                                        AttributeDTO action) {
+
+            List<AttributeDTO> currentRequestAttributes = new ArrayList<AttributeDTO>(requestAttributes);
+            if (scope != null) {
+                currentRequestAttributes.add(scope);
+            }
+            currentRequestAttributes.add(subject);
+            currentRequestAttributes.add(resource);
+            if (action != null) {
+                currentRequestAttributes.add(action);
+            }
+            return currentRequestAttributes;
+        }
+    }
+
+    /**
+     * Passes the distinct entitled attributes of a search to a consumer.
+     */
+    private static class ResultCollector {
+
+        private final Consumer<EntitledAttributesDTO> consumer;
+        private final Set<String> collectedResults = new HashSet<String>();
+        private final List<String> allResourceActions = new ArrayList<String>();
+
+        private ResultCollector(Consumer<EntitledAttributesDTO> consumer) {
+
+            this.consumer = consumer;
+        }
+
+        private void collect(List<EntitledAttributesDTO> results) {
+
+            for (EntitledAttributesDTO dto : results) {
+                String key = dto.getResourceName() + "|" + dto.getAction() + "|" + dto.isAllActions() + "|" +
+                        dto.isAllResources();
+                if (collectedResults.add(key)) {
+                    if (dto.isAllResources()) {
+                        allResourceActions.add(dto.getAction());
+                    }
+                    consumer.accept(dto);
+                }
+            }
+        }
+
+        private List<String> getAllResourceActions() {
+
+            return allResourceActions;
+        }
+    }
 }
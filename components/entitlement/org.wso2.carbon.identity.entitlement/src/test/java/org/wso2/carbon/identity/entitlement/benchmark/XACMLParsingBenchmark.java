@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.entitlement.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Element;
+import org.wso2.balana.AbstractPolicy;
+import org.wso2.balana.Policy;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.entitlement.policy.PolicyReader;
+import org.wso2.carbon.identity.entitlement.policy.PolicyRequestBuilder;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing XACML requests with a new secured document builder per request against
+ * {@link PolicyRequestBuilder}, and parsing XACML policies through a single synchronized builder against
+ * {@link PolicyReader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class XACMLParsingBenchmark {
+
+    private static final String REQUEST = "<Request xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" " +
+            "CombinedDecision=\"false\" ReturnPolicyIdList=\"false\">" +
+            "<Attributes Category=\"urn:oasis:names:tc:xacml:3.0:attribute-category:action\">" +
+            "<Attribute AttributeId=\"urn:oasis:names:tc:xacml:1.0:action:action-id\" IncludeInResult=\"false\">" +
+            "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">read</AttributeValue>" +
+            "</Attribute></Attributes>" +
+            "<Attributes Category=\"urn:oasis:names:tc:xacml:1.0:subject-category:access-subject\">" +
+            "<Attribute AttributeId=\"urn:oasis:names:tc:xacml:1.0:subject:subject-id\" IncludeInResult=\"false\">" +
+            "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">admin</AttributeValue>" +
+            "</Attribute></Attributes>" +
+            "<Attributes Category=\"urn:oasis:names:tc:xacml:3.0:attribute-category:resource\">" +
+            "<Attribute AttributeId=\"urn:oasis:names:tc:xacml:1.0:resource:resource-id\" IncludeInResult=\"false\">" +
+            "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">http://localhost/service" +
+            "</AttributeValue></Attribute></Attributes></Request>";
+
+    private static final String POLICY = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" " +
+            "PolicyId=\"benchmark-policy\" RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:1.0:rule-combining-algorithm:" +
+            "first-applicable\" Version=\"1.0\"><Target/>" +
+            "<Rule Effect=\"Permit\" RuleId=\"permit-read\"><Target><AnyOf><AllOf>" +
+            "<Match MatchId=\"urn:oasis:names:tc:xacml:1.0:function:string-equal\">" +
+            "<AttributeValue DataType=\"http://www.w3.org/2001/XMLSchema#string\">read</AttributeValue>" +
+            "<AttributeDesignator AttributeId=\"urn:oasis:names:tc:xacml:1.0:action:action-id\" " +
+            "Category=\"urn:oasis:names:tc:xacml:3.0:attribute-category:action\" " +
+            "DataType=\"http://www.w3.org/2001/XMLSchema#string\" MustBePresent=\"true\"/>" +
+            "</Match></AllOf></AnyOf></Target></Rule>" +
+            "<Rule Effect=\"Deny\" RuleId=\"deny\"/></Policy>";
+
+    private DocumentBuilder sharedPolicyBuilder;
+    private PolicyRequestBuilder policyRequestBuilder;
+    private PolicyReader policyReader;
+
+    @Setup
+    public void setup() throws Exception {
+
+        DocumentBuilderFactory documentBuilderFactory = IdentityUtil.getSecuredDocumentBuilderFactory();
+        documentBuilderFactory.setIgnoringComments(true);
+        sharedPolicyBuilder = documentBuilderFactory.newDocumentBuilder();
+        policyRequestBuilder = new PolicyRequestBuilder();
+        policyReader = PolicyReader.getInstance(null);
+    }
+
+    @Benchmark
+    public Element requestWithNewBuilder() throws Exception {
+
+        DocumentBuilderFactory documentBuilderFactory = IdentityUtil.getSecuredDocumentBuilderFactory();
+        return documentBuilderFactory.newDocumentBuilder().parse(new ByteArrayInputStream(REQUEST.getBytes()))
+                .getDocumentElement();
+    }
+
+    @Benchmark
+    public Element requestWithPolicyRequestBuilder() throws Exception {
+
+        return policyRequestBuilder.getXacmlRequest(REQUEST);
+    }
+
+    @Benchmark
+    public AbstractPolicy policyWithSynchronizedBuilder() throws Exception {
+
+        synchronized (this) {
+            Element root = sharedPolicyBuilder.parse(new ByteArrayInputStream(POLICY.getBytes(StandardCharsets.UTF_8)))
+                    .getDocumentElement();
+            // The policy reader built the policy while holding the lock as well.
+            return Policy.getInstance(root);
+        }
+    }
+
+    @Benchmark
+    public AbstractPolicy policyWithPolicyReader() {
+
+        return policyReader.getPolicy(POLICY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(XACMLParsingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
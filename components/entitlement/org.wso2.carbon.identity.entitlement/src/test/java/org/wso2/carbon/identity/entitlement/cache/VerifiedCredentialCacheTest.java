@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.entitlement.cache;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.entitlement.EntitlementUtil;
+
+import java.util.Properties;
+
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link VerifiedCredentialCache}.
+ */
+@PrepareForTest({EntitlementUtil.class})
+public class VerifiedCredentialCacheTest extends PowerMockTestCase {
+
+    private static final int TENANT_ID = -1234;
+    private static final String USERNAME = "john";
+    private static final String PASSWORD = "password";
+
+    @Test
+    public void testVerifiedCredentialHitAndMiss() {
+
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(true, 10, 60000);
+        assertFalse(cache.isVerified(TENANT_ID, USERNAME, PASSWORD));
+
+        cache.addVerified(TENANT_ID, USERNAME, PASSWORD);
+
+        assertTrue(cache.isVerified(TENANT_ID, USERNAME, PASSWORD));
+        assertFalse(cache.isVerified(TENANT_ID, USERNAME, "wrongPassword"));
+        assertFalse(cache.isVerified(1, USERNAME, PASSWORD));
+        assertFalse(cache.isVerified(TENANT_ID, "alex", PASSWORD));
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 4);
+        assertEquals(cache.getHitRate(), 0.2, 0.0001);
+    }
+
+    @Test
+    public void testVerifiedCredentialExpiry() throws Exception {
+
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(true, 10, 50);
+        cache.addVerified(TENANT_ID, USERNAME, PASSWORD);
+        assertTrue(cache.isVerified(TENANT_ID, USERNAME, PASSWORD));
+
+        Thread.sleep(100);
+
+        assertFalse(cache.isVerified(TENANT_ID, USERNAME, PASSWORD));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedCredentialIsEvicted() {
+
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(true, 2, 60000);
+        cache.addVerified(TENANT_ID, "john", PASSWORD);
+        cache.addVerified(TENANT_ID, "alex", PASSWORD);
+        assertTrue(cache.isVerified(TENANT_ID, "john", PASSWORD));
+
+        cache.addVerified(TENANT_ID, "bob", PASSWORD);
+
+        assertTrue(cache.isVerified(TENANT_ID, "john", PASSWORD));
+        assertFalse(cache.isVerified(TENANT_ID, "alex", PASSWORD));
+        assertTrue(cache.isVerified(TENANT_ID, "bob", PASSWORD));
+    }
+
+    @Test
+    public void testClearCacheEntriesOfUser() {
+
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(true, 10, 60000);
+        cache.addVerified(TENANT_ID, USERNAME, PASSWORD);
+        cache.addVerified(TENANT_ID, USERNAME, "otherPassword");
+        cache.addVerified(1, USERNAME, PASSWORD);
+        cache.addVerified(TENANT_ID, "alex", PASSWORD);
+
+        cache.clearCacheEntries(TENANT_ID, "PRIMARY/John");
+
+        assertFalse(cache.isVerified(TENANT_ID, USERNAME, PASSWORD));
+        assertFalse(cache.isVerified(TENANT_ID, USERNAME, "otherPassword"));
+        assertTrue(cache.isVerified(1, USERNAME, PASSWORD));
+        assertTrue(cache.isVerified(TENANT_ID, "alex", PASSWORD));
+    }
+
+    @Test
+    public void testDisabledCache() {
+
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(false, 10, 60000);
+        cache.addVerified(TENANT_ID, USERNAME, PASSWORD);
+
+        assertFalse(cache.isVerified(TENANT_ID, USERNAME, PASSWORD));
+        assertEquals(cache.getMissCount(), 0);
+    }
+
+    @Test
+    public void testCacheIsDisabledByDefault() {
+
+        mockStatic(EntitlementUtil.class);
+        when(EntitlementUtil.getPropertiesFromEntitlementConfig()).thenReturn(new Properties());
+
+        VerifiedCredentialCache cache = VerifiedCredentialCache.getInstance();
+        cache.addVerified(TENANT_ID, USERNAME, PASSWORD);
+
+        assertFalse(cache.isVerified(TENANT_ID, USERNAME, PASSWORD));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.entitlement.listener;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.model.IdentityEventListenerConfig;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.entitlement.EntitlementUtil;
+import org.wso2.carbon.identity.entitlement.PDPConstants;
+import org.wso2.carbon.identity.entitlement.cache.VerifiedCredentialCache;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
+
+import java.util.Collections;
+import java.util.Properties;
+
+import static org.mockito.Mockito.mock;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for the clearing of verified credentials by {@link CacheClearingUserOperationListener}.
+ */
+@PrepareForTest({EntitlementUtil.class, IdentityUtil.class})
+public class CacheClearingUserOperationListenerTest extends PowerMockTestCase {
+
+    private static final int TENANT_ID = -1234;
+    private static final String USERNAME = "john";
+    private static final String PASSWORD = "password";
+
+    private CacheClearingUserOperationListener listener;
+    private UserStoreManager userStoreManager;
+    private VerifiedCredentialCache verifiedCredentialCache;
+
+    @BeforeMethod
+    public void setUp() {
+
+        Properties properties = new Properties();
+        properties.setProperty(PDPConstants.AUTHENTICATION_CACHING, "true");
+        mockStatic(EntitlementUtil.class);
+        when(EntitlementUtil.getPropertiesFromEntitlementConfig()).thenReturn(properties);
+        // The listener is disabled, so that only the verified credentials are cleared.
+        mockStatic(IdentityUtil.class);
+        when(IdentityUtil.readEventListenerProperty(UserOperationEventListener.class.getName(),
+                CacheClearingUserOperationListener.class.getName())).thenReturn(
+                new IdentityEventListenerConfig("false", 6, null, null));
+
+        userStoreManager = mock(UserStoreManager.class);
+        when(userStoreManager.getTenantId()).thenReturn(TENANT_ID);
+        verifiedCredentialCache = VerifiedCredentialCache.getInstance();
+        verifiedCredentialCache.clear();
+        verifiedCredentialCache.addVerified(TENANT_ID, USERNAME, PASSWORD);
+        verifiedCredentialCache.addVerified(TENANT_ID, "alex", PASSWORD);
+        listener = new CacheClearingUserOperationListener();
+    }
+
+    @Test
+    public void testPostUpdateCredential() throws Exception {
+
+        assertTrue(listener.doPostUpdateCredential(USERNAME, "newPassword", userStoreManager));
+        assertCredentialsOfUserCleared();
+    }
+
+    @Test
+    public void testPostUpdateCredentialByAdmin() throws Exception {
+
+        assertTrue(listener.doPostUpdateCredentialByAdmin("PRIMARY/" + USERNAME, "newPassword", userStoreManager));
+        assertCredentialsOfUserCleared();
+    }
+
+    @Test
+    public void testPostSetUserClaimValues() throws Exception {
+
+        assertTrue(listener.doPostSetUserClaimValues(USERNAME,
+                Collections.singletonMap("http://wso2.org/claims/identity/accountLocked", "true"), null,
+                userStoreManager));
+        assertCredentialsOfUserCleared();
+    }
+
+    @Test
+    public void testPostDeleteUser() throws Exception {
+
+        assertTrue(listener.doPostDeleteUser(USERNAME, userStoreManager));
+        assertCredentialsOfUserCleared();
+    }
+
+    private void assertCredentialsOfUserCleared() {
+
+        assertFalse(verifiedCredentialCache.isVerified(TENANT_ID, USERNAME, PASSWORD));
+        assertTrue(verifiedCredentialCache.isVerified(TENANT_ID, "alex", PASSWORD));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.entitlement.policy;
+
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for the reuse of document builders by {@link DocumentBuilderPool}.
+ */
+public class DocumentBuilderPoolTest {
+
+    private static final String DOCUMENT = "<Request><!-- comment --><Attributes/></Request>";
+    private static final String MALFORMED_DOCUMENT = "<Request><Attributes></Request>";
+
+    @Test
+    public void testBuilderIsResetBetweenDocuments() throws Exception {
+
+        AtomicInteger reportedErrors = new AtomicInteger();
+        DocumentBuilder documentBuilder = DocumentBuilderPool.getPolicyDocumentBuilder();
+        documentBuilder.setErrorHandler(new CountingErrorHandler(reportedErrors));
+        assertParseFails(documentBuilder);
+        assertEquals(reportedErrors.get(), 1);
+
+        // Error handler of the previous document is not used once the builder is requested again.
+        DocumentBuilder reusedDocumentBuilder = DocumentBuilderPool.getPolicyDocumentBuilder();
+        assertSame(reusedDocumentBuilder, documentBuilder);
+        assertParseFails(reusedDocumentBuilder);
+        assertEquals(reportedErrors.get(), 1);
+
+        Document document = reusedDocumentBuilder.parse(new InputSource(new StringReader(DOCUMENT)));
+        assertEquals(document.getDocumentElement().getChildNodes().getLength(), 1);
+    }
+
+    @Test
+    public void testRequestBuilderKeepsComments() throws Exception {
+
+        DocumentBuilder documentBuilder = DocumentBuilderPool.getRequestDocumentBuilder();
+        assertNotSame(documentBuilder, DocumentBuilderPool.getPolicyDocumentBuilder());
+
+        Document document = documentBuilder.parse(new InputSource(new StringReader(DOCUMENT)));
+        assertEquals(document.getDocumentElement().getChildNodes().getLength(), 2);
+    }
+
+    @Test
+    public void testBuildersAreNotSharedBetweenThreads() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            DocumentBuilder documentBuilder = executor.submit(DocumentBuilderPool::getPolicyDocumentBuilder).get();
+            assertNotSame(documentBuilder, DocumentBuilderPool.getPolicyDocumentBuilder());
+            assertSame(executor.submit(DocumentBuilderPool::getPolicyDocumentBuilder).get(), documentBuilder);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertParseFails(DocumentBuilder documentBuilder) throws Exception {
+
+        try {
+            documentBuilder.parse(new InputSource(new StringReader(MALFORMED_DOCUMENT)));
+            fail("Malformed document is parsed.");
+        } catch (SAXException e) {
+            // Expected, as the document is malformed.
+        }
+    }
+
+    /**
+     * Error handler counting the errors reported to it.
+     */
+    private static class CountingErrorHandler implements ErrorHandler {
+
+        private final AtomicInteger reportedErrors;
+
+        CountingErrorHandler(AtomicInteger reportedErrors) {
+
+            this.reportedErrors = reportedErrors;
+        }
+
+        @Override
+        public void warning(SAXParseException exception) {
+
+        }
+
+        @Override
+        public void error(SAXParseException exception) throws SAXException {
+
+            reportedErrors.incrementAndGet();
+            throw exception;
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+
+            reportedErrors.incrementAndGet();
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.entitlement.policy.finder;
+
+import org.powermock.reflect.Whitebox;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.balana.AbstractPolicy;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.entitlement.policy.PolicyReader;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Unit tests for the parsing of the active policies by {@link CarbonPolicyFinder}.
+ */
+public class CarbonPolicyFinderTest {
+
+    private static final int TENANT_ID = 1;
+    private static final String TENANT_DOMAIN = "wso2.com";
+    private static final String MALFORMED_POLICY = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\"";
+
+    private CarbonPolicyFinder carbonPolicyFinder;
+
+    @BeforeMethod
+    public void setUp() {
+
+        System.setProperty("carbon.home", Paths.get(System.getProperty("user.dir"), "target").toString());
+        carbonPolicyFinder = new CarbonPolicyFinder();
+        carbonPolicyFinder.policyReader = PolicyReader.getInstance(null);
+    }
+
+    @Test
+    public void testPoliciesAreParsedInOrder() throws Exception {
+
+        String[] policies = getPolicies(32);
+
+        List<AbstractPolicy> abstractPolicies = parsePolicies(policies);
+
+        assertEquals(abstractPolicies.size(), policies.length);
+        for (int i = 0; i < policies.length; i++) {
+            assertEquals(abstractPolicies.get(i).getId().toString(), getPolicyId(i));
+        }
+    }
+
+    @Test
+    public void testMalformedPolicyIsSkipped() throws Exception {
+
+        // Malformed policies are parsed in between the valid policies, with the same pooled document builders.
+        String[] policies = getPolicies(32);
+        policies[3] = MALFORMED_POLICY;
+        policies[17] = "<Request/>";
+
+        List<AbstractPolicy> abstractPolicies = parsePolicies(policies);
+
+        assertEquals(abstractPolicies.size(), policies.length);
+        for (int i = 0; i < policies.length; i++) {
+            if (i == 3 || i == 17) {
+                assertNull(abstractPolicies.get(i));
+            } else {
+                assertEquals(abstractPolicies.get(i).getId().toString(), getPolicyId(i));
+            }
+        }
+    }
+
+    @Test
+    public void testPoliciesAreParsedInTenantFlowOfCaller() throws Exception {
+
+        if (Runtime.getRuntime().availableProcessors() < 2) {
+            throw new SkipException("Policies are parsed by the calling thread with a single processor.");
+        }
+        // Tenant domain and thread which parsed each policy.
+        Map<String, String> tenantDomains = new ConcurrentHashMap<>();
+        Map<String, Thread> parsingThreads = new ConcurrentHashMap<>();
+        PolicyReader policyReader = spy(PolicyReader.getInstance(null));
+        doAnswer(invocation -> {
+            String policy = invocation.getArgument(0);
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            tenantDomains.put(policy, carbonContext.getTenantId() + "/" + carbonContext.getTenantDomain());
+            parsingThreads.put(policy, Thread.currentThread());
+            return invocation.callRealMethod();
+        }).when(policyReader).getPolicy(anyString());
+        carbonPolicyFinder.policyReader = policyReader;
+        String[] policies = getPolicies(32);
+
+        List<AbstractPolicy> abstractPolicies;
+        PrivilegedCarbonContext.startTenantFlow();
+        try {
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(TENANT_ID);
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(TENANT_DOMAIN);
+            abstractPolicies = parsePolicies(policies);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+
+        assertEquals(abstractPolicies.size(), policies.length);
+        for (String policy : policies) {
+            assertNotEquals(parsingThreads.get(policy), Thread.currentThread());
+            assertEquals(tenantDomains.get(policy), TENANT_ID + "/" + TENANT_DOMAIN);
+        }
+    }
+
+    private List<AbstractPolicy> parsePolicies(String[] policies) throws Exception {
+
+        return Whitebox.invokeMethod(carbonPolicyFinder, "parsePolicies", (Object) policies);
+    }
+
+    private static String[] getPolicies(int count) {
+
+        String[] policies = new String[count];
+        for (int i = 0; i < count; i++) {
+            // Comments are ignored by the policy document builder.
+            policies[i] = "<Policy xmlns=\"urn:oasis:names:tc:xacml:3.0:core:schema:wd-17\" PolicyId=\""
+                    + getPolicyId(i) + "\" RuleCombiningAlgId=\"urn:oasis:names:tc:xacml:3.0:rule-combining-"
+                    + "algorithm:deny-overrides\" Version=\"1.0\"><!-- policy " + i + " --><Target/>"
+                    + "<Rule Effect=\"Permit\" RuleId=\"permit\"/></Policy>";
+        }
+        return policies;
+    }
+
+    private static String getPolicyId(int index) {
+
+        return "policy" + index;
+    }
+}
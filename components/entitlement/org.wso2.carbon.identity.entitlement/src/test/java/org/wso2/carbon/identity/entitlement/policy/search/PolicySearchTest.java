@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.entitlement.policy.search;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.powermock.reflect.Whitebox;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.balana.ctx.AbstractRequestCtx;
+import org.wso2.balana.ctx.AbstractResult;
+import org.wso2.balana.ctx.ResponseCtx;
+import org.wso2.balana.ctx.Status;
+import org.wso2.balana.ctx.xacml3.Result;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.entitlement.EntitlementException;
+import org.wso2.carbon.identity.entitlement.EntitlementUtil;
+import org.wso2.carbon.identity.entitlement.PDPConstants;
+import org.wso2.carbon.identity.entitlement.dto.AttributeDTO;
+import org.wso2.carbon.identity.entitlement.dto.EntitledAttributesDTO;
+import org.wso2.carbon.identity.entitlement.internal.EntitlementConfigHolder;
+import org.wso2.carbon.identity.entitlement.internal.EntitlementServiceComponent;
+import org.wso2.carbon.identity.entitlement.pdp.EntitlementEngine;
+import org.wso2.carbon.identity.entitlement.policy.finder.PolicyFinderModule;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.doAnswer;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for the entitled attribute search of {@link PolicySearch}.
+ */
+@PrepareForTest({EntitlementServiceComponent.class, EntitlementEngine.class, EntitlementUtil.class,
+        PrivilegedCarbonContext.class})
+public class PolicySearchTest extends PowerMockTestCase {
+
+    private static final int TENANT_ID = 1;
+    private static final String TENANT_DOMAIN = "wso2.com";
+    private static final String SUBJECT = "alice";
+    private static final String READ = "read";
+    private static final String WRITE = "write";
+    private static final String FAILING_RESOURCE = "failing";
+
+    // Evaluated requests, along with the attributes they were created from.
+    private final Map<AbstractRequestCtx, List<AttributeDTO>> requests = new ConcurrentHashMap<>();
+    // Threads which evaluated a request outside of a tenant flow, other than the calling thread.
+    private final Set<String> threadsWithoutTenantFlow = ConcurrentHashMap.newKeySet();
+    private final Set<String> evaluatingThreads = ConcurrentHashMap.newKeySet();
+    private final Set<Thread> threadsInTenantFlow = ConcurrentHashMap.newKeySet();
+
+    private Properties engineProperties;
+    private PrivilegedCarbonContext carbonContext;
+    private Set<String> resources;
+    private Thread callingThread;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        callingThread = Thread.currentThread();
+        resources = new HashSet<>();
+        resources.add("r1");
+        resources.add("r2");
+        resources.add("r3");
+        resources.add("r4");
+
+        engineProperties = new Properties();
+        EntitlementConfigHolder configHolder = mock(EntitlementConfigHolder.class);
+        when(configHolder.getEngineProperties()).thenReturn(engineProperties);
+        Map<PolicyFinderModule, Properties> finderModules = new HashMap<>();
+        finderModules.put(getFinderModule(), new Properties());
+        when(configHolder.getPolicyFinderModules()).thenReturn(finderModules);
+        mockStatic(EntitlementServiceComponent.class);
+        when(EntitlementServiceComponent.getEntitlementConfig()).thenReturn(configHolder);
+
+        mockStatic(EntitlementUtil.class);
+        when(EntitlementUtil.createRequestContext(anyList())).thenAnswer(invocation -> {
+            AbstractRequestCtx requestCtx = mock(AbstractRequestCtx.class);
+            requests.put(requestCtx, invocation.getArgument(0));
+            return requestCtx;
+        });
+        EntitlementEngine entitlementEngine = mock(EntitlementEngine.class);
+        when(entitlementEngine.evaluateByContext(any(AbstractRequestCtx.class))).thenAnswer(
+                invocation -> evaluate(requests.get(invocation.getArgument(0))));
+        mockStatic(EntitlementEngine.class);
+        when(EntitlementEngine.getInstance()).thenReturn(entitlementEngine);
+
+        carbonContext = mock(PrivilegedCarbonContext.class);
+        when(carbonContext.getTenantId()).thenReturn(TENANT_ID);
+        when(carbonContext.getTenantDomain()).thenReturn(TENANT_DOMAIN);
+        when(carbonContext.getUsername()).thenReturn(SUBJECT);
+        mockStatic(PrivilegedCarbonContext.class);
+        when(PrivilegedCarbonContext.getThreadLocalCarbonContext()).thenReturn(carbonContext);
+        doAnswer(invocation -> threadsInTenantFlow.add(Thread.currentThread()))
+                .when(PrivilegedCarbonContext.class, "startTenantFlow");
+        doAnswer(invocation -> threadsInTenantFlow.remove(Thread.currentThread()))
+                .when(PrivilegedCarbonContext.class, "endTenantFlow");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        ExecutorService searchExecutor = Whitebox.getInternalState(PolicySearch.class, "searchExecutor");
+        if (searchExecutor != null) {
+            searchExecutor.shutdownNow();
+        }
+        Whitebox.setInternalState(PolicySearch.class, "searchExecutor", (ExecutorService) null);
+        Whitebox.setInternalState(PolicySearch.class, "searchExecutorInitialized", false);
+        requests.clear();
+        threadsWithoutTenantFlow.clear();
+        evaluatingThreads.clear();
+        threadsInTenantFlow.clear();
+    }
+
+    @Test
+    public void testParallelAndSerialResultsAreEqual() throws Exception {
+
+        engineProperties.setProperty(PDPConstants.POLICY_SEARCH_THREAD_POOL_SIZE, "1");
+        Set<String> serialResults = search();
+        assertEquals(evaluatingThreads, Collections.singleton(callingThread.getName()));
+
+        tearDown();
+        engineProperties.setProperty(PDPConstants.POLICY_SEARCH_THREAD_POOL_SIZE, "4");
+        Set<String> parallelResults = search();
+
+        Set<String> expectedResults = new HashSet<>();
+        expectedResults.add("null|write|false|true");
+        expectedResults.add("r3|null|true|false");
+        expectedResults.add("r1|read|false|false");
+        expectedResults.add("r4|read|false|false");
+        assertEquals(serialResults, expectedResults);
+        assertEquals(parallelResults, expectedResults);
+        assertTrue(evaluatingThreads.stream().anyMatch(name -> name.startsWith("policy-search-")));
+    }
+
+    @Test
+    public void testSerialSearchPropagatesError() throws Exception {
+
+        engineProperties.setProperty(PDPConstants.POLICY_SEARCH_THREAD_POOL_SIZE, "1");
+        assertSearchFails();
+    }
+
+    @Test
+    public void testParallelSearchPropagatesError() throws Exception {
+
+        engineProperties.setProperty(PDPConstants.POLICY_SEARCH_THREAD_POOL_SIZE, "4");
+        assertSearchFails();
+    }
+
+    @Test
+    public void testParallelSearchRunsInTenantFlowOfCaller() throws Exception {
+
+        engineProperties.setProperty(PDPConstants.POLICY_SEARCH_THREAD_POOL_SIZE, "4");
+
+        search();
+
+        assertTrue(threadsWithoutTenantFlow.isEmpty(), "Requests were evaluated outside a tenant flow by: " +
+                threadsWithoutTenantFlow);
+        assertTrue(threadsInTenantFlow.isEmpty(), "Tenant flows were not ended by: " + threadsInTenantFlow);
+        verify(carbonContext, atLeastOnce()).setTenantId(TENANT_ID);
+        verify(carbonContext, atLeastOnce()).setTenantDomain(TENANT_DOMAIN);
+        verify(carbonContext, atLeastOnce()).setUsername(SUBJECT);
+    }
+
+    @Test
+    public void testSerialSearchRunsOnCallingThread() throws Exception {
+
+        engineProperties.setProperty(PDPConstants.POLICY_SEARCH_THREAD_POOL_SIZE, "1");
+
+        search();
+
+        assertEquals(evaluatingThreads, Collections.singleton(callingThread.getName()));
+        verify(carbonContext, never()).setTenantId(TENANT_ID);
+    }
+
+    private void assertSearchFails() {
+
+        resources.add(FAILING_RESOURCE);
+        try {
+            search();
+            fail("An error of a policy evaluation should fail the search.");
+        } catch (EntitlementException e) {
+            assertFalse(e.getCause() == null);
+            assertEquals(e.getCause().getMessage(), "Error while evaluating " + FAILING_RESOURCE);
+        }
+    }
+
+    private Set<String> search() throws EntitlementException {
+
+        final Set<String> results = new HashSet<>();
+        new PolicySearch(false, 0).streamEntitledAttributes(SUBJECT, null, null, null, false,
+                (EntitledAttributesDTO dto) -> {
+                    assertEquals(Thread.currentThread(), callingThread);
+                    results.add(dto.getResourceName() + "|" + dto.getAction() + "|" + dto.isAllActions() + "|" +
+                            dto.isAllResources());
+                });
+        return results;
+    }
+
+    /**
+     * Permits write on all the resources, all the actions on r3 and read on r1 and r4.
+     */
+    private ResponseCtx evaluate(List<AttributeDTO> requestAttributes) {
+
+        Thread thread = Thread.currentThread();
+        evaluatingThreads.add(thread.getName());
+        if (thread != callingThread && !threadsInTenantFlow.contains(thread)) {
+            threadsWithoutTenantFlow.add(thread.getName());
+        }
+        String resource = null;
+        String action = null;
+        for (AttributeDTO attributeDTO : requestAttributes) {
+            if (PDPConstants.RESOURCE_CATEGORY_URI.equals(attributeDTO.getCategory())) {
+                resource = attributeDTO.getAttributeValue();
+            } else if (PDPConstants.ACTION_CATEGORY_URI.equals(attributeDTO.getCategory())) {
+                action = attributeDTO.getAttributeValue();
+            }
+        }
+        if (FAILING_RESOURCE.equals(resource)) {
+            throw new IllegalStateException("Error while evaluating " + resource);
+        }
+        boolean permitted;
+        if (resource == null) {
+            permitted = WRITE.equals(action);
+        } else if (action == null) {
+            permitted = "r3".equals(resource);
+        } else {
+            permitted = READ.equals(action) && ("r1".equals(resource) || "r4".equals(resource));
+        }
+        return new ResponseCtx(new Result(permitted ? AbstractResult.DECISION_PERMIT : AbstractResult.DECISION_DENY,
+                new Status(Collections.singletonList(Status.STATUS_OK)), null, null, null));
+    }
+
+    private PolicyFinderModule getFinderModule() {
+
+        PolicyFinderModule finderModule = mock(PolicyFinderModule.class);
+        when(finderModule.isDefaultCategoriesSupported()).thenReturn(true);
+        when(finderModule.getSupportedSearchAttributesScheme()).thenReturn(
+                PolicyFinderModule.COMBINATIONS_BY_CATEGORY_AND_PARAMETER);
+        // The search changes the returned attributes, so that they are created for each search.
+        when(finderModule.getSearchAttributes(isNull(), anySet())).thenAnswer(invocation -> {
+            Map<String, Set<AttributeDTO>> searchAttributes = new HashMap<>();
+            for (String resource : resources) {
+                Set<AttributeDTO> attributeDTOs = new HashSet<>();
+                attributeDTOs.add(getAttribute(PDPConstants.RESOURCE_CATEGORY_URI, resource));
+                attributeDTOs.add(getAttribute(PDPConstants.ACTION_CATEGORY_URI, READ));
+                attributeDTOs.add(getAttribute(PDPConstants.ACTION_CATEGORY_URI, WRITE));
+                searchAttributes.put("policy-" + resource, attributeDTOs);
+            }
+            return searchAttributes;
+        });
+        return finderModule;
+    }
+
+    private AttributeDTO getAttribute(String category, String value) {
+
+        AttributeDTO attributeDTO = new AttributeDTO();
+        attributeDTO.setCategory(category);
+        attributeDTO.setAttributeValue(value);
+        attributeDTO.setAttributeDataType(PDPConstants.STRING_DATA_TYPE);
+        return attributeDTO;
+    }
+}
@@ -30,14 +30,14 @@ import java.util.List;
 public interface ExtensionManager {
 
     /**
-     * Get all the extensions.
+     * Get all the extensions. The returned list is unmodifiable and may be shared between callers.
      *
      * @return List of extensions.
      */
     public List<ExtensionInfo> getExtensions();
 
     /**
-     * Get all the extensions of a given type.
+     * Get all the extensions of a given type. The returned list is unmodifiable and may be shared between callers.
      *
      * @param extensionType Type of the extension.
      * @return List of extensions.
@@ -77,4 +77,32 @@ public interface ExtensionManager {
      * @return JSONObject of the extension metadata.
      */
     public JSONObject getExtensionMetadata(String extensionType, String extensionId) throws ExtensionManagementException;
+
+    /**
+     * Get the extension template serialized as JSON.
+     *
+     * @param extensionType Type of the extension.
+     * @param extensionId   Id of the extension.
+     * @return JSON string of the extension template.
+     */
+    default String getExtensionTemplateAsString(String extensionType, String extensionId)
+            throws ExtensionManagementException {
+
+        JSONObject template = getExtensionTemplate(extensionType, extensionId);
+        return template == null ? null : template.toString();
+    }
+
+    /**
+     * Get the extension metadata serialized as JSON.
+     *
+     * @param extensionType Type of the extension.
+     * @param extensionId   Id of the extension.
+     * @return JSON string of the extension metadata.
+     */
+    default String getExtensionMetadataAsString(String extensionType, String extensionId)
+            throws ExtensionManagementException {
+
+        JSONObject metadata = getExtensionMetadata(extensionType, extensionId);
+        return metadata == null ? null : metadata.toString();
+    }
 }
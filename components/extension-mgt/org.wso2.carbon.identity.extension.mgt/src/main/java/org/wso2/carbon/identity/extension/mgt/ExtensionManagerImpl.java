@@ -110,4 +110,36 @@ public class ExtensionManagerImpl implements ExtensionManager {
         return ExtensionManagerDataHolder.getInstance().getExtensionStore().getMetadata(extensionType,
                 extensionId);
     }
+
+    /**
+     * Get the extension template serialized as JSON.
+     *
+     * @param extensionType Type of the extension.
+     * @param extensionId   Id of the extension.
+     * @return JSON string of the extension template.
+     */
+    @Override
+    public String getExtensionTemplateAsString(String extensionType, String extensionId)
+            throws ExtensionManagementException {
+
+        ExtensionMgtUtils.validateExtensionType(extensionType);
+        return ExtensionManagerDataHolder.getInstance().getExtensionStore().getTemplateAsString(extensionType,
+                extensionId);
+    }
+
+    /**
+     * Get the extension metadata serialized as JSON.
+     *
+     * @param extensionType Type of the extension.
+     * @param extensionId   Id of the extension.
+     * @return JSON string of the extension metadata.
+     */
+    @Override
+    public String getExtensionMetadataAsString(String extensionType, String extensionId)
+            throws ExtensionManagementException {
+
+        ExtensionMgtUtils.validateExtensionType(extensionType);
+        return ExtensionManagerDataHolder.getInstance().getExtensionStore().getMetadataAsString(extensionType,
+                extensionId);
+    }
 }
@@ -30,14 +30,14 @@ import java.util.List;
 public interface ExtensionStore {
 
     /**
-     * Get all the extensions.
+     * Get all the extensions. The returned list is unmodifiable and may be shared between callers.
      *
      * @return List of extensions.
      */
     List<ExtensionInfo> getExtensions();
 
     /**
-     * Get all the extensions of a given type.
+     * Get all the extensions of a given type. The returned list is unmodifiable and may be shared between callers.
      *
      * @param extensionType Type of the extension.
      * @return List of extensions.
@@ -108,4 +108,31 @@ public interface ExtensionStore {
     void addMetadata(String extensionType, String extensionId, JSONObject extensionMetadata)
             throws ExtensionManagementException;
 
+    /**
+     * Get the template of a specific extension by type and id, serialized as JSON.
+     *
+     * @param extensionType Type of the extension.
+     * @param extensionId Id of the extension.
+     * @return Template of the extension as a JSON string, or null if the extension has no template.
+     */
+    default String getTemplateAsString(String extensionType, String extensionId)
+            throws ExtensionManagementException {
+
+        JSONObject template = getTemplate(extensionType, extensionId);
+        return template == null ? null : template.toString();
+    }
+
+    /**
+     * Get the metadata of a specific extension by type and id, serialized as JSON.
+     *
+     * @param extensionType Type of the extension.
+     * @param extensionId Id of the extension.
+     * @return Metadata of the extension as a JSON string, or null if the extension has no metadata.
+     */
+    default String getMetadataAsString(String extensionType, String extensionId)
+            throws ExtensionManagementException {
+
+        JSONObject metadata = getMetadata(extensionType, extensionId);
+        return metadata == null ? null : metadata.toString();
+    }
 }
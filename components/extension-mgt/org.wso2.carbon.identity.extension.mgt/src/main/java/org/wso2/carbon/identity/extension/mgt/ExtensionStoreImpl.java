@@ -20,24 +20,27 @@ package org.wso2.carbon.identity.extension.mgt;
 
 import org.json.JSONObject;
 import org.wso2.carbon.identity.extension.mgt.exception.ExtensionManagementException;
-import org.wso2.carbon.identity.extension.mgt.model.ExtensionDataKey;
 import org.wso2.carbon.identity.extension.mgt.model.ExtensionInfo;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Extension store implementation.
+ * <p>
+ * The store is held in an immutable snapshot, which is replaced as a whole when an extension type, an extension, a
+ * template or metadata is added. Readers use the current snapshot without locking, and the extension lists and the
+ * serialized templates and metadata are computed when the snapshot is built, so they are returned without copying.
+ * The returned lists are unmodifiable.
  */
 public class ExtensionStoreImpl implements ExtensionStore {
 
-    private final Map<String, Map<String, ExtensionInfo>> extensionInfoList = new HashMap<>();
-
-    private final Map<ExtensionDataKey, JSONObject> extensionTemplates = new HashMap<>();
-
-    private final Map<ExtensionDataKey, JSONObject> extensionMetadata = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyList(),
+            Collections.emptyMap(), Collections.emptyMap());
 
     /**
      * Get all the extensions.
@@ -47,11 +50,7 @@ public class ExtensionStoreImpl implements ExtensionStore {
     @Override
     public List<ExtensionInfo> getExtensions() {
 
-        List<ExtensionInfo> extensionInfoList = new ArrayList<>();
-        this.extensionInfoList.forEach((key, extensionListByType) -> {
-            extensionInfoList.addAll(extensionListByType.values());
-        });
-        return extensionInfoList;
+        return snapshot.extensions;
     }
 
     /**
@@ -63,10 +62,7 @@ public class ExtensionStoreImpl implements ExtensionStore {
     @Override
     public List<ExtensionInfo> getExtensionsByType(String extensionType) throws ExtensionManagementException {
 
-        if (!extensionInfoList.containsKey(extensionType)) {
-            throw new ExtensionManagementException("Invalid extension type: " + extensionType);
-        }
-        return new ArrayList<>(extensionInfoList.get(extensionType).values());
+        return getExtensionTypeEntry(snapshot, extensionType).extensions;
     }
 
     /**
@@ -80,10 +76,7 @@ public class ExtensionStoreImpl implements ExtensionStore {
     public ExtensionInfo getExtensionByTypeAndId(String extensionType, String extensionId)
             throws ExtensionManagementException {
 
-        if (!extensionInfoList.containsKey(extensionType)) {
-            throw new ExtensionManagementException("Invalid extension type: " + extensionType);
-        }
-        return extensionInfoList.get(extensionType).get(extensionId);
+        return getExtensionTypeEntry(snapshot, extensionType).extensionsById.get(extensionId);
     }
 
     /**
@@ -92,11 +85,14 @@ public class ExtensionStoreImpl implements ExtensionStore {
      * @param extensionType Type of the extension.
      */
     @Override
-    public void addExtensionType(String extensionType) {
+    public synchronized void addExtensionType(String extensionType) {
 
-        if (!extensionInfoList.containsKey(extensionType)) {
-            extensionInfoList.put(extensionType, new HashMap<>());
+        if (snapshot.extensionTypes.containsKey(extensionType)) {
+            return;
         }
+        Map<String, ExtensionTypeEntry> extensionTypes = new LinkedHashMap<>(snapshot.extensionTypes);
+        extensionTypes.put(extensionType, new ExtensionTypeEntry(Collections.emptyMap()));
+        snapshot = Snapshot.withExtensionTypes(extensionTypes, snapshot.templates, snapshot.metadata);
     }
 
     /**
@@ -107,13 +103,15 @@ public class ExtensionStoreImpl implements ExtensionStore {
      * @param extensionInfo ExtensionInfo object.
      */
     @Override
-    public void addExtension(String extensionType, String extensionId, ExtensionInfo extensionInfo)
+    public synchronized void addExtension(String extensionType, String extensionId, ExtensionInfo extensionInfo)
             throws ExtensionManagementException {
 
-        if (!extensionInfoList.containsKey(extensionType)) {
-            throw new ExtensionManagementException("Invalid extension type: " + extensionType);
-        }
-        extensionInfoList.get(extensionType).put(extensionId, extensionInfo);
+        ExtensionTypeEntry extensionTypeEntry = getExtensionTypeEntry(snapshot, extensionType);
+        Map<String, ExtensionInfo> extensionsById = new LinkedHashMap<>(extensionTypeEntry.extensionsById);
+        extensionsById.put(extensionId, extensionInfo);
+        Map<String, ExtensionTypeEntry> extensionTypes = new LinkedHashMap<>(snapshot.extensionTypes);
+        extensionTypes.put(extensionType, new ExtensionTypeEntry(extensionsById));
+        snapshot = Snapshot.withExtensionTypes(extensionTypes, snapshot.templates, snapshot.metadata);
     }
 
     /**
@@ -126,10 +124,26 @@ public class ExtensionStoreImpl implements ExtensionStore {
     @Override
     public JSONObject getTemplate(String extensionType, String extensionId) throws ExtensionManagementException {
 
-        if (!extensionInfoList.containsKey(extensionType)) {
-            throw new ExtensionManagementException("Invalid extension type: " + extensionType);
-        }
-        return extensionTemplates.get(new ExtensionDataKey(extensionType, extensionId));
+        Snapshot current = snapshot;
+        getExtensionTypeEntry(current, extensionType);
+        JSONResource template = getJSONResource(current.templates, extensionType, extensionId);
+        return template == null ? null : template.jsonObject;
+    }
+
+    /**
+     * Get the template of a specific extension, serialized as JSON.
+     *
+     * @param extensionType Type of the extension.
+     * @param extensionId   Id of the extension.
+     * @return Template of the extension as a JSON string.
+     */
+    @Override
+    public String getTemplateAsString(String extensionType, String extensionId) throws ExtensionManagementException {
+
+        Snapshot current = snapshot;
+        getExtensionTypeEntry(current, extensionType);
+        JSONResource template = getJSONResource(current.templates, extensionType, extensionId);
+        return template == null ? null : template.json;
     }
 
     /**
@@ -140,9 +154,11 @@ public class ExtensionStoreImpl implements ExtensionStore {
      * @param extensionTemplate Template of the extension.
      */
     @Override
-    public void addTemplate(String extensionType, String extensionId, JSONObject extensionTemplate) {
+    public synchronized void addTemplate(String extensionType, String extensionId, JSONObject extensionTemplate) {
 
-        this.extensionTemplates.put(new ExtensionDataKey(extensionType, extensionId), extensionTemplate);
+        snapshot = new Snapshot(snapshot.extensionTypes, snapshot.extensions,
+                addJSONResource(snapshot.templates, extensionType, extensionId, extensionTemplate),
+                snapshot.metadata);
     }
 
     /**
@@ -155,10 +171,26 @@ public class ExtensionStoreImpl implements ExtensionStore {
     @Override
     public JSONObject getMetadata(String extensionType, String extensionId) throws ExtensionManagementException {
 
-        if (!extensionInfoList.containsKey(extensionType)) {
-            throw new ExtensionManagementException("Invalid extension type: " + extensionType);
-        }
-        return extensionMetadata.get(new ExtensionDataKey(extensionType, extensionId));
+        Snapshot current = snapshot;
+        getExtensionTypeEntry(current, extensionType);
+        JSONResource metadata = getJSONResource(current.metadata, extensionType, extensionId);
+        return metadata == null ? null : metadata.jsonObject;
+    }
+
+    /**
+     * Get the metadata of a specific extension, serialized as JSON.
+     *
+     * @param extensionType Type of the extension.
+     * @param extensionId   Id of the extension.
+     * @return Metadata of the extension as a JSON string.
+     */
+    @Override
+    public String getMetadataAsString(String extensionType, String extensionId) throws ExtensionManagementException {
+
+        Snapshot current = snapshot;
+        getExtensionTypeEntry(current, extensionType);
+        JSONResource metadata = getJSONResource(current.metadata, extensionType, extensionId);
+        return metadata == null ? null : metadata.json;
     }
 
     /**
@@ -169,8 +201,102 @@ public class ExtensionStoreImpl implements ExtensionStore {
      * @param extensionMetadata Metadata of the extension.
      */
     @Override
-    public void addMetadata(String extensionType, String extensionId, JSONObject extensionMetadata){
+    public synchronized void addMetadata(String extensionType, String extensionId, JSONObject extensionMetadata) {
+
+        snapshot = new Snapshot(snapshot.extensionTypes, snapshot.extensions, snapshot.templates,
+                addJSONResource(snapshot.metadata, extensionType, extensionId, extensionMetadata));
+    }
+
+    private static ExtensionTypeEntry getExtensionTypeEntry(Snapshot snapshot, String extensionType)
+            throws ExtensionManagementException {
+
+        ExtensionTypeEntry extensionTypeEntry = snapshot.extensionTypes.get(extensionType);
+        if (extensionTypeEntry == null) {
+            throw new ExtensionManagementException("Invalid extension type: " + extensionType);
+        }
+        return extensionTypeEntry;
+    }
+
+    private static JSONResource getJSONResource(Map<String, Map<String, JSONResource>> resources,
+                                                String extensionType, String extensionId) {
+
+        Map<String, JSONResource> resourcesById = resources.get(extensionType);
+        return resourcesById == null ? null : resourcesById.get(extensionId);
+    }
+
+    private static Map<String, Map<String, JSONResource>> addJSONResource(
+            Map<String, Map<String, JSONResource>> resources, String extensionType, String extensionId,
+            JSONObject jsonObject) {
+
+        Map<String, JSONResource> resourcesById = new HashMap<>();
+        if (resources.containsKey(extensionType)) {
+            resourcesById.putAll(resources.get(extensionType));
+        }
+        resourcesById.put(extensionId, new JSONResource(jsonObject));
+        Map<String, Map<String, JSONResource>> updatedResources = new HashMap<>(resources);
+        updatedResources.put(extensionType, Collections.unmodifiableMap(resourcesById));
+        return Collections.unmodifiableMap(updatedResources);
+    }
+
+    /**
+     * Immutable state of the store.
+     */
+    private static class Snapshot {
+
+        private final Map<String, ExtensionTypeEntry> extensionTypes;
+        private final Map<String, Map<String, JSONResource>> templates;
+        private final Map<String, Map<String, JSONResource>> metadata;
+        private final List<ExtensionInfo> extensions;
+
+        Snapshot(Map<String, ExtensionTypeEntry> extensionTypes, List<ExtensionInfo> extensions,
+                 Map<String, Map<String, JSONResource>> templates, Map<String, Map<String, JSONResource>> metadata) {
+
+            this.extensionTypes = extensionTypes;
+            this.extensions = extensions;
+            this.templates = templates;
+            this.metadata = metadata;
+        }
+
+        static Snapshot withExtensionTypes(Map<String, ExtensionTypeEntry> extensionTypes,
+                                           Map<String, Map<String, JSONResource>> templates,
+                                           Map<String, Map<String, JSONResource>> metadata) {
 
-        this.extensionMetadata.put(new ExtensionDataKey(extensionType, extensionId), extensionMetadata);
+            List<ExtensionInfo> extensions = new ArrayList<>();
+            for (ExtensionTypeEntry extensionTypeEntry : extensionTypes.values()) {
+                extensions.addAll(extensionTypeEntry.extensions);
+            }
+            return new Snapshot(Collections.unmodifiableMap(extensionTypes), Collections.unmodifiableList(extensions),
+                    templates, metadata);
+        }
+    }
+
+    /**
+     * Extensions of a type, by id and as a list.
+     */
+    private static class ExtensionTypeEntry {
+
+        private final Map<String, ExtensionInfo> extensionsById;
+        private final List<ExtensionInfo> extensions;
+
+        ExtensionTypeEntry(Map<String, ExtensionInfo> extensionsById) {
+
+            this.extensionsById = Collections.unmodifiableMap(extensionsById);
+            this.extensions = Collections.unmodifiableList(new ArrayList<>(extensionsById.values()));
+        }
+    }
+
+    /**
+     * A template or metadata of an extension along with its serialized form.
+     */
+    private static class JSONResource {
+
+        private final JSONObject jsonObject;
+        private final String json;
+
+        JSONResource(JSONObject jsonObject) {
+
+            this.jsonObject = jsonObject;
+            this.json = jsonObject == null ? null : jsonObject.toString();
+        }
     }
 }
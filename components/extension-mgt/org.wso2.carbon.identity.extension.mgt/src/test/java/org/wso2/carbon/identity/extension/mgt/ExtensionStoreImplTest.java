@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.extension.mgt;
+
+import org.json.JSONObject;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.extension.mgt.exception.ExtensionManagementException;
+import org.wso2.carbon.identity.extension.mgt.model.ExtensionInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link ExtensionStoreImpl}.
+ */
+public class ExtensionStoreImplTest {
+
+    private static final String APPLICATIONS = "applications";
+    private static final String CONNECTIONS = "connections";
+    private static final String UNKNOWN_TYPE = "unknown";
+
+    private ExtensionStoreImpl extensionStore;
+
+    @BeforeMethod
+    public void setUp() {
+
+        extensionStore = new ExtensionStoreImpl();
+        extensionStore.addExtensionType(APPLICATIONS);
+        extensionStore.addExtensionType(CONNECTIONS);
+    }
+
+    @Test
+    public void testGetExtensions() throws Exception {
+
+        ExtensionInfo webApp = addExtension(APPLICATIONS, "web-app");
+        ExtensionInfo google = addExtension(CONNECTIONS, "google");
+        ExtensionInfo spa = addExtension(APPLICATIONS, "spa");
+
+        assertEquals(extensionStore.getExtensions(), Arrays.asList(webApp, spa, google));
+        assertEquals(extensionStore.getExtensionsByType(APPLICATIONS), Arrays.asList(webApp, spa));
+        assertEquals(extensionStore.getExtensionsByType(CONNECTIONS), Arrays.asList(google));
+        assertSame(extensionStore.getExtensionByTypeAndId(APPLICATIONS, "spa"), spa);
+        assertNull(extensionStore.getExtensionByTypeAndId(CONNECTIONS, "spa"));
+    }
+
+    @Test
+    public void testAddExtensionWithExistingId() throws Exception {
+
+        addExtension(APPLICATIONS, "web-app");
+        ExtensionInfo updatedWebApp = addExtension(APPLICATIONS, "web-app");
+
+        assertEquals(extensionStore.getExtensionsByType(APPLICATIONS), Arrays.asList(updatedWebApp));
+        assertSame(extensionStore.getExtensionByTypeAndId(APPLICATIONS, "web-app"), updatedWebApp);
+    }
+
+    @Test
+    public void testAddExistingExtensionType() throws Exception {
+
+        ExtensionInfo webApp = addExtension(APPLICATIONS, "web-app");
+        extensionStore.addExtensionType(APPLICATIONS);
+
+        assertEquals(extensionStore.getExtensionsByType(APPLICATIONS), Arrays.asList(webApp));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetExtensionsReturnsUnmodifiableList() throws Exception {
+
+        addExtension(APPLICATIONS, "web-app");
+        extensionStore.getExtensions().clear();
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetExtensionsByTypeReturnsUnmodifiableList() throws Exception {
+
+        extensionStore.getExtensionsByType(APPLICATIONS).add(new ExtensionInfo());
+    }
+
+    @Test
+    public void testReturnedListsAreNotChangedByLaterWrites() throws Exception {
+
+        ExtensionInfo webApp = addExtension(APPLICATIONS, "web-app");
+        List<ExtensionInfo> extensions = extensionStore.getExtensions();
+        List<ExtensionInfo> applications = extensionStore.getExtensionsByType(APPLICATIONS);
+
+        addExtension(APPLICATIONS, "spa");
+        extensionStore.addExtensionType("templates");
+
+        assertEquals(extensions, Arrays.asList(webApp));
+        assertEquals(applications, Arrays.asList(webApp));
+        assertEquals(extensionStore.getExtensions().size(), 2);
+    }
+
+    @Test(expectedExceptions = ExtensionManagementException.class)
+    public void testAddExtensionWithUnknownType() throws Exception {
+
+        addExtension(UNKNOWN_TYPE, "web-app");
+    }
+
+    @Test(expectedExceptions = ExtensionManagementException.class)
+    public void testGetExtensionsByUnknownType() throws Exception {
+
+        extensionStore.getExtensionsByType(UNKNOWN_TYPE);
+    }
+
+    @Test(expectedExceptions = ExtensionManagementException.class)
+    public void testGetExtensionByUnknownTypeAndId() throws Exception {
+
+        extensionStore.getExtensionByTypeAndId(UNKNOWN_TYPE, "web-app");
+    }
+
+    @Test
+    public void testTemplateAndMetadata() throws Exception {
+
+        addExtension(APPLICATIONS, "web-app");
+        JSONObject template = new JSONObject().put("name", "Web App").put("displayOrder", 1);
+        JSONObject metadata = new JSONObject().put("create", new JSONObject().put("form", "basic"));
+        extensionStore.addTemplate(APPLICATIONS, "web-app", template);
+        extensionStore.addMetadata(APPLICATIONS, "web-app", metadata);
+
+        assertSame(extensionStore.getTemplate(APPLICATIONS, "web-app"), template);
+        assertSame(extensionStore.getMetadata(APPLICATIONS, "web-app"), metadata);
+        assertEquals(extensionStore.getTemplateAsString(APPLICATIONS, "web-app"), template.toString());
+        assertEquals(extensionStore.getMetadataAsString(APPLICATIONS, "web-app"), metadata.toString());
+    }
+
+    @Test
+    public void testTemplateAndMetadataAreKeptPerType() throws Exception {
+
+        JSONObject applicationTemplate = new JSONObject().put("name", "Web App");
+        JSONObject connectionTemplate = new JSONObject().put("name", "Google");
+        extensionStore.addTemplate(APPLICATIONS, "web-app", applicationTemplate);
+        extensionStore.addTemplate(CONNECTIONS, "web-app", connectionTemplate);
+        extensionStore.addMetadata(APPLICATIONS, "web-app", new JSONObject());
+
+        assertEquals(extensionStore.getTemplateAsString(APPLICATIONS, "web-app"), applicationTemplate.toString());
+        assertEquals(extensionStore.getTemplateAsString(CONNECTIONS, "web-app"), connectionTemplate.toString());
+        assertNull(extensionStore.getMetadata(CONNECTIONS, "web-app"));
+        assertNull(extensionStore.getMetadataAsString(CONNECTIONS, "web-app"));
+    }
+
+    @Test
+    public void testMissingTemplateAndMetadata() throws Exception {
+
+        addExtension(APPLICATIONS, "web-app");
+        extensionStore.addTemplate(APPLICATIONS, "spa", null);
+
+        assertNull(extensionStore.getTemplate(APPLICATIONS, "web-app"));
+        assertNull(extensionStore.getTemplateAsString(APPLICATIONS, "web-app"));
+        assertNull(extensionStore.getMetadata(APPLICATIONS, "web-app"));
+        assertNull(extensionStore.getMetadataAsString(APPLICATIONS, "web-app"));
+        assertNull(extensionStore.getTemplate(APPLICATIONS, "spa"));
+        assertNull(extensionStore.getTemplateAsString(APPLICATIONS, "spa"));
+    }
+
+    @Test(expectedExceptions = ExtensionManagementException.class)
+    public void testGetTemplateAsStringWithUnknownType() throws Exception {
+
+        extensionStore.getTemplateAsString(UNKNOWN_TYPE, "web-app");
+    }
+
+    @Test(expectedExceptions = ExtensionManagementException.class)
+    public void testGetMetadataAsStringWithUnknownType() throws Exception {
+
+        extensionStore.getMetadataAsString(UNKNOWN_TYPE, "web-app");
+    }
+
+    @Test
+    public void testDefaultAsStringMethods() throws Exception {
+
+        ExtensionStore store = mock(ExtensionStore.class, CALLS_REAL_METHODS);
+        JSONObject template = new JSONObject().put("name", "Web App");
+        when(store.getTemplate(APPLICATIONS, "web-app")).thenReturn(template);
+        when(store.getMetadata(APPLICATIONS, "web-app")).thenReturn(null);
+
+        assertEquals(store.getTemplateAsString(APPLICATIONS, "web-app"), template.toString());
+        assertNull(store.getMetadataAsString(APPLICATIONS, "web-app"));
+    }
+
+    @Test
+    public void testReadersSeeCompleteSnapshotsWhileExtensionsAreAdded() throws Exception {
+
+        int extensionCount = 500;
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        CountDownLatch writerDone = new CountDownLatch(1);
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    int lastSize = 0;
+                    while (writerDone.getCount() > 0) {
+                        List<ExtensionInfo> extensions = extensionStore.getExtensions();
+                        List<ExtensionInfo> applications = extensionStore.getExtensionsByType(APPLICATIONS);
+                        assertTrue(extensions.size() >= lastSize);
+                        assertTrue(applications.size() <= extensionCount);
+                        for (ExtensionInfo extension : extensions) {
+                            assertEquals(extension.getType(), APPLICATIONS);
+                        }
+                        lastSize = extensions.size();
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+
+        for (int i = 0; i < extensionCount; i++) {
+            addExtension(APPLICATIONS, "extension-" + i);
+        }
+        writerDone.countDown();
+        for (Thread reader : readers) {
+            reader.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        assertTrue(errors.isEmpty(), "Readers failed: " + errors);
+        assertEquals(extensionStore.getExtensionsByType(APPLICATIONS).size(), extensionCount);
+    }
+
+    private ExtensionInfo addExtension(String extensionType, String extensionId) throws Exception {
+
+        ExtensionInfo extensionInfo = new ExtensionInfo();
+        extensionInfo.setId(extensionId);
+        extensionInfo.setType(extensionType);
+        extensionStore.addExtension(extensionType, extensionId, extensionInfo);
+        return extensionInfo;
+    }
+}
@@ -22,6 +22,9 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.common.util.IdentityApplicationManagementUtil;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCache;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCacheEntry;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCacheKey;
 import org.wso2.carbon.identity.functions.library.mgt.dao.FunctionLibraryDAO;
 import org.wso2.carbon.identity.functions.library.mgt.dao.impl.FunctionLibraryDAOImpl;
 import org.wso2.carbon.identity.functions.library.mgt.exception.FunctionLibraryManagementException;
@@ -79,6 +82,7 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
                     FunctionLibraryMgtUtil.FUNCTION_LIBRARY_NAME_VALIDATING_REGEX);
         }
         functionLibraryDAO.createFunctionLibrary(functionLibrary, tenantDomain);
+        clearFunctionLibraryCache(functionLibraryName, tenantDomain);
     }
 
     @Override
@@ -93,7 +97,26 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
             throws FunctionLibraryManagementException {
 
         FunctionLibraryDAO functionLibraryDAO = new FunctionLibraryDAOImpl();
-        return functionLibraryDAO.getFunctionLibrary(functionLibraryName, tenantDomain);
+        if (functionLibraryName == null) {
+            return functionLibraryDAO.getFunctionLibrary(null, tenantDomain);
+        }
+
+        FunctionLibraryCacheKey cacheKey = new FunctionLibraryCacheKey(functionLibraryName);
+        FunctionLibraryCacheEntry entry = FunctionLibraryCache.getInstance().getValueFromCache(cacheKey,
+                tenantDomain);
+        if (entry != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Cache entry found for function library: " + functionLibraryName);
+            }
+            return copyOf(entry.getFunctionLibrary());
+        }
+
+        FunctionLibrary functionLibrary = functionLibraryDAO.getFunctionLibrary(functionLibraryName, tenantDomain);
+        if (functionLibrary != null) {
+            FunctionLibraryCache.getInstance().addToCache(cacheKey,
+                    new FunctionLibraryCacheEntry(copyOf(functionLibrary)), tenantDomain);
+        }
+        return functionLibrary;
     }
 
     @Override
@@ -102,6 +125,7 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
 
         FunctionLibraryDAO functionLibraryDAO = new FunctionLibraryDAOImpl();
         functionLibraryDAO.deleteFunctionLibrary(functionLibraryName, tenantDomain);
+        clearFunctionLibraryCache(functionLibraryName, tenantDomain);
     }
 
     @Override
@@ -126,6 +150,10 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
                     FunctionLibraryMgtUtil.FUNCTION_LIBRARY_NAME_VALIDATING_REGEX);
         }
         functionLibraryDAO.updateFunctionLibrary(oldFunctionLibraryName, functionLibrary, tenantDomain);
+        clearFunctionLibraryCache(oldFunctionLibraryName, tenantDomain);
+        if (!functionLibraryName.equals(oldFunctionLibraryName)) {
+            clearFunctionLibraryCache(functionLibraryName, tenantDomain);
+        }
     }
 
     @Override
@@ -136,6 +164,40 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
         return functionLibraryDAO.isFunctionLibraryExists(functionLibraryName, tenantDomain);
     }
 
+    /**
+     * Remove a function library from the cache.
+     *
+     * @param functionLibraryName Function library name
+     * @param tenantDomain        Tenant domain
+     */
+    private void clearFunctionLibraryCache(String functionLibraryName, String tenantDomain) {
+
+        if (functionLibraryName == null) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Removing function library: " + functionLibraryName + " of tenant: " + tenantDomain +
+                    " from cache.");
+        }
+        FunctionLibraryCache.getInstance().clearCacheEntry(new FunctionLibraryCacheKey(functionLibraryName),
+                tenantDomain);
+    }
+
+    /**
+     * Copy a function library so that callers cannot modify the instance held in the cache.
+     *
+     * @param functionLibrary Function library
+     * @return Copy of the function library
+     */
+    private FunctionLibrary copyOf(FunctionLibrary functionLibrary) {
+
+        FunctionLibrary copy = new FunctionLibrary();
+        copy.setFunctionLibraryName(functionLibrary.getFunctionLibraryName());
+        copy.setDescription(functionLibrary.getDescription());
+        copy.setFunctionLibraryScript(functionLibrary.getFunctionLibraryScript());
+        return copy;
+    }
+
     /**
      * Check for required attributes.
      *
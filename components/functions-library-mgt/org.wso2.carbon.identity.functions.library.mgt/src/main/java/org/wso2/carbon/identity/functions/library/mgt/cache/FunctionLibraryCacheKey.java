@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.functions.library.mgt.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheKey;
+
+/**
+ * Cache key for function library name.
+ */
+public class FunctionLibraryCacheKey extends CacheKey {
+
+    private static final long serialVersionUID = 7385342183629416731L;
+
+    private final String functionLibraryName;
+
+    public FunctionLibraryCacheKey(String functionLibraryName) {
+
+        this.functionLibraryName = functionLibraryName;
+    }
+
+    public String getFunctionLibraryName() {
+
+        return functionLibraryName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (!(o instanceof FunctionLibraryCacheKey)) {
+            return false;
+        }
+        return functionLibraryName.equals(((FunctionLibraryCacheKey) o).getFunctionLibraryName());
+    }
+
+    @Override
+    public int hashCode() {
+
+        return functionLibraryName.hashCode();
+    }
+}
@@ -18,10 +18,16 @@
 
 package org.wso2.carbon.identity.functions.library.mgt;
 
+import org.mockito.ArgumentCaptor;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCache;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCacheEntry;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCacheKey;
 import org.wso2.carbon.identity.functions.library.mgt.dao.impl.FunctionLibraryDAOImpl;
 import org.wso2.carbon.identity.functions.library.mgt.exception.FunctionLibraryManagementException;
 import org.wso2.carbon.identity.functions.library.mgt.model.FunctionLibrary;
@@ -31,19 +37,105 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 import static org.wso2.carbon.identity.functions.library.mgt.FunctionLibraryMgtUtil.isRegexValidated;
 
-@PrepareForTest({FunctionLibraryManagementServiceImpl.class})
+@PrepareForTest({FunctionLibraryManagementServiceImpl.class, FunctionLibraryCache.class})
+@SuppressStaticInitializationFor("org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCache")
 public class FunctionLibraryManagementServiceTest extends PowerMockIdentityBaseTest {
 
     private static final String SAMPLE_TENANT_DOMAIN = "carbon.super";
     private static final String SAMPLE_TENANT_DOMAIN2 = "abc.com";
 
+    private FunctionLibraryCache functionLibraryCache;
+
+    @BeforeMethod
+    public void setUp() {
+
+        functionLibraryCache = PowerMockito.mock(FunctionLibraryCache.class);
+        mockStatic(FunctionLibraryCache.class);
+        when(FunctionLibraryCache.getInstance()).thenReturn(functionLibraryCache);
+    }
+
+    @Test
+    public void testGetFunctionLibraryFromCache() throws Exception {
+
+        FunctionLibrary functionLibrary = new FunctionLibrary();
+        functionLibrary.setFunctionLibraryName("cached");
+        functionLibrary.setFunctionLibraryScript("function cachedFunction(){}");
+
+        FunctionLibraryDAOImpl functionLibraryDAO = PowerMockito.mock(FunctionLibraryDAOImpl.class);
+        PowerMockito.whenNew(FunctionLibraryDAOImpl.class).withNoArguments().thenReturn(functionLibraryDAO);
+        when(functionLibraryCache.getValueFromCache(any(FunctionLibraryCacheKey.class), eq(SAMPLE_TENANT_DOMAIN)))
+                .thenReturn(new FunctionLibraryCacheEntry(functionLibrary));
+
+        FunctionLibrary returnedFunctionLibrary = FunctionLibraryManagementServiceImpl.getInstance()
+                .getFunctionLibrary("cached", SAMPLE_TENANT_DOMAIN);
+        assertNotSame(returnedFunctionLibrary, functionLibrary);
+        assertEquals(returnedFunctionLibrary.getFunctionLibraryName(), "cached");
+        assertEquals(returnedFunctionLibrary.getFunctionLibraryScript(), "function cachedFunction(){}");
+        verify(functionLibraryDAO, never()).getFunctionLibrary(anyString(), anyString());
+
+        // Changes made by a caller must not reach the cached instance.
+        returnedFunctionLibrary.setFunctionLibraryScript("function changedFunction(){}");
+        assertEquals(functionLibrary.getFunctionLibraryScript(), "function cachedFunction(){}");
+    }
+
+    @Test
+    public void testGetFunctionLibraryAddsToCache() throws Exception {
+
+        FunctionLibrary functionLibrary = new FunctionLibrary();
+        functionLibrary.setFunctionLibraryName("uncached");
+        functionLibrary.setFunctionLibraryScript("function uncachedFunction(){}");
+
+        FunctionLibraryDAOImpl functionLibraryDAO = PowerMockito.mock(FunctionLibraryDAOImpl.class);
+        PowerMockito.whenNew(FunctionLibraryDAOImpl.class).withNoArguments().thenReturn(functionLibraryDAO);
+        when(functionLibraryDAO.getFunctionLibrary("uncached", SAMPLE_TENANT_DOMAIN)).thenReturn(functionLibrary);
+
+        assertSame(FunctionLibraryManagementServiceImpl.getInstance().getFunctionLibrary("uncached",
+                SAMPLE_TENANT_DOMAIN), functionLibrary);
+        ArgumentCaptor<FunctionLibraryCacheEntry> entryCaptor = ArgumentCaptor.forClass(
+                FunctionLibraryCacheEntry.class);
+        verify(functionLibraryCache).addToCache(eq(new FunctionLibraryCacheKey("uncached")), entryCaptor.capture(),
+                eq(SAMPLE_TENANT_DOMAIN));
+        assertNotSame(entryCaptor.getValue().getFunctionLibrary(), functionLibrary);
+        assertEquals(entryCaptor.getValue().getFunctionLibrary().getFunctionLibraryScript(),
+                "function uncachedFunction(){}");
+    }
+
+    @Test
+    public void testUpdateFunctionLibraryClearsCache() throws Exception {
+
+        FunctionLibrary functionLibrary = new FunctionLibrary();
+        functionLibrary.setFunctionLibraryName("renamed");
+        functionLibrary.setFunctionLibraryScript("function renamedFunction(){}");
+
+        FunctionLibraryDAOImpl functionLibraryDAO = PowerMockito.mock(FunctionLibraryDAOImpl.class);
+        PowerMockito.whenNew(FunctionLibraryDAOImpl.class).withNoArguments().thenReturn(functionLibraryDAO);
+
+        FunctionLibraryManagementServiceImpl.getInstance().updateFunctionLibrary("original", functionLibrary,
+                SAMPLE_TENANT_DOMAIN);
+        verify(functionLibraryCache).clearCacheEntry(new FunctionLibraryCacheKey("original"), SAMPLE_TENANT_DOMAIN);
+        verify(functionLibraryCache).clearCacheEntry(new FunctionLibraryCacheKey("renamed"), SAMPLE_TENANT_DOMAIN);
+
+        FunctionLibraryManagementServiceImpl.getInstance().deleteFunctionLibrary("renamed", SAMPLE_TENANT_DOMAIN);
+        verify(functionLibraryCache, times(2)).clearCacheEntry(
+                new FunctionLibraryCacheKey("renamed"), SAMPLE_TENANT_DOMAIN);
+    }
+
     @DataProvider(name = "createFunctionLibraryDataProvider")
     public Object[][] createFunctionLibraryData() {
 
@@ -23,9 +23,12 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.core.bean.context.MessageContext;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-
-import static java.util.Collections.sort;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * HandlerManager class can be used to get the correct handlers just before execute it either
@@ -36,6 +39,10 @@ public class HandlerManager {
     private static Log log = LogFactory.getLog(AbstractIdentityMessageHandler.class);
     private static HandlerManager handlerManager = new HandlerManager();
 
+    private final Map<Class<?>, List<IdentityHandler>> handlerChains = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<IdentityMessageHandler>> messageHandlerChains = new ConcurrentHashMap<>();
+    private final Map<OrderedChainKey, OrderedChain> orderedMessageHandlerChains = new ConcurrentHashMap<>();
+
     private HandlerManager(){
 
     }
@@ -64,7 +71,7 @@ public class HandlerManager {
         }
         T identityHandler = null;
 
-        sort(identityHandlers, new HandlerComparator());
+        sortByPriority(identityHandlers, getPriorities(identityHandlers));
 
         for (T identityHandlerTmp : identityHandlers) {
             if (isEnableHandlersOnly) {
@@ -100,7 +107,7 @@ public class HandlerManager {
             return new ArrayList<T>()  ;
         }
         List<T> identityHandlersList = identityHandlers;
-        sort(identityHandlersList, new HandlerComparator());
+        sortByPriority(identityHandlersList, getPriorities(identityHandlersList));
         if (isEnableHandlersOnly) {
             identityHandlersList = new ArrayList<>();
             for (IdentityHandler identityHandler : identityHandlers) {
@@ -130,7 +137,7 @@ public class HandlerManager {
         }
         T1 identityMessageHandler = null;
 
-        sort(identityMessageHandlers, new MessageHandlerComparator(messageContext));
+        sortByPriority(identityMessageHandlers, getPriorities(identityMessageHandlers, messageContext));
 
         for (T1 identityHandlerTmp : identityMessageHandlers) {
             if (isEnableHandlersOnly) {
@@ -173,7 +180,7 @@ public class HandlerManager {
             return new ArrayList<T1>()  ;
         }
         List<T1> identityMessageHandlerList = identityMessageHandlers;
-        sort(identityMessageHandlerList, new MessageHandlerComparator(messageContext));
+        sortByPriority(identityMessageHandlerList, getPriorities(identityMessageHandlerList, messageContext));
         if (isEnableHandlersOnly) {
             identityMessageHandlerList = new ArrayList<>();
             for (T1 identityMessageHandler : identityMessageHandlers) {
@@ -185,5 +192,316 @@ public class HandlerManager {
         return identityMessageHandlerList;
     }
 
+    /**
+     * Register a handler in the handler chain of the given type. The chain is kept sorted by the handler priority, so
+     * this should be called when the handler is bound, e.g. from the OSGi bind method of the handler.
+     *
+     * @param handlerType Type of the handler chain
+     * @param handler     Handler to register
+     */
+    public <T extends IdentityHandler> void registerHandler(Class<T> handlerType, T handler) {
+
+        synchronized (handlerChains) {
+            List<IdentityHandler> handlers = new ArrayList<>(getRegisteredHandlers(handlerType));
+            handlers.add(handler);
+            // A stable sort keeps the registration order of handlers with the same priority.
+            handlers.sort(new HandlerComparator());
+            handlerChains.put(handlerType, Collections.unmodifiableList(handlers));
+        }
+    }
+
+    /**
+     * Remove a handler from the handler chain of the given type, e.g. from the OSGi unbind method of the handler.
+     *
+     * @param handlerType Type of the handler chain
+     * @param handler     Handler to remove
+     */
+    public <T extends IdentityHandler> void unregisterHandler(Class<T> handlerType, T handler) {
+
+        synchronized (handlerChains) {
+            List<IdentityHandler> handlers = new ArrayList<>(getRegisteredHandlers(handlerType));
+            handlers.remove(handler);
+            handlerChains.put(handlerType, Collections.unmodifiableList(handlers));
+        }
+    }
+
+    /**
+     * Get the registered handlers of the given type, sorted by priority.
+     *
+     * @param handlerType          Type of the handler chain
+     * @param isEnableHandlersOnly Whether to return the enabled handlers only
+     * @return Unmodifiable list of handlers
+     */
+    public <T extends IdentityHandler> List<T> getHandlers(Class<T> handlerType, boolean isEnableHandlersOnly) {
+
+        List<T> handlers = (List<T>) getRegisteredHandlers(handlerType);
+        if (!isEnableHandlersOnly) {
+            return handlers;
+        }
+        List<T> enabledHandlers = new ArrayList<>(handlers.size());
+        for (T handler : handlers) {
+            if (handler.isEnabled()) {
+                enabledHandlers.add(handler);
+            }
+        }
+        return enabledHandlers;
+    }
+
+    /**
+     * Register a message handler in the handler chain of the given type, e.g. from the OSGi bind method of the
+     * handler.
+     *
+     * @param handlerType Type of the handler chain
+     * @param handler     Handler to register
+     */
+    public <T extends IdentityMessageHandler> void registerMessageHandler(Class<T> handlerType, T handler) {
+
+        synchronized (messageHandlerChains) {
+            List<IdentityMessageHandler> handlers = new ArrayList<>(getRegisteredMessageHandlers(handlerType));
+            handlers.add(handler);
+            messageHandlerChains.put(handlerType, Collections.unmodifiableList(handlers));
+            clearOrderedMessageHandlerChains(handlerType);
+        }
+    }
+
+    /**
+     * Remove a message handler from the handler chain of the given type, e.g. from the OSGi unbind method of the
+     * handler.
+     *
+     * @param handlerType Type of the handler chain
+     * @param handler     Handler to remove
+     */
+    public <T extends IdentityMessageHandler> void unregisterMessageHandler(Class<T> handlerType, T handler) {
+
+        synchronized (messageHandlerChains) {
+            List<IdentityMessageHandler> handlers = new ArrayList<>(getRegisteredMessageHandlers(handlerType));
+            handlers.remove(handler);
+            messageHandlerChains.put(handlerType, Collections.unmodifiableList(handlers));
+            clearOrderedMessageHandlerChains(handlerType);
+        }
+    }
+
+    /**
+     * Get the registered message handlers of the given type, sorted by their priority for the given context. Handlers
+     * with the same priority are kept in their registration order. The priority of each handler is evaluated once.
+     * The order of the previous request with the same type of context is reused if the priorities of this context give
+     * the same order, otherwise the registered chain is sorted again. An order derived from a previously registered
+     * chain is never reused, even if it is stored after the chain changed.
+     *
+     * @param handlerType          Type of the handler chain
+     * @param isEnableHandlersOnly Whether to return the enabled handlers only
+     * @param messageContext       Message context
+     * @return List of handlers
+     */
+    public <T1 extends IdentityMessageHandler, T2 extends MessageContext> List<T1> getMessageHandlers(
+            Class<T1> handlerType, boolean isEnableHandlersOnly, T2 messageContext) {
+
+        Class<?> contextClass = messageContext != null ? messageContext.getClass() : MessageContext.class;
+        OrderedChainKey key = new OrderedChainKey(handlerType, contextClass);
+        List<IdentityMessageHandler> registeredHandlers = getRegisteredMessageHandlers(handlerType);
+        int[] priorities = getPriorities(registeredHandlers, messageContext);
+        OrderedChain orderedChain = orderedMessageHandlerChains.get(key);
+        List<T1> handlers;
+        if (orderedChain != null && orderedChain.registeredHandlers == registeredHandlers
+                && orderedChain.isOrderedBy(priorities)) {
+            handlers = (List<T1>) orderedChain.handlers;
+        } else {
+            Integer[] order = getSortedOrder(priorities);
+            List<IdentityMessageHandler> sortedHandlers = new ArrayList<>(order.length);
+            for (Integer index : order) {
+                sortedHandlers.add(registeredHandlers.get(index));
+            }
+            handlers = (List<T1>) Collections.unmodifiableList(sortedHandlers);
+            orderedMessageHandlerChains.put(key, new OrderedChain(registeredHandlers, handlers, order));
+        }
+
+        if (!isEnableHandlersOnly) {
+            return handlers;
+        }
+        List<T1> enabledHandlers = new ArrayList<>(handlers.size());
+        for (T1 handler : handlers) {
+            if (handler.isEnabled(messageContext)) {
+                enabledHandlers.add(handler);
+            }
+        }
+        return enabledHandlers;
+    }
+
+    /**
+     * Get the first registered message handler of the given type which can handle the given context.
+     *
+     * @param handlerType          Type of the handler chain
+     * @param isEnableHandlersOnly Whether to consider the enabled handlers only
+     * @param messageContext       Message context
+     * @return IdentityMessageHandler or null if no handler can handle the context
+     */
+    public <T1 extends IdentityMessageHandler, T2 extends MessageContext> T1 getFirstPriorityMessageHandler(
+            Class<T1> handlerType, boolean isEnableHandlersOnly, T2 messageContext) {
+
+        for (T1 handler : getMessageHandlers(handlerType, false, messageContext)) {
+            if ((!isEnableHandlersOnly || handler.isEnabled(messageContext)) && handler.canHandle(messageContext)) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    private List<IdentityHandler> getRegisteredHandlers(Class<?> handlerType) {
+
+        List<IdentityHandler> handlers = handlerChains.get(handlerType);
+        return handlers != null ? handlers : Collections.<IdentityHandler>emptyList();
+    }
+
+    private List<IdentityMessageHandler> getRegisteredMessageHandlers(Class<?> handlerType) {
+
+        List<IdentityMessageHandler> handlers = messageHandlerChains.get(handlerType);
+        return handlers != null ? handlers : Collections.<IdentityMessageHandler>emptyList();
+    }
+
+    private void clearOrderedMessageHandlerChains(Class<?> handlerType) {
+
+        orderedMessageHandlerChains.keySet().removeIf(key -> key.handlerType == handlerType);
+    }
+
+    private static <T extends IdentityHandler> int[] getPriorities(List<T> handlers) {
+
+        int[] priorities = new int[handlers.size()];
+        int i = 0;
+        for (T handler : handlers) {
+            priorities[i++] = handler.getPriority();
+        }
+        return priorities;
+    }
+
+    private static <T extends IdentityMessageHandler> int[] getPriorities(List<T> handlers,
+                                                                         MessageContext messageContext) {
+
+        int[] priorities = new int[handlers.size()];
+        int i = 0;
+        for (T handler : handlers) {
+            priorities[i++] = handler.getPriority(messageContext);
+        }
+        return priorities;
+    }
+
+    private static boolean isSorted(int[] priorities) {
 
+        for (int i = 1; i < priorities.length; i++) {
+            if (priorities[i - 1] > priorities[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sort the handlers in place by the given priorities, which were evaluated once for each handler in list order.
+     * The sort is stable and the list is not modified if it is already sorted.
+     *
+     * @param handlers   Handlers to sort
+     * @param priorities Priorities of the handlers
+     */
+    private static <T> void sortByPriority(List<T> handlers, int[] priorities) {
+
+        if (isSorted(priorities)) {
+            return;
+        }
+        Integer[] order = getSortedOrder(priorities);
+        List<T> sortedHandlers = new ArrayList<>(handlers.size());
+        for (Integer index : order) {
+            sortedHandlers.add(handlers.get(index));
+        }
+        ListIterator<T> iterator = handlers.listIterator();
+        for (T handler : sortedHandlers) {
+            iterator.next();
+            iterator.set(handler);
+        }
+    }
+
+    /**
+     * Get the indexes of the given priorities in ascending order of the priority. The sort is stable, hence equal
+     * priorities keep the order of their indexes.
+     *
+     * @param priorities Priorities in list order
+     * @return Indexes of the priorities in sorted order
+     */
+    private static Integer[] getSortedOrder(int[] priorities) {
+
+        Integer[] order = new Integer[priorities.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (index1, index2) -> Integer.compare(priorities[index1], priorities[index2]));
+        return order;
+    }
+
+    /**
+     * Message handler chain ordered for a type of context, along with the registered chain it was derived from.
+     * Registering or removing a handler replaces the registered chain, which makes the ordered chain stale.
+     */
+    private static final class OrderedChain {
+
+        private final List<IdentityMessageHandler> registeredHandlers;
+        private final List<? extends IdentityMessageHandler> handlers;
+        // Registration index of each handler of the ordered chain.
+        private final Integer[] order;
+
+        private OrderedChain(List<IdentityMessageHandler> registeredHandlers,
+                             List<? extends IdentityMessageHandler> handlers, Integer[] order) {
+
+            this.registeredHandlers = registeredHandlers;
+            this.handlers = handlers;
+            this.order = order;
+        }
+
+        /**
+         * Whether this chain is sorted by the given priorities of the registered handlers, with the handlers of the
+         * same priority in registration order.
+         *
+         * @param priorities Priorities of the registered handlers, in registration order
+         * @return True if sorting the registered chain by the priorities gives this chain
+         */
+        private boolean isOrderedBy(int[] priorities) {
+
+            for (int i = 1; i < order.length; i++) {
+                int previous = priorities[order[i - 1]];
+                int current = priorities[order[i]];
+                if (previous > current || (previous == current && order[i - 1] > order[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class OrderedChainKey {
+
+        private final Class<?> handlerType;
+        private final Class<?> contextClass;
+
+        private OrderedChainKey(Class<?> handlerType, Class<?> contextClass) {
+
+            this.handlerType = handlerType;
+            this.contextClass = contextClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            OrderedChainKey that = (OrderedChainKey) o;
+            return handlerType == that.handlerType && contextClass == that.contextClass;
+        }
+
+        @Override
+        public int hashCode() {
+
+            return 31 * handlerType.hashCode() + contextClass.hashCode();
+        }
+    }
 }
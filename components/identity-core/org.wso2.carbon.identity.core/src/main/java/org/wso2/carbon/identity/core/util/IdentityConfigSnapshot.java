@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the identity.xml configuration. The value of every property is converted to a string and the
+ * list values are copied when the snapshot is built. Values without placeholders are returned as they are. Values with
+ * placeholders are kept raw and resolved on every read, since placeholders such as the management port depend on the
+ * server state. A new snapshot replaces the old one when the configuration is reloaded.
+ */
+final class IdentityConfigSnapshot {
+
+    private static final String PLACEHOLDER_PREFIX = "${";
+
+    private final Map<String, Object> source;
+    private final Map<String, String> properties;
+    private final Map<String, List<String>> listProperties;
+    private final Set<String> keysWithPlaceholders;
+
+    private IdentityConfigSnapshot(Map<String, Object> source, Map<String, String> properties,
+                                   Map<String, List<String>> listProperties) {
+
+        this.source = source;
+        this.properties = properties;
+        this.listProperties = listProperties;
+        Set<String> keys = new HashSet<>();
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            if (property.getValue().contains(PLACEHOLDER_PREFIX)) {
+                keys.add(property.getKey());
+            }
+        }
+        this.keysWithPlaceholders = Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Build a snapshot of the parsed configuration.
+     *
+     * @param configuration Configuration parsed from identity.xml.
+     * @return Configuration snapshot.
+     */
+    static IdentityConfigSnapshot build(Map<String, Object> configuration) {
+
+        Map<String, String> properties = new HashMap<>();
+        Map<String, List<String>> listProperties = new HashMap<>();
+        if (configuration != null) {
+            for (Map.Entry<String, Object> entry : configuration.entrySet()) {
+                List<String> values = toStringList(entry.getValue());
+                if (!values.isEmpty()) {
+                    properties.put(entry.getKey(), values.get(0));
+                }
+                listProperties.put(entry.getKey(), Collections.unmodifiableList(values));
+            }
+        }
+        return new IdentityConfigSnapshot(configuration, properties, listProperties);
+    }
+
+    /**
+     * Check whether this is a snapshot of the given configuration.
+     *
+     * @param configuration Configuration parsed from identity.xml.
+     * @return True if the snapshot was built from the given configuration.
+     */
+    boolean isSnapshotOf(Map<String, Object> configuration) {
+
+        return source == configuration;
+    }
+
+    /**
+     * Get the first value of a property with the placeholders resolved.
+     *
+     * @param key Property key.
+     * @return Property value, or null if the property is not configured.
+     */
+    String getProperty(String key) {
+
+        String value = properties.get(key);
+        if (value == null || !keysWithPlaceholders.contains(key)) {
+            return value;
+        }
+        return IdentityUtil.fillURLPlaceholders(value);
+    }
+
+    /**
+     * Get all the values of a property, without resolving placeholders.
+     *
+     * @param key Property key.
+     * @return Unmodifiable list of the values, which is empty if the property is not configured.
+     */
+    List<String> getPropertyAsList(String key) {
+
+        List<String> values = listProperties.get(key);
+        return values != null ? values : Collections.emptyList();
+    }
+
+    private static List<String> toStringList(Object value) {
+
+        List<String> values = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object rawValue : (List) value) {
+                values.add(rawValue instanceof String ? (String) rawValue : String.valueOf(rawValue));
+            }
+        } else if (value instanceof String) {
+            values.add((String) value);
+        } else if (value != null) {
+            values.add(String.valueOf(value));
+        }
+        return values;
+    }
+}
@@ -135,6 +135,7 @@ public class IdentityUtil {
     private static final String DISABLE_EMAIL_USERNAME_VALIDATION = "DisableEmailUserNameValidation";
     private static Log log = LogFactory.getLog(IdentityUtil.class);
     private static Map<String, Object> configuration = new HashMap<>();
+    private static volatile IdentityConfigSnapshot configSnapshot = IdentityConfigSnapshot.build(configuration);
     private static Map<IdentityEventListenerConfigKey, IdentityEventListenerConfig> eventListenerConfiguration = new
             HashMap<>();
     private static Map<IdentityCacheConfigKey, IdentityCacheConfig> identityCacheConfigurationHolder = new HashMap<>();
@@ -192,22 +193,61 @@ public class IdentityUtil {
      */
     public static String getProperty(String key) {
 
-        Object value = configuration.get(key);
-        String strValue;
+        return getConfigSnapshot().getProperty(key);
+    }
 
-        if (value == null) {
-            return null;
+    /**
+     * Read a boolean configuration element from the identity.xml
+     *
+     * @param key          Element Name as specified from the parent elements in the XML structure.
+     * @param defaultValue Value to return if the element is not configured.
+     * @return True if the element value is "true" ignoring case, the default value if the element is not configured.
+     */
+    public static boolean getPropertyAsBoolean(String key, boolean defaultValue) {
+
+        String value = getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
         }
-        if (value instanceof List) {
-            value = ((List) value).get(0);
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Read an integer configuration element from the identity.xml
+     *
+     * @param key          Element Name as specified from the parent elements in the XML structure.
+     * @param defaultValue Value to return if the element is not configured or is not a valid integer.
+     * @return Element value as an integer.
+     */
+    public static int getPropertyAsInt(String key, int defaultValue) {
+
+        String value = getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
         }
-        if (value instanceof String) {
-            strValue = (String) value;
-        } else {
-            strValue = String.valueOf(value);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid integer value: " + value + " configured for: " + key + ". Using the default value: " +
+                    defaultValue);
+            return defaultValue;
         }
-        strValue = fillURLPlaceholders(strValue);
-        return strValue;
+    }
+
+    /**
+     * Get the snapshot of the current configuration. A new snapshot is built if the configuration was replaced.
+     *
+     * @return Configuration snapshot.
+     */
+    private static IdentityConfigSnapshot getConfigSnapshot() {
+
+        IdentityConfigSnapshot snapshot = configSnapshot;
+        Map<String, Object> currentConfiguration = configuration;
+        if (snapshot == null || !snapshot.isSnapshotOf(currentConfiguration)) {
+            snapshot = IdentityConfigSnapshot.build(currentConfiguration);
+            configSnapshot = snapshot;
+        }
+        return snapshot;
     }
 
     public static IdentityEventListenerConfig readEventListenerProperty(String type, String name) {
@@ -329,6 +369,7 @@ public class IdentityUtil {
                 IdentityConfigParser.getInstance().getCookiesToInvalidateConfigurationHolder();
         storeProcedureBasedDAOConfigurationHolder =
                 IdentityConfigParser.getInstance().getStoreProcedureBasedDAOConfigurationHolder();
+        configSnapshot = IdentityConfigSnapshot.build(configuration);
     }
 
     public static String getPPIDDisplayValue(String value) throws Exception {
@@ -1741,27 +1782,7 @@ public class IdentityUtil {
      */
     public static List<String> getPropertyAsList(String key) {
 
-        List<String> propertyList = new ArrayList<>();
-        Object value = configuration.get(key);
-
-        if (value == null) {
-            return propertyList;
-        }
-        if (value instanceof List) {
-            List rawProps = (List) value;
-            for (Object rawProp: rawProps ) {
-                if (rawProp instanceof String) {
-                    propertyList.add((String) rawProp);
-                } else {
-                    propertyList.add(String.valueOf(rawProp));
-                }
-            }
-        } else if (value instanceof String) {
-            propertyList.add((String) value);
-        } else {
-            propertyList.add(String.valueOf(value));
-        }
-        return propertyList;
+        return new ArrayList<>(getConfigSnapshot().getPropertyAsList(key));
     }
 
     /**
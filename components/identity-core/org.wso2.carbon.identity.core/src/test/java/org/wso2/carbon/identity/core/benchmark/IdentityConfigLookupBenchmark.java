@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the identity.xml lookups made while serving a request. Feature flags are read from the
+ * configuration snapshot as they are, while values with placeholders, such as file paths, are resolved on every read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class IdentityConfigLookupBenchmark {
+
+    private static final int FEATURE_FLAGS = 50;
+    private static final int FILE_PATHS = 5;
+
+    private String[] featureFlagKeys;
+    private String[] filePathKeys;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+
+        if (System.getProperty("carbon.home") == null) {
+            System.setProperty("carbon.home", "/opt/wso2is");
+        }
+        Map<String, Object> configuration = new HashMap<>();
+        featureFlagKeys = new String[FEATURE_FLAGS];
+        for (int i = 0; i < FEATURE_FLAGS; i++) {
+            featureFlagKeys[i] = "Feature" + i + ".Enable";
+            configuration.put(featureFlagKeys[i], i % 2 == 0 ? "true" : "false");
+        }
+        filePathKeys = new String[FILE_PATHS];
+        for (int i = 0; i < FILE_PATHS; i++) {
+            filePathKeys[i] = "Resource" + i + ".Location";
+            configuration.put(filePathKeys[i],
+                    Arrays.asList("${carbon.home}/repository/resources/resource" + i + ".xml"));
+        }
+
+        Field configurationField = IdentityUtil.class.getDeclaredField("configuration");
+        configurationField.setAccessible(true);
+        configurationField.set(null, configuration);
+    }
+
+    @Benchmark
+    public void featureFlagLookup(Blackhole blackhole) {
+
+        for (String key : featureFlagKeys) {
+            blackhole.consume(IdentityUtil.getPropertyAsBoolean(key, false));
+        }
+    }
+
+    @Benchmark
+    public void filePathLookup(Blackhole blackhole) {
+
+        for (String key : filePathKeys) {
+            blackhole.consume(IdentityUtil.getProperty(key));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(IdentityConfigLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
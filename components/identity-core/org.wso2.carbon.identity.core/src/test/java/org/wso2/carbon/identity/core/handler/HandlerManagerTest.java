@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core.handler;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.bean.context.MessageContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Test for the HandlerManager.
+ */
+public class HandlerManagerTest {
+
+    private final HandlerManager handlerManager = HandlerManager.getInstance();
+
+    @Test
+    public void testSortHandlers() {
+
+        TestHandler first = new TestHandler("first", 1, true);
+        TestHandler second = new TestHandler("second", 2, false);
+        TestHandler third = new TestHandler("third", 3, true);
+        TestHandler sameAsThird = new TestHandler("sameAsThird", 3, true);
+        List<TestHandler> handlers = new ArrayList<>(Arrays.asList(third, second, sameAsThird, first));
+
+        List<TestHandler> sortedHandlers = handlerManager.sortHandlers(handlers, false);
+        assertEquals(sortedHandlers, Arrays.asList(first, second, third, sameAsThird));
+        assertEquals(handlers, Arrays.asList(first, second, third, sameAsThird));
+        assertEquals(handlerManager.sortHandlers(handlers, true), Arrays.asList(first, third, sameAsThird));
+        assertSame(handlerManager.getFirstPriorityHandler(handlers, true), first);
+    }
+
+    @Test
+    public void testSortMessageHandlers() {
+
+        TestMessageContext messageContext = new TestMessageContext(Collections.singletonMap("reverse", "true"));
+        TestMessageHandler first = new TestMessageHandler("first", 1, true, false);
+        TestMessageHandler second = new TestMessageHandler("second", 2, true, true);
+        List<TestMessageHandler> handlers = new ArrayList<>(Arrays.asList(first, second));
+
+        assertEquals(handlerManager.sortHandlers(handlers, true, messageContext), Arrays.asList(second, first));
+        assertSame(handlerManager.getFirstPriorityHandler(handlers, true, messageContext), second);
+    }
+
+    @Test
+    public void testRegisteredHandlers() {
+
+        TestHandler first = new TestHandler("first", 1, false);
+        TestHandler second = new TestHandler("second", 2, true);
+        TestHandler third = new TestHandler("third", 3, true);
+
+        handlerManager.registerHandler(TestHandler.class, third);
+        handlerManager.registerHandler(TestHandler.class, first);
+        handlerManager.registerHandler(TestHandler.class, second);
+        assertEquals(handlerManager.getHandlers(TestHandler.class, false), Arrays.asList(first, second, third));
+        assertEquals(handlerManager.getHandlers(TestHandler.class, true), Arrays.asList(second, third));
+
+        handlerManager.unregisterHandler(TestHandler.class, second);
+        assertEquals(handlerManager.getHandlers(TestHandler.class, false), Arrays.asList(first, third));
+        handlerManager.unregisterHandler(TestHandler.class, first);
+        handlerManager.unregisterHandler(TestHandler.class, third);
+        assertEquals(handlerManager.getHandlers(TestHandler.class, false), Collections.emptyList());
+    }
+
+    @Test
+    public void testRegisteredMessageHandlers() {
+
+        TestMessageContext defaultContext = new TestMessageContext(Collections.<String, String>emptyMap());
+        TestMessageContext reversedContext = new TestMessageContext(Collections.singletonMap("reverse", "true"));
+        TestMessageHandler first = new TestMessageHandler("first", 1, true, true);
+        TestMessageHandler second = new TestMessageHandler("second", 2, false, true);
+        TestMessageHandler third = new TestMessageHandler("third", 3, true, false);
+
+        handlerManager.registerMessageHandler(TestMessageHandler.class, second);
+        handlerManager.registerMessageHandler(TestMessageHandler.class, third);
+        handlerManager.registerMessageHandler(TestMessageHandler.class, first);
+        assertEquals(handlerManager.getMessageHandlers(TestMessageHandler.class, false, defaultContext),
+                Arrays.asList(first, second, third));
+        assertEquals(handlerManager.getMessageHandlers(TestMessageHandler.class, false, reversedContext),
+                Arrays.asList(third, second, first));
+        assertEquals(handlerManager.getMessageHandlers(TestMessageHandler.class, true, reversedContext),
+                Arrays.asList(third, first));
+        assertSame(handlerManager.getFirstPriorityMessageHandler(TestMessageHandler.class, true, defaultContext),
+                first);
+        assertSame(handlerManager.getFirstPriorityMessageHandler(TestMessageHandler.class, false, reversedContext),
+                second);
+
+        handlerManager.unregisterMessageHandler(TestMessageHandler.class, first);
+        assertEquals(handlerManager.getMessageHandlers(TestMessageHandler.class, false, reversedContext),
+                Arrays.asList(third, second));
+        handlerManager.unregisterMessageHandler(TestMessageHandler.class, second);
+        handlerManager.unregisterMessageHandler(TestMessageHandler.class, third);
+        assertNull(handlerManager.getFirstPriorityMessageHandler(TestMessageHandler.class, false, defaultContext));
+    }
+
+    @Test
+    public void testMessageHandlerRegisteredWhileOrdering() {
+
+        TestMessageContext context = new TestMessageContext(Collections.<String, String>emptyMap());
+        TestMessageHandler zero = new TestMessageHandler("zero", 0, true, true);
+        TestMessageHandler first = new TestMessageHandler("first", 1, true, true);
+        TestMessageHandler registering = new TestMessageHandler("registering", 2, true, true) {
+
+            private boolean registered;
+
+            @Override
+            public int getPriority(MessageContext messageContext) {
+
+                // Simulates a handler registered after the chain is read and before its order is stored.
+                if (!registered) {
+                    registered = true;
+                    handlerManager.registerMessageHandler(TestMessageHandler.class, zero);
+                }
+                return super.getPriority(messageContext);
+            }
+        };
+
+        handlerManager.registerMessageHandler(TestMessageHandler.class, first);
+        handlerManager.registerMessageHandler(TestMessageHandler.class, registering);
+        assertEquals(handlerManager.getMessageHandlers(TestMessageHandler.class, false, context),
+                Arrays.asList(first, registering));
+        assertEquals(handlerManager.getMessageHandlers(TestMessageHandler.class, false, context),
+                Arrays.asList(zero, first, registering));
+
+        handlerManager.unregisterMessageHandler(TestMessageHandler.class, zero);
+        handlerManager.unregisterMessageHandler(TestMessageHandler.class, first);
+        handlerManager.unregisterMessageHandler(TestMessageHandler.class, registering);
+        assertNull(handlerManager.getFirstPriorityMessageHandler(TestMessageHandler.class, false, context));
+    }
+
+    @Test
+    public void testEqualPriorityMessageHandlersKeepRegistrationOrder() {
+
+        TestMessageContext reversedContext = new TestMessageContext(Collections.singletonMap("reverse", "true"));
+        TestMessageContext equalContext = new TestMessageContext(Collections.singletonMap("equal", "true"));
+        TestMessageHandler first = new TestMessageHandler("first", 1, true, true);
+        TestMessageHandler second = new TestMessageHandler("second", 2, true, true);
+
+        handlerManager.registerMessageHandler(TestMessageHandler.class, first);
+        handlerManager.registerMessageHandler(TestMessageHandler.class, second);
+        assertEquals(handlerManager.getMessageHandlers(TestMessageHandler.class, false, reversedContext),
+                Arrays.asList(second, first));
+        // The order of the previous context of the same type is not kept for handlers of the same priority.
+        List<TestMessageHandler> handlers =
+                handlerManager.getMessageHandlers(TestMessageHandler.class, false, equalContext);
+        assertEquals(handlers, Arrays.asList(first, second));
+        // An unchanged order is reused.
+        assertSame(handlerManager.getMessageHandlers(TestMessageHandler.class, false, equalContext), handlers);
+
+        handlerManager.unregisterMessageHandler(TestMessageHandler.class, first);
+        handlerManager.unregisterMessageHandler(TestMessageHandler.class, second);
+    }
+
+    private static class TestHandler extends AbstractIdentityHandler {
+
+        private final String name;
+        private final int priority;
+        private final boolean enabled;
+
+        private TestHandler(String name, int priority, boolean enabled) {
+
+            this.name = name;
+            this.priority = priority;
+            this.enabled = enabled;
+        }
+
+        @Override
+        public String getName() {
+
+            return name;
+        }
+
+        @Override
+        public boolean isEnabled() {
+
+            return enabled;
+        }
+
+        @Override
+        public int getPriority() {
+
+            return priority;
+        }
+
+        @Override
+        public String toString() {
+
+            return name;
+        }
+    }
+
+    private static class TestMessageHandler implements IdentityMessageHandler {
+
+        private final String name;
+        private final int priority;
+        private final boolean enabled;
+        private final boolean canHandle;
+
+        private TestMessageHandler(String name, int priority, boolean enabled, boolean canHandle) {
+
+            this.name = name;
+            this.priority = priority;
+            this.enabled = enabled;
+            this.canHandle = canHandle;
+        }
+
+        @Override
+        public void init(InitConfig initConfig) {
+
+        }
+
+        @Override
+        public String getName() {
+
+            return name;
+        }
+
+        @Override
+        public boolean isEnabled(MessageContext messageContext) {
+
+            return enabled;
+        }
+
+        @Override
+        public int getPriority(MessageContext messageContext) {
+
+            if ("true".equals(messageContext.getParameter("equal"))) {
+                return 0;
+            }
+            return "true".equals(messageContext.getParameter("reverse")) ? -priority : priority;
+        }
+
+        @Override
+        public boolean canHandle(MessageContext messageContext) {
+
+            return canHandle;
+        }
+
+        @Override
+        public String toString() {
+
+            return name;
+        }
+    }
+
+    private static class TestMessageContext extends MessageContext<String, String> {
+
+        private TestMessageContext(Map<String, String> parameters) {
+
+            super(parameters);
+        }
+    }
+}
@@ -201,6 +201,62 @@ public class IdentityUtilTest {
     }
 
 
+    @DataProvider
+    public Object[][] getTypedPropertyTestData() {
+        return new Object[][]{
+                {"true", true, 5},
+                {" TRUE ", true, 5},
+                {"false", false, 5},
+                {" 10 ", false, 10},
+                {"NotANumber", false, 5},
+                {"", true, 5},
+                {null, true, 5},
+        };
+    }
+
+    @Test(dataProvider = "getTypedPropertyTestData")
+    public void testGetTypedProperty(String value, boolean expectedBoolean, int expectedInt) throws Exception {
+        Map<String, Object> mockConfig = new HashMap<>();
+        mockConfig.put("testTyped", value);
+
+        Whitebox.setInternalState(IdentityUtil.class, "configuration", mockConfig);
+        assertEquals(IdentityUtil.getPropertyAsBoolean("testTyped", true), expectedBoolean,
+                "Boolean property value mismatch for input: " + value);
+        assertEquals(IdentityUtil.getPropertyAsInt("testTyped", 5), expectedInt,
+                "Integer property value mismatch for input: " + value);
+    }
+
+    @Test
+    public void testGetPropertyResolvesPlaceholdersOnEveryRead() throws Exception {
+        Map<String, Object> mockConfig = new HashMap<>();
+        mockConfig.put("testUrl", "https://localhost:" + IdentityConstants.CarbonPlaceholders.CARBON_PORT_HTTPS +
+                "/oauth2/token");
+        Whitebox.setInternalState(IdentityUtil.class, "configuration", mockConfig);
+        assertEquals(IdentityUtil.getProperty("testUrl"), "https://localhost:9443/oauth2/token");
+
+        System.setProperty(IdentityConstants.CarbonPlaceholders.CARBON_PORT_HTTPS_PROPERTY, "8443");
+        assertEquals(IdentityUtil.getProperty("testUrl"), "https://localhost:8443/oauth2/token",
+                "Placeholder is resolved with the current port.");
+        assertEquals(IdentityUtil.getPropertyAsList("testUrl"), Arrays.asList("https://localhost:" +
+                IdentityConstants.CarbonPlaceholders.CARBON_PORT_HTTPS + "/oauth2/token"));
+    }
+
+    @Test
+    public void testGetPropertyOfReplacedConfiguration() throws Exception {
+        Map<String, Object> mockConfig = new HashMap<>();
+        mockConfig.put("testKey", Arrays.asList("one", "two"));
+        Whitebox.setInternalState(IdentityUtil.class, "configuration", mockConfig);
+        assertEquals(IdentityUtil.getProperty("testKey"), "one");
+        assertEquals(IdentityUtil.getPropertyAsList("testKey"), Arrays.asList("one", "two"));
+
+        Map<String, Object> newMockConfig = new HashMap<>();
+        newMockConfig.put("testKey", "three");
+        Whitebox.setInternalState(IdentityUtil.class, "configuration", newMockConfig);
+        assertEquals(IdentityUtil.getProperty("testKey"), "three", "Property of the replaced configuration is read.");
+        assertEquals(IdentityUtil.getPropertyAsList("testKey"), Arrays.asList("three"));
+        assertTrue(IdentityUtil.getPropertyAsList("missingKey").isEmpty());
+    }
+
     @Test
     public void testReadEventListenerProperty() throws Exception {
 
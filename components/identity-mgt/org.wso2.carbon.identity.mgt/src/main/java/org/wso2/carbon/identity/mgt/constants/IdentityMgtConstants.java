@@ -60,6 +60,8 @@ public class IdentityMgtConstants {
     private static final String[] SECRET_QUESTIONS_SET02 = new String[]{"Model of your first car ?",
             "Name of the hospital where you were born ?", "Name of your first pet ?", "Favorite sport ?"};
 
+    public static final long USER_DATA_STORE_WRITE_BEHIND_SHUTDOWN_TIMEOUT = 5000L;
+
     public static final String EMAIL_ADDRESS = "email";
 
     public static final String FIRST_NAME = "firstName";
@@ -125,6 +127,8 @@ public class IdentityMgtConstants {
 
         public static final String NOTIFICATION_SEND_ENABLE = "Notification.Sending.Enable";
 
+        public static final String USER_DATA_STORE_WRITE_BEHIND_KEYS = "Identity.Mgt.User.Data.Store.WriteBehind.Keys";
+
         public static final String NOTIFICATION_SEND_ACCOUNT_DISABLE = "Notification.Sending.Enable.Account.Disable";
 
         public static final String NOTIFICATION_SEND_ACCOUNT_ENABLE = "Notification.Sending.Enable.Account.Enable";
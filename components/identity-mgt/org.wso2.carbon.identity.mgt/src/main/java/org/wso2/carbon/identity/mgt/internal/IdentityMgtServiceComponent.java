@@ -52,6 +52,7 @@ import org.wso2.carbon.identity.mgt.listener.IdentityUserNameResolverListener;
 import org.wso2.carbon.identity.mgt.listener.TenantManagementListener;
 import org.wso2.carbon.identity.mgt.listener.UserOperationsNotificationListener;
 import org.wso2.carbon.identity.mgt.listener.UserSessionTerminationListener;
+import org.wso2.carbon.identity.mgt.store.JDBCIdentityDataStore;
 import org.wso2.carbon.identity.mgt.store.RegistryCleanUpService;
 import org.wso2.carbon.identity.mgt.util.UserIdentityManagementUtil;
 import org.wso2.carbon.identity.notification.mgt.NotificationSender;
@@ -250,6 +251,8 @@ public class IdentityMgtServiceComponent {
 
     @Deactivate
     protected void deactivate(ComponentContext context) {
+        // Persist the identity data values which are still queued to be written behind.
+        JDBCIdentityDataStore.shutdownWriteBehind(IdentityMgtConstants.USER_DATA_STORE_WRITE_BEHIND_SHUTDOWN_TIMEOUT);
         log.debug("Identity Management bundle is de-activated");
     }
 
@@ -18,11 +18,14 @@
 
 package org.wso2.carbon.identity.mgt.store;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.base.IdentityException;
 import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.mgt.IdentityMgtConfig;
+import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
 import org.wso2.carbon.identity.mgt.dto.UserIdentityClaimsDO;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.api.UserStoreManager;
@@ -34,8 +37,19 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * //TODO remove method when user is deleted
@@ -46,6 +60,36 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
 
     private static Log log = LogFactory.getLog(JDBCIdentityDataStore.class);
 
+    private static final int MAX_PERSIST_ATTEMPTS = 2;
+    private static final int WRITE_BEHIND_QUEUE_CAPACITY = 1000;
+    private static final ExecutorService WRITE_BEHIND_EXECUTOR = new ThreadPoolExecutor(1, 1, 0L,
+            TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(WRITE_BEHIND_QUEUE_CAPACITY),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+
+                    Thread thread = new Thread(runnable, "IdentityDataWriteBehind");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            },
+            new RejectedExecutionHandler() {
+                @Override
+                public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+
+                    if (executor.isShutdown()) {
+                        // The queued writes are drained on shutdown, so later writes are done on the caller.
+                        runnable.run();
+                        return;
+                    }
+                    // Wait for the queue instead of writing on the caller. A write on the caller could be overwritten
+                    // by an older value of the same user which is still in the queue.
+                    putUninterruptibly(executor.getQueue(), runnable);
+                }
+            });
+
+    private volatile Set<String> writeBehindKeys;
+
     @Override
     public void store(UserIdentityClaimsDO userIdentityDTO, UserStoreManager userStoreManager)
             throws IdentityException {
@@ -71,107 +115,265 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
         }
         userIdentityDTO.setTenantId(tenantId);
         super.store(userIdentityDTO, userStoreManager);
+        persistUserData(userName, tenantId, new HashMap<>(userIdentityDTO.getUserDataMap()));
+    }
+
+    /**
+     * Persist the user data values. The values configured to be written behind are queued to the background writer,
+     * and the others are written before returning.
+     */
+    void persistUserData(String userName, int tenantId, Map<String, String> data) throws IdentityException {
 
-        Map<String, String> data = userIdentityDTO.getUserDataMap();
+        Map<String, String> writeBehindData = extractWriteBehindData(data);
+        if (!writeBehindData.isEmpty()) {
+            submitWriteBehind(userName, tenantId, writeBehindData);
+        }
+        if (!data.isEmpty()) {
+            writeUserData(userName, tenantId, data);
+        }
+    }
+
+    /**
+     * Write the user data values in a single transaction. A failed transaction is retried once, with the existing
+     * data keys read again, to recover from concurrent inserts of the same data key.
+     */
+    private void writeUserData(String userName, int tenantId, Map<String, String> data) throws IdentityException {
 
-        for (Map.Entry<String, String> entry : data.entrySet()) {
-            String key = entry.getKey();
-            String value = entry.getValue();
-            boolean isUserExists = false;
+        boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(userName, tenantId);
+        SQLException lastError = null;
+        for (int attempt = 0; attempt < MAX_PERSIST_ATTEMPTS; attempt++) {
+            Connection connection = IdentityDatabaseUtil.getDBConnection();
             try {
-                isUserExists = isExistingUserDataValue(userName, tenantId, key);
+                writeUserData(connection, userName, tenantId, data, isUsernameCaseSensitive);
+                IdentityDatabaseUtil.commitTransaction(connection);
+                return;
             } catch (SQLException e) {
-                throw IdentityException.error("Error occurred while checking if user existing", e);
-            }
-            try {
-                if (isUserExists) {
-                    updateUserDataValue(userName, tenantId, key, value);
-                } else {
-                    addUserDataValue(userName, tenantId, key, value);
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                lastError = e;
+                if (log.isDebugEnabled()) {
+                    log.debug("Error while persisting identity data of user: " + userName + " in tenant: " +
+                            tenantId + ". Attempt: " + (attempt + 1), e);
                 }
-            } catch (SQLException e) {
-                throw IdentityException.error("Error occurred while persisting user data", e);
+            } finally {
+                IdentityDatabaseUtil.closeConnection(connection);
             }
         }
+        throw IdentityException.error("Error occurred while persisting user data", lastError);
     }
 
-    private boolean isExistingUserDataValue(String userName, int tenantId, String key) throws SQLException {
+    /**
+     * Write the user data values with the given connection, without committing them. A dialect specific upsert is
+     * used when the database supports it and the user store is case sensitive. Otherwise the existing data keys of the
+     * user are read once and the updates and inserts are batched.
+     */
+    void writeUserData(Connection connection, String userName, int tenantId, Map<String, String> data,
+                       boolean isUsernameCaseSensitive) throws SQLException {
+
+        String upsertQuery = isUsernameCaseSensitive ? getUpsertQuery(connection) : null;
+        if (upsertQuery != null) {
+            upsertUserDataValues(connection, upsertQuery, userName, tenantId, data);
+        } else {
+            Set<String> existingKeys = getExistingDataKeys(connection, userName, tenantId, isUsernameCaseSensitive);
+            writeUserDataValues(connection, userName, tenantId, data, existingKeys, isUsernameCaseSensitive);
+        }
+    }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection(false);
-        PreparedStatement prepStmt = null;
-        ResultSet results;
-        boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(userName, tenantId);
-        try {
-            String query;
-            if (isUsernameCaseSensitive) {
-                query = SQLQuery.CHECK_EXIST_USER_DATA;
-            } else {
-                query = SQLQuery.CHECK_EXIST_USER_DATA_CASE_INSENSITIVE;
+    private String getUpsertQuery(Connection connection) throws SQLException {
+
+        String databaseProductName = connection.getMetaData().getDatabaseProductName();
+        if (databaseProductName == null) {
+            return null;
+        }
+        if (databaseProductName.contains("MySQL") || databaseProductName.contains("MariaDB")) {
+            return SQLQuery.UPSERT_USER_DATA_MYSQL;
+        } else if (databaseProductName.contains("PostgreSQL")) {
+            return SQLQuery.UPSERT_USER_DATA_POSTGRESQL;
+        } else if (databaseProductName.contains("H2")) {
+            return SQLQuery.UPSERT_USER_DATA_H2;
+        }
+        return null;
+    }
+
+    private void upsertUserDataValues(Connection connection, String upsertQuery, String userName, int tenantId,
+                                      Map<String, String> data) throws SQLException {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(upsertQuery)) {
+            for (Map.Entry<String, String> entry : data.entrySet()) {
+                prepStmt.setInt(1, tenantId);
+                prepStmt.setString(2, userName);
+                prepStmt.setString(3, entry.getKey());
+                prepStmt.setString(4, entry.getValue());
+                prepStmt.addBatch();
             }
-            prepStmt = connection.prepareStatement(query);
+            prepStmt.executeBatch();
+        }
+    }
+
+    private Set<String> getExistingDataKeys(Connection connection, String userName, int tenantId,
+                                            boolean isUsernameCaseSensitive) throws SQLException {
+
+        String query;
+        if (isUsernameCaseSensitive) {
+            query = SQLQuery.LOAD_USER_DATA_KEYS;
+        } else {
+            query = SQLQuery.LOAD_USER_DATA_KEYS_CASE_INSENSITIVE;
+        }
+        Set<String> existingKeys = new HashSet<>();
+        try (PreparedStatement prepStmt = connection.prepareStatement(query)) {
             prepStmt.setInt(1, tenantId);
             prepStmt.setString(2, userName);
-            prepStmt.setString(3, key);
-            results = prepStmt.executeQuery();
-            if (results.next()) {
-                return true;
+            try (ResultSet results = prepStmt.executeQuery()) {
+                while (results.next()) {
+                    existingKeys.add(results.getString(1));
+                }
             }
-        } finally {
-            IdentityDatabaseUtil.closeStatement(prepStmt);
-            IdentityDatabaseUtil.closeConnection(connection);
         }
-        return false;
+        return existingKeys;
     }
 
+    private void writeUserDataValues(Connection connection, String userName, int tenantId, Map<String, String> data,
+                                     Set<String> existingKeys, boolean isUsernameCaseSensitive) throws SQLException {
 
-    private void addUserDataValue(String userName, int tenantId, String key, String value) throws SQLException {
+        String updateQuery;
+        if (isUsernameCaseSensitive) {
+            updateQuery = SQLQuery.UPDATE_USER_DATA;
+        } else {
+            updateQuery = SQLQuery.UPDATE_USER_DATA_CASE_INSENSITIVE;
+        }
+        try (PreparedStatement updateStmt = connection.prepareStatement(updateQuery);
+             PreparedStatement insertStmt = connection.prepareStatement(SQLQuery.STORE_USER_DATA)) {
+            boolean hasUpdates = false;
+            boolean hasInserts = false;
+            for (Map.Entry<String, String> entry : data.entrySet()) {
+                if (existingKeys.contains(entry.getKey())) {
+                    updateStmt.setString(1, entry.getValue());
+                    updateStmt.setInt(2, tenantId);
+                    updateStmt.setString(3, userName);
+                    updateStmt.setString(4, entry.getKey());
+                    updateStmt.addBatch();
+                    hasUpdates = true;
+                } else {
+                    insertStmt.setInt(1, tenantId);
+                    insertStmt.setString(2, userName);
+                    insertStmt.setString(3, entry.getKey());
+                    insertStmt.setString(4, entry.getValue());
+                    insertStmt.addBatch();
+                    hasInserts = true;
+                }
+            }
+            if (hasUpdates) {
+                updateStmt.executeBatch();
+            }
+            if (hasInserts) {
+                insertStmt.executeBatch();
+            }
+        }
+    }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
-        PreparedStatement prepStmt = null;
+    /**
+     * Remove the data values which are configured to be written behind from the given data. Write behind is meant for
+     * the non critical values, such as the last logon time, which are not used to take security decisions.
+     *
+     * @return Data values to be written behind.
+     */
+    private Map<String, String> extractWriteBehindData(Map<String, String> data) {
 
-        try {
-            prepStmt = connection.prepareStatement(SQLQuery.STORE_USER_DATA);
-            prepStmt.setInt(1, tenantId);
-            prepStmt.setString(2, userName);
-            prepStmt.setString(3, key);
-            prepStmt.setString(4, value);
-            prepStmt.execute();
-            IdentityDatabaseUtil.commitTransaction(connection);
-        } catch (SQLException e) {
-            IdentityDatabaseUtil.rollbackTransaction(connection);
-        } finally {
-            IdentityDatabaseUtil.closeStatement(prepStmt);
-            IdentityDatabaseUtil.closeConnection(connection);
+        Set<String> keys = getWriteBehindKeys();
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> writeBehindData = new HashMap<>();
+        for (String key : keys) {
+            if (data.containsKey(key)) {
+                writeBehindData.put(key, data.remove(key));
+            }
         }
+        return writeBehindData;
     }
 
+    private Set<String> getWriteBehindKeys() {
+
+        Set<String> keys = writeBehindKeys;
+        if (keys == null) {
+            keys = new HashSet<>();
+            IdentityMgtConfig config = IdentityMgtConfig.getInstance();
+            String configuredKeys = config == null ? null :
+                    config.getProperty(IdentityMgtConstants.PropertyConfig.USER_DATA_STORE_WRITE_BEHIND_KEYS);
+            if (StringUtils.isNotBlank(configuredKeys)) {
+                for (String key : configuredKeys.split(",")) {
+                    if (StringUtils.isNotBlank(key)) {
+                        keys.add(key.trim());
+                    }
+                }
+            }
+            writeBehindKeys = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Submit the data values to be persisted in the background. The values are already in the cache of the data
+     * store, and a single writer keeps the background writes in order. If the write behind queue is full the caller
+     * waits until the queue has space, so that a newer value is never written before an older queued one.
+     */
+    private void submitWriteBehind(final String userName, final int tenantId, final Map<String, String> data) {
 
-    private void updateUserDataValue(String userName, int tenantId, String key, String value) throws SQLException {
+        WRITE_BEHIND_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
-        PreparedStatement prepStmt = null;
-        boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(userName, tenantId);
+                try {
+                    writeUserData(userName, tenantId, data);
+                } catch (IdentityException e) {
+                    log.error("Error while writing behind identity data of user: " + userName + " in tenant: " +
+                            tenantId, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stop the background writer after the queued data values are persisted. If the queued values are not persisted
+     * within the timeout, the writer is interrupted and the values which are still queued are persisted on the
+     * calling thread. Data values submitted after this are persisted on the calling thread.
+     *
+     * @param timeoutMillis Time to wait for the background writer in milliseconds.
+     */
+    public static void shutdownWriteBehind(long timeoutMillis) {
+
+        WRITE_BEHIND_EXECUTOR.shutdown();
         try {
-            String query;
-            if (isUsernameCaseSensitive) {
-                query = SQLQuery.UPDATE_USER_DATA;
-            } else {
-                query = SQLQuery.UPDATE_USER_DATA_CASE_INSENSITIVE;
+            if (WRITE_BEHIND_EXECUTOR.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
             }
-            prepStmt = connection.prepareStatement(query);
-            prepStmt.setString(1, value);
-            prepStmt.setInt(2, tenantId);
-            prepStmt.setString(3, userName);
-            prepStmt.setString(4, key);
-            prepStmt.executeUpdate();
-            IdentityDatabaseUtil.commitTransaction(connection);
-        } catch (SQLException e) {
-            IdentityDatabaseUtil.rollbackTransaction(connection);
-        } finally {
-            IdentityDatabaseUtil.closeStatement(prepStmt);
-            IdentityDatabaseUtil.closeConnection(connection);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Runnable> remainingWrites = WRITE_BEHIND_EXECUTOR.shutdownNow();
+        log.warn("Identity data writer did not stop within " + timeoutMillis + " milliseconds. The remaining " +
+                remainingWrites.size() + " queued writes are persisted on the calling thread.");
+        for (Runnable write : remainingWrites) {
+            write.run();
         }
+    }
+
+    private static void putUninterruptibly(BlockingQueue<Runnable> queue, Runnable runnable) {
 
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    queue.put(runnable);
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     @Override
@@ -271,14 +473,18 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
      * The primary key is tenantId, userName, DatKey combination
      */
     private static class SQLQuery {
-        public static final String CHECK_EXIST_USER_DATA = "SELECT DATA_VALUE FROM IDN_IDENTITY_USER_DATA WHERE " +
-                "TENANT_ID = ? AND USER_NAME = ? AND DATA_KEY = ?";
-        public static final String CHECK_EXIST_USER_DATA_CASE_INSENSITIVE = "SELECT DATA_VALUE FROM " +
-                "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND LOWER(USER_NAME) = LOWER(?) AND DATA_KEY = ?";
-
         public static final String STORE_USER_DATA = "INSERT INTO IDN_IDENTITY_USER_DATA (TENANT_ID, USER_NAME, " +
                 "DATA_KEY, DATA_VALUE) VALUES (?,?,?,?)";
 
+        public static final String UPSERT_USER_DATA_MYSQL = "INSERT INTO IDN_IDENTITY_USER_DATA (TENANT_ID, " +
+                "USER_NAME, DATA_KEY, DATA_VALUE) VALUES (?,?,?,?) ON DUPLICATE KEY UPDATE " +
+                "DATA_VALUE=VALUES(DATA_VALUE)";
+        public static final String UPSERT_USER_DATA_POSTGRESQL = "INSERT INTO IDN_IDENTITY_USER_DATA (TENANT_ID, " +
+                "USER_NAME, DATA_KEY, DATA_VALUE) VALUES (?,?,?,?) ON CONFLICT (TENANT_ID, USER_NAME, DATA_KEY) " +
+                "DO UPDATE SET DATA_VALUE=EXCLUDED.DATA_VALUE";
+        public static final String UPSERT_USER_DATA_H2 = "MERGE INTO IDN_IDENTITY_USER_DATA (TENANT_ID, USER_NAME, " +
+                "DATA_KEY, DATA_VALUE) KEY (TENANT_ID, USER_NAME, DATA_KEY) VALUES (?,?,?,?)";
+
         public static final String UPDATE_USER_DATA = "UPDATE IDN_IDENTITY_USER_DATA SET DATA_VALUE=? WHERE " +
                 "TENANT_ID=? AND USER_NAME=? AND DATA_KEY=?";
         public static final String UPDATE_USER_DATA_CASE_INSENSITIVE = "UPDATE IDN_IDENTITY_USER_DATA SET " +
@@ -289,6 +495,11 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
         public static final String LOAD_USER_DATA_CASE_INSENSITIVE = "SELECT " + "DATA_KEY, DATA_VALUE FROM " +
                 "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND LOWER(USER_NAME) = LOWER(?)";
 
+        public static final String LOAD_USER_DATA_KEYS = "SELECT DATA_KEY FROM IDN_IDENTITY_USER_DATA WHERE " +
+                "TENANT_ID = ? AND USER_NAME = ?";
+        public static final String LOAD_USER_DATA_KEYS_CASE_INSENSITIVE = "SELECT DATA_KEY FROM " +
+                "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND LOWER(USER_NAME) = LOWER(?)";
+
         public static final String DELETE_USER_DATA = "DELETE FROM IDN_IDENTITY_USER_DATA WHERE " +
                 "TENANT_ID = ? AND USER_NAME = ?";
         public static final String DELETE_USER_DATA_CASE_INSENSITIVE = "DELETE FROM IDN_IDENTITY_USER_DATA WHERE " +
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.store;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the two ways {@link JDBCIdentityDataStore} writes the identity data of a login: the
+ * batched dialect upsert used for case sensitive user stores, and the read of the existing data keys followed by
+ * batched updates and inserts used for the other databases and case insensitive user stores. Each write runs in its
+ * own transaction on an in-memory H2 database behind a connection pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class IdentityDataStoreBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int TENANT_ID = -1234;
+
+    private static final String CREATE_TABLE = "CREATE TABLE IDN_IDENTITY_USER_DATA (TENANT_ID INTEGER DEFAULT " +
+            "-1234, USER_NAME VARCHAR(255) NOT NULL, DATA_KEY VARCHAR(255) NOT NULL, DATA_VALUE VARCHAR(2048), " +
+            "PRIMARY KEY (TENANT_ID, USER_NAME, DATA_KEY))";
+
+    @Param({"4", "8"})
+    private int dataKeys;
+
+    private JdbcConnectionPool connectionPool;
+    private JDBCIdentityDataStore identityDataStore;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+
+        connectionPool = JdbcConnectionPool.create("jdbc:h2:mem:identity-data-benchmark;DB_CLOSE_DELAY=-1", "sa",
+                "");
+        connectionPool.setMaxConnections(16);
+        try (Connection connection = connectionPool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+        identityDataStore = new JDBCIdentityDataStore();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+
+        try (Connection connection = connectionPool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connectionPool.dispose();
+    }
+
+    @Benchmark
+    public void batchedUpsert() throws SQLException {
+
+        writeUserData(true);
+    }
+
+    @Benchmark
+    public void batchedUpdateAndInsert() throws SQLException {
+
+        writeUserData(false);
+    }
+
+    private void writeUserData(boolean isUsernameCaseSensitive) throws SQLException {
+
+        try (Connection connection = connectionPool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                identityDataStore.writeUserData(connection, randomUser(), TENANT_ID, loginData(),
+                        isUsernameCaseSensitive);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private String randomUser() {
+
+        return "PRIMARY/user" + ThreadLocalRandom.current().nextInt(USERS);
+    }
+
+    private Map<String, String> loginData() {
+
+        Map<String, String> data = new HashMap<>();
+        String now = Long.toString(System.currentTimeMillis());
+        for (int i = 0; i < dataKeys; i++) {
+            data.put("http://wso2.org/claims/identity/data" + i, now);
+        }
+        return data;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(IdentityDataStoreBenchmark.class.getSimpleName()).build()).run();
+    }
+}
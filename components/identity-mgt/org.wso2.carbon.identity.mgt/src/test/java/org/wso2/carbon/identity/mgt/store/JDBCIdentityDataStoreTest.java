@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.store;
+
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.base.IdentityException;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.mgt.IdentityMgtConfig;
+import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for the persistence of identity data by {@link JDBCIdentityDataStore}.
+ */
+@PrepareForTest({IdentityDatabaseUtil.class, IdentityUtil.class, IdentityMgtConfig.class})
+public class JDBCIdentityDataStoreTest extends PowerMockTestCase {
+
+    private static final String DB_URL = "jdbc:h2:mem:JDBCIdentityDataStoreTest;DB_CLOSE_DELAY=-1";
+    private static final String CREATE_TABLE = "CREATE TABLE IDN_IDENTITY_USER_DATA (TENANT_ID INTEGER DEFAULT " +
+            "-1234, USER_NAME VARCHAR(255) NOT NULL, DATA_KEY VARCHAR(255) NOT NULL, DATA_VALUE VARCHAR(2048), " +
+            "PRIMARY KEY (TENANT_ID, USER_NAME, DATA_KEY))";
+    private static final int TENANT_ID = -1234;
+    private static final String USERNAME = "PRIMARY/john";
+    private static final String LAST_LOGON_TIME = "http://wso2.org/claims/identity/lastLogonTime";
+    private static final String ACCOUNT_LOCKED = "http://wso2.org/claims/identity/accountLocked";
+    private static final String FAILED_LOGIN_ATTEMPTS = "http://wso2.org/claims/identity/failedLoginAttempts";
+    private static final long WRITE_BEHIND_TIMEOUT_IN_MILLIS = 10000;
+
+    // Connections are also opened by the write behind thread.
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private IdentityMgtConfig identityMgtConfig;
+    private JDBCIdentityDataStore identityDataStore;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+        mockStatic(IdentityDatabaseUtil.class);
+        when(IdentityDatabaseUtil.getDBConnection()).thenAnswer(invocation -> openConnection());
+        mockStatic(IdentityUtil.class);
+        when(IdentityUtil.isUserStoreInUsernameCaseSensitive(anyString(), anyInt())).thenReturn(true);
+        identityMgtConfig = mock(IdentityMgtConfig.class);
+        mockStatic(IdentityMgtConfig.class);
+        when(IdentityMgtConfig.getInstance()).thenReturn(identityMgtConfig);
+        identityDataStore = new JDBCIdentityDataStore();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        connections.clear();
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IDN_IDENTITY_USER_DATA");
+        }
+    }
+
+    @Test
+    public void testUpsertUserData() throws Exception {
+
+        insertUserData(USERNAME, ACCOUNT_LOCKED, "false");
+        Connection connection = Mockito.spy(openConnection());
+
+        identityDataStore.writeUserData(connection, USERNAME, TENANT_ID, getLoginData("true", "3"), true);
+
+        verify(connection).prepareStatement(contains("MERGE INTO"));
+        assertEquals(getUserData(USERNAME, ACCOUNT_LOCKED), "true");
+        assertEquals(getUserData(USERNAME, FAILED_LOGIN_ATTEMPTS), "3");
+    }
+
+    @Test
+    public void testUpdateAndInsertForUnsupportedDialect() throws Exception {
+
+        insertUserData(USERNAME, ACCOUNT_LOCKED, "false");
+        Connection connection = Mockito.spy(openConnection());
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("Microsoft SQL Server");
+        doReturn(metaData).when(connection).getMetaData();
+
+        identityDataStore.writeUserData(connection, USERNAME, TENANT_ID, getLoginData("true", "3"), true);
+
+        verify(connection, never()).prepareStatement(contains("MERGE INTO"));
+        assertEquals(getUserData(USERNAME, ACCOUNT_LOCKED), "true");
+        assertEquals(getUserData(USERNAME, FAILED_LOGIN_ATTEMPTS), "3");
+    }
+
+    @Test
+    public void testUpdateAndInsertForCaseInsensitiveUsername() throws Exception {
+
+        insertUserData("PRIMARY/John", ACCOUNT_LOCKED, "false");
+        Connection connection = Mockito.spy(openConnection());
+
+        identityDataStore.writeUserData(connection, USERNAME, TENANT_ID, getLoginData("true", "3"), false);
+
+        verify(connection, never()).prepareStatement(contains("MERGE INTO"));
+        assertEquals(getUserData("PRIMARY/John", ACCOUNT_LOCKED), "true");
+        assertNull(getUserData(USERNAME, ACCOUNT_LOCKED));
+        assertEquals(getUserData(USERNAME, FAILED_LOGIN_ATTEMPTS), "3");
+    }
+
+    @Test
+    public void testPersistUserDataRetriesFailedTransaction() throws Exception {
+
+        Connection failingConnection = getFailingConnection();
+        when(IdentityDatabaseUtil.getDBConnection()).thenReturn(failingConnection).thenAnswer(
+                invocation -> openConnection());
+
+        identityDataStore.persistUserData(USERNAME, TENANT_ID, getLoginData("true", "3"));
+
+        assertEquals(getUserData(USERNAME, ACCOUNT_LOCKED), "true");
+        assertEquals(getUserData(USERNAME, FAILED_LOGIN_ATTEMPTS), "3");
+    }
+
+    @Test
+    public void testPersistUserDataReportsRepeatedFailure() throws Exception {
+
+        Connection failingConnection = getFailingConnection();
+        when(IdentityDatabaseUtil.getDBConnection()).thenReturn(failingConnection);
+
+        try {
+            identityDataStore.persistUserData(USERNAME, TENANT_ID, getLoginData("true", "3"));
+            fail("A transaction which failed twice should be reported.");
+        } catch (IdentityException e) {
+            assertEquals(e.getCause().getClass(), SQLException.class);
+        }
+    }
+
+    @Test
+    public void testPersistUserDataWritesBehindConfiguredKeys() throws Exception {
+
+        when(identityMgtConfig.getProperty(IdentityMgtConstants.PropertyConfig.USER_DATA_STORE_WRITE_BEHIND_KEYS))
+                .thenReturn(LAST_LOGON_TIME);
+        Map<String, String> data = getLoginData("false", "0");
+        data.put(LAST_LOGON_TIME, "1700000000000");
+
+        identityDataStore.persistUserData(USERNAME, TENANT_ID, data);
+
+        assertEquals(getUserData(USERNAME, ACCOUNT_LOCKED), "false");
+        assertEquals(getUserData(USERNAME, FAILED_LOGIN_ATTEMPTS), "0");
+        waitForUserData(USERNAME, LAST_LOGON_TIME, "1700000000000");
+    }
+
+    @Test
+    public void testWriteBehindKeepsLatestValueWhenQueueIsFull() throws Exception {
+
+        when(identityMgtConfig.getProperty(IdentityMgtConstants.PropertyConfig.USER_DATA_STORE_WRITE_BEHIND_KEYS))
+                .thenReturn(LAST_LOGON_TIME);
+        // More writes than the write behind queue holds, so that the later writes wait for the queue.
+        int writes = 2500;
+        for (int i = 0; i < writes; i++) {
+            Map<String, String> data = new HashMap<>();
+            data.put(LAST_LOGON_TIME, Integer.toString(i));
+            identityDataStore.persistUserData(USERNAME, TENANT_ID, data);
+        }
+
+        waitForUserData(USERNAME, LAST_LOGON_TIME, Integer.toString(writes - 1));
+    }
+
+    private Connection openConnection() throws SQLException {
+
+        Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+        connections.add(connection);
+        return connection;
+    }
+
+    private Connection getFailingConnection() throws SQLException {
+
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenThrow(new SQLException("Connection is broken."));
+        when(connection.prepareStatement(anyString())).thenThrow(new SQLException("Connection is broken."));
+        return connection;
+    }
+
+    private Map<String, String> getLoginData(String accountLocked, String failedLoginAttempts) {
+
+        Map<String, String> data = new HashMap<>();
+        data.put(ACCOUNT_LOCKED, accountLocked);
+        data.put(FAILED_LOGIN_ATTEMPTS, failedLoginAttempts);
+        return data;
+    }
+
+    private void insertUserData(String userName, String key, String value) throws SQLException {
+
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+             PreparedStatement prepStmt = connection.prepareStatement("INSERT INTO IDN_IDENTITY_USER_DATA " +
+                     "(TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE) VALUES (?,?,?,?)")) {
+            prepStmt.setInt(1, TENANT_ID);
+            prepStmt.setString(2, userName);
+            prepStmt.setString(3, key);
+            prepStmt.setString(4, value);
+            prepStmt.execute();
+        }
+    }
+
+    private String getUserData(String userName, String key) throws SQLException {
+
+        try (Connection connection = DriverManager.getConnection(DB_URL, "sa", "");
+             PreparedStatement prepStmt = connection.prepareStatement("SELECT DATA_VALUE FROM " +
+                     "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND USER_NAME = ? AND DATA_KEY = ?")) {
+            prepStmt.setInt(1, TENANT_ID);
+            prepStmt.setString(2, userName);
+            prepStmt.setString(3, key);
+            try (ResultSet results = prepStmt.executeQuery()) {
+                return results.next() ? results.getString(1) : null;
+            }
+        }
+    }
+
+    private void waitForUserData(String userName, String key, String expectedValue) throws Exception {
+
+        long deadline = System.currentTimeMillis() + WRITE_BEHIND_TIMEOUT_IN_MILLIS;
+        String value = getUserData(userName, key);
+        while (!expectedValue.equals(value) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            value = getUserData(userName, key);
+        }
+        assertEquals(value, expectedValue);
+    }
+}
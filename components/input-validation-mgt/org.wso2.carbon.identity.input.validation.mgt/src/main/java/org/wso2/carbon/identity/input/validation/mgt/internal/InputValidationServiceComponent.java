@@ -29,7 +29,9 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.carbon.identity.claim.metadata.mgt.ClaimMetadataManagementService;
 import org.wso2.carbon.identity.configuration.mgt.core.ConfigurationManager;
+import org.wso2.carbon.identity.configuration.mgt.core.listener.ResourceChangeListener;
 import org.wso2.carbon.identity.input.validation.mgt.listener.InputValidationListener;
+import org.wso2.carbon.identity.input.validation.mgt.listener.InputValidationResourceChangeListener;
 import org.wso2.carbon.identity.input.validation.mgt.model.FieldValidationConfigurationHandler;
 import org.wso2.carbon.identity.input.validation.mgt.model.Validator;
 import org.wso2.carbon.identity.input.validation.mgt.model.handlers.PasswordValidationConfigurationHandler;
@@ -96,6 +98,8 @@ public class InputValidationServiceComponent {
                     new JsRegExValidator(), null);
             context.getBundleContext().registerService(UserOperationEventListener.class.getName(),
                     new InputValidationListener(), null);
+            context.getBundleContext().registerService(ResourceChangeListener.class.getName(),
+                    new InputValidationResourceChangeListener(), null);
 
             // Register field validation configuration handlers.
             context.getBundleContext().registerService(FieldValidationConfigurationHandler.class.getName(),
@@ -28,8 +28,7 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.input.validation.mgt.exceptions.InputValidationMgtClientException;
 import org.wso2.carbon.identity.input.validation.mgt.exceptions.InputValidationMgtException;
 import org.wso2.carbon.identity.input.validation.mgt.internal.InputValidationDataHolder;
-import org.wso2.carbon.identity.input.validation.mgt.model.RulesConfiguration;
-import org.wso2.carbon.identity.input.validation.mgt.model.ValidationConfiguration;
+import org.wso2.carbon.identity.input.validation.mgt.model.InputValidationPlan;
 import org.wso2.carbon.identity.input.validation.mgt.model.ValidationContext;
 import org.wso2.carbon.identity.input.validation.mgt.model.Validator;
 import org.wso2.carbon.identity.input.validation.mgt.services.InputValidationManagementService;
@@ -39,12 +38,10 @@ import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.carbon.user.core.UserStoreManager;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.Configs.ERROR_CODE_PREFIX;
 import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.Configs.PASSWORD;
@@ -142,16 +139,15 @@ public class InputValidationListener extends AbstractIdentityUserOperationEventL
         String tenantDomain = IdentityTenantUtil.getTenantDomain(tenantId);
         Map<String, Validator> validators = InputValidationDataHolder.getValidators();
 
-        List<ValidationConfiguration> configurations;
+        InputValidationPlan plan;
         try {
-            configurations = inputValidationMgtService.getInputValidationConfiguration(tenantDomain);
+            plan = inputValidationMgtService.getInputValidationPlan(tenantDomain);
 
             /* Validate provide value for each field in the `inputValuesForFieldsMap` against the configurations of the
              corresponding field. */
             for (String field: inputValuesForFieldsMap.keySet()) {
-                ValidationConfiguration configuration = configurations.stream().filter(config ->
-                        field.equalsIgnoreCase(config.getField())).collect(Collectors.toList()).get(0);
-                if (configuration != null) {
+                List<InputValidationPlan.ValidationRule> rules = plan.getRules(field);
+                if (rules != null) {
                     try {
                         if (PASSWORD.equals(field)) {
                             UserCoreUtil.setSkipPasswordPatternValidationThreadLocal(true);
@@ -159,8 +155,7 @@ public class InputValidationListener extends AbstractIdentityUserOperationEventL
                             UserCoreUtil.setSkipUsernamePatternValidationThreadLocal(true);
                         }
                         String valueProvidedForField = inputValuesForFieldsMap.get(field);
-                        validateAgainstConfiguration(configuration, validators, field, valueProvidedForField,
-                                tenantDomain);
+                        validateAgainstRules(rules, validators, field, valueProvidedForField, tenantDomain);
                     } catch (InputValidationMgtClientException e) {
                         LOG.error(new StringFormattedMessage("Failed to validate %s for user. " +
                                 e.getDescription(), field));
@@ -175,21 +170,17 @@ public class InputValidationListener extends AbstractIdentityUserOperationEventL
         return true;
     }
 
-    private boolean validateAgainstConfiguration(ValidationConfiguration configuration, Map<String, Validator>
-            validators, String field, String value, String tenantDomain) throws InputValidationMgtClientException {
+    private boolean validateAgainstRules(List<InputValidationPlan.ValidationRule> rules,
+                                         Map<String, Validator> validators, String field, String value,
+                                         String tenantDomain) throws InputValidationMgtClientException {
 
-        List<RulesConfiguration> rules = new ArrayList<>();
-        if (configuration.getRegEx() != null) {
-            rules = configuration.getRegEx();
-        } else if (configuration.getRules() != null) {
-            rules = configuration.getRules();
-        }
-        for (RulesConfiguration rule: rules) {
+        // The context is shared by the rules, so the character profile of the value is computed at most once.
+        ValidationContext context = new ValidationContext();
+        context.setField(field);
+        context.setValue(value);
+        context.setTenantDomain(tenantDomain);
+        for (InputValidationPlan.ValidationRule rule: rules) {
             Validator validator = validators.get(rule.getValidatorName());
-            ValidationContext context = new ValidationContext();
-            context.setField(field);
-            context.setValue(value);
-            context.setTenantDomain(tenantDomain);
             context.setProperties(rule.getProperties());
             validator.validate(context);
         }
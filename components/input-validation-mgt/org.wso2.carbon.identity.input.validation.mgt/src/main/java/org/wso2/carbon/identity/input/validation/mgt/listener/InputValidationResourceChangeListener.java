@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.input.validation.mgt.listener;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.configuration.mgt.core.listener.ResourceChangeListener;
+import org.wso2.carbon.identity.input.validation.mgt.cache.InputValidationPlanCache;
+
+import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.INPUT_VAL_CONFIG_RESOURCE_TYPE_NAME;
+
+/**
+ * Clears the cached input validation plan of a tenant when an input validation resource of the tenant is changed
+ * through the configuration manager.
+ */
+public class InputValidationResourceChangeListener implements ResourceChangeListener {
+
+    private static final Log LOG = LogFactory.getLog(InputValidationResourceChangeListener.class);
+
+    @Override
+    public void onResourceChange(String resourceTypeName, String tenantDomain) {
+
+        // A change of an unknown resource type may be an input validation resource.
+        if (resourceTypeName != null && !INPUT_VAL_CONFIG_RESOURCE_TYPE_NAME.equals(resourceTypeName)) {
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Clearing the input validation plan cache of the tenant: " + tenantDomain);
+        }
+        InputValidationPlanCache.getInstance().clearCacheEntry(tenantDomain, tenantDomain);
+    }
+}
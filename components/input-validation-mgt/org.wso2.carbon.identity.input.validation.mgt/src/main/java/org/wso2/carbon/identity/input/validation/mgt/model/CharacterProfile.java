@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.input.validation.mgt.model;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Character counts of a value, computed in a single pass over the value so that the rule validators validating the
+ * same value do not scan it again. ASCII characters are classified through a lookup table.
+ */
+public class CharacterProfile {
+
+    private static final int UPPER_CASE = 1;
+    private static final int LOWER_CASE = 1 << 1;
+    private static final int DIGIT = 1 << 2;
+    private static final byte[] ASCII_CLASSES = new byte[128];
+
+    static {
+        for (char chr = 'A'; chr <= 'Z'; chr++) {
+            ASCII_CLASSES[chr] = UPPER_CASE;
+        }
+        for (char chr = 'a'; chr <= 'z'; chr++) {
+            ASCII_CLASSES[chr] = LOWER_CASE;
+        }
+        for (char chr = '0'; chr <= '9'; chr++) {
+            ASCII_CLASSES[chr] = DIGIT;
+        }
+    }
+
+    private final int length;
+    private int upperCaseCharacters;
+    private int lowerCaseCharacters;
+    private int digits;
+    private int specialCharacters;
+    private int uniqueCharacters;
+    private int maxConsecutiveCharacters;
+
+    /**
+     * Build the character profile of a value.
+     *
+     * @param value Value.
+     */
+    public CharacterProfile(String value) {
+
+        this.length = value.length();
+
+        // Bitmap of the distinct ASCII characters. Other distinct characters are tracked in a set.
+        long asciiLow = 0;
+        long asciiHigh = 0;
+        Set<Character> otherCharacters = null;
+        int consecutiveCharacters = 0;
+        char previous = 0;
+
+        for (int i = 0; i < length; i++) {
+            char chr = value.charAt(i);
+            if (chr < 128) {
+                int characterClass = ASCII_CLASSES[chr];
+                if (characterClass == UPPER_CASE) {
+                    upperCaseCharacters++;
+                } else if (characterClass == LOWER_CASE) {
+                    lowerCaseCharacters++;
+                } else if (characterClass == DIGIT) {
+                    digits++;
+                } else {
+                    specialCharacters++;
+                }
+                if (chr < 64) {
+                    asciiLow |= 1L << chr;
+                } else {
+                    asciiHigh |= 1L << (chr - 64);
+                }
+            } else {
+                if (Character.isDigit(chr)) {
+                    digits++;
+                }
+                specialCharacters++;
+                if (otherCharacters == null) {
+                    otherCharacters = new HashSet<>();
+                }
+                otherCharacters.add(chr);
+            }
+
+            consecutiveCharacters = (i > 0 && chr == previous) ? consecutiveCharacters + 1 : 1;
+            if (consecutiveCharacters > maxConsecutiveCharacters) {
+                maxConsecutiveCharacters = consecutiveCharacters;
+            }
+            previous = chr;
+        }
+        uniqueCharacters = Long.bitCount(asciiLow) + Long.bitCount(asciiHigh) +
+                (otherCharacters == null ? 0 : otherCharacters.size());
+    }
+
+    /**
+     * Get the number of characters of the value.
+     *
+     * @return Length of the value.
+     */
+    public int getLength() {
+
+        return length;
+    }
+
+    /**
+     * Get the number of characters between 'A' and 'Z'.
+     *
+     * @return Number of upper case characters.
+     */
+    public int getUpperCaseCharacters() {
+
+        return upperCaseCharacters;
+    }
+
+    /**
+     * Get the number of characters between 'a' and 'z'.
+     *
+     * @return Number of lower case characters.
+     */
+    public int getLowerCaseCharacters() {
+
+        return lowerCaseCharacters;
+    }
+
+    /**
+     * Get the number of digit characters, as defined by {@link Character#isDigit(char)}.
+     *
+     * @return Number of digits.
+     */
+    public int getDigits() {
+
+        return digits;
+    }
+
+    /**
+     * Get the number of characters other than 'A' to 'Z', 'a' to 'z' and '0' to '9'.
+     *
+     * @return Number of special characters.
+     */
+    public int getSpecialCharacters() {
+
+        return specialCharacters;
+    }
+
+    /**
+     * Get the number of distinct characters.
+     *
+     * @return Number of unique characters.
+     */
+    public int getUniqueCharacters() {
+
+        return uniqueCharacters;
+    }
+
+    /**
+     * Get the length of the longest run of the same character. The value is 1 for an empty value.
+     *
+     * @return Maximum number of consecutive occurrences of a character.
+     */
+    public int getMaxConsecutiveCharacters() {
+
+        return Math.max(1, maxConsecutiveCharacters);
+    }
+}
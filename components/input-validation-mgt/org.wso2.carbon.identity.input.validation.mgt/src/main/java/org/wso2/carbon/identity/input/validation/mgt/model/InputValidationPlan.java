@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.input.validation.mgt.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable validation plan of a tenant. Holds the ordered validation rules of each configured field, so that the
+ * input validation configurations are not rebuilt from the configuration resources on every validation.
+ */
+public class InputValidationPlan implements Serializable {
+
+    private static final long serialVersionUID = -2459061742355160372L;
+
+    private final Map<String, List<ValidationRule>> fieldRules;
+
+    /**
+     * Build the validation plan from the validation configurations.
+     *
+     * @param configurations Validation configurations.
+     */
+    public InputValidationPlan(List<ValidationConfiguration> configurations) {
+
+        this(Collections.<String, List<ValidationRule>>emptyMap(), configurations);
+    }
+
+    private InputValidationPlan(Map<String, List<ValidationRule>> baseFieldRules,
+                                List<ValidationConfiguration> configurations) {
+
+        Map<String, List<ValidationRule>> rules = new HashMap<>(baseFieldRules);
+        for (ValidationConfiguration configuration : configurations) {
+            if (configuration == null || configuration.getField() == null) {
+                continue;
+            }
+            // The first configuration of a field takes precedence.
+            rules.putIfAbsent(configuration.getField().toLowerCase(Locale.ENGLISH), buildRules(configuration));
+        }
+        this.fieldRules = Collections.unmodifiableMap(rules);
+    }
+
+    /**
+     * Get a plan containing the rules of this plan and the rules of the given configurations for the fields that are
+     * not configured in this plan.
+     *
+     * @param configurations Validation configurations.
+     * @return Validation plan.
+     */
+    public InputValidationPlan withConfigurations(List<ValidationConfiguration> configurations) {
+
+        if (configurations.isEmpty()) {
+            return this;
+        }
+        return new InputValidationPlan(fieldRules, configurations);
+    }
+
+    /**
+     * Check whether the field is configured in the plan.
+     *
+     * @param field Field name.
+     * @return True if the field has a validation configuration.
+     */
+    public boolean hasField(String field) {
+
+        return fieldRules.containsKey(field.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Get the validation rules of a field in the order they should be evaluated.
+     *
+     * @param field Field name.
+     * @return Validation rules, or null if the field is not configured.
+     */
+    public List<ValidationRule> getRules(String field) {
+
+        return fieldRules.get(field.toLowerCase(Locale.ENGLISH));
+    }
+
+    private static List<ValidationRule> buildRules(ValidationConfiguration configuration) {
+
+        List<RulesConfiguration> rulesConfigurations = null;
+        if (configuration.getRegEx() != null) {
+            rulesConfigurations = configuration.getRegEx();
+        } else if (configuration.getRules() != null) {
+            rulesConfigurations = configuration.getRules();
+        }
+        if (rulesConfigurations == null) {
+            return Collections.emptyList();
+        }
+        List<ValidationRule> rules = new ArrayList<>(rulesConfigurations.size());
+        for (RulesConfiguration rulesConfiguration : rulesConfigurations) {
+            rules.add(new ValidationRule(rulesConfiguration.getValidatorName(), rulesConfiguration.getProperties()));
+        }
+        return Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * Validation rule of a field: the validator and its properties.
+     */
+    public static class ValidationRule implements Serializable {
+
+        private static final long serialVersionUID = 6217440187224379518L;
+
+        private final String validatorName;
+        private final Map<String, String> properties;
+
+        ValidationRule(String validatorName, Map<String, String> properties) {
+
+            this.validatorName = validatorName;
+            this.properties = properties == null ? Collections.<String, String>emptyMap() :
+                    Collections.unmodifiableMap(new HashMap<>(properties));
+        }
+
+        public String getValidatorName() {
+
+            return validatorName;
+        }
+
+        public Map<String, String> getProperties() {
+
+            return properties;
+        }
+    }
+}
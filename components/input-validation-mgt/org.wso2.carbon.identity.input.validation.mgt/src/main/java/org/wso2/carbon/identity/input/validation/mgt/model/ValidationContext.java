@@ -29,6 +29,7 @@ public class ValidationContext {
     private String tenantDomain;
     private Map<String, String> properties;
     private String value;
+    private CharacterProfile characterProfile;
 
     /**
      * Constructor without attributes.
@@ -91,6 +92,20 @@ public class ValidationContext {
         return value;
     }
 
+    /**
+     * Method to get the character profile of the value. The profile is computed on the first call and shared by the
+     * validators validating the same context.
+     *
+     * @return  Character profile of the value.
+     */
+    public CharacterProfile getCharacterProfile() {
+
+        if (characterProfile == null) {
+            characterProfile = new CharacterProfile(value);
+        }
+        return characterProfile;
+    }
+
     /**
      * Method to set field name.
      *
@@ -129,5 +144,6 @@ public class ValidationContext {
     public void setValue(String value) {
 
         this.value = value;
+        this.characterProfile = null;
     }
 }
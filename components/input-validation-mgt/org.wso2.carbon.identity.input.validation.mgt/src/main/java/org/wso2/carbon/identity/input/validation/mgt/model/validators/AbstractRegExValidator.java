@@ -26,8 +26,11 @@ import org.wso2.carbon.identity.input.validation.mgt.model.Property;
 import org.wso2.carbon.identity.input.validation.mgt.model.ValidationContext;
 import org.wso2.carbon.identity.input.validation.mgt.model.Validator;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.ErrorMessages.ERROR_PROPERTY_NOT_SUPPORTED;
@@ -39,6 +42,19 @@ import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.SUPP
 public abstract class AbstractRegExValidator implements Validator {
 
     private static final Log log = LogFactory.getLog(AbstractRegExValidator.class);
+    private static final int MAX_COMPILED_PATTERNS = 256;
+
+    // Compiled patterns of the configured regex values. The number of distinct regex values is bounded by the tenant
+    // configurations, and the least recently used patterns are evicted beyond the limit.
+    private static final Map<String, Pattern> compiledPatterns = Collections.synchronizedMap(
+            new LinkedHashMap<String, Pattern>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+
+                    return size() > MAX_COMPILED_PATTERNS;
+                }
+            });
 
     @Override
     public boolean canHandle(String validatorName) {
@@ -77,4 +93,20 @@ public abstract class AbstractRegExValidator implements Validator {
         }
         return true;
     }
+
+    /**
+     * Get the compiled pattern of a regex. Patterns are compiled once and reused across validations.
+     *
+     * @param regex Regex.
+     * @return Compiled pattern.
+     */
+    protected static Pattern getCompiledPattern(String regex) {
+
+        Pattern pattern = compiledPatterns.get(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            compiledPatterns.put(regex, pattern);
+        }
+        return pattern;
+    }
 }
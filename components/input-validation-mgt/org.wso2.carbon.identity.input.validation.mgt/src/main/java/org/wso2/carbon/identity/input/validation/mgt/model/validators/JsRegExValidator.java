@@ -27,7 +27,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.Configs.JS_REGEX;
 import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.Configs.PASSWORD;
@@ -60,10 +59,9 @@ public class JsRegExValidator extends AbstractRegExValidator {
         if (attributesMap.containsKey(JS_REGEX)) {
             String jsRegex = attributesMap.get(JS_REGEX);
             // Convert to Java regex.
-            javaRegex = jsRegex.replaceAll("//", "/");
+            javaRegex = jsRegex.replace("//", "/");
 
-            Pattern pattern = Pattern.compile(javaRegex);
-            Matcher matcher = pattern.matcher(value);
+            Matcher matcher = getCompiledPattern(javaRegex).matcher(value);
             valid = matcher.matches();
         }
         if (!valid) {
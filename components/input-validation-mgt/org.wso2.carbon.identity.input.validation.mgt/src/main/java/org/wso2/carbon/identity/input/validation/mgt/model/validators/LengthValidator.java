@@ -36,10 +36,9 @@ public class LengthValidator extends AbstractRulesValidator {
     @Override
     public boolean validate(ValidationContext context) throws InputValidationMgtClientException {
 
-        String value = context.getValue();
         String field = context.getField();
         Map<String, String> attributesMap = context.getProperties();
-        int length = value.length();
+        int length = context.getCharacterProfile().getLength();
 
         if (attributesMap.containsKey(MIN_LENGTH)) {
             int min = Integer.parseInt(attributesMap.get(MIN_LENGTH));
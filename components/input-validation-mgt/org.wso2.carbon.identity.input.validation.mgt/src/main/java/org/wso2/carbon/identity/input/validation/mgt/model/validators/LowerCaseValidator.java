@@ -49,18 +49,10 @@ public class LowerCaseValidator extends AbstractRulesValidator {
     @Override
     public boolean validate(ValidationContext context) throws InputValidationMgtClientException {
 
-        int lower = 0;
-        String value = context.getValue();
+        int lower = context.getCharacterProfile().getLowerCaseCharacters();
         String field = context.getField();
         Map<String, String> attributesMap = context.getProperties();
 
-        for (int i = 0; i < value.length(); i++) {
-            char chr = value.charAt(i);
-            if (chr >= 'a' && chr <= 'z') {
-                lower++;
-            }
-        }
-
         if (attributesMap.containsKey(MIN_LENGTH)) {
             int min = Integer.parseInt(attributesMap.get(MIN_LENGTH));
             if (lower < min) {
@@ -49,18 +49,10 @@ public class NumeralValidator extends AbstractRulesValidator {
     @Override
     public boolean validate(ValidationContext context) throws InputValidationMgtClientException {
 
-        int digits = 0;
-        String value = context.getValue();
+        int digits = context.getCharacterProfile().getDigits();
         String field = context.getField();
         Map<String, String> attributesMap = context.getProperties();
 
-        for (int i = 0; i < value.length(); i++) {
-
-            if (Character.isDigit(value.charAt(i))) {
-                digits++;
-            }
-        }
-
         if (attributesMap.containsKey(MIN_LENGTH)) {
             int min = Integer.parseInt(attributesMap.get(MIN_LENGTH));
             if (digits < min) {
@@ -49,23 +49,10 @@ public class RepeatedCharacterValidator extends AbstractRulesValidator {
     @Override
     public boolean validate(ValidationContext context) throws InputValidationMgtClientException {
 
-        int count = 1;
-        int consecutiveLen = 1;
-        String value = context.getValue();
+        int consecutiveLen = context.getCharacterProfile().getMaxConsecutiveCharacters();
         String field = context.getField();
         Map<String, String> attributesMap = context.getProperties();
 
-        for (int i = 1; i < value.length(); i++) {
-            if (value.charAt(i) == value.charAt(i - 1)) {
-                count++;
-                if (count > consecutiveLen) {
-                    consecutiveLen = count;
-                }
-            } else {
-                count = 1;
-            }
-        }
-
         if (attributesMap.containsKey(MAX_CONSECUTIVE_CHR)) {
             int maxConsecutiveLength = Integer.parseInt(attributesMap.get(MAX_CONSECUTIVE_CHR));
             if (maxConsecutiveLength > 0 && maxConsecutiveLength < consecutiveLen) {
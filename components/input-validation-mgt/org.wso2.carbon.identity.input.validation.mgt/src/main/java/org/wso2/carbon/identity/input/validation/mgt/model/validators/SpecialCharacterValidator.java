@@ -49,17 +49,9 @@ public class SpecialCharacterValidator extends AbstractRulesValidator {
     @Override
     public boolean validate(ValidationContext context) throws InputValidationMgtClientException {
 
-        int countSpecial = 0;
-        String value = context.getValue();
+        int countSpecial = context.getCharacterProfile().getSpecialCharacters();
         String field = context.getField();
         Map<String, String> attributesMap = context.getProperties();
-
-        for (int i = 0; i < value.length(); i++) {
-            if (value.substring(i, i + 1).matches("[^A-Za-z0-9]")) {
-                countSpecial++;
-            }
-
-        }
         if (attributesMap.containsKey(MIN_LENGTH)) {
             int min = Integer.parseInt(attributesMap.get(MIN_LENGTH));
             if (countSpecial < min) {
@@ -23,10 +23,8 @@ import org.wso2.carbon.identity.input.validation.mgt.model.Property;
 import org.wso2.carbon.identity.input.validation.mgt.model.ValidationContext;
 
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.Configs.MIN_UNIQUE_CHR;
 import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.Configs.PASSWORD;
@@ -52,19 +50,13 @@ public class UniqueCharacterValidator extends AbstractRulesValidator {
     @Override
     public boolean validate(ValidationContext context) throws InputValidationMgtClientException {
 
-        String value = context.getValue();
         String field = context.getField();
-        Set<Character> distinctChars = new LinkedHashSet<>();
+        int uniqueCharacters = context.getCharacterProfile().getUniqueCharacters();
         Map<String, String> attributesMap = context.getProperties();
 
-        for (int i = 0; i < value.length(); i++) {
-            char chr = value.charAt(i);
-            distinctChars.add(chr);
-        }
-
         if (attributesMap.containsKey(field + PERIOD + MIN_UNIQUE_CHR)) {
             int minUniqueCharacters = Integer.parseInt(attributesMap.get(field + PERIOD + MIN_UNIQUE_CHR));
-            if (minUniqueCharacters > distinctChars.size()) {
+            if (minUniqueCharacters > uniqueCharacters) {
                 throw new InputValidationMgtClientException(ERROR_VALIDATION_UNIQUE_CHR_MISMATCH.getCode(),
                         ERROR_VALIDATION_UNIQUE_CHR_MISMATCH.getMessage(),
                         String.format(ERROR_VALIDATION_UNIQUE_CHR_MISMATCH.getDescription(), field,
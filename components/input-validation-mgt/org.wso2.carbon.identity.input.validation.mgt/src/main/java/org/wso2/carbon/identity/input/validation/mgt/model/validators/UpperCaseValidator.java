@@ -49,18 +49,10 @@ public class UpperCaseValidator extends AbstractRulesValidator {
     @Override
     public boolean validate(ValidationContext context) throws InputValidationMgtClientException {
 
-        int upper = 0;
-        String value = context.getValue();
+        int upper = context.getCharacterProfile().getUpperCaseCharacters();
         String field = context.getField();
         Map<String, String> attributesMap = context.getProperties();
 
-        for (int i = 0; i < value.length(); i++) {
-            char chr = value.charAt(i);
-            if (chr >= 'A' && chr <= 'Z') {
-                upper++;
-            }
-        }
-
         if (attributesMap.containsKey(MIN_LENGTH)) {
             int min = Integer.parseInt(attributesMap.get(MIN_LENGTH));
             if (upper < min) {
@@ -21,6 +21,7 @@ package org.wso2.carbon.identity.input.validation.mgt.services;
 import org.wso2.carbon.identity.input.validation.mgt.exceptions.InputValidationMgtException;
 import org.wso2.carbon.identity.input.validation.mgt.exceptions.InputValidationMgtServerException;
 import org.wso2.carbon.identity.input.validation.mgt.model.FieldValidationConfigurationHandler;
+import org.wso2.carbon.identity.input.validation.mgt.model.InputValidationPlan;
 import org.wso2.carbon.identity.input.validation.mgt.model.ValidationConfiguration;
 import org.wso2.carbon.identity.input.validation.mgt.model.Validator;
 import org.wso2.carbon.identity.input.validation.mgt.model.ValidatorConfiguration;
@@ -55,6 +56,18 @@ public interface InputValidationManagementService {
     List<ValidationConfiguration> getInputValidationConfiguration (String tenantDomain)
             throws InputValidationMgtException;
 
+    /**
+     * Method to get the input validation plan, which holds the validation rules of all the supported fields.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Input validation plan.
+     * @throws InputValidationMgtException If an error occurred in getting configuration.
+     */
+    default InputValidationPlan getInputValidationPlan(String tenantDomain) throws InputValidationMgtException {
+
+        return new InputValidationPlan(getInputValidationConfiguration(tenantDomain));
+    }
+
     /**
      * Method to get input validation configuration for a field.
      *
@@ -26,11 +26,13 @@ import org.wso2.carbon.identity.configuration.mgt.core.exception.ConfigurationMa
 import org.wso2.carbon.identity.configuration.mgt.core.model.Attribute;
 import org.wso2.carbon.identity.configuration.mgt.core.model.Resource;
 import org.wso2.carbon.identity.configuration.mgt.core.model.Resources;
+import org.wso2.carbon.identity.input.validation.mgt.cache.InputValidationPlanCache;
 import org.wso2.carbon.identity.input.validation.mgt.exceptions.InputValidationMgtClientException;
 import org.wso2.carbon.identity.input.validation.mgt.exceptions.InputValidationMgtException;
 import org.wso2.carbon.identity.input.validation.mgt.exceptions.InputValidationMgtServerException;
 import org.wso2.carbon.identity.input.validation.mgt.internal.InputValidationDataHolder;
 import org.wso2.carbon.identity.input.validation.mgt.model.FieldValidationConfigurationHandler;
+import org.wso2.carbon.identity.input.validation.mgt.model.InputValidationPlan;
 import org.wso2.carbon.identity.input.validation.mgt.model.RulesConfiguration;
 import org.wso2.carbon.identity.input.validation.mgt.model.ValidationConfiguration;
 import org.wso2.carbon.identity.input.validation.mgt.model.Validator;
@@ -97,6 +99,44 @@ public class InputValidationManagementServiceImpl implements InputValidationMana
         return configurations;
     }
 
+    /**
+     * Method to get the input validation plan. The plan is resolved fully, including the user store defaults of the
+     * fields without a configuration resource, and cached per tenant. The cache entry is cleared when an input
+     * validation resource of the tenant is changed. User store property changes have no change hook, so the
+     * defaults are refreshed when the cache entry expires.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Input validation plan.
+     * @throws InputValidationMgtException If an error occurred in getting configuration.
+     */
+    @Override
+    public InputValidationPlan getInputValidationPlan(String tenantDomain) throws InputValidationMgtException {
+
+        InputValidationPlanCache planCache = InputValidationPlanCache.getInstance();
+        InputValidationPlan plan = planCache.getValueFromCache(tenantDomain, tenantDomain);
+        if (plan != null) {
+            return plan;
+        }
+        List<ValidationConfiguration> configurations = new ArrayList<>();
+        for (Resource resource: getResourcesByType(tenantDomain)) {
+            configurations.add(buildValidationConfigFromResource(resource));
+        }
+        plan = new InputValidationPlan(configurations);
+
+        List<ValidationConfiguration> defaultConfigurations = new ArrayList<>();
+        for (String field: SUPPORTED_PARAMS) {
+            if (!plan.hasField(field)) {
+                defaultConfigurations.add(getConfigurationFromUserStore(tenantDomain, field));
+            }
+        }
+        plan = plan.withConfigurations(defaultConfigurations);
+        planCache.addToCache(tenantDomain, plan, tenantDomain);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Input validation plan was built and cached for the tenant: " + tenantDomain);
+        }
+        return plan;
+    }
+
     /**
      * Method to get input validation configuration for a field.
      *
@@ -215,12 +255,16 @@ public class InputValidationManagementServiceImpl implements InputValidationMana
         Resource newResource = buildResourceFromValidationConfig(configuration);
 
         Resource updatedResource;
-        if (oldResource == null) {
-            // Create resource for the first time.
-            updatedResource = addResource(newResource, tenantDomain);
-        } else {
-            // Update the existing resource.
-            updatedResource = updateResource(newResource, tenantDomain);
+        try {
+            if (oldResource == null) {
+                // Create resource for the first time.
+                updatedResource = addResource(newResource, tenantDomain);
+            } else {
+                // Update the existing resource.
+                updatedResource = updateResource(newResource, tenantDomain);
+            }
+        } finally {
+            InputValidationPlanCache.getInstance().clearCacheEntry(tenantDomain, tenantDomain);
         }
 
         // Execute post actions of validation configuration update.
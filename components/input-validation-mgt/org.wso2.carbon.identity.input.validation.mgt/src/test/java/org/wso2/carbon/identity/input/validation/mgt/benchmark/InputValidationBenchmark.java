@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.input.validation.mgt.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wso2.carbon.identity.input.validation.mgt.exceptions.InputValidationMgtClientException;
+import org.wso2.carbon.identity.input.validation.mgt.model.ValidationContext;
+import org.wso2.carbon.identity.input.validation.mgt.model.Validator;
+import org.wso2.carbon.identity.input.validation.mgt.model.validators.JsRegExValidator;
+import org.wso2.carbon.identity.input.validation.mgt.model.validators.LengthValidator;
+import org.wso2.carbon.identity.input.validation.mgt.model.validators.LowerCaseValidator;
+import org.wso2.carbon.identity.input.validation.mgt.model.validators.NumeralValidator;
+import org.wso2.carbon.identity.input.validation.mgt.model.validators.RepeatedCharacterValidator;
+import org.wso2.carbon.identity.input.validation.mgt.model.validators.SpecialCharacterValidator;
+import org.wso2.carbon.identity.input.validation.mgt.model.validators.UniqueCharacterValidator;
+import org.wso2.carbon.identity.input.validation.mgt.model.validators.UpperCaseValidator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per password cost of the input validation rules when every rule validator gets its own validation
+ * context, and so builds the character profile of the value again, with the rule validators sharing one context. The
+ * cost of the regex validator with its compiled pattern cache is measured as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputValidationBenchmark {
+
+    private static final String JS_REGEX = "^((?=.*\\d)(?=.*[a-z])(?=.*[A-Z])(?=.*[!@#$%&*]).{8,30})$";
+
+    @Param({"Str0ng!Passw0rd", "A very l0ng passphrase with many w0rds, spaces & symbols!"})
+    private String password;
+
+    private List<Validator> rulesValidators;
+    private Map<String, String> emptyProperties;
+    private Map<String, String> jsRegexProperties;
+    private JsRegExValidator jsRegExValidator;
+
+    @Setup
+    public void setup() {
+
+        rulesValidators = Arrays.asList(new LengthValidator(), new UpperCaseValidator(), new LowerCaseValidator(),
+                new NumeralValidator(), new SpecialCharacterValidator(), new UniqueCharacterValidator(),
+                new RepeatedCharacterValidator());
+        emptyProperties = Collections.emptyMap();
+        jsRegexProperties = Collections.singletonMap("regex", JS_REGEX);
+        jsRegExValidator = new JsRegExValidator();
+    }
+
+    @Benchmark
+    public int rulesContextPerValidator() throws InputValidationMgtClientException {
+
+        int passed = 0;
+        for (Validator validator : rulesValidators) {
+            if (validator.validate(new ValidationContext("password", "carbon.super", emptyProperties, password))) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+
+    @Benchmark
+    public ValidationContext rulesSharedContext() throws InputValidationMgtClientException {
+
+        ValidationContext context = new ValidationContext("password", "carbon.super", emptyProperties, password);
+        for (Validator validator : rulesValidators) {
+            validator.validate(context);
+        }
+        return context;
+    }
+
+    @Benchmark
+    public boolean regexCompiledPattern() {
+
+        try {
+            return jsRegExValidator.validate(new ValidationContext("password", "carbon.super", jsRegexProperties,
+                    password));
+        } catch (InputValidationMgtClientException e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(InputValidationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
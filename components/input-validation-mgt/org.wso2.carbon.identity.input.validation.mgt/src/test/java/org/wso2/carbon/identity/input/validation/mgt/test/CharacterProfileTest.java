@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.input.validation.mgt.test;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.input.validation.mgt.model.CharacterProfile;
+
+/**
+ * Testing the CharacterProfile class.
+ */
+public class CharacterProfileTest {
+
+    @DataProvider(name = "values")
+    public Object[][] values() {
+
+        return new Object[][]{
+                // value, length, upper, lower, digits, special, unique, max consecutive
+                {"", 0, 0, 0, 0, 0, 0, 1},
+                {"Password1!", 10, 1, 7, 1, 1, 9, 2},
+                {"AAAbbb111", 9, 3, 3, 3, 0, 3, 3},
+                {"ab\u00e9\u0663 ", 5, 0, 2, 1, 3, 5, 1},
+                {"\u00e9\u00e9\u00e9", 3, 0, 0, 0, 3, 1, 3}
+        };
+    }
+
+    @Test(dataProvider = "values")
+    public void testCharacterProfile(String value, int length, int upper, int lower, int digits, int special,
+                                     int unique, int maxConsecutive) {
+
+        CharacterProfile profile = new CharacterProfile(value);
+        Assert.assertEquals(profile.getLength(), length);
+        Assert.assertEquals(profile.getUpperCaseCharacters(), upper);
+        Assert.assertEquals(profile.getLowerCaseCharacters(), lower);
+        Assert.assertEquals(profile.getDigits(), digits);
+        Assert.assertEquals(profile.getSpecialCharacters(), special);
+        Assert.assertEquals(profile.getUniqueCharacters(), unique);
+        Assert.assertEquals(profile.getMaxConsecutiveCharacters(), maxConsecutive);
+    }
+}
@@ -28,8 +28,12 @@ import org.wso2.carbon.identity.configuration.mgt.core.exception.ConfigurationMa
 import org.wso2.carbon.identity.configuration.mgt.core.model.Attribute;
 import org.wso2.carbon.identity.configuration.mgt.core.model.Resource;
 import org.wso2.carbon.identity.configuration.mgt.core.model.Resources;
+import org.wso2.carbon.identity.input.validation.mgt.cache.InputValidationPlanCache;
 import org.wso2.carbon.identity.input.validation.mgt.exceptions.InputValidationMgtException;
 import org.wso2.carbon.identity.input.validation.mgt.internal.InputValidationDataHolder;
+import org.wso2.carbon.identity.input.validation.mgt.listener.InputValidationResourceChangeListener;
+import org.wso2.carbon.identity.input.validation.mgt.model.FieldValidationConfigurationHandler;
+import org.wso2.carbon.identity.input.validation.mgt.model.InputValidationPlan;
 import org.wso2.carbon.identity.input.validation.mgt.model.RulesConfiguration;
 import org.wso2.carbon.identity.input.validation.mgt.model.ValidationConfiguration;
 import org.wso2.carbon.identity.input.validation.mgt.model.Validator;
@@ -45,7 +49,11 @@ import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.INPUT_VAL_CONFIG_RESOURCE_NAME_PREFIX;
@@ -54,7 +62,7 @@ import static org.wso2.carbon.identity.input.validation.mgt.utils.Constants.INPU
 /**
  * Testing the InputValidationManagementService class
  */
-@PrepareForTest({ InputValidationDataHolder.class })
+@PrepareForTest({ InputValidationDataHolder.class, InputValidationPlanCache.class })
 public class InputValidationManagementServiceTest extends PowerMockTestCase {
 
     private InputValidationManagementService service;
@@ -67,6 +75,8 @@ public class InputValidationManagementServiceTest extends PowerMockTestCase {
 
         service = new InputValidationManagementServiceImpl();
         mockStatic(InputValidationDataHolder.class);
+        mockStatic(InputValidationPlanCache.class);
+        when(InputValidationPlanCache.getInstance()).thenReturn(mock(InputValidationPlanCache.class));
     }
 
     @Test
@@ -118,6 +128,94 @@ public class InputValidationManagementServiceTest extends PowerMockTestCase {
         }
     }
 
+    @Test
+    public void getInputValidationPlanTest() throws Exception {
+
+        Resources resources = getResources();
+        ConfigurationManager configurationManager = mock(ConfigurationManager.class);
+        when(InputValidationDataHolder.getConfigurationManager()).thenReturn(configurationManager);
+        when(configurationManager.getResourcesByType(INPUT_VAL_CONFIG_RESOURCE_TYPE_NAME)).thenReturn(resources);
+        mockPlanCache();
+
+        assertLengthValidationPlan(service.getInputValidationPlan(tenantName));
+
+        // A cached plan is served without reading the configuration resources.
+        when(configurationManager.getResourcesByType(INPUT_VAL_CONFIG_RESOURCE_TYPE_NAME))
+                .thenThrow(new ConfigurationManagementException());
+        assertLengthValidationPlan(new InputValidationManagementServiceImpl().getInputValidationPlan(tenantName));
+    }
+
+    @Test
+    public void getInputValidationPlanWithUserStoreDefaultsTest() throws Exception {
+
+        ConfigurationManager configurationManager = mock(ConfigurationManager.class);
+        when(InputValidationDataHolder.getConfigurationManager()).thenReturn(configurationManager);
+        when(configurationManager.getResourcesByType(INPUT_VAL_CONFIG_RESOURCE_TYPE_NAME)).thenReturn(
+                new Resources(new ArrayList<>()));
+        FieldValidationConfigurationHandler passwordHandler = mockDefaultConfigurationHandler(fieldPassword);
+        FieldValidationConfigurationHandler usernameHandler = mockDefaultConfigurationHandler(fieldUsername);
+        Map<String, FieldValidationConfigurationHandler> handlers = new HashMap<>();
+        handlers.put("PasswordValidationConfigurationHandler", passwordHandler);
+        handlers.put("UsernameValidationConfigurationHandler", usernameHandler);
+        when(InputValidationDataHolder.getFieldValidationConfigurationHandlers()).thenReturn(handlers);
+        InputValidationPlanCache planCache = mockPlanCache();
+
+        assertLengthValidationPlan(service.getInputValidationPlan(tenantName));
+        // The user store defaults are cached along with the plan.
+        assertLengthValidationPlan(service.getInputValidationPlan(tenantName));
+        verify(passwordHandler, times(1)).getDefaultValidationConfiguration(tenantName);
+        verify(usernameHandler, times(1)).getDefaultValidationConfiguration(tenantName);
+        verify(planCache, times(1)).addToCache(anyString(), any(InputValidationPlan.class), anyString());
+    }
+
+    @Test
+    public void clearPlanOnResourceChangeTest() {
+
+        InputValidationPlanCache planCache = mock(InputValidationPlanCache.class);
+        when(InputValidationPlanCache.getInstance()).thenReturn(planCache);
+        InputValidationResourceChangeListener listener = new InputValidationResourceChangeListener();
+
+        listener.onResourceChange("otherResourceType", tenantName);
+        verify(planCache, never()).clearCacheEntry(anyString(), anyString());
+
+        listener.onResourceChange(INPUT_VAL_CONFIG_RESOURCE_TYPE_NAME, tenantName);
+        listener.onResourceChange(null, tenantName);
+        verify(planCache, times(2)).clearCacheEntry(tenantName, tenantName);
+    }
+
+    private FieldValidationConfigurationHandler mockDefaultConfigurationHandler(String field) throws Exception {
+
+        ValidationConfiguration configuration = getValidationConfig().get(0);
+        configuration.setField(field);
+        FieldValidationConfigurationHandler handler = mock(FieldValidationConfigurationHandler.class);
+        when(handler.canHandle(field)).thenReturn(true);
+        when(handler.getDefaultValidationConfiguration(tenantName)).thenReturn(configuration);
+        return handler;
+    }
+
+    private InputValidationPlanCache mockPlanCache() {
+
+        Map<String, InputValidationPlan> cachedPlans = new HashMap<>();
+        InputValidationPlanCache planCache = mock(InputValidationPlanCache.class);
+        doAnswer(invocation -> cachedPlans.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(planCache).addToCache(anyString(), any(InputValidationPlan.class), anyString());
+        when(planCache.getValueFromCache(anyString(), anyString()))
+                .thenAnswer(invocation -> cachedPlans.get(invocation.getArgument(0)));
+        when(InputValidationPlanCache.getInstance()).thenReturn(planCache);
+        return planCache;
+    }
+
+    private void assertLengthValidationPlan(InputValidationPlan plan) {
+
+        for (String field : new String[]{fieldPassword, fieldUsername}) {
+            Assert.assertTrue(plan.hasField(field));
+            List<InputValidationPlan.ValidationRule> rules = plan.getRules(field);
+            Assert.assertEquals(rules.size(), 1);
+            Assert.assertEquals(rules.get(0).getValidatorName(), "LengthValidator");
+            Assert.assertEquals(rules.get(0).getProperties().get("min.length"), "5");
+        }
+    }
+
     private Resources getResources() {
 
         Resources resources = new Resources();
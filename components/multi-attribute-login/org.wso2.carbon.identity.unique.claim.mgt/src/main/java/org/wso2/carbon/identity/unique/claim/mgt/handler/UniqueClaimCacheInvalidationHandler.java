@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.unique.claim.mgt.handler;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.event.IdentityEventConstants;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
+import org.wso2.carbon.identity.unique.claim.mgt.cache.UniqueClaimCache;
+
+/**
+ * Clears the cached unique claims of a tenant when a local claim of the tenant is added, updated or deleted.
+ */
+public class UniqueClaimCacheInvalidationHandler extends AbstractEventHandler {
+
+    private static final Log log = LogFactory.getLog(UniqueClaimCacheInvalidationHandler.class);
+
+    @Override
+    public void handleEvent(Event event) throws IdentityEventException {
+
+        String eventName = event.getEventName();
+        if (!IdentityEventConstants.Event.POST_ADD_LOCAL_CLAIM.equals(eventName) &&
+                !IdentityEventConstants.Event.POST_UPDATE_LOCAL_CLAIM.equals(eventName) &&
+                !IdentityEventConstants.Event.POST_DELETE_LOCAL_CLAIM.equals(eventName)) {
+            return;
+        }
+        int tenantId = (int) event.getEventProperties().get(IdentityEventConstants.EventProperty.TENANT_ID);
+        String tenantDomain = IdentityTenantUtil.getTenantDomain(tenantId);
+        if (log.isDebugEnabled()) {
+            log.debug(eventName + " event received. Clearing the unique claims cache of the tenant: " +
+                    tenantDomain);
+        }
+        UniqueClaimCache.getInstance().clearCacheEntry(tenantDomain, tenantDomain);
+    }
+
+    @Override
+    public String getName() {
+
+        return "UniqueClaimCacheInvalidationHandler";
+    }
+}
@@ -28,6 +28,7 @@ import org.wso2.carbon.identity.core.model.IdentityEventListenerConfig;
 import org.wso2.carbon.identity.core.util.IdentityCoreConstants;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.mgt.policy.PolicyViolationException;
+import org.wso2.carbon.identity.unique.claim.mgt.cache.UniqueClaimCache;
 import org.wso2.carbon.identity.unique.claim.mgt.internal.UniqueClaimUserOperationDataHolder;
 import org.wso2.carbon.user.api.Claim;
 import org.wso2.carbon.user.api.UserRealm;
@@ -40,8 +41,10 @@ import org.wso2.carbon.user.core.util.UserCoreUtil;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A userstore operation event listener to keep the uniqueness of a given set of claims.
@@ -103,7 +106,8 @@ public class UniqueClaimUserOperationEventListener extends AbstractIdentityUserO
         try {
             String tenantDomain = getTenantDomain(userStoreManager);
             if (isUniqueClaim(claimURI, tenantDomain)) {
-                return !isClaimDuplicated(userName, claimURI, claimValue, profile, userStoreManager);
+                return !new DuplicateClaimSearch(userStoreManager).isClaimDuplicated(userName, claimURI, claimValue,
+                        profile);
             }
         } catch (org.wso2.carbon.user.api.UserStoreException | ClaimMetadataException e) {
             log.error("Error while retrieving details. " + e.getMessage(), e);
@@ -128,35 +132,45 @@ public class UniqueClaimUserOperationEventListener extends AbstractIdentityUserO
 
         String errorMessage = StringUtils.EMPTY;
         String tenantDomain = getTenantDomain(userStoreManager);
+        Set<String> uniqueClaimUris;
+        try {
+            uniqueClaimUris = getUniqueClaimUris(tenantDomain);
+        } catch (ClaimMetadataException e) {
+            log.error("Error while getting claim metadata of the tenant: " + tenantDomain + ".", e);
+            return;
+        }
+        if (uniqueClaimUris.isEmpty()) {
+            return;
+        }
         List<String> duplicateClaim = new ArrayList<>();
+        DuplicateClaimSearch duplicateClaimSearch = null;
         Claim claimObject = null;
         for (Map.Entry<String, String> claim : claims.entrySet()) {
-            try {
-                if (StringUtils.isNotEmpty(claim.getValue()) && isUniqueClaim(claim.getKey(), tenantDomain)) {
-                    try {
-                        claimObject = userStoreManager.getClaimManager().getClaim(claim.getKey());
-                    } catch (org.wso2.carbon.user.api.UserStoreException e) {
-                        log.error("Error while getting claim from claimUri: " + claim.getKey() + ".", e);
-                    }
-                    if (claimObject == null) {
-                        continue;
-                    }
-                    // checks whether allowed login identifiers are equal to the password
-                    if (credential != null && (credential.toString()).equals(claim.getValue())) {
-                        errorMessage = "Password can not be equal to the value defined for " +
-                                claimObject.getDisplayTag() + "!";
-                        throw new UserStoreException(errorMessage, new PolicyViolationException(errorMessage));
-                    }
-                    if (isClaimDuplicated(username, claim.getKey(), claim.getValue(), profile, userStoreManager)) {
-                        String displayTag = claimObject.getDisplayTag();
-                        if (StringUtils.isBlank(displayTag)) {
-                            displayTag = claim.getKey();
-                        }
-                        duplicateClaim.add(displayTag);
+            if (StringUtils.isNotEmpty(claim.getValue()) && uniqueClaimUris.contains(claim.getKey())) {
+                try {
+                    claimObject = userStoreManager.getClaimManager().getClaim(claim.getKey());
+                } catch (org.wso2.carbon.user.api.UserStoreException e) {
+                    log.error("Error while getting claim from claimUri: " + claim.getKey() + ".", e);
+                }
+                if (claimObject == null) {
+                    continue;
+                }
+                // checks whether allowed login identifiers are equal to the password
+                if (credential != null && (credential.toString()).equals(claim.getValue())) {
+                    errorMessage = "Password can not be equal to the value defined for " +
+                            claimObject.getDisplayTag() + "!";
+                    throw new UserStoreException(errorMessage, new PolicyViolationException(errorMessage));
+                }
+                if (duplicateClaimSearch == null) {
+                    duplicateClaimSearch = new DuplicateClaimSearch(userStoreManager);
+                }
+                if (duplicateClaimSearch.isClaimDuplicated(username, claim.getKey(), claim.getValue(), profile)) {
+                    String displayTag = claimObject.getDisplayTag();
+                    if (StringUtils.isBlank(displayTag)) {
+                        displayTag = claim.getKey();
                     }
+                    duplicateClaim.add(displayTag);
                 }
-            } catch (ClaimMetadataException e) {
-                log.error("Error while getting claim metadata for claimUri : " + claim.getKey() + ".", e);
             }
         }
         if (StringUtils.isNotBlank(errorMessage)) {
@@ -174,43 +188,36 @@ public class UniqueClaimUserOperationEventListener extends AbstractIdentityUserO
         throw new UserStoreClientException(errorMessage, new PolicyViolationException(errorMessage));
     }
 
-    private boolean isClaimDuplicated(String username, String claimUri, String claimValue, String profile,
-                                      UserStoreManager userStoreManager) throws UserStoreException {
-
-        String domainName = userStoreManager.getRealmConfiguration().getUserStoreProperty(
-                UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
-        String[] userList;
-        // Get UserStoreManager from realm since the received one might be for a secondary user store
-        UserStoreManager userStoreMgrFromRealm = getUserstoreManager(userStoreManager.getTenantId());
-        if (isScopeWithinUserstore()) {
-            String claimValueWithDomain = domainName + UserCoreConstants.DOMAIN_SEPARATOR + claimValue;
-            userList = userStoreMgrFromRealm.getUserList(claimUri, claimValueWithDomain, profile);
-        } else {
-            userList = userStoreMgrFromRealm.getUserList(claimUri, claimValue, profile);
-        }
+    public boolean isUniqueClaim(String claimUrI, String tenantDomain) throws ClaimMetadataException {
 
-        if (userList.length == 1) {
-            String usernameWithUserStoreDomain = UserCoreUtil.addDomainToName(username, domainName);
-            if (usernameWithUserStoreDomain.equalsIgnoreCase(userList[0])) {
-                return false;
-            }
-        } else if (userList.length == 0) {
-            return false;
-        }
-        return true;
+        return getUniqueClaimUris(tenantDomain).contains(claimUrI);
     }
 
-    public boolean isUniqueClaim(String claimUrI, String tenantDomain) throws ClaimMetadataException {
+    /**
+     * Get the URIs of the local claims of a tenant which are marked as unique. The URIs are cached per tenant and the
+     * cache entry is cleared by the UniqueClaimCacheInvalidationHandler when a local claim of the tenant is added,
+     * updated or deleted.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Unique claim URIs.
+     * @throws ClaimMetadataException If an error occurs while retrieving the local claims.
+     */
+    private Set<String> getUniqueClaimUris(String tenantDomain) throws ClaimMetadataException {
 
+        HashSet<String> claimUris = UniqueClaimCache.getInstance().getValueFromCache(tenantDomain, tenantDomain);
+        if (claimUris != null) {
+            return claimUris;
+        }
         List<LocalClaim> localClaims = UniqueClaimUserOperationDataHolder.getInstance().
                 getClaimMetadataManagementService().getLocalClaims(tenantDomain);
+        claimUris = new HashSet<>();
         for (LocalClaim localClaim : localClaims) {
-            if (localClaim.getClaimURI().equals(claimUrI) &&
-                    Boolean.parseBoolean(localClaim.getClaimProperty(IS_UNIQUE_CLAIM))) {
-                return true;
+            if (Boolean.parseBoolean(localClaim.getClaimProperty(IS_UNIQUE_CLAIM))) {
+                claimUris.add(localClaim.getClaimURI());
             }
         }
-        return false;
+        UniqueClaimCache.getInstance().addToCache(tenantDomain, claimUris, tenantDomain);
+        return claimUris;
     }
 
     private void checkUsernameUniqueness(String username, UserStoreManager userStoreManager) throws UserStoreException {
@@ -219,8 +226,8 @@ public class UniqueClaimUserOperationEventListener extends AbstractIdentityUserO
         String tenantDomain = getTenantDomain(userStoreManager);
 
         try {
-            if (isUniqueClaim(USERNAME_CLAIM, tenantDomain) &&
-                    isClaimDuplicated(username, USERNAME_CLAIM, username, null, userStoreManager)) {
+            if (isUniqueClaim(USERNAME_CLAIM, tenantDomain) && new DuplicateClaimSearch(userStoreManager)
+                    .isClaimDuplicated(username, USERNAME_CLAIM, username, null)) {
 
                 errorMessage = "Username " + username + " is already in use by a different user!";
                 throw new UserStoreException(errorMessage, new PolicyViolationException(errorMessage));
@@ -274,12 +281,70 @@ public class UniqueClaimUserOperationEventListener extends AbstractIdentityUserO
         if (!isEnable()) {
             return true;
         }
-        Claim[] claims = userStoreManager.getUserClaimValues(userName, null);
-        Map<String, String> claimMap = new HashMap<>();
-        for (Claim claim : claims) {
-            claimMap.put(claim.getClaimUri(), claim.getValue());
+        String tenantDomain = getTenantDomain(userStoreManager);
+        Set<String> uniqueClaimUris;
+        try {
+            uniqueClaimUris = getUniqueClaimUris(tenantDomain);
+        } catch (ClaimMetadataException e) {
+            log.error("Error while getting claim metadata of the tenant: " + tenantDomain + ".", e);
+            return true;
+        }
+        if (uniqueClaimUris.isEmpty()) {
+            return true;
+        }
+        // Only the unique claims are checked, so the other claim values of the user are not read.
+        Map<String, String> claimMap = userStoreManager.getUserClaimValues(userName,
+                uniqueClaimUris.toArray(new String[0]), null);
+        if (claimMap == null || claimMap.isEmpty()) {
+            return true;
         }
-        checkClaimUniqueness(userName, claimMap, null, userStoreManager, newCredential);
+        checkClaimUniqueness(userName, new HashMap<>(claimMap), null, userStoreManager, newCredential);
         return true;
     }
+
+    /**
+     * Searches the users having a claim value. The user store details needed for the search are resolved once, so
+     * that an operation checking several unique claims reads them only once.
+     */
+    private class DuplicateClaimSearch {
+
+        private final UserStoreManager userStoreManager;
+        private String domainName;
+        private UserStoreManager userStoreMgrFromRealm;
+        private boolean scopeWithinUserstore;
+
+        DuplicateClaimSearch(UserStoreManager userStoreManager) {
+
+            this.userStoreManager = userStoreManager;
+        }
+
+        boolean isClaimDuplicated(String username, String claimUri, String claimValue, String profile)
+                throws UserStoreException {
+
+            if (userStoreMgrFromRealm == null) {
+                domainName = userStoreManager.getRealmConfiguration().getUserStoreProperty(
+                        UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
+                // Get UserStoreManager from realm since the received one might be for a secondary user store
+                userStoreMgrFromRealm = getUserstoreManager(userStoreManager.getTenantId());
+                scopeWithinUserstore = isScopeWithinUserstore();
+            }
+            String[] userList;
+            if (scopeWithinUserstore) {
+                String claimValueWithDomain = domainName + UserCoreConstants.DOMAIN_SEPARATOR + claimValue;
+                userList = userStoreMgrFromRealm.getUserList(claimUri, claimValueWithDomain, profile);
+            } else {
+                userList = userStoreMgrFromRealm.getUserList(claimUri, claimValue, profile);
+            }
+
+            if (userList.length == 1) {
+                String usernameWithUserStoreDomain = UserCoreUtil.addDomainToName(username, domainName);
+                if (usernameWithUserStoreDomain.equalsIgnoreCase(userList[0])) {
+                    return false;
+                }
+            } else if (userList.length == 0) {
+                return false;
+            }
+            return true;
+        }
+    }
 }
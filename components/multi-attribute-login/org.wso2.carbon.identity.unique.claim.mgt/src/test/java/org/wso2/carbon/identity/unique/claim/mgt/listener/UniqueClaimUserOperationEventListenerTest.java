@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.unique.claim.mgt.listener;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.claim.metadata.mgt.ClaimMetadataManagementService;
+import org.wso2.carbon.identity.claim.metadata.mgt.model.LocalClaim;
+import org.wso2.carbon.identity.core.model.IdentityEventListenerConfig;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.event.IdentityEventConstants;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.identity.unique.claim.mgt.cache.UniqueClaimCache;
+import org.wso2.carbon.identity.unique.claim.mgt.handler.UniqueClaimCacheInvalidationHandler;
+import org.wso2.carbon.identity.unique.claim.mgt.internal.UniqueClaimUserOperationDataHolder;
+import org.wso2.carbon.user.api.RealmConfiguration;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.UserRealm;
+import org.wso2.carbon.user.core.UserStoreClientException;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.claim.Claim;
+import org.wso2.carbon.user.core.claim.ClaimManager;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
+import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.user.core.tenant.TenantManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Unit tests for {@link UniqueClaimUserOperationEventListener}.
+ */
+@PrepareForTest({IdentityUtil.class, IdentityTenantUtil.class, UniqueClaimCache.class})
+public class UniqueClaimUserOperationEventListenerTest extends PowerMockTestCase {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final int TENANT_ID = -1234;
+    private static final String USER_STORE_DOMAIN = "SECONDARY";
+    private static final String USERNAME = "john";
+    private static final String PROFILE = "default";
+    private static final String EMAIL_CLAIM = "http://wso2.org/claims/emailaddress";
+    private static final String MOBILE_CLAIM = "http://wso2.org/claims/mobile";
+    private static final String COUNTRY_CLAIM = "http://wso2.org/claims/country";
+    private static final String EMAIL = "john@wso2.com";
+    private static final String MOBILE = "0771234567";
+
+    private UniqueClaimUserOperationEventListener listener;
+    private ClaimMetadataManagementService claimMetadataManagementService;
+    private UserStoreManager userStoreManager;
+    private UserStoreManager realmUserStoreManager;
+    private UniqueClaimCache uniqueClaimCache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        mockStatic(IdentityUtil.class);
+        mockListenerConfig(new Properties());
+        mockStatic(UniqueClaimCache.class);
+        uniqueClaimCache = mock(UniqueClaimCache.class);
+        when(UniqueClaimCache.getInstance()).thenReturn(uniqueClaimCache);
+
+        claimMetadataManagementService = mock(ClaimMetadataManagementService.class);
+        when(claimMetadataManagementService.getLocalClaims(TENANT_DOMAIN)).thenReturn(
+                getLocalClaims(EMAIL_CLAIM, MOBILE_CLAIM));
+
+        realmUserStoreManager = mock(UserStoreManager.class);
+        when(realmUserStoreManager.getUserList(anyString(), anyString(), any())).thenReturn(new String[0]);
+        UserRealm userRealm = mock(UserRealm.class);
+        when(userRealm.getUserStoreManager()).thenReturn(realmUserStoreManager);
+        TenantManager tenantManager = mock(TenantManager.class);
+        when(tenantManager.getDomain(TENANT_ID)).thenReturn(TENANT_DOMAIN);
+        RealmService realmService = mock(RealmService.class);
+        when(realmService.getTenantManager()).thenReturn(tenantManager);
+        when(realmService.getTenantUserRealm(TENANT_ID)).thenReturn(userRealm);
+
+        userStoreManager = mock(UserStoreManager.class);
+        when(userStoreManager.getTenantId()).thenReturn(TENANT_ID);
+        RealmConfiguration realmConfiguration = mock(RealmConfiguration.class);
+        when(realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME))
+                .thenReturn(USER_STORE_DOMAIN);
+        when(userStoreManager.getRealmConfiguration()).thenReturn(realmConfiguration);
+        ClaimManager claimManager = mock(ClaimManager.class);
+        when(claimManager.getClaim(anyString())).thenAnswer(invocation -> {
+            Claim claim = new Claim();
+            claim.setClaimUri(invocation.getArgument(0));
+            claim.setDisplayTag(invocation.getArgument(0));
+            return claim;
+        });
+        when(userStoreManager.getClaimManager()).thenReturn(claimManager);
+
+        UniqueClaimUserOperationDataHolder.getInstance().setRealmService(realmService);
+        UniqueClaimUserOperationDataHolder.getInstance().setClaimMetadataManagementService(
+                claimMetadataManagementService);
+        listener = new UniqueClaimUserOperationEventListener();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        UniqueClaimUserOperationDataHolder.getInstance().setRealmService(null);
+        UniqueClaimUserOperationDataHolder.getInstance().setClaimMetadataManagementService(null);
+    }
+
+    @Test
+    public void testPreAddUserWithUnusedUniqueClaims() throws Exception {
+
+        assertTrue(listener.doPreAddUser(USERNAME, "password", new String[0], getClaims(), PROFILE,
+                userStoreManager));
+
+        verify(realmUserStoreManager).getUserList(EMAIL_CLAIM, EMAIL, PROFILE);
+        verify(realmUserStoreManager).getUserList(MOBILE_CLAIM, MOBILE, PROFILE);
+        verify(realmUserStoreManager, never()).getUserList(eq(COUNTRY_CLAIM), anyString(), any());
+    }
+
+    @Test
+    public void testPreAddUserWithDuplicatedUniqueClaim() throws Exception {
+
+        when(realmUserStoreManager.getUserList(EMAIL_CLAIM, EMAIL, PROFILE)).thenReturn(
+                new String[]{USER_STORE_DOMAIN + "/alex"});
+
+        try {
+            listener.doPreAddUser(USERNAME, "password", new String[0], getClaims(), PROFILE, userStoreManager);
+            fail("A duplicated unique claim value should be rejected.");
+        } catch (UserStoreClientException e) {
+            assertTrue(e.getMessage().contains(EMAIL_CLAIM));
+        }
+    }
+
+    @Test
+    public void testPreAddUserWithPasswordEqualToUniqueClaim() throws Exception {
+
+        try {
+            listener.doPreAddUser(USERNAME, EMAIL, new String[0], getClaims(), PROFILE, userStoreManager);
+            fail("A password equal to a unique claim value should be rejected.");
+        } catch (UserStoreException e) {
+            assertTrue(e.getMessage().startsWith("Password can not be equal"));
+        }
+    }
+
+    @Test
+    public void testPreAddUserWithoutUniqueClaims() throws Exception {
+
+        when(claimMetadataManagementService.getLocalClaims(TENANT_DOMAIN)).thenReturn(getLocalClaims());
+
+        assertTrue(listener.doPreAddUser(USERNAME, "password", new String[0], getClaims(), PROFILE,
+                userStoreManager));
+
+        verify(realmUserStoreManager, never()).getUserList(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void testPreAddUserWithScopeWithinUserstore() throws Exception {
+
+        Properties properties = new Properties();
+        properties.setProperty("ScopeWithinUserstore", "true");
+        mockListenerConfig(properties);
+
+        assertTrue(listener.doPreAddUser(USERNAME, "password", new String[0], getClaims(), PROFILE,
+                userStoreManager));
+
+        verify(realmUserStoreManager).getUserList(EMAIL_CLAIM, USER_STORE_DOMAIN + "/" + EMAIL, PROFILE);
+        verify(realmUserStoreManager).getUserList(MOBILE_CLAIM, USER_STORE_DOMAIN + "/" + MOBILE, PROFILE);
+    }
+
+    @Test
+    public void testPreSetUserClaimValuesOwnedBySameUser() throws Exception {
+
+        when(realmUserStoreManager.getUserList(EMAIL_CLAIM, EMAIL, PROFILE)).thenReturn(
+                new String[]{USER_STORE_DOMAIN + "/" + USERNAME});
+
+        assertTrue(listener.doPreSetUserClaimValues(USERNAME, getClaims(), PROFILE, userStoreManager));
+        verify(claimMetadataManagementService, times(1)).getLocalClaims(TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testPreSetUserClaimValuesWithDuplicatedUniqueClaims() throws Exception {
+
+        when(realmUserStoreManager.getUserList(EMAIL_CLAIM, EMAIL, PROFILE)).thenReturn(
+                new String[]{USER_STORE_DOMAIN + "/alex"});
+        when(realmUserStoreManager.getUserList(MOBILE_CLAIM, MOBILE, PROFILE)).thenReturn(
+                new String[]{USER_STORE_DOMAIN + "/" + USERNAME, USER_STORE_DOMAIN + "/alex"});
+
+        try {
+            listener.doPreSetUserClaimValues(USERNAME, getClaims(), PROFILE, userStoreManager);
+            fail("Duplicated unique claim values should be rejected.");
+        } catch (UserStoreClientException e) {
+            assertTrue(e.getMessage().contains(EMAIL_CLAIM + ", " + MOBILE_CLAIM) ||
+                    e.getMessage().contains(MOBILE_CLAIM + ", " + EMAIL_CLAIM));
+        }
+    }
+
+    @Test
+    public void testPreSetUserClaimValuesWithCachedUniqueClaims() throws Exception {
+
+        when(uniqueClaimCache.getValueFromCache(TENANT_DOMAIN, TENANT_DOMAIN)).thenReturn(
+                new HashSet<>(Collections.singletonList(EMAIL_CLAIM)));
+
+        assertTrue(listener.doPreSetUserClaimValues(USERNAME, getClaims(), PROFILE, userStoreManager));
+
+        verify(claimMetadataManagementService, never()).getLocalClaims(anyString());
+        verify(realmUserStoreManager).getUserList(EMAIL_CLAIM, EMAIL, PROFILE);
+        verify(realmUserStoreManager, never()).getUserList(eq(MOBILE_CLAIM), anyString(), any());
+    }
+
+    @Test
+    public void testPreSetUserClaimValuesCachesUniqueClaims() throws Exception {
+
+        assertTrue(listener.doPreSetUserClaimValues(USERNAME, getClaims(), PROFILE, userStoreManager));
+
+        verify(uniqueClaimCache).addToCache(TENANT_DOMAIN, new HashSet<>(Arrays.asList(EMAIL_CLAIM, MOBILE_CLAIM)),
+                TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testLocalClaimUpdateClearsCachedUniqueClaims() throws Exception {
+
+        mockStatic(IdentityTenantUtil.class);
+        when(IdentityTenantUtil.getTenantDomain(TENANT_ID)).thenReturn(TENANT_DOMAIN);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(IdentityEventConstants.EventProperty.TENANT_ID, TENANT_ID);
+        properties.put(IdentityEventConstants.EventProperty.LOCAL_CLAIM_URI, EMAIL_CLAIM);
+
+        new UniqueClaimCacheInvalidationHandler().handleEvent(
+                new Event(IdentityEventConstants.Event.POST_UPDATE_LOCAL_CLAIM, properties));
+
+        verify(uniqueClaimCache).clearCacheEntry(TENANT_DOMAIN, TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testPreUpdateCredentialByAdminReadsOnlyUniqueClaims() throws Exception {
+
+        Map<String, String> uniqueClaimValues = new HashMap<>();
+        uniqueClaimValues.put(EMAIL_CLAIM, EMAIL);
+        uniqueClaimValues.put(MOBILE_CLAIM, MOBILE);
+        when(userStoreManager.getUserClaimValues(eq(USERNAME), any(String[].class), isNull()))
+                .thenReturn(uniqueClaimValues);
+
+        assertTrue(listener.doPreUpdateCredentialByAdmin(USERNAME, "newPassword", userStoreManager));
+
+        verify(userStoreManager).getUserClaimValues(eq(USERNAME), any(String[].class), isNull());
+        verify(userStoreManager, never()).getUserClaimValues(USERNAME, null);
+    }
+
+    @Test
+    public void testPreUpdateCredentialByAdminWithPasswordEqualToUniqueClaim() throws Exception {
+
+        when(userStoreManager.getUserClaimValues(eq(USERNAME), any(String[].class), isNull()))
+                .thenReturn(Collections.singletonMap(EMAIL_CLAIM, EMAIL));
+
+        try {
+            listener.doPreUpdateCredentialByAdmin(USERNAME, EMAIL, userStoreManager);
+            fail("A password equal to a unique claim value should be rejected.");
+        } catch (UserStoreException e) {
+            assertTrue(e.getMessage().startsWith("Password can not be equal"));
+        }
+    }
+
+    @Test
+    public void testPreUpdateCredentialByAdminWithoutUniqueClaims() throws Exception {
+
+        when(claimMetadataManagementService.getLocalClaims(TENANT_DOMAIN)).thenReturn(getLocalClaims());
+
+        assertTrue(listener.doPreUpdateCredentialByAdmin(USERNAME, "newPassword", userStoreManager));
+
+        verify(userStoreManager, never()).getUserClaimValues(anyString(), any(String[].class), any());
+    }
+
+    private void mockListenerConfig(Properties properties) {
+
+        when(IdentityUtil.readEventListenerProperty(UserOperationEventListener.class.getName(),
+                UniqueClaimUserOperationEventListener.class.getName())).thenReturn(
+                new IdentityEventListenerConfig("true", 2, null, properties));
+    }
+
+    private Map<String, String> getClaims() {
+
+        Map<String, String> claims = new HashMap<>();
+        claims.put(EMAIL_CLAIM, EMAIL);
+        claims.put(MOBILE_CLAIM, MOBILE);
+        claims.put(COUNTRY_CLAIM, "Sri Lanka");
+        return claims;
+    }
+
+    private List<LocalClaim> getLocalClaims(String... uniqueClaimUris) {
+
+        List<String> uniqueClaims = Arrays.asList(uniqueClaimUris);
+        List<LocalClaim> localClaims = new ArrayList<>();
+        for (String claimUri : new String[]{EMAIL_CLAIM, MOBILE_CLAIM, COUNTRY_CLAIM}) {
+            LocalClaim localClaim = new LocalClaim(claimUri);
+            localClaim.setClaimProperty("isUnique", String.valueOf(uniqueClaims.contains(claimUri)));
+            localClaims.add(localClaim);
+        }
+        return localClaims;
+    }
+}
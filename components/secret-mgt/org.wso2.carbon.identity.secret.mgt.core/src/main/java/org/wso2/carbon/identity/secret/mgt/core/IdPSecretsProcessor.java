@@ -23,10 +23,12 @@ import org.apache.commons.lang.StringUtils;
 import org.wso2.carbon.identity.application.common.model.FederatedAuthenticatorConfig;
 import org.wso2.carbon.identity.application.common.model.IdentityProvider;
 import org.wso2.carbon.identity.application.common.model.Property;
+import org.wso2.carbon.identity.secret.mgt.core.exception.SecretManagementClientException;
 import org.wso2.carbon.identity.secret.mgt.core.exception.SecretManagementException;
 import org.wso2.carbon.identity.secret.mgt.core.model.ResolvedSecret;
 import org.wso2.carbon.identity.secret.mgt.core.model.Secret;
 import org.wso2.carbon.identity.secret.mgt.core.model.SecretType;
+import static org.wso2.carbon.identity.secret.mgt.core.constant.SecretConstants.ErrorMessages.ERROR_CODE_SECRET_DOES_NOT_EXISTS;
 import static org.wso2.carbon.identity.secret.mgt.core.constant.SecretConstants.IDN_SECRET_TYPE_IDP_SECRETS;
 
 /**
@@ -55,9 +57,8 @@ public class IdPSecretsProcessor implements SecretsProcessor<IdentityProvider> {
                     continue;
                 }
                 String secretName = buildSecretName(clonedIdP.getId(), fedAuthConfig.getName(), prop.getName());
-                if (secretManager.isSecretExist(IDN_SECRET_TYPE_IDP_SECRETS, secretName)) {
-                    ResolvedSecret resolvedSecret =
-                            secretResolveManager.getResolvedSecret(IDN_SECRET_TYPE_IDP_SECRETS, secretName);
+                ResolvedSecret resolvedSecret = getResolvedSecretIfExists(secretName);
+                if (resolvedSecret != null) {
                     // Replace secret reference with decrypted original secret.
                     prop.setValue(resolvedSecret.getResolvedSecretValue());
                 }
@@ -111,6 +112,25 @@ public class IdPSecretsProcessor implements SecretsProcessor<IdentityProvider> {
         }
     }
 
+    /**
+     * Get the resolved secret in a single lookup, instead of checking the existence of the secret before resolving it.
+     *
+     * @param secretName Secret name.
+     * @return Resolved secret, or null if the secret does not exist.
+     * @throws SecretManagementException If an error occurs while resolving the secret.
+     */
+    private ResolvedSecret getResolvedSecretIfExists(String secretName) throws SecretManagementException {
+
+        try {
+            return secretResolveManager.getResolvedSecret(IDN_SECRET_TYPE_IDP_SECRETS, secretName);
+        } catch (SecretManagementClientException e) {
+            if (ERROR_CODE_SECRET_DOES_NOT_EXISTS.getCode().equals(e.getErrorCode())) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
     private String buildSecretName(String idpId, String fedAuthName, String propName) {
 
         return idpId + ":" + fedAuthName + ":" + propName;
@@ -27,6 +27,7 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.core.util.CryptoException;
 import org.wso2.carbon.core.util.CryptoUtil;
+import org.wso2.carbon.identity.secret.mgt.core.cache.ResolvedSecretCache;
 import org.wso2.carbon.identity.secret.mgt.core.constant.SecretConstants;
 import org.wso2.carbon.identity.secret.mgt.core.dao.SecretDAO;
 import org.wso2.carbon.identity.secret.mgt.core.exception.SecretManagementClientException;
@@ -80,6 +81,7 @@ public class SecretManagerImpl implements SecretManager {
         secret.setSecretType(secretTypeName);
         secret.setSecretValue(getEncryptedSecret(secret.getSecretValue(), secret.getSecretName()));
         this.getSecretDAO().addSecret(secret);
+        ResolvedSecretCache.getInstance().clearCacheEntry(getTenantId(), secretTypeName, secret.getSecretName());
         if (log.isDebugEnabled()) {
             log.debug("Secret: " + secret.getSecretName() + " added successfully");
         }
@@ -153,6 +155,7 @@ public class SecretManagerImpl implements SecretManager {
         SecretType secretType = getSecretType(secretTypeName);
         if (isSecretExist(secretTypeName, secretName)) {
             this.getSecretDAO().deleteSecretByName(secretName, secretType.getId(), getTenantId());
+            ResolvedSecretCache.getInstance().clearCacheEntry(getTenantId(), secretTypeName, secretName);
             if (log.isDebugEnabled()) {
                 log.debug("Secret: " + secretName + " is deleted successfully.");
             }
@@ -170,6 +173,8 @@ public class SecretManagerImpl implements SecretManager {
         }
         if (isSecretExistsById(secretId)) {
             this.getSecretDAO().deleteSecretById(secretId, getTenantId());
+            // The secret type and name are not known here. Clear the resolved secrets of the tenant.
+            ResolvedSecretCache.getInstance().clearCacheEntries(getTenantId());
             if (log.isDebugEnabled()) {
                 log.debug("Secret id: " + secretId + " in tenant: " + getTenantDomain() + " deleted successfully.");
             }
@@ -188,6 +193,7 @@ public class SecretManagerImpl implements SecretManager {
         secret.setSecretType(secretTypeName);
         secret.setSecretValue(getEncryptedSecret(secret.getSecretValue(), secret.getSecretName()));
         this.getSecretDAO().replaceSecret(secret);
+        ResolvedSecretCache.getInstance().clearCacheEntry(getTenantId(), secretTypeName, secret.getSecretName());
         if (log.isDebugEnabled()) {
             log.debug(secret.getSecretName() + " secret replaced successfully.");
         }
@@ -205,6 +211,7 @@ public class SecretManagerImpl implements SecretManager {
         } catch (CryptoException e) {
             throw handleServerException(ERROR_CODE_UPDATE_SECRET, value, e);
         }
+        ResolvedSecretCache.getInstance().clearCacheEntry(getTenantId(), secretTypeName, name);
         if (log.isDebugEnabled()) {
             log.debug(secret.getSecretName() + " secret value updated successfully.");
         }
@@ -283,6 +290,7 @@ public class SecretManagerImpl implements SecretManager {
 
         validateSecretTypeDeleteRequest(secretTypeName);
         getSecretDAO().deleteSecretTypeByName(secretTypeName);
+        ResolvedSecretCache.getInstance().clear();
 
         if (log.isDebugEnabled()) {
             log.debug("Secret type: " + secretTypeName + " is successfully deleted.");
@@ -19,8 +19,10 @@
 package org.wso2.carbon.identity.secret.mgt.core;
 
 import org.apache.commons.codec.Charsets;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.core.util.CryptoException;
 import org.wso2.carbon.core.util.CryptoUtil;
+import org.wso2.carbon.identity.secret.mgt.core.cache.ResolvedSecretCache;
 import org.wso2.carbon.identity.secret.mgt.core.exception.SecretManagementException;
 import org.wso2.carbon.identity.secret.mgt.core.exception.SecretManagementServerException;
 import org.wso2.carbon.identity.secret.mgt.core.model.ResolvedSecret;
@@ -42,10 +44,11 @@ public class SecretResolveManagerImpl implements SecretResolveManager {
     public ResolvedSecret getResolvedSecret(String secretTypeName, String secretName) throws SecretManagementException {
 
         Secret secret = secretManager.getSecret(secretTypeName, secretName);
-        return getResolvedSecret(secret);
+        return getResolvedSecret(secretTypeName, secret);
     }
 
-    private ResolvedSecret getResolvedSecret(Secret secret) throws SecretManagementServerException {
+    private ResolvedSecret getResolvedSecret(String secretTypeName, Secret secret)
+            throws SecretManagementServerException {
 
         ResolvedSecret resolvedSecret = new ResolvedSecret();
         resolvedSecret.setSecretId(secret.getSecretId());
@@ -53,10 +56,35 @@ public class SecretResolveManagerImpl implements SecretResolveManager {
         resolvedSecret.setCreatedTime(secret.getCreatedTime());
         resolvedSecret.setLastModified(secret.getLastModified());
         resolvedSecret.setTenantDomain(secret.getTenantDomain());
-        resolvedSecret.setResolvedSecretValue(getDecryptedSecretValue(secret.getSecretValue(), secret.getSecretName()));
+        resolvedSecret.setResolvedSecretValue(getDecryptedSecretValue(secretTypeName, secret));
         return resolvedSecret;
     }
 
+    /**
+     * Get the decrypted value of the secret. Decrypted values are cached in the node local
+     * {@link ResolvedSecretCache} against the secret id and the encrypted value they were decrypted from.
+     *
+     * @param secretTypeName Secret type name.
+     * @param secret         Secret.
+     * @return Decrypted secret value.
+     * @throws SecretManagementServerException If the secret value could not be decrypted.
+     */
+    private String getDecryptedSecretValue(String secretTypeName, Secret secret)
+            throws SecretManagementServerException {
+
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        ResolvedSecretCache resolvedSecretCache = ResolvedSecretCache.getInstance();
+        String secretValue = resolvedSecretCache.getValueFromCache(tenantId, secretTypeName, secret);
+        if (secretValue != null) {
+            return secretValue;
+        }
+        long startTime = System.nanoTime();
+        secretValue = getDecryptedSecretValue(secret.getSecretValue(), secret.getSecretName());
+        resolvedSecretCache.recordDecrypt(System.nanoTime() - startTime);
+        resolvedSecretCache.addToCache(tenantId, secretTypeName, secret, secretValue);
+        return secretValue;
+    }
+
     private String getDecryptedSecretValue(String secretValue, String name) throws SecretManagementServerException {
 
         try {
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.secret.mgt.core.cache;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.secret.mgt.core.model.Secret;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.wso2.carbon.identity.secret.mgt.core.constant.SecretConstants.RESOLVED_SECRET_CACHE_CAPACITY;
+import static org.wso2.carbon.identity.secret.mgt.core.constant.SecretConstants.RESOLVED_SECRET_CACHE_ENABLE;
+import static org.wso2.carbon.identity.secret.mgt.core.constant.SecretConstants.RESOLVED_SECRET_CACHE_TIMEOUT;
+
+/**
+ * Node local, bounded cache of decrypted secret values. Unlike the other secret caches this cache is never
+ * distributed, so that the decrypted values do not leave the node. An entry is valid only for the secret id and the
+ * encrypted value it was decrypted from, which act as the version of the secret, and only until it expires. The
+ * decrypted values are held in character arrays which are cleared when the entries are evicted, expired or removed.
+ */
+public class ResolvedSecretCache {
+
+    private static final Log log = LogFactory.getLog(ResolvedSecretCache.class);
+
+    private static final int DEFAULT_CAPACITY = 1000;
+    private static final long DEFAULT_TIMEOUT_IN_SECONDS = 900;
+
+    private static volatile ResolvedSecretCache instance;
+
+    private final boolean enabled;
+    private final long timeoutInMillis;
+    private final Map<ResolvedSecretCacheKey, ResolvedSecretCacheEntry> entries;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong decryptCount = new AtomicLong();
+    private final AtomicLong decryptTimeInNanos = new AtomicLong();
+
+    ResolvedSecretCache(boolean enabled, final int capacity, long timeoutInMillis) {
+
+        this.enabled = enabled;
+        this.timeoutInMillis = timeoutInMillis;
+        this.entries = new LinkedHashMap<ResolvedSecretCacheKey, ResolvedSecretCacheEntry>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ResolvedSecretCacheKey, ResolvedSecretCacheEntry> eldest) {
+
+                if (size() > capacity) {
+                    eldest.getValue().clear();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static ResolvedSecretCache getInstance() {
+
+        if (instance == null) {
+            synchronized (ResolvedSecretCache.class) {
+                if (instance == null) {
+                    instance = new ResolvedSecretCache(isCacheEnabled(), getCapacity(),
+                            TimeUnit.SECONDS.toMillis(getTimeout()));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the decrypted value of a secret.
+     *
+     * @param tenantId       Tenant id.
+     * @param secretTypeName Secret type name.
+     * @param secret         Current secret, holding the encrypted value.
+     * @return Decrypted value, or null if it is not cached for the current version of the secret.
+     */
+    public String getValueFromCache(int tenantId, String secretTypeName, Secret secret) {
+
+        if (!enabled) {
+            return null;
+        }
+        ResolvedSecretCacheKey key = new ResolvedSecretCacheKey(tenantId, secretTypeName, secret.getSecretName());
+        synchronized (entries) {
+            ResolvedSecretCacheEntry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.isValid(secret, System.currentTimeMillis())) {
+                    hitCount.incrementAndGet();
+                    return entry.getValue();
+                }
+                entries.remove(key);
+                entry.clear();
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Add the decrypted value of a secret to the cache.
+     *
+     * @param tenantId       Tenant id.
+     * @param secretTypeName Secret type name.
+     * @param secret         Secret the value was decrypted from.
+     * @param value          Decrypted value.
+     */
+    public void addToCache(int tenantId, String secretTypeName, Secret secret, String value) {
+
+        if (!enabled || secret.getSecretValue() == null || value == null) {
+            return;
+        }
+        ResolvedSecretCacheEntry entry = new ResolvedSecretCacheEntry(secret.getSecretId(), secret.getSecretValue(),
+                value.toCharArray(), System.currentTimeMillis() + timeoutInMillis);
+        synchronized (entries) {
+            ResolvedSecretCacheEntry previous =
+                    entries.put(new ResolvedSecretCacheKey(tenantId, secretTypeName, secret.getSecretName()), entry);
+            if (previous != null) {
+                previous.clear();
+            }
+        }
+    }
+
+    /**
+     * Remove the decrypted value of a secret from the cache.
+     *
+     * @param tenantId       Tenant id.
+     * @param secretTypeName Secret type name.
+     * @param secretName     Secret name.
+     */
+    public void clearCacheEntry(int tenantId, String secretTypeName, String secretName) {
+
+        synchronized (entries) {
+            ResolvedSecretCacheEntry entry =
+                    entries.remove(new ResolvedSecretCacheKey(tenantId, secretTypeName, secretName));
+            if (entry != null) {
+                entry.clear();
+            }
+        }
+    }
+
+    /**
+     * Remove the decrypted values of all the secrets of a tenant from the cache.
+     *
+     * @param tenantId Tenant id.
+     */
+    public void clearCacheEntries(int tenantId) {
+
+        synchronized (entries) {
+            Iterator<Map.Entry<ResolvedSecretCacheKey, ResolvedSecretCacheEntry>> iterator =
+                    entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<ResolvedSecretCacheKey, ResolvedSecretCacheEntry> cacheEntry = iterator.next();
+                if (cacheEntry.getKey().tenantId == tenantId) {
+                    cacheEntry.getValue().clear();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all the decrypted values from the cache.
+     */
+    public void clear() {
+
+        synchronized (entries) {
+            for (ResolvedSecretCacheEntry entry : entries.values()) {
+                entry.clear();
+            }
+            entries.clear();
+        }
+    }
+
+    /**
+     * Record a decryption of a secret value.
+     *
+     * @param elapsedTimeInNanos Time taken to decrypt the value.
+     */
+    public void recordDecrypt(long elapsedTimeInNanos) {
+
+        long count = decryptCount.incrementAndGet();
+        long totalTime = decryptTimeInNanos.addAndGet(elapsedTimeInNanos);
+        if (log.isDebugEnabled()) {
+            log.debug("Secret decrypted in " + TimeUnit.NANOSECONDS.toMicros(elapsedTimeInNanos) +
+                    " micro seconds. Decrypt count: " + count + ", average decrypt time: " +
+                    TimeUnit.NANOSECONDS.toMicros(totalTime / count) + " micro seconds, cache hits: " +
+                    hitCount.get() + ", cache misses: " + missCount.get());
+        }
+    }
+
+    public long getHitCount() {
+
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+
+        return missCount.get();
+    }
+
+    public long getDecryptCount() {
+
+        return decryptCount.get();
+    }
+
+    public long getDecryptTimeInNanos() {
+
+        return decryptTimeInNanos.get();
+    }
+
+    private static boolean isCacheEnabled() {
+
+        String enabled = IdentityUtil.getProperty(RESOLVED_SECRET_CACHE_ENABLE);
+        return StringUtils.isBlank(enabled) || Boolean.parseBoolean(enabled.trim());
+    }
+
+    private static int getCapacity() {
+
+        String capacity = IdentityUtil.getProperty(RESOLVED_SECRET_CACHE_CAPACITY);
+        if (StringUtils.isNotBlank(capacity)) {
+            try {
+                return Integer.parseInt(capacity.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid resolved secret cache capacity: " + capacity + ". Using the default capacity: " +
+                        DEFAULT_CAPACITY);
+            }
+        }
+        return DEFAULT_CAPACITY;
+    }
+
+    private static long getTimeout() {
+
+        String timeout = IdentityUtil.getProperty(RESOLVED_SECRET_CACHE_TIMEOUT);
+        if (StringUtils.isNotBlank(timeout)) {
+            try {
+                return Long.parseLong(timeout.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid resolved secret cache timeout: " + timeout + ". Using the default timeout: " +
+                        DEFAULT_TIMEOUT_IN_SECONDS);
+            }
+        }
+        return DEFAULT_TIMEOUT_IN_SECONDS;
+    }
+
+    private static final class ResolvedSecretCacheKey {
+
+        private final int tenantId;
+        private final String secretTypeName;
+        private final String secretName;
+
+        private ResolvedSecretCacheKey(int tenantId, String secretTypeName, String secretName) {
+
+            this.tenantId = tenantId;
+            this.secretTypeName = secretTypeName;
+            this.secretName = secretName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ResolvedSecretCacheKey that = (ResolvedSecretCacheKey) o;
+            return tenantId == that.tenantId && Objects.equals(secretTypeName, that.secretTypeName) &&
+                    Objects.equals(secretName, that.secretName);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(tenantId, secretTypeName, secretName);
+        }
+    }
+
+    private static final class ResolvedSecretCacheEntry {
+
+        private final String secretId;
+        private final String cipherText;
+        private final char[] value;
+        private final long expiryTime;
+
+        private ResolvedSecretCacheEntry(String secretId, String cipherText, char[] value, long expiryTime) {
+
+            this.secretId = secretId;
+            this.cipherText = cipherText;
+            this.value = value;
+            this.expiryTime = expiryTime;
+        }
+
+        private boolean isValid(Secret secret, long currentTime) {
+
+            return currentTime < expiryTime && Objects.equals(secretId, secret.getSecretId()) &&
+                    cipherText.equals(secret.getSecretValue());
+        }
+
+        private String getValue() {
+
+            return new String(value);
+        }
+
+        private void clear() {
+
+            Arrays.fill(value, '\0');
+        }
+    }
+}
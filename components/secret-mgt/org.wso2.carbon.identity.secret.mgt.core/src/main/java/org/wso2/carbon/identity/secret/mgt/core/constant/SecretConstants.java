@@ -35,6 +35,9 @@ public class SecretConstants {
     public static final String DB_TABLE_SECRET = "IDN_SECRET";
     public static final String DB_TABLE_SECRET_TYPE = "IDN_SECRET_TYPE";
     public static final String IDN_SECRET_TYPE_IDP_SECRETS = "IDP_SECRET_PROPERTIES";
+    public static final String RESOLVED_SECRET_CACHE_ENABLE = "SecretManagement.ResolvedSecretCache.Enable";
+    public static final String RESOLVED_SECRET_CACHE_CAPACITY = "SecretManagement.ResolvedSecretCache.Capacity";
+    public static final String RESOLVED_SECRET_CACHE_TIMEOUT = "SecretManagement.ResolvedSecretCache.Timeout";
 
     public enum ErrorMessages {
         ERROR_CODE_UNEXPECTED("SECRETM_00001", "Unexpected Error"),
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.secret.mgt.core.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.secret.mgt.core.model.Secret;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class ResolvedSecretCacheTest {
+
+    private static final int TENANT_ID = -1234;
+    private static final String SECRET_TYPE = "IDP_SECRET_PROPERTIES";
+    private static final String SECRET_NAME = "idp:authenticator:secret";
+    private static final String SECRET_VALUE = "secret-value";
+
+    @Test
+    public void testGetValueFromCache() {
+
+        ResolvedSecretCache cache = new ResolvedSecretCache(true, 10, 60000);
+        Secret secret = buildSecret("secret-id", SECRET_NAME, "cipher-text");
+
+        assertNull(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret));
+        cache.addToCache(TENANT_ID, SECRET_TYPE, secret, SECRET_VALUE);
+
+        assertEquals(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret), SECRET_VALUE);
+        assertNull(cache.getValueFromCache(1, SECRET_TYPE, secret));
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 2);
+    }
+
+    @Test
+    public void testGetValueOfChangedSecret() {
+
+        ResolvedSecretCache cache = new ResolvedSecretCache(true, 10, 60000);
+        cache.addToCache(TENANT_ID, SECRET_TYPE, buildSecret("secret-id", SECRET_NAME, "cipher-text"),
+                SECRET_VALUE);
+
+        assertNull(cache.getValueFromCache(TENANT_ID, SECRET_TYPE,
+                buildSecret("secret-id", SECRET_NAME, "updated-cipher-text")));
+        assertNull(cache.getValueFromCache(TENANT_ID, SECRET_TYPE,
+                buildSecret("secret-id", SECRET_NAME, "cipher-text")));
+    }
+
+    @Test
+    public void testGetValueOfRecreatedSecret() {
+
+        ResolvedSecretCache cache = new ResolvedSecretCache(true, 10, 60000);
+        cache.addToCache(TENANT_ID, SECRET_TYPE, buildSecret("secret-id", SECRET_NAME, "cipher-text"),
+                SECRET_VALUE);
+
+        assertNull(cache.getValueFromCache(TENANT_ID, SECRET_TYPE,
+                buildSecret("new-secret-id", SECRET_NAME, "cipher-text")));
+    }
+
+    @Test
+    public void testGetExpiredValue() {
+
+        ResolvedSecretCache cache = new ResolvedSecretCache(true, 10, -1);
+        Secret secret = buildSecret("secret-id", SECRET_NAME, "cipher-text");
+        cache.addToCache(TENANT_ID, SECRET_TYPE, secret, SECRET_VALUE);
+
+        assertNull(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret));
+    }
+
+    @Test
+    public void testEviction() {
+
+        ResolvedSecretCache cache = new ResolvedSecretCache(true, 2, 60000);
+        Secret secret1 = buildSecret("secret-id-1", "secret1", "cipher-text-1");
+        Secret secret2 = buildSecret("secret-id-2", "secret2", "cipher-text-2");
+        Secret secret3 = buildSecret("secret-id-3", "secret3", "cipher-text-3");
+        cache.addToCache(TENANT_ID, SECRET_TYPE, secret1, "value1");
+        cache.addToCache(TENANT_ID, SECRET_TYPE, secret2, "value2");
+        // Access the first secret so that the second one is the least recently used.
+        cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret1);
+        cache.addToCache(TENANT_ID, SECRET_TYPE, secret3, "value3");
+
+        assertEquals(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret1), "value1");
+        assertNull(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret2));
+        assertEquals(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret3), "value3");
+    }
+
+    @Test
+    public void testClearCacheEntries() {
+
+        ResolvedSecretCache cache = new ResolvedSecretCache(true, 10, 60000);
+        Secret secret1 = buildSecret("secret-id-1", "secret1", "cipher-text-1");
+        Secret secret2 = buildSecret("secret-id-2", "secret2", "cipher-text-2");
+        cache.addToCache(TENANT_ID, SECRET_TYPE, secret1, "value1");
+        cache.addToCache(TENANT_ID, SECRET_TYPE, secret2, "value2");
+        cache.addToCache(1, SECRET_TYPE, secret1, "value1");
+
+        cache.clearCacheEntry(TENANT_ID, SECRET_TYPE, "secret1");
+        assertNull(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret1));
+        assertEquals(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret2), "value2");
+
+        cache.clearCacheEntries(TENANT_ID);
+        assertNull(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret2));
+        assertEquals(cache.getValueFromCache(1, SECRET_TYPE, secret1), "value1");
+    }
+
+    @Test
+    public void testDisabledCache() {
+
+        ResolvedSecretCache cache = new ResolvedSecretCache(false, 10, 60000);
+        Secret secret = buildSecret("secret-id", SECRET_NAME, "cipher-text");
+        cache.addToCache(TENANT_ID, SECRET_TYPE, secret, SECRET_VALUE);
+
+        assertNull(cache.getValueFromCache(TENANT_ID, SECRET_TYPE, secret));
+    }
+
+    private Secret buildSecret(String secretId, String secretName, String cipherText) {
+
+        Secret secret = new Secret();
+        secret.setSecretId(secretId);
+        secret.setSecretName(secretName);
+        secret.setSecretValue(cipherText);
+        return secret;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.security.keystore;
+
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable index of the entries of a keystore, used to list the certificates of a keystore page by page without
+ * enumerating the keystore on every request. The certificate entries and the key entries are kept sorted by their
+ * aliases. The certificates are read from the keystore only when an entry is accessed, so that only the certificates
+ * of the requested page are processed.
+ */
+final class KeyStoreIndex {
+
+    private static final Pattern REGEX_META_CHARACTERS = Pattern.compile("[\\\\.\\[\\]{}()<>*+\\-=!?^$|]");
+
+    private static final Comparator<Entry> ALIAS_COMPARATOR = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry entry1, Entry entry2) {
+
+            int result = entry1.lowerCaseAlias.compareTo(entry2.lowerCaseAlias);
+            return result != 0 ? result : entry1.alias.compareTo(entry2.alias);
+        }
+    };
+
+    private final List<Entry> certificateEntries;
+    private final List<Entry> keyEntries;
+
+    private KeyStoreIndex(List<Entry> certificateEntries, List<Entry> keyEntries) {
+
+        Collections.sort(certificateEntries, ALIAS_COMPARATOR);
+        Collections.sort(keyEntries, ALIAS_COMPARATOR);
+        this.certificateEntries = Collections.unmodifiableList(certificateEntries);
+        this.keyEntries = Collections.unmodifiableList(keyEntries);
+    }
+
+    /**
+     * Build the index of a keystore with a single pass over its aliases.
+     *
+     * @param keyStore Keystore.
+     * @return Keystore index.
+     * @throws KeyStoreException If the keystore is not loaded.
+     */
+    static KeyStoreIndex build(KeyStore keyStore) throws KeyStoreException {
+
+        List<Entry> certificateEntries = new ArrayList<>();
+        List<Entry> keyEntries = new ArrayList<>();
+        Enumeration<String> aliases = keyStore.aliases();
+        while (aliases.hasMoreElements()) {
+            String alias = aliases.nextElement();
+            if (keyStore.isCertificateEntry(alias)) {
+                certificateEntries.add(new Entry(keyStore, alias));
+            } else if (keyStore.isKeyEntry(alias)) {
+                keyEntries.add(new Entry(keyStore, alias));
+            }
+        }
+        return new KeyStoreIndex(certificateEntries, keyEntries);
+    }
+
+    /**
+     * Get the trusted certificate entries sorted by alias.
+     *
+     * @return Certificate entries.
+     */
+    List<Entry> getCertificateEntries() {
+
+        return certificateEntries;
+    }
+
+    /**
+     * Get the key entries sorted by alias.
+     *
+     * @return Key entries.
+     */
+    List<Entry> getKeyEntries() {
+
+        return keyEntries;
+    }
+
+    /**
+     * Filter the entries by alias. The filter is matched case insensitively against the whole alias and '*' matches
+     * any sequence of characters. A filter which is a plain prefix followed by '*' is resolved with a binary search
+     * over the sorted aliases.
+     *
+     * @param entries Entries sorted by alias.
+     * @param filter  Alias filter.
+     * @return Entries matching the filter, in alias order.
+     */
+    static List<Entry> filter(List<Entry> entries, String filter) {
+
+        String lowerCaseFilter = filter.toLowerCase();
+        if (lowerCaseFilter.endsWith("*")) {
+            String prefix = lowerCaseFilter.substring(0, lowerCaseFilter.length() - 1);
+            if (!REGEX_META_CHARACTERS.matcher(prefix).find()) {
+                return filterByPrefix(entries, prefix);
+            }
+        }
+
+        Pattern pattern = Pattern.compile(filter.replace("*", ".*").toLowerCase());
+        List<Entry> filteredEntries = new ArrayList<>();
+        for (Entry entry : entries) {
+            Matcher matcher = pattern.matcher(entry.lowerCaseAlias);
+            if (matcher.matches()) {
+                filteredEntries.add(entry);
+            }
+        }
+        return filteredEntries;
+    }
+
+    private static List<Entry> filterByPrefix(List<Entry> entries, String prefix) {
+
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).lowerCaseAlias.compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < entries.size() && entries.get(end).lowerCaseAlias.startsWith(prefix)) {
+            end++;
+        }
+        return entries.subList(low, end);
+    }
+
+    /**
+     * Entry of the keystore index. The certificate of the entry is resolved on first access.
+     */
+    static final class Entry {
+
+        private final KeyStore keyStore;
+        private final String alias;
+        private final String lowerCaseAlias;
+        private volatile X509Certificate certificate;
+
+        private Entry(KeyStore keyStore, String alias) {
+
+            this.keyStore = keyStore;
+            this.alias = alias;
+            this.lowerCaseAlias = alias.toLowerCase();
+        }
+
+        String getAlias() {
+
+            return alias;
+        }
+
+        X509Certificate getCertificate() throws KeyStoreException {
+
+            X509Certificate cert = certificate;
+            if (cert == null) {
+                Certificate keyStoreCertificate = keyStore.getCertificate(alias);
+                if (keyStoreCertificate instanceof X509Certificate) {
+                    cert = (X509Certificate) keyStoreCertificate;
+                    certificate = cert;
+                }
+            }
+            return cert;
+        }
+    }
+}
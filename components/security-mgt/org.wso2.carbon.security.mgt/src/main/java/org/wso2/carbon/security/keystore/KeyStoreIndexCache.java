@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.security.keystore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Node local, bounded cache of {@link KeyStoreIndex} instances by tenant and keystore name. An index is returned only
+ * for the keystore version it was built from, so that keystores updated on other nodes or through other APIs are
+ * indexed again.
+ */
+final class KeyStoreIndexCache {
+
+    private static final int CAPACITY = 100;
+    private static final KeyStoreIndexCache INSTANCE = new KeyStoreIndexCache();
+
+    private final Map<String, VersionedIndex> indexes = new LinkedHashMap<String, VersionedIndex>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VersionedIndex> eldest) {
+
+            return size() > CAPACITY;
+        }
+    };
+
+    private KeyStoreIndexCache() {
+
+    }
+
+    static KeyStoreIndexCache getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Get the index of a keystore.
+     *
+     * @param tenantId     Tenant id.
+     * @param keyStoreName Keystore name.
+     * @param version      Current version of the keystore.
+     * @return Keystore index, or null if there is no index for the current version of the keystore.
+     */
+    KeyStoreIndex getIndex(int tenantId, String keyStoreName, String version) {
+
+        synchronized (indexes) {
+            VersionedIndex versionedIndex = indexes.get(getKey(tenantId, keyStoreName));
+            if (versionedIndex != null && versionedIndex.version.equals(version)) {
+                return versionedIndex.index;
+            }
+            return null;
+        }
+    }
+
+    void addIndex(int tenantId, String keyStoreName, String version, KeyStoreIndex index) {
+
+        synchronized (indexes) {
+            indexes.put(getKey(tenantId, keyStoreName), new VersionedIndex(version, index));
+        }
+    }
+
+    void clearIndex(int tenantId, String keyStoreName) {
+
+        synchronized (indexes) {
+            indexes.remove(getKey(tenantId, keyStoreName));
+        }
+    }
+
+    private static String getKey(int tenantId, String keyStoreName) {
+
+        return tenantId + ":" + keyStoreName;
+    }
+
+    private static final class VersionedIndex {
+
+        private final String version;
+        private final KeyStoreIndex index;
+
+        private VersionedIndex(String version, KeyStoreIndex index) {
+
+            this.version = version;
+            this.index = index;
+        }
+    }
+}
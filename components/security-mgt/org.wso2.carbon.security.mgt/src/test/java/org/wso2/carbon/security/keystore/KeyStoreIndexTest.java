@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.security.keystore;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.FileInputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class KeyStoreIndexTest {
+
+    private KeyStoreIndex keyStoreIndex;
+
+    @BeforeClass
+    public void setup() throws Exception {
+
+        Path keyStorePath = Paths.get(System.getProperty("user.dir"), "src", "test", "resources", "repository",
+                "resources", "security", "wso2carbon.jks");
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (FileInputStream inputStream = new FileInputStream(keyStorePath.toString())) {
+            keyStore.load(inputStream, "wso2carbon".toCharArray());
+        }
+        keyStoreIndex = KeyStoreIndex.build(keyStore);
+    }
+
+    @Test
+    public void testBuild() throws Exception {
+
+        assertEquals(getAliases(keyStoreIndex.getKeyEntries()).toString(), "[secondkey, thirdkey, wso2carbon]");
+        List<String> certificateAliases = getAliases(keyStoreIndex.getCertificateEntries());
+        assertEquals(certificateAliases.size(), 35);
+        for (int i = 1; i < certificateAliases.size(); i++) {
+            assertTrue(certificateAliases.get(i - 1).compareTo(certificateAliases.get(i)) < 0);
+        }
+        assertNotNull(keyStoreIndex.getKeyEntries().get(0).getCertificate());
+    }
+
+    @Test
+    public void testFilterByPrefix() {
+
+        assertEquals(getAliases(KeyStoreIndex.filter(keyStoreIndex.getCertificateEntries(), "Entrust*")).toString(),
+                "[entrust2048ca, entrustclientca, entrustglobalclientca, entrustgsslca, entrustsslca]");
+        assertEquals(KeyStoreIndex.filter(keyStoreIndex.getCertificateEntries(), "*").size(), 35);
+        assertTrue(KeyStoreIndex.filter(keyStoreIndex.getCertificateEntries(), "zzz*").isEmpty());
+    }
+
+    @Test
+    public void testFilterByPattern() {
+
+        assertEquals(getAliases(KeyStoreIndex.filter(keyStoreIndex.getCertificateEntries(), "*class1*")).toString(),
+                "[verisignclass1ca, verisignclass1g2ca, verisignclass1g3ca]");
+        assertEquals(getAliases(KeyStoreIndex.filter(keyStoreIndex.getKeyEntries(), "wso2carbon")).toString(),
+                "[wso2carbon]");
+    }
+
+    @Test
+    public void testKeyStoreIndexCache() {
+
+        KeyStoreIndexCache keyStoreIndexCache = KeyStoreIndexCache.getInstance();
+        keyStoreIndexCache.addIndex(-1234, "wso2carbon.jks", "1", keyStoreIndex);
+
+        assertSame(keyStoreIndexCache.getIndex(-1234, "wso2carbon.jks", "1"), keyStoreIndex);
+        assertNull(keyStoreIndexCache.getIndex(-1234, "wso2carbon.jks", "2"));
+        assertNull(keyStoreIndexCache.getIndex(1, "wso2carbon.jks", "1"));
+
+        keyStoreIndexCache.clearIndex(-1234, "wso2carbon.jks");
+        assertNull(keyStoreIndexCache.getIndex(-1234, "wso2carbon.jks", "1"));
+    }
+
+    private List<String> getAliases(List<KeyStoreIndex.Entry> entries) {
+
+        List<String> aliases = new ArrayList<>();
+        for (KeyStoreIndex.Entry entry : entries) {
+            aliases.add(entry.getAlias());
+        }
+        return aliases;
+    }
+}
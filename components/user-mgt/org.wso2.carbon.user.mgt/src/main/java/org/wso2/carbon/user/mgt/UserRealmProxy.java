@@ -21,6 +21,7 @@ package org.wso2.carbon.user.mgt;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.CarbonConstants;
@@ -29,9 +30,8 @@ import org.wso2.carbon.identity.base.IdentityConstants;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.registry.api.Registry;
 import org.wso2.carbon.registry.api.RegistryException;
-import org.wso2.carbon.registry.api.Resource;
-import org.wso2.carbon.registry.core.Collection;
 import org.wso2.carbon.registry.core.RegistryConstants;
+import org.wso2.carbon.registry.core.session.UserRegistry;
 import org.wso2.carbon.user.api.Claim;
 import org.wso2.carbon.user.api.ClaimMapping;
 import org.wso2.carbon.user.api.Permission;
@@ -57,6 +57,10 @@ import org.wso2.carbon.user.mgt.common.UserRealmInfo;
 import org.wso2.carbon.user.mgt.common.UserStoreInfo;
 import org.wso2.carbon.user.mgt.internal.UserMgtDSComponent;
 import org.wso2.carbon.user.mgt.permission.ManagementPermissionUtil;
+import org.wso2.carbon.user.mgt.permission.UIPermissionTree;
+import org.wso2.carbon.user.mgt.permission.cache.UIPermissionTreeCache;
+import org.wso2.carbon.user.mgt.permission.cache.UIPermissionTreeCacheEntry;
+import org.wso2.carbon.user.mgt.permission.cache.UIPermissionTreeCacheKey;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
@@ -2048,54 +2052,13 @@ public class UserRealmProxy {
     public UIPermissionNode getAllUIPermissions(int tenantId)
             throws UserAdminException {
 
-        UIPermissionNode nodeRoot;
-        Collection regRoot;
-        Collection parent = null;
-        Registry tenentRegistry = null;
-
         try {
-            Registry registry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry();
-            if (tenantId == MultitenantConstants.SUPER_TENANT_ID) {
-                if (CarbonContext.getThreadLocalCarbonContext().getTenantId() != MultitenantConstants.SUPER_TENANT_ID) {
-                    log.error("Illegal access attempt");
-                    throw new UserStoreException("Illegal access attempt");
-                }
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_PERMISSION_ROOT);
-                String displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_PERMISSION_ROOT, displayName);
-            } else {
-
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT);
-
-                tenentRegistry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry(tenantId);
-                Collection appRoot;
-
-                if (tenentRegistry.resourceExists(APPLICATIONS_PATH)) {
-                    appRoot = (Collection) tenentRegistry.get(APPLICATIONS_PATH);
-                    parent = (Collection) tenentRegistry.newCollection();
-                    parent.setProperty(UserMgtConstants.DISPLAY_NAME, "All Permissions");
-                    parent.setChildren(new String[]{regRoot.getPath(), appRoot.getPath()});
-                }
-
-                String displayName = null;
-
-                if (parent != null) {
-                    displayName = parent.getProperty(UserMgtConstants.DISPLAY_NAME);
-                } else {
-                    displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
-                }
-
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT,
-                        displayName);
-            }
-
-            if (parent != null) {
-                buildUIPermissionNode(parent, nodeRoot, registry, tenentRegistry, null, null, null);
-            } else {
-                buildUIPermissionNode(regRoot, nodeRoot, registry, tenentRegistry, null, null, null);
+            if (tenantId == MultitenantConstants.SUPER_TENANT_ID &&
+                    CarbonContext.getThreadLocalCarbonContext().getTenantId() != MultitenantConstants.SUPER_TENANT_ID) {
+                log.error("Illegal access attempt");
+                throw new UserStoreException("Illegal access attempt");
             }
-
-            return nodeRoot;
+            return getUIPermissionTree(tenantId).toUIPermissionNode(null);
         } catch (UserStoreException e) {
             // previously logged so logging not needed
             throw new UserAdminException(e.getMessage(), e);
@@ -2107,52 +2070,11 @@ public class UserRealmProxy {
 
     public UIPermissionNode getRolePermissions(String roleName, int tenantId)
             throws UserAdminException {
-        UIPermissionNode nodeRoot;
-        Collection regRoot;
-        Collection parent = null;
-        Registry tenentRegistry = null;
 
         try {
-            Registry registry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry();
-            if (tenantId == MultitenantConstants.SUPER_TENANT_ID) {
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_PERMISSION_ROOT);
-                String displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_PERMISSION_ROOT, displayName);
-            } else {
-
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT);
-
-                tenentRegistry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry(tenantId);
-                Collection appRoot;
-
-                if (tenentRegistry.resourceExists(APPLICATIONS_PATH)) {
-                    appRoot = (Collection) tenentRegistry.get(APPLICATIONS_PATH);
-                    parent = (Collection) tenentRegistry.newCollection();
-                    parent.setProperty(UserMgtConstants.DISPLAY_NAME, "All Permissions");
-                    parent.setChildren(new String[]{regRoot.getPath(), appRoot.getPath()});
-                }
-
-                String displayName = null;
-
-                if (parent != null) {
-                    displayName = parent.getProperty(UserMgtConstants.DISPLAY_NAME);
-                } else {
-                    displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
-                }
-
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT,
-                        displayName);
-            }
-
-            if (parent != null) {
-                buildUIPermissionNode(parent, nodeRoot, registry, tenentRegistry,
-                        realm.getAuthorizationManager(), roleName, null);
-            } else {
-                buildUIPermissionNode(regRoot, nodeRoot, registry, tenentRegistry,
-                        realm.getAuthorizationManager(), roleName, null);
-            }
-
-            return nodeRoot;
+            final AuthorizationManager authMan = realm.getAuthorizationManager();
+            return getUIPermissionTree(tenantId).toUIPermissionNode(
+                    resourcePath -> authMan.isRoleAuthorized(roleName, resourcePath, UserMgtConstants.EXECUTE_ACTION));
         } catch (UserStoreException e) {
             // previously logged so logging not needed
             throw new UserAdminException(e.getMessage(), e);
@@ -2162,6 +2084,35 @@ public class UserRealmProxy {
         }
     }
 
+    /**
+     * Get the UI permission tree of the tenant from the cache, or build it from the governance registry if it is not
+     * cached or was built before the shared permission root changed.
+     *
+     * @param tenantId Tenant ID.
+     * @return UI permission tree of the tenant.
+     * @throws RegistryException If an error occurred while reading the registry.
+     */
+    private UIPermissionTree getUIPermissionTree(int tenantId) throws RegistryException {
+
+        UIPermissionTreeCache permissionTreeCache = UIPermissionTreeCache.getInstance();
+        UIPermissionTreeCacheKey cacheKey = new UIPermissionTreeCacheKey(tenantId);
+        String rootVersion = permissionTreeCache.getRootVersion();
+        UIPermissionTreeCacheEntry cacheEntry = permissionTreeCache.getValueFromCache(cacheKey, tenantId);
+        if (cacheEntry != null && rootVersion.equals(cacheEntry.getPermissionTree().getRootVersion())) {
+            return cacheEntry.getPermissionTree();
+        }
+
+        UserRegistry registry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry();
+        UserRegistry tenantRegistry = null;
+        if (tenantId != MultitenantConstants.SUPER_TENANT_ID) {
+            tenantRegistry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry(tenantId);
+        }
+        UIPermissionTree permissionTree = UIPermissionTree.build(registry, tenantRegistry, APPLICATIONS_PATH,
+                rootVersion);
+        permissionTreeCache.addToCache(cacheKey, new UIPermissionTreeCacheEntry(permissionTree), tenantId);
+        return permissionTree;
+    }
+
     public void setRoleUIPermission(String roleName, String[] rawResources)
             throws UserAdminException {
 
@@ -2228,14 +2179,40 @@ public class UserRealmProxy {
 
     public void bulkImportUsers(String userStoreDomain, String fileName, InputStream inStream, String defaultPassword)
             throws UserAdminException {
+
+        bulkImportUsers(userStoreDomain, fileName, inStream, defaultPassword, 1);
+    }
+
+    /**
+     * Import the users in the given file, starting from the given data row. An interrupted import can be resumed by
+     * passing the row after the checkpoint row reported in the logs.
+     *
+     * @param userStoreDomain : The user store domain to import the users to.
+     * @param fileName        : The name of the file. Decides the format of the file.
+     * @param inStream        : The content of the file.
+     * @param defaultPassword : The default password of the users.
+     * @param startRow        : The first data row (1 based, excluding the header row) to import.
+     * @throws UserAdminException : Throws if the import fails or completes with errors.
+     */
+    public void bulkImportUsers(String userStoreDomain, String fileName, InputStream inStream, String defaultPassword,
+                                long startRow) throws UserAdminException {
         try {
             BulkImportConfig config = new BulkImportConfig(inStream, fileName);
+            config.setStartRow(startRow);
             if (defaultPassword != null && defaultPassword.trim().length() > 0) {
                 config.setDefaultPassword(defaultPassword.trim());
             }
             if (StringUtils.isNotEmpty(userStoreDomain)) {
                 config.setUserStoreDomain(userStoreDomain);
             }
+            String poolSize = IdentityUtil.getProperty(UserMgtConstants.BULK_IMPORT_POOL_SIZE);
+            if (NumberUtils.isDigits(poolSize)) {
+                config.setPoolSize(Integer.parseInt(poolSize));
+            }
+            String batchSize = IdentityUtil.getProperty(UserMgtConstants.BULK_IMPORT_BATCH_SIZE);
+            if (NumberUtils.isDigits(batchSize)) {
+                config.setBatchSize(Integer.parseInt(batchSize));
+            }
 
             UserStoreManager userStore = this.realm.getUserStoreManager();
             userStore = userStore.getSecondaryUserStoreManager(userStoreDomain);
@@ -2287,98 +2264,6 @@ public class UserRealmProxy {
         }
     }
 
-    private void buildUIPermissionNode(Collection parent, UIPermissionNode parentNode,
-                                       Registry registry, Registry tenantRegistry, AuthorizationManager authMan,
-                                       String roleName, String userName)
-            throws RegistryException, UserStoreException {
-
-        boolean isSelected = false;
-        if (roleName != null) {
-            isSelected = authMan.isRoleAuthorized(roleName, parentNode.getResourcePath(),
-                    UserMgtConstants.EXECUTE_ACTION);
-        } else if (userName != null) {
-            isSelected = authMan.isUserAuthorized(userName, parentNode.getResourcePath(),
-                    UserMgtConstants.EXECUTE_ACTION);
-        }
-        if (isSelected) {
-            buildUIPermissionNodeAllSelected(parent, parentNode, registry, tenantRegistry);
-            parentNode.setSelected(true);
-        } else {
-            buildUIPermissionNodeNotAllSelected(parent, parentNode, registry, tenantRegistry,
-                    authMan, roleName, userName);
-        }
-    }
-
-    private void buildUIPermissionNodeAllSelected(Collection parent, UIPermissionNode parentNode,
-                                                  Registry registry, Registry tenantRegistry) throws RegistryException,
-            UserStoreException {
-
-        String[] children = parent.getChildren();
-        UIPermissionNode[] childNodes = new UIPermissionNode[children.length];
-        for (int i = 0; i < children.length; i++) {
-            String child = children[i];
-            Resource resource = null;
-
-            if (registry.resourceExists(child)) {
-                resource = registry.get(child);
-            } else if (tenantRegistry != null) {
-                resource = tenantRegistry.get(child);
-            } else {
-                throw new RegistryException("Permission resource not found in the registry.");
-            }
-
-            childNodes[i] = getUIPermissionNode(resource, true);
-            if (resource instanceof Collection) {
-                buildUIPermissionNodeAllSelected((Collection) resource, childNodes[i], registry,
-                        tenantRegistry);
-            }
-        }
-        parentNode.setNodeList(childNodes);
-    }
-
-    private void buildUIPermissionNodeNotAllSelected(Collection parent, UIPermissionNode parentNode,
-                                                     Registry registry, Registry tenantRegistry,
-                                                     AuthorizationManager authMan, String roleName, String userName)
-            throws RegistryException, UserStoreException {
-
-        String[] children = parent.getChildren();
-        UIPermissionNode[] childNodes = new UIPermissionNode[children.length];
-
-        for (int i = 0; i < children.length; i++) {
-            String child = children[i];
-            Resource resource = null;
-
-            if (tenantRegistry != null && child.startsWith("/permission/applications")) {
-                resource = tenantRegistry.get(child);
-            } else if (registry.resourceExists(child)) {
-                resource = registry.get(child);
-            } else {
-                throw new RegistryException("Permission resource not found in the registry.");
-            }
-
-            boolean isSelected = false;
-            if (roleName != null) {
-                isSelected = authMan.isRoleAuthorized(roleName, child,
-                        UserMgtConstants.EXECUTE_ACTION);
-            } else if (userName != null) {
-                isSelected = authMan.isUserAuthorized(userName, child,
-                        UserMgtConstants.EXECUTE_ACTION);
-            }
-            childNodes[i] = getUIPermissionNode(resource, isSelected);
-            if (resource instanceof Collection) {
-                buildUIPermissionNodeNotAllSelected((Collection) resource, childNodes[i],
-                        registry, tenantRegistry, authMan, roleName, userName);
-            }
-        }
-        parentNode.setNodeList(childNodes);
-    }
-
-    private UIPermissionNode getUIPermissionNode(Resource resource,
-                                                 boolean isSelected) throws RegistryException {
-        String displayName = resource.getProperty(UserMgtConstants.DISPLAY_NAME);
-        return new UIPermissionNode(resource.getPath(), displayName, isSelected);
-    }
-
     /**
      * Gets logged in user of the server
      *
@@ -2491,115 +2376,23 @@ public class UserRealmProxy {
      */
     public UIPermissionNode getRolePermissions(List<String> roleNames, int tenantId) throws UserAdminException {
 
-        UIPermissionNode nodeRoot;
-        Collection regRoot;
-        Collection parent = null;
-        Registry tenantRegistry = null;
-
         try {
-            Registry registry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry();
-            if (tenantId == MultitenantConstants.SUPER_TENANT_ID) {
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_PERMISSION_ROOT);
-                String displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_PERMISSION_ROOT, displayName);
-            } else {
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT);
-                tenantRegistry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry(tenantId);
-                Collection appRoot;
-
-                if (tenantRegistry.resourceExists(APPLICATIONS_PATH)) {
-                    appRoot = (Collection) tenantRegistry.get(APPLICATIONS_PATH);
-                    parent = (Collection) tenantRegistry.newCollection();
-                    parent.setProperty(UserMgtConstants.DISPLAY_NAME, "All Permissions");
-                    parent.setChildren(new String[] { regRoot.getPath(), appRoot.getPath() });
-                }
-
-                String displayName;
-                if (parent != null) {
-                    displayName = parent.getProperty(UserMgtConstants.DISPLAY_NAME);
-                } else {
-                    displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
+            final AuthorizationManager authMan = realm.getAuthorizationManager();
+            return getUIPermissionTree(tenantId).toUIPermissionNode(resourcePath -> {
+                for (String roleName : roleNames) {
+                    if (StringUtils.isNotBlank(roleName) &&
+                            authMan.isRoleAuthorized(roleName, resourcePath, UserMgtConstants.EXECUTE_ACTION)) {
+                        return true;
+                    }
                 }
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT, displayName);
-            }
-
-            if (parent != null) {
-                buildUIPermissionNode(parent, nodeRoot, registry, tenantRegistry, realm.getAuthorizationManager(),
-                        roleNames);
-            } else {
-                buildUIPermissionNode(regRoot, nodeRoot, registry, tenantRegistry, realm.getAuthorizationManager(),
-                        roleNames);
-            }
-            return nodeRoot;
+                return false;
+            });
         } catch (UserStoreException | RegistryException e) {
             log.error(e.getMessage(), e);
             throw new UserAdminException(e.getMessage(), e);
         }
     }
 
-    private void buildUIPermissionNode(Collection parent, UIPermissionNode parentNode,
-            Registry registry, Registry tenantRegistry, AuthorizationManager authMan,
-            List<String> roleNames)
-            throws RegistryException, UserStoreException {
-
-        boolean isSelected = false;
-        for (String roleName : roleNames) {
-            if (StringUtils.isNotBlank(roleName)) {
-                if (authMan.isRoleAuthorized(roleName, parentNode.getResourcePath(),
-                        UserMgtConstants.EXECUTE_ACTION)) {
-                    isSelected = true;
-                    break;
-                }
-            }
-        }
-
-        if (isSelected) {
-            buildUIPermissionNodeAllSelected(parent, parentNode, registry, tenantRegistry);
-            parentNode.setSelected(true);
-        } else {
-            buildUIPermissionNodeNotAllSelected(parent, parentNode, registry, tenantRegistry,
-                    authMan, roleNames);
-        }
-    }
-
-    private void buildUIPermissionNodeNotAllSelected(Collection parent, UIPermissionNode parentNode,
-            Registry registry, Registry tenantRegistry,
-            AuthorizationManager authMan, List<String> roleNames)
-            throws RegistryException, UserStoreException {
-
-        String[] children = parent.getChildren();
-        UIPermissionNode[] childNodes = new UIPermissionNode[children.length];
-
-        for (int i = 0; i < children.length; i++) {
-            String child = children[i];
-            Resource resource;
-
-            if (tenantRegistry != null && child.startsWith("/permission/applications")) {
-                resource = tenantRegistry.get(child);
-            } else if (registry.resourceExists(child)) {
-                resource = registry.get(child);
-            } else {
-                throw new RegistryException("Permission resource not found in the registry.");
-            }
-
-            boolean isSelected = false;
-            for (String roleName : roleNames) {
-                if (StringUtils.isNotBlank(roleName)) {
-                    if (authMan.isRoleAuthorized(roleName, child, UserMgtConstants.EXECUTE_ACTION)) {
-                        isSelected = true;
-                        break;
-                    }
-                }
-            }
-            childNodes[i] = getUIPermissionNode(resource, isSelected);
-            if (resource instanceof Collection) {
-                buildUIPermissionNodeNotAllSelected((Collection) resource, childNodes[i],
-                        registry, tenantRegistry, authMan, roleNames);
-            }
-        }
-        parentNode.setNodeList(childNodes);
-    }
-
     /**
      * Get hybrid role list of a group.
      *
@@ -18,6 +18,8 @@
 
 package org.wso2.carbon.user.mgt.bulkimport;
 
+import org.wso2.carbon.user.mgt.UserMgtConstants;
+
 import java.io.InputStream;
 
 public class BulkImportConfig {
@@ -26,6 +28,9 @@ public class BulkImportConfig {
     private String userStoreDomain;
     private String fileName;
     private String defaultPassword;
+    private int poolSize = UserMgtConstants.DEFAULT_BULK_IMPORT_POOL_SIZE;
+    private int batchSize = UserMgtConstants.DEFAULT_BULK_IMPORT_BATCH_SIZE;
+    private long startRow = 1;
 
     public BulkImportConfig(InputStream inStream, String fileName) {
         this.inStream = inStream;
@@ -63,4 +68,34 @@ public class BulkImportConfig {
     public void setInStream(InputStream inStream) {
         this.inStream = inStream;
     }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * The first data row (1 based, excluding the header row) to import. Rows before this are skipped, which allows
+     * an interrupted import to be resumed from the checkpoint reported in the logs.
+     *
+     * @return : The first data row to import.
+     */
+    public long getStartRow() {
+        return startRow;
+    }
+
+    public void setStartRow(long startRow) {
+        this.startRow = startRow;
+    }
 }
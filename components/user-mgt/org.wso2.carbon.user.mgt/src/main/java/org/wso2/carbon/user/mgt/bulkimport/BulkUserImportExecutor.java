@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.user.mgt.bulkimport;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.mgt.common.UserAdminException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipeline which streams the rows read by a {@link UserBulkImport} into the user store.
+ * Rows are grouped into batches and the batches are executed on a bounded worker pool. When the pool queue is full
+ * the reading thread executes the batch itself, which keeps the number of rows held in memory bounded regardless of
+ * the size of the source file.
+ * After each batch completes, the progress, the throughput and the checkpoint (the last data row up to which every
+ * row has been processed) are logged. An interrupted import can be resumed from the row after the checkpoint through
+ * {@link org.wso2.carbon.user.mgt.UserRealmProxy#bulkImportUsers(String, String, java.io.InputStream, String, long)}.
+ */
+class BulkUserImportExecutor {
+
+    private static final Log log = LogFactory.getLog(BulkUserImportExecutor.class);
+
+    private final UserBulkImport userBulkImport;
+    private final UserStoreManager userStore;
+    private final int batchSize;
+    private final long startRow;
+    private final ThreadPoolExecutor workerPool;
+    private final int tenantId;
+    private final String tenantDomain;
+    private final String username;
+    private final long startTime = System.currentTimeMillis();
+    private final AtomicLong processedRows = new AtomicLong();
+
+    // Batches may complete out of order. The checkpoint only advances over a contiguous range of completed batches.
+    // A batch which failed partway stops the checkpoint at the last row processed in that batch.
+    private final Map<Long, Long> completedBatches = new HashMap<>();
+    private long nextBatchToCheckpoint = 0;
+    private long checkpointRow;
+    private long failedBatch = -1;
+    private long failedBatchLastProcessedRow;
+    private Throwable batchFailure;
+
+    private List<String[]> currentBatch;
+    private List<Long> currentBatchRowNumbers;
+    private long batchSequence = 0;
+
+    BulkUserImportExecutor(UserBulkImport userBulkImport, UserStoreManager userStore, BulkImportConfig config) {
+
+        this.userBulkImport = userBulkImport;
+        this.userStore = userStore;
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.startRow = Math.max(1, config.getStartRow());
+        this.checkpointRow = this.startRow - 1;
+        this.currentBatch = new ArrayList<>(batchSize);
+        this.currentBatchRowNumbers = new ArrayList<>(batchSize);
+
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        this.tenantId = carbonContext.getTenantId();
+        this.tenantDomain = carbonContext.getTenantDomain();
+        this.username = carbonContext.getUsername();
+
+        int poolSize = config.getPoolSize();
+        if (poolSize > 1) {
+            workerPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(poolSize * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        } else {
+            workerPool = null;
+        }
+    }
+
+    /**
+     * Add a row to the import pipeline.
+     *
+     * @param rowNumber : The 1 based data row number of the row, excluding the header row.
+     * @param line      : The row read from the source file. First column is the user name.
+     */
+    void submit(long rowNumber, String[] line) {
+
+        if (rowNumber < startRow || line == null || line.length == 0) {
+            return;
+        }
+        currentBatch.add(line);
+        currentBatchRowNumbers.add(rowNumber);
+        if (currentBatch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Flush the remaining rows and wait until all the submitted batches are imported.
+     *
+     * @throws UserAdminException : Throws if the thread is interrupted while waiting for the workers, or if a batch
+     *                            failed before all of its rows were processed.
+     */
+    void awaitCompletion() throws UserAdminException {
+
+        flush();
+        if (workerPool != null) {
+            awaitWorkers();
+        }
+        synchronized (this) {
+            if (batchFailure != null) {
+                throw new UserAdminException("Bulk user import failed. Import can be resumed from row : "
+                        + (checkpointRow + 1), batchFailure);
+            }
+        }
+    }
+
+    private void awaitWorkers() throws UserAdminException {
+
+        workerPool.shutdown();
+        try {
+            while (!workerPool.awaitTermination(1, TimeUnit.MINUTES)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Waiting for bulk user import workers to complete. Processed rows : "
+                            + processedRows.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new UserAdminException("Bulk user import was interrupted. Import can be resumed from row : "
+                    + (getCheckpointRow() + 1), e);
+        }
+    }
+
+    /**
+     * Stop the workers without waiting for the pending batches. Used when reading the source file fails.
+     */
+    void abort() {
+
+        if (workerPool != null && !workerPool.isTerminated()) {
+            workerPool.shutdownNow();
+            log.warn("Bulk user import was aborted. Import can be resumed from row : " +
+                    (getCheckpointRow() + 1));
+        }
+    }
+
+    /**
+     * Returns the last data row up to which every row has been processed.
+     *
+     * @return : The checkpoint row.
+     */
+    synchronized long getCheckpointRow() {
+
+        return checkpointRow;
+    }
+
+    private void flush() {
+
+        if (currentBatch.isEmpty()) {
+            return;
+        }
+        Runnable batchTask = new ImportBatchTask(batchSequence++, currentBatch, currentBatchRowNumbers);
+        currentBatch = new ArrayList<>(batchSize);
+        currentBatchRowNumbers = new ArrayList<>(batchSize);
+        if (workerPool == null) {
+            batchTask.run();
+        } else {
+            workerPool.execute(batchTask);
+        }
+    }
+
+    private synchronized void onBatchCompleted(long sequence, long lastRow) {
+
+        completedBatches.put(sequence, lastRow);
+        advanceCheckpoint();
+        long processed = processedRows.get();
+        long elapsedMillis = Math.max(1, System.currentTimeMillis() - startTime);
+        log.info(String.format("Bulk user import progress - Processed rows : %d, Throughput : %.2f users/s, " +
+                "Checkpoint row : %d", processed, processed * 1000.0 / elapsedMillis, checkpointRow));
+    }
+
+    private synchronized void onBatchFailed(long sequence, long lastProcessedRow, Throwable cause) {
+
+        if (failedBatch < 0 || sequence < failedBatch) {
+            failedBatch = sequence;
+            failedBatchLastProcessedRow = lastProcessedRow;
+            batchFailure = cause;
+        }
+        advanceCheckpoint();
+        log.error("Bulk user import batch failed before all of its rows were processed. Import can be resumed " +
+                "from row : " + (checkpointRow + 1), cause);
+    }
+
+    private void advanceCheckpoint() {
+
+        while (completedBatches.containsKey(nextBatchToCheckpoint)) {
+            checkpointRow = completedBatches.remove(nextBatchToCheckpoint);
+            nextBatchToCheckpoint++;
+        }
+        if (nextBatchToCheckpoint == failedBatch && failedBatchLastProcessedRow > checkpointRow) {
+            checkpointRow = failedBatchLastProcessedRow;
+        }
+    }
+
+    /**
+     * Imports a batch of rows within the tenant flow of the user who triggered the import.
+     */
+    private class ImportBatchTask implements Runnable {
+
+        private final long sequence;
+        private final List<String[]> rows;
+        private final List<Long> rowNumbers;
+
+        ImportBatchTask(long sequence, List<String[]> rows, List<Long> rowNumbers) {
+
+            this.sequence = sequence;
+            this.rows = rows;
+            this.rowNumbers = rowNumbers;
+        }
+
+        @Override
+        public void run() {
+
+            // Rows before the first row of the batch are already covered by the previous batches.
+            long lastProcessedRow = rowNumbers.get(0) - 1;
+            PrivilegedCarbonContext.startTenantFlow();
+            try {
+                PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+                carbonContext.setTenantId(tenantId);
+                carbonContext.setTenantDomain(tenantDomain);
+                carbonContext.setUsername(username);
+                for (int i = 0; i < rows.size(); i++) {
+                    userBulkImport.importUser(rows.get(i), userStore);
+                    processedRows.incrementAndGet();
+                    lastProcessedRow = rowNumbers.get(i);
+                }
+            } catch (RuntimeException | Error e) {
+                onBatchFailed(sequence, lastProcessedRow, e);
+                throw e;
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+            onBatchCompleted(sequence, lastProcessedRow);
+        }
+    }
+}
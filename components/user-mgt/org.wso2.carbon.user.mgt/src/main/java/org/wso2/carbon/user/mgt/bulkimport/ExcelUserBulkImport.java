@@ -18,27 +18,40 @@
 
 package org.wso2.carbon.user.mgt.bulkimport;
 
-import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.wso2.carbon.CarbonConstants;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.wso2.carbon.identity.core.util.IdentityIOStreamUtils;
-import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.carbon.user.core.UserStoreManager;
-import org.wso2.carbon.user.core.util.UserCoreUtil;
 import org.wso2.carbon.user.mgt.UserMgtConstants;
 import org.wso2.carbon.user.mgt.bulkimport.util.JSONConverter;
 import org.wso2.carbon.user.mgt.common.UserAdminException;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
 
 /**
  * Class to import users from Excel format files.
@@ -56,87 +69,108 @@ public class ExcelUserBulkImport extends UserBulkImport {
 
     public void addUserList(UserStoreManager userStore) throws UserAdminException {
 
-        Workbook wb = this.createWorkbook();
-        Sheet sheet = wb.getSheet(wb.getSheetName(0));
         userStoreDomain = config.getUserStoreDomain();
+        BulkUserImportExecutor importExecutor = new BulkUserImportExecutor(this, userStore, config);
+        List<String> importedUserNames = new ArrayList<>();
 
-        if (sheet == null || sheet.getLastRowNum() == -1) {
-            throw new UserAdminException("The first sheet is empty");
-        }
-        int limit = sheet.getLastRowNum();
-        boolean isDuplicate = false;
-        boolean fail = false;
-        for (int i = 1; i < limit + 1; i++) {
-            Row row = sheet.getRow(i);
-            Cell cell = row.getCell(0);
-            String userName = cell.getStringCellValue();
-
-            int index;
-            index = userName.indexOf(CarbonConstants.DOMAIN_SEPARATOR);
-            if (index > 0) {
-                String domainFreeName = userName.substring(index + 1);
-                userName = UserCoreUtil.addDomainToName(domainFreeName, userStoreDomain);
+        try {
+            if (config.getFileName().endsWith(".xlsx")) {
+                streamXlsxSheet(importExecutor, importedUserNames);
             } else {
-                userName = UserCoreUtil.addDomainToName(userName, userStoreDomain);
-            }
-
-            if (StringUtils.isNotBlank(userName)) {
-                try {
-                    if (!userStore.isExistingUser(userName)) {
-                        userStore.addUser(userName, null, null, null, null, true);
-                        successCount++;
-                        if (log.isDebugEnabled()) {
-                            log.debug("User import successful - Username : " + userName);
-                        }
-                    } else {
-                        duplicateCount++;
-                        duplicateUsers.add(userName);
-                        isDuplicate = true;
-                        log.error("User import unsuccessful - Username : " + userName + " - Error: Duplicate user");
-                        duplicateUsers.add(userName);
-                    }
-                } catch (UserStoreException e) {
-                    fail = true;
-                    failCount++;
-                    log.error("User import unsuccessful - Username : " + userName + " - Error: " +
-                            e.getMessage());
-                    errorUsersMap.put(userName, e.getMessage());
-                }
+                readXlsSheet(importExecutor, importedUserNames);
             }
+            importExecutor.awaitCompletion();
+        } finally {
+            importExecutor.abort();
         }
 
         String summeryLog = super.buildBulkImportSummary();
         log.info(summeryLog);
 
         JSONConverter jsonConverter = new JSONConverter();
-        String importedUsers = jsonConverter.xlsToJSON(sheet);
+        String importedUsers = jsonConverter.userNamesToJSON(importedUserNames);
         auditLog.info(String.format(UserMgtConstants.AUDIT_LOG_FORMAT, tenantUser, UserMgtConstants.OPERATION_NAME,
                 userStoreDomain, importedUsers, summeryLog));
 
-        if (fail || isDuplicate) {
-            throw new UserAdminException(String.format(UserMgtConstants.ERROR_MESSAGE, successCount, failCount,
-                    duplicateCount));
+        if (hasErrors()) {
+            throw buildImportException();
+        }
+    }
+
+    /**
+     * Read the first sheet of a xlsx file through the SAX based event API of POI, so that the rows are handed over
+     * to the import pipeline as they are parsed instead of loading the whole workbook into memory.
+     *
+     * @param importExecutor    : The pipeline the rows are submitted to.
+     * @param importedUserNames : List to collect the user names for the audit log.
+     * @throws UserAdminException : Throws if there is any error occurred while reading the file.
+     */
+    private void streamXlsxSheet(BulkUserImportExecutor importExecutor, List<String> importedUserNames)
+            throws UserAdminException {
+
+        InputStream ins = config.getInStream();
+        OPCPackage opcPackage = null;
+        try {
+            opcPackage = OPCPackage.open(ins);
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+            StylesTable styles = xssfReader.getStylesTable();
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new UserAdminException("The first sheet is empty");
+            }
+            FirstColumnHandler rowHandler = new FirstColumnHandler(importExecutor, importedUserNames);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader sheetParser = XMLHelper.newXMLReader();
+                sheetParser.setContentHandler(new XSSFSheetXMLHandler(styles, null, sharedStrings, rowHandler,
+                        new DataFormatter(), false));
+                sheetParser.parse(new InputSource(sheet));
+            }
+            if (!rowHandler.hasRows()) {
+                throw new UserAdminException("The first sheet is empty");
+            }
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new UserAdminException("Error reading the xlsx file " + e.getMessage(), e);
+        } finally {
+            if (opcPackage != null) {
+                // The package is only read, hence discard it without writing anything back.
+                opcPackage.revert();
+            }
+            IdentityIOStreamUtils.closeInputStream(ins);
+        }
+    }
+
+    private void readXlsSheet(BulkUserImportExecutor importExecutor, List<String> importedUserNames)
+            throws UserAdminException {
+
+        Workbook wb = this.createWorkbook();
+        Sheet sheet = wb.getSheet(wb.getSheetName(0));
+        if (sheet == null || sheet.getLastRowNum() == -1) {
+            throw new UserAdminException("The first sheet is empty");
+        }
+        int limit = sheet.getLastRowNum();
+        for (int i = 1; i < limit + 1; i++) {
+            Row row = sheet.getRow(i);
+            Cell cell = row.getCell(0);
+            String userName = cell.getStringCellValue();
+            importedUserNames.add(userName);
+            importExecutor.submit(i, new String[]{userName});
         }
     }
 
     /**
-     * Generate a WorkBook object from the excel file.
+     * Generate a WorkBook object from the xls file.
      *
      * @return : The generated workbook
      * @throws UserAdminException : Throws if there is any error occurred in the process of creating the workbook.
      */
     private Workbook createWorkbook() throws UserAdminException {
 
-        String filename = config.getFileName();
         InputStream ins = config.getInStream();
         Workbook wb;
         try {
-            if (filename.endsWith(".xlsx")) {
-                wb = new XSSFWorkbook(ins);
-            } else {
-                POIFSFileSystem fs = new POIFSFileSystem(ins);
-                wb = new HSSFWorkbook(fs);
-            }
+            POIFSFileSystem fs = new POIFSFileSystem(ins);
+            wb = new HSSFWorkbook(fs);
         } catch (IOException e) {
             throw new UserAdminException("Error reading the xls file " + e.getMessage(), e);
         } finally {
@@ -144,4 +178,57 @@ public class ExcelUserBulkImport extends UserBulkImport {
         }
         return wb;
     }
+
+    /**
+     * Sheet handler which submits the user name in the first column of each data row to the import pipeline.
+     */
+    private static class FirstColumnHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final BulkUserImportExecutor importExecutor;
+        private final List<String> importedUserNames;
+        private String userName;
+        private boolean hasRows;
+
+        FirstColumnHandler(BulkUserImportExecutor importExecutor, List<String> importedUserNames) {
+
+            this.importExecutor = importExecutor;
+            this.importedUserNames = importedUserNames;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+
+            userName = null;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+
+            hasRows = true;
+            // The first row of the sheet is the header row.
+            if (rowNum == 0 || userName == null) {
+                return;
+            }
+            importedUserNames.add(userName);
+            importExecutor.submit(rowNum, new String[]{userName});
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+
+            if (cellReference != null && new CellReference(cellReference).getCol() == 0) {
+                userName = formattedValue;
+            }
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+
+        }
+
+        boolean hasRows() {
+
+            return hasRows;
+        }
+    }
 }
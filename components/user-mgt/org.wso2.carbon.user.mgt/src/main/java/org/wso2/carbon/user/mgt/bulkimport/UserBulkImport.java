@@ -21,17 +21,25 @@ package org.wso2.carbon.user.mgt.bulkimport;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.CarbonConstants;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.util.UserCoreUtil;
 import org.wso2.carbon.user.mgt.UserMgtConstants;
 import org.wso2.carbon.user.mgt.common.UserAdminException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class to import multiple users to the Identity user store.
@@ -39,15 +47,20 @@ import java.util.Map;
  */
 public abstract class UserBulkImport {
 
+    private static final Log log = LogFactory.getLog(UserBulkImport.class);
     static final Log auditLog = CarbonConstants.AUDIT_LOG;
-    static final Map<String, String> errorUsersMap = new HashMap<>();
-    static final List<String> duplicateUsers = new ArrayList<>();
+    private static final int USER_NAME_LOCK_COUNT = 64;
+    final Map<String, String> errorUsersMap = new ConcurrentHashMap<>();
+    final List<String> duplicateUsers = Collections.synchronizedList(new ArrayList<>());
     String userStoreDomain = "";
-    int successCount = 0;
-    int failCount = 0;
-    int duplicateCount = 0;
+    final AtomicInteger successCount = new AtomicInteger();
+    final AtomicInteger failCount = new AtomicInteger();
+    final AtomicInteger duplicateCount = new AtomicInteger();
     String tenantUser = PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername() + "@"
             + PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+    // Rows of the same user name are checked and added under the same lock, so that a user name repeated in the
+    // source file is reported as a duplicate as it is when the rows are imported one after the other.
+    private final Object[] userNameLocks = createUserNameLocks();
 
     /**
      * Method to add users to the given user store.
@@ -57,6 +70,135 @@ public abstract class UserBulkImport {
      */
     public abstract void addUserList(UserStoreManager userStore) throws UserAdminException;
 
+    /**
+     * Import a single row read from the source file. This is invoked concurrently by the
+     * {@link BulkUserImportExecutor} workers, hence it only touches thread safe state.
+     *
+     * @param line      : The row read from the source file. First column is the user name.
+     * @param userStore : The user store which the user should be imported to.
+     */
+    void importUser(String[] line, UserStoreManager userStore) {
+
+        String userName = resolveUserName(line[0]);
+        if (StringUtils.isBlank(userName)) {
+            return;
+        }
+        try {
+            synchronized (getUserNameLock(userName)) {
+                if (userStore.isExistingUser(userName)) {
+                    duplicateCount.incrementAndGet();
+                    duplicateUsers.add(userName);
+                    log.error("User import unsuccessful - Username : " + userName + " - Error: Duplicate user");
+                    return;
+                }
+                if (line.length == 1) {
+                    userStore.addUser(userName, null, null, null, null, true);
+                } else {
+                    addUserWithClaims(userName, line, userStore);
+                }
+            }
+            successCount.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("User import successful - Username : " + userName);
+            }
+        } catch (UserStoreException | RuntimeException e) {
+            failCount.incrementAndGet();
+            errorUsersMap.put(userName, String.valueOf(e.getMessage()));
+            log.error("User import unsuccessful - Username : " + userName + " - Error: " + e.getMessage(), e);
+        }
+    }
+
+    private static Object[] createUserNameLocks() {
+
+        Object[] locks = new Object[USER_NAME_LOCK_COUNT];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private Object getUserNameLock(String userName) {
+
+        int hash = userName.toLowerCase(Locale.ENGLISH).hashCode();
+        return userNameLocks[(hash & Integer.MAX_VALUE) % userNameLocks.length];
+    }
+
+    /**
+     * Whether any of the imported rows ended up as a failure or a duplicate.
+     *
+     * @return : True if the import should be reported as completed with errors.
+     */
+    boolean hasErrors() {
+
+        return failCount.get() > 0 || duplicateCount.get() > 0;
+    }
+
+    /**
+     * Build the error thrown back to the caller when the import completed with errors.
+     *
+     * @return : UserAdminException with the import counts.
+     */
+    UserAdminException buildImportException() {
+
+        return new UserAdminException(String.format(UserMgtConstants.ERROR_MESSAGE, successCount.get(),
+                failCount.get(), duplicateCount.get()));
+    }
+
+    private String resolveUserName(String userName) {
+
+        if (userName == null) {
+            return null;
+        }
+        int index = userName.indexOf(CarbonConstants.DOMAIN_SEPARATOR);
+        if (index > 0) {
+            String domainFreeName = userName.substring(index + 1);
+            return UserCoreUtil.addDomainToName(domainFreeName, userStoreDomain);
+        }
+        return UserCoreUtil.addDomainToName(userName, userStoreDomain);
+    }
+
+    /**
+     * Method to handle adding users with claim values.
+     *
+     * @param username : The name of the importing user.
+     * @param line : The line read from the source file.
+     * @param userStore : The user store which the user should be imported to.
+     * @throws UserStoreException : Throws when there is any error occurred while adding the user to user store.
+     */
+    private void addUserWithClaims(String username, String[] line, UserStoreManager userStore)
+            throws UserStoreException {
+        String roleString = null;
+        String[] roles = null;
+        String password = line[1];
+        Map<String, String> claims = new HashMap<>();
+        for (int i = 2; i < line.length; i++) {
+            if (StringUtils.isNotBlank(line[i])) {
+                String[] claimStrings = line[i].split("=");
+                if (claimStrings.length != 2) {
+                    throw new IllegalArgumentException("Claims and values are not in correct format");
+                } else {
+                    String claimURI = claimStrings[0];
+                    String claimValue = claimStrings[1];
+                    if (claimURI.contains("role")) {
+                        roleString = claimValue;
+                    } else {
+                        if (!claimURI.isEmpty()) {
+                            // Not trimming the claim values as we should not restrict the claim values not to have
+                            // leading or trailing whitespaces.
+                            claims.put(claimURI.trim(), claimValue);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (StringUtils.isNotBlank(roleString)) {
+            roles = roleString.split(":");
+        }
+
+        userStore.addUser(username, password, roles, claims, null, true);
+    }
+
     /**
      * Build the summery log for the bulk user import operation.
      * The structure of the summery would be as follows.
@@ -83,26 +225,28 @@ public abstract class UserBulkImport {
         summaryJson.addProperty(UserMgtConstants.PERFORMED_BY,
                 PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername());
         summaryJson.addProperty(UserMgtConstants.USER_STORE, userStoreDomain);
-        summaryJson.addProperty(UserMgtConstants.SUCCESS_COUNT, successCount);
+        summaryJson.addProperty(UserMgtConstants.SUCCESS_COUNT, successCount.get());
 
-        if (duplicateCount > 0) {
+        if (duplicateCount.get() > 0) {
             duplicateUsersJson = new JsonObject();
             duplicateUsersJsonArray = new JsonArray();
-            duplicateUsersJson.addProperty(UserMgtConstants.COUNT, duplicateCount);
+            duplicateUsersJson.addProperty(UserMgtConstants.COUNT, duplicateCount.get());
 
-            for (String user : duplicateUsers) {
-                JsonPrimitive userJson = new JsonPrimitive(user);
-                duplicateUsersJsonArray.add(userJson);
+            synchronized (duplicateUsers) {
+                for (String user : duplicateUsers) {
+                    JsonPrimitive userJson = new JsonPrimitive(user);
+                    duplicateUsersJsonArray.add(userJson);
+                }
             }
 
             duplicateUsersJson.add(UserMgtConstants.USERS, duplicateUsersJsonArray);
             summaryJson.add(UserMgtConstants.DUPLICATE_USERS, duplicateUsersJson);
         }
 
-        if (failCount > 0) {
+        if (failCount.get() > 0) {
             errorUsersJson = new JsonObject();
             errorUsersJsonArray = new JsonArray();
-            errorUsersJson.addProperty(UserMgtConstants.COUNT, failCount);
+            errorUsersJson.addProperty(UserMgtConstants.COUNT, failCount.get());
             for (Object o : errorUsersMap.entrySet()) {
                 Map.Entry pair = (Map.Entry) o;
                 errorUserJson = new JsonObject();
@@ -32,6 +32,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.List;
 
 /**
  * Class to convert CSV/ XLS format files to JSON format.
@@ -97,4 +98,20 @@ public class JSONConverter {
         content.add(UserMgtConstants.USERS, users);
         return content.toString();
     }
+
+    /**
+     * Converts the list of user names read from a file to json format.
+     *
+     * @param userNames : The user names read from the file.
+     * @return : Json string which represents the user names.
+     */
+    public String userNamesToJSON(List<String> userNames) {
+
+        users = new JsonArray();
+        for (String name : userNames) {
+            users.add(new JsonPrimitive(name));
+        }
+        content.add(UserMgtConstants.USERS, users);
+        return content.toString();
+    }
 }
@@ -30,6 +30,7 @@ import org.wso2.carbon.registry.core.Collection;
 import org.wso2.carbon.registry.core.Registry;
 import org.wso2.carbon.user.mgt.UserMgtConstants;
 import org.wso2.carbon.user.mgt.internal.UserMgtDSComponent;
+import org.wso2.carbon.user.mgt.permission.cache.UIPermissionTreeCache;
 import org.wso2.carbon.utils.component.xml.Component;
 import org.wso2.carbon.utils.component.xml.ComponentConfigFactory;
 import org.wso2.carbon.utils.component.xml.builder.ManagementPermissionsBuilder;
@@ -106,6 +107,8 @@ public class ManagementPermissionsAdder implements BundleListener {
                 resource.setProperty(UserMgtConstants.DISPLAY_NAME, uiPermission.getDisplayName());
                 registry.put(uiPermission.getResourceId(), resource);
             }
+            // Permissions of the super tenant are shared with all the tenants.
+            UIPermissionTreeCache.getInstance().invalidateAll();
         }
     }
 
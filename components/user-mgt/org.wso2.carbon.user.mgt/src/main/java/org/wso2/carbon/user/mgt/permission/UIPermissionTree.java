@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.user.mgt.permission;
+
+import org.wso2.carbon.registry.core.Collection;
+import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.mgt.UserMgtConstants;
+import org.wso2.carbon.user.mgt.common.UIPermissionNode;
+
+import java.io.Serializable;
+
+/**
+ * Immutable snapshot of the UI permission resources of a tenant, read from the governance registry.
+ * The snapshot is built once per tenant and cached, and the {@link UIPermissionNode} trees returned to the callers
+ * are derived from it without reading the registry again.
+ */
+public final class UIPermissionTree implements Serializable {
+
+    private static final long serialVersionUID = -1526074820163948853L;
+
+    private static final String APPLICATION_PERMISSION_PATH = "/permission/applications";
+    private static final String ALL_PERMISSIONS_DISPLAY_NAME = "All Permissions";
+
+    private final Node root;
+    private final String rootVersion;
+
+    private UIPermissionTree(Node root, String rootVersion) {
+
+        this.root = root;
+        this.rootVersion = rootVersion;
+    }
+
+    /**
+     * Build the permission tree of a tenant. The super tenant sees the whole permission root, while other tenants see
+     * the admin permission root merged with the application permissions of the tenant.
+     *
+     * @param registry         Governance system registry of the super tenant.
+     * @param tenantRegistry   Governance system registry of the tenant. Null for the super tenant.
+     * @param applicationsPath Path of the application permission root in the tenant registry.
+     * @param rootVersion      Version of the shared permission root the tree is built from.
+     * @return Permission tree of the tenant.
+     * @throws RegistryException If an error occurred while reading the registry.
+     */
+    public static UIPermissionTree build(Registry registry, Registry tenantRegistry, String applicationsPath,
+                                         String rootVersion) throws RegistryException {
+
+        Collection regRoot;
+        Collection parent = null;
+        String rootPath;
+        if (tenantRegistry == null) {
+            regRoot = (Collection) registry.get(UserMgtConstants.UI_PERMISSION_ROOT);
+            rootPath = UserMgtConstants.UI_PERMISSION_ROOT;
+        } else {
+            regRoot = (Collection) registry.get(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT);
+            rootPath = UserMgtConstants.UI_ADMIN_PERMISSION_ROOT;
+            if (tenantRegistry.resourceExists(applicationsPath)) {
+                Collection appRoot = (Collection) tenantRegistry.get(applicationsPath);
+                parent = (Collection) tenantRegistry.newCollection();
+                parent.setProperty(UserMgtConstants.DISPLAY_NAME, ALL_PERMISSIONS_DISPLAY_NAME);
+                parent.setChildren(new String[]{regRoot.getPath(), appRoot.getPath()});
+            }
+        }
+
+        Collection rootCollection = parent != null ? parent : regRoot;
+        Node root = new Node(rootPath, rootCollection.getProperty(UserMgtConstants.DISPLAY_NAME),
+                buildChildren(rootCollection, registry, tenantRegistry));
+        return new UIPermissionTree(root, rootVersion);
+    }
+
+    public String getRootVersion() {
+
+        return rootVersion;
+    }
+
+    /**
+     * Derive a new {@link UIPermissionNode} tree from the snapshot.
+     * If the root is selected all the nodes are marked as selected, otherwise each node is checked individually.
+     *
+     * @param selector Decides whether a permission is selected. Null if no permission should be selected.
+     * @return Root of the derived tree.
+     * @throws UserStoreException If an error occurred while checking the permissions.
+     */
+    public UIPermissionNode toUIPermissionNode(PermissionSelector selector) throws UserStoreException {
+
+        UIPermissionNode rootNode = new UIPermissionNode(root.path, root.displayName);
+        boolean isRootSelected = selector != null && selector.isSelected(root.path);
+        rootNode.setSelected(isRootSelected);
+        rootNode.setNodeList(toUIPermissionNodes(root.children, selector, isRootSelected));
+        return rootNode;
+    }
+
+    private static UIPermissionNode[] toUIPermissionNodes(Node[] nodes, PermissionSelector selector,
+                                                          boolean allSelected) throws UserStoreException {
+
+        UIPermissionNode[] uiPermissionNodes = new UIPermissionNode[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            Node node = nodes[i];
+            boolean isSelected = allSelected || (selector != null && selector.isSelected(node.path));
+            uiPermissionNodes[i] = new UIPermissionNode(node.path, node.displayName, isSelected);
+            if (node.children.length > 0) {
+                uiPermissionNodes[i].setNodeList(toUIPermissionNodes(node.children, selector, allSelected));
+            }
+        }
+        return uiPermissionNodes;
+    }
+
+    private static Node[] buildChildren(Collection parent, Registry registry, Registry tenantRegistry)
+            throws RegistryException {
+
+        String[] children = parent.getChildren();
+        Node[] childNodes = new Node[children.length];
+        for (int i = 0; i < children.length; i++) {
+            String child = children[i];
+            Resource resource;
+            if (tenantRegistry != null && child.startsWith(APPLICATION_PERMISSION_PATH)) {
+                resource = tenantRegistry.get(child);
+            } else if (registry.resourceExists(child)) {
+                resource = registry.get(child);
+            } else {
+                throw new RegistryException("Permission resource not found in the registry.");
+            }
+
+            Node[] grandChildren = new Node[0];
+            if (resource instanceof Collection) {
+                grandChildren = buildChildren((Collection) resource, registry, tenantRegistry);
+            }
+            childNodes[i] = new Node(resource.getPath(), resource.getProperty(UserMgtConstants.DISPLAY_NAME),
+                    grandChildren);
+        }
+        return childNodes;
+    }
+
+    /**
+     * Decides whether a permission resource is selected in a derived {@link UIPermissionNode} tree.
+     */
+    public interface PermissionSelector {
+
+        boolean isSelected(String resourcePath) throws UserStoreException;
+    }
+
+    private static final class Node implements Serializable {
+
+        private static final long serialVersionUID = 8340971462310295586L;
+
+        private final String path;
+        private final String displayName;
+        private final Node[] children;
+
+        private Node(String path, String displayName, Node[] children) {
+
+            this.path = path;
+            this.displayName = displayName;
+            this.children = children;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.user.mgt.permission.cache;
+
+import org.wso2.carbon.identity.core.cache.BaseCache;
+
+/**
+ * Cache holding the version of the shared UI permission root. The version is kept in the super tenant space, so
+ * clearing it is propagated to the other nodes of the cluster like any other cache invalidation.
+ */
+public class UIPermissionRootVersionCache extends BaseCache<String, UIPermissionRootVersionCacheEntry> {
+
+    private static final String UI_PERMISSION_ROOT_VERSION_CACHE_NAME = "UIPermissionRootVersionCache";
+
+    private static volatile UIPermissionRootVersionCache instance;
+
+    private UIPermissionRootVersionCache() {
+
+        super(UI_PERMISSION_ROOT_VERSION_CACHE_NAME);
+    }
+
+    public static UIPermissionRootVersionCache getInstance() {
+
+        if (instance == null) {
+            synchronized (UIPermissionRootVersionCache.class) {
+                if (instance == null) {
+                    instance = new UIPermissionRootVersionCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.user.mgt.permission.cache;
+
+import org.wso2.carbon.identity.core.cache.CacheEntry;
+
+/**
+ * Cache entry holding the version of the shared UI permission root.
+ */
+public class UIPermissionRootVersionCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = 3928475610293847561L;
+
+    private final String version;
+
+    public UIPermissionRootVersionCacheEntry(String version) {
+
+        this.version = version;
+    }
+
+    public String getVersion() {
+
+        return version;
+    }
+}
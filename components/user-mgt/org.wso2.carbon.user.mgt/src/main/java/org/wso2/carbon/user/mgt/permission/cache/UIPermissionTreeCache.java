@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.user.mgt.permission.cache;
+
+import org.wso2.carbon.identity.core.cache.BaseCache;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.UUID;
+
+/**
+ * Cache for the UI permission tree of each tenant.
+ * Tenant specific permissions (eg: application permissions) are invalidated with {@link #clear(int)}. Permissions
+ * added to the super tenant permission root are shared by every tenant. Each tree records the version of the shared
+ * root it was built from, and such changes replace the version, which makes all the trees built before the change
+ * stale on every node.
+ */
+public class UIPermissionTreeCache extends BaseCache<UIPermissionTreeCacheKey, UIPermissionTreeCacheEntry> {
+
+    private static final String UI_PERMISSION_TREE_CACHE_NAME = "UIPermissionTreeCache";
+    private static final String ROOT_VERSION_KEY = "UIPermissionRootVersion";
+
+    private static volatile UIPermissionTreeCache instance;
+
+    private UIPermissionTreeCache() {
+
+        super(UI_PERMISSION_TREE_CACHE_NAME);
+    }
+
+    public static UIPermissionTreeCache getInstance() {
+
+        if (instance == null) {
+            synchronized (UIPermissionTreeCache.class) {
+                if (instance == null) {
+                    instance = new UIPermissionTreeCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get the current version of the shared permission root. A new version is created if there is none, which is
+     * the case after the version is invalidated or expired.
+     *
+     * @return Current version.
+     */
+    public String getRootVersion() {
+
+        UIPermissionRootVersionCache versionCache = UIPermissionRootVersionCache.getInstance();
+        UIPermissionRootVersionCacheEntry versionEntry = versionCache.getValueFromCache(ROOT_VERSION_KEY,
+                MultitenantConstants.SUPER_TENANT_ID);
+        if (versionEntry != null) {
+            return versionEntry.getVersion();
+        }
+        String version = UUID.randomUUID().toString();
+        versionCache.addToCache(ROOT_VERSION_KEY, new UIPermissionRootVersionCacheEntry(version),
+                MultitenantConstants.SUPER_TENANT_ID);
+        return version;
+    }
+
+    /**
+     * Invalidate the permission trees of all the tenants.
+     */
+    public void invalidateAll() {
+
+        UIPermissionRootVersionCache.getInstance().clear(MultitenantConstants.SUPER_TENANT_ID);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.user.mgt.bulkImport;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.mgt.UserMgtConstants;
+import org.wso2.carbon.user.mgt.bulkimport.BulkImportConfig;
+import org.wso2.carbon.user.mgt.bulkimport.CSVUserBulkImport;
+import org.wso2.carbon.user.mgt.bulkimport.ExcelUserBulkImport;
+import org.wso2.carbon.user.mgt.common.UserAdminException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * Test cases for the CSV and Excel bulk user imports.
+ */
+public class BulkUserImportTest {
+
+    private static final String CSV_HEADER = "UserName,Password,Claims\n";
+    private static final int ROW_COUNT = 25;
+
+    private UserStoreManager userStoreManager;
+
+    @BeforeMethod
+    public void setUp() {
+
+        System.setProperty("carbon.home", Paths.get(System.getProperty("user.dir"), "target").toString());
+        PrivilegedCarbonContext.startTenantFlow();
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain("carbon.super");
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(-1234);
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setUsername("admin");
+        userStoreManager = mock(UserStoreManager.class);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        PrivilegedCarbonContext.endTenantFlow();
+    }
+
+    @Test(description = "Test importing all the rows of a CSV file through the worker pool.")
+    public void testCSVImport() throws Exception {
+
+        BulkImportConfig config = new BulkImportConfig(csvStream(ROW_COUNT), "users.csv");
+        config.setPoolSize(4);
+        config.setBatchSize(3);
+
+        new CSVUserBulkImport(config).addUserList(userStoreManager);
+
+        ArgumentCaptor<String> userNames = ArgumentCaptor.forClass(String.class);
+        verify(userStoreManager, times(ROW_COUNT)).addUser(userNames.capture(), any(), isNull(), anyMap(),
+                isNull(), eq(true));
+        assertEquals(new HashSet<>(userNames.getAllValues()), expectedUserNames(1, ROW_COUNT));
+    }
+
+    @Test(description = "Test that the claims and the password of a CSV row are passed to the user store.")
+    public void testCSVImportWithClaims() throws Exception {
+
+        String csv = CSV_HEADER + "user1,password1,http://wso2.org/claims/emailaddress=user1@test.com\n";
+        BulkImportConfig config = new BulkImportConfig(toStream(csv), "users.csv");
+
+        new CSVUserBulkImport(config).addUserList(userStoreManager);
+
+        ArgumentCaptor<Map> claims = ArgumentCaptor.forClass(Map.class);
+        verify(userStoreManager).addUser(eq("user1"), eq("password1"), isNull(), claims.capture(), isNull(),
+                eq(true));
+        assertEquals(claims.getValue().get("http://wso2.org/claims/emailaddress"), "user1@test.com");
+    }
+
+    @Test(description = "Test that duplicate and failed rows are reported with the counts of the import.")
+    public void testCSVImportWithErrorRows() throws Exception {
+
+        String csv = CSV_HEADER +
+                "user1,password1\n" +
+                "user2,password2\n" +
+                "user3,password3,invalidClaim\n" +
+                "user4,password4\n";
+        when(userStoreManager.isExistingUser("user2")).thenReturn(true);
+        doThrow(new UserStoreException("Password policy violation")).when(userStoreManager)
+                .addUser(eq("user4"), any(), any(), anyMap(), any(), anyBoolean());
+        BulkImportConfig config = new BulkImportConfig(toStream(csv), "users.csv");
+        config.setPoolSize(2);
+        config.setBatchSize(1);
+
+        try {
+            new CSVUserBulkImport(config).addUserList(userStoreManager);
+            fail("Import with error rows should be reported as completed with errors.");
+        } catch (UserAdminException e) {
+            assertEquals(e.getMessage(), String.format(UserMgtConstants.ERROR_MESSAGE, 1, 2, 1));
+        }
+        verify(userStoreManager, never()).addUser(eq("user2"), any(), any(), anyMap(), any(), anyBoolean());
+        verify(userStoreManager, never()).addUser(eq("user3"), any(), any(), anyMap(), any(), anyBoolean());
+    }
+
+    @Test(description = "Test that an unexpected runtime error of a row is counted as a failure and the import " +
+            "continues with the remaining rows.")
+    public void testCSVImportWithRuntimeErrorRow() throws Exception {
+
+        doThrow(new IllegalStateException("Unexpected user store error")).when(userStoreManager)
+                .addUser(eq("user2"), any(), any(), anyMap(), any(), anyBoolean());
+        BulkImportConfig config = new BulkImportConfig(csvStream(5), "users.csv");
+        config.setPoolSize(2);
+        config.setBatchSize(2);
+
+        try {
+            new CSVUserBulkImport(config).addUserList(userStoreManager);
+            fail("Import with a failed row should be reported as completed with errors.");
+        } catch (UserAdminException e) {
+            assertEquals(e.getMessage(), String.format(UserMgtConstants.ERROR_MESSAGE, 4, 1, 0));
+        }
+        verify(userStoreManager).addUser(eq("user3"), any(), any(), anyMap(), any(), anyBoolean());
+        verify(userStoreManager).addUser(eq("user5"), any(), any(), anyMap(), any(), anyBoolean());
+    }
+
+    @Test(description = "Test that a user name repeated in the source file is reported as a duplicate when the " +
+            "rows are imported in parallel.")
+    public void testCSVImportWithRepeatedUserName() throws Exception {
+
+        int repeats = 20;
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (int i = 0; i < repeats; i++) {
+            csv.append("user1,password1\n");
+        }
+        Set<String> addedUsers = ConcurrentHashMap.newKeySet();
+        when(userStoreManager.isExistingUser(anyString()))
+                .thenAnswer(invocation -> addedUsers.contains(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> {
+            if (!addedUsers.add(invocation.getArgument(0))) {
+                throw new UserStoreException("User already exists");
+            }
+            return null;
+        }).when(userStoreManager).addUser(anyString(), any(), any(), anyMap(), any(), anyBoolean());
+        BulkImportConfig config = new BulkImportConfig(toStream(csv.toString()), "users.csv");
+        config.setPoolSize(4);
+        config.setBatchSize(1);
+
+        try {
+            new CSVUserBulkImport(config).addUserList(userStoreManager);
+            fail("Import with a repeated user name should be reported as completed with errors.");
+        } catch (UserAdminException e) {
+            assertEquals(e.getMessage(), String.format(UserMgtConstants.ERROR_MESSAGE, 1, 0, repeats - 1));
+        }
+        verify(userStoreManager).addUser(eq("user1"), any(), any(), anyMap(), any(), anyBoolean());
+    }
+
+    @Test(description = "Test resuming a CSV import from a given row.")
+    public void testCSVImportFromStartRow() throws Exception {
+
+        BulkImportConfig config = new BulkImportConfig(csvStream(ROW_COUNT), "users.csv");
+        config.setStartRow(11);
+
+        new CSVUserBulkImport(config).addUserList(userStoreManager);
+
+        ArgumentCaptor<String> userNames = ArgumentCaptor.forClass(String.class);
+        verify(userStoreManager, times(ROW_COUNT - 10)).addUser(userNames.capture(), any(), isNull(), anyMap(),
+                isNull(), eq(true));
+        assertEquals(new HashSet<>(userNames.getAllValues()), expectedUserNames(11, ROW_COUNT));
+    }
+
+    @Test(description = "Test importing all the rows of a xlsx file through the streaming reader.")
+    public void testXlsxImport() throws Exception {
+
+        BulkImportConfig config = new BulkImportConfig(xlsxStream(ROW_COUNT), "users.xlsx");
+        config.setPoolSize(4);
+        config.setBatchSize(4);
+
+        new ExcelUserBulkImport(config).addUserList(userStoreManager);
+
+        ArgumentCaptor<String> userNames = ArgumentCaptor.forClass(String.class);
+        verify(userStoreManager, times(ROW_COUNT)).addUser(userNames.capture(), isNull(), isNull(), isNull(),
+                isNull(), eq(true));
+        assertEquals(new HashSet<>(userNames.getAllValues()), expectedUserNames(1, ROW_COUNT));
+    }
+
+    @Test(description = "Test that the duplicate users of a xlsx file are reported.")
+    public void testXlsxImportWithDuplicateUser() throws Exception {
+
+        when(userStoreManager.isExistingUser(anyString())).thenReturn(false);
+        when(userStoreManager.isExistingUser("user3")).thenReturn(true);
+        BulkImportConfig config = new BulkImportConfig(xlsxStream(5), "users.xlsx");
+
+        try {
+            new ExcelUserBulkImport(config).addUserList(userStoreManager);
+            fail("Import with a duplicate user should be reported as completed with errors.");
+        } catch (UserAdminException e) {
+            assertEquals(e.getMessage(), String.format(UserMgtConstants.ERROR_MESSAGE, 4, 0, 1));
+        }
+    }
+
+    private static Set<String> expectedUserNames(int from, int to) {
+
+        Set<String> userNames = new HashSet<>();
+        for (int i = from; i <= to; i++) {
+            userNames.add("user" + i);
+        }
+        return userNames;
+    }
+
+    private static ByteArrayInputStream csvStream(int rows) {
+
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (int i = 1; i <= rows; i++) {
+            csv.append("user").append(i).append(",password").append(i).append('\n');
+        }
+        return toStream(csv.toString());
+    }
+
+    private static ByteArrayInputStream toStream(String content) {
+
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteArrayInputStream xlsxStream(int rows) throws IOException {
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("users");
+            sheet.createRow(0).createCell(0).setCellValue("UserName");
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("user" + i);
+            }
+            workbook.write(out);
+            return new ByteArrayInputStream(out.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2024, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.user.mgt.permission;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.registry.core.Collection;
+import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.user.mgt.UserMgtConstants;
+import org.wso2.carbon.user.mgt.common.UIPermissionNode;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class UIPermissionTreeTest {
+
+    private static final String APPLICATIONS_PATH = "/permission/applications";
+    private static final String ADMIN_PATH = UserMgtConstants.UI_ADMIN_PERMISSION_ROOT;
+    private static final String MANAGE_PATH = ADMIN_PATH + "manage";
+    private static final String USERS_PATH = MANAGE_PATH + "/users";
+    private static final String ROLES_PATH = MANAGE_PATH + "/roles";
+    private static final String APP_PATH = APPLICATIONS_PATH + "/app1";
+
+    private Registry registry;
+    private Registry tenantRegistry;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        registry = mock(Registry.class);
+        tenantRegistry = mock(Registry.class);
+
+        Collection rootCollection = mockCollection(UserMgtConstants.UI_PERMISSION_ROOT, "Permissions", ADMIN_PATH);
+        Collection adminCollection = mockCollection(ADMIN_PATH, "Admin", MANAGE_PATH);
+        Collection manageCollection = mockCollection(MANAGE_PATH, "Manage", USERS_PATH, ROLES_PATH);
+        Resource users = mockResource(USERS_PATH, "Users");
+        Resource roles = mockResource(ROLES_PATH, "Roles");
+        mockRegistryResource(registry, rootCollection);
+        mockRegistryResource(registry, adminCollection);
+        mockRegistryResource(registry, manageCollection);
+        mockRegistryResource(registry, users);
+        mockRegistryResource(registry, roles);
+
+        Collection appRoot = mockCollection(APPLICATIONS_PATH, "Applications", APP_PATH);
+        Resource app = mockResource(APP_PATH, "App1");
+        mockRegistryResource(tenantRegistry, appRoot);
+        mockRegistryResource(tenantRegistry, app);
+        Collection tenantParent = mockCollection(null, "All Permissions", ADMIN_PATH, APPLICATIONS_PATH);
+        when(tenantRegistry.newCollection()).thenReturn(tenantParent);
+    }
+
+    @Test
+    public void testBuildSuperTenantTree() throws Exception {
+
+        UIPermissionTree tree = UIPermissionTree.build(registry, null, APPLICATIONS_PATH, "v1");
+        UIPermissionNode root = tree.toUIPermissionNode(null);
+
+        assertEquals(tree.getRootVersion(), "v1");
+        assertEquals(root.getResourcePath(), UserMgtConstants.UI_PERMISSION_ROOT);
+        assertEquals(root.getDisplayName(), "Permissions");
+        assertFalse(root.isSelected());
+        UIPermissionNode manage = root.getNodeList()[0].getNodeList()[0];
+        assertEquals(manage.getResourcePath(), MANAGE_PATH);
+        assertEquals(manage.getNodeList().length, 2);
+        assertEquals(manage.getNodeList()[0].getResourcePath(), USERS_PATH);
+        assertEquals(manage.getNodeList()[1].getDisplayName(), "Roles");
+        assertEquals(manage.getNodeList()[1].getNodeList().length, 0);
+    }
+
+    @Test
+    public void testBuildTenantTreeMergesApplicationPermissions() throws Exception {
+
+        UIPermissionTree tree = UIPermissionTree.build(registry, tenantRegistry, APPLICATIONS_PATH, "v1");
+        UIPermissionNode root = tree.toUIPermissionNode(null);
+
+        assertEquals(root.getResourcePath(), ADMIN_PATH);
+        assertEquals(root.getDisplayName(), "All Permissions");
+        assertEquals(root.getNodeList().length, 2);
+        assertEquals(root.getNodeList()[0].getResourcePath(), ADMIN_PATH);
+        assertEquals(root.getNodeList()[1].getResourcePath(), APPLICATIONS_PATH);
+        assertEquals(root.getNodeList()[1].getNodeList()[0].getResourcePath(), APP_PATH);
+        verify(registry, never()).get(APP_PATH);
+    }
+
+    @Test
+    public void testSelectedRootSelectsAllNodes() throws Exception {
+
+        UIPermissionTree tree = UIPermissionTree.build(registry, null, APPLICATIONS_PATH, "v1");
+        UIPermissionTree.PermissionSelector selector = mock(UIPermissionTree.PermissionSelector.class);
+        when(selector.isSelected(UserMgtConstants.UI_PERMISSION_ROOT)).thenReturn(true);
+
+        UIPermissionNode root = tree.toUIPermissionNode(selector);
+
+        assertTrue(root.isSelected());
+        UIPermissionNode manage = root.getNodeList()[0].getNodeList()[0];
+        assertTrue(manage.isSelected());
+        assertTrue(manage.getNodeList()[0].isSelected());
+        assertTrue(manage.getNodeList()[1].isSelected());
+        verify(selector, times(1)).isSelected(UserMgtConstants.UI_PERMISSION_ROOT);
+        verify(selector, never()).isSelected(USERS_PATH);
+    }
+
+    @Test
+    public void testSelectIndividualNodes() throws Exception {
+
+        UIPermissionTree tree = UIPermissionTree.build(registry, null, APPLICATIONS_PATH, "v1");
+        UIPermissionTree.PermissionSelector selector = mock(UIPermissionTree.PermissionSelector.class);
+        when(selector.isSelected(USERS_PATH)).thenReturn(true);
+
+        UIPermissionNode root = tree.toUIPermissionNode(selector);
+
+        assertFalse(root.isSelected());
+        UIPermissionNode manage = root.getNodeList()[0].getNodeList()[0];
+        assertFalse(manage.isSelected());
+        assertTrue(manage.getNodeList()[0].isSelected());
+        assertFalse(manage.getNodeList()[1].isSelected());
+    }
+
+    @Test
+    public void testDerivedTreesAreIndependent() throws Exception {
+
+        UIPermissionTree tree = UIPermissionTree.build(registry, null, APPLICATIONS_PATH, "v1");
+        UIPermissionTree.PermissionSelector selector = mock(UIPermissionTree.PermissionSelector.class);
+        when(selector.isSelected(UserMgtConstants.UI_PERMISSION_ROOT)).thenReturn(true);
+
+        tree.toUIPermissionNode(selector);
+        UIPermissionNode root = tree.toUIPermissionNode(null);
+
+        assertFalse(root.isSelected());
+        assertFalse(root.getNodeList()[0].getNodeList()[0].getNodeList()[0].isSelected());
+    }
+
+    @Test(expectedExceptions = RegistryException.class)
+    public void testBuildWithMissingResource() throws Exception {
+
+        when(registry.resourceExists(ROLES_PATH)).thenReturn(false);
+        UIPermissionTree.build(registry, null, APPLICATIONS_PATH, "v1");
+    }
+
+    private Collection mockCollection(String path, String displayName, String... children) throws Exception {
+
+        Collection collection = mock(Collection.class);
+        when(collection.getPath()).thenReturn(path);
+        when(collection.getProperty(UserMgtConstants.DISPLAY_NAME)).thenReturn(displayName);
+        when(collection.getChildren()).thenReturn(children);
+        return collection;
+    }
+
+    private Resource mockResource(String path, String displayName) {
+
+        Resource resource = mock(Resource.class);
+        when(resource.getPath()).thenReturn(path);
+        when(resource.getProperty(UserMgtConstants.DISPLAY_NAME)).thenReturn(displayName);
+        return resource;
+    }
+
+    private void mockRegistryResource(Registry mockedRegistry, Resource resource) throws Exception {
+
+        when(mockedRegistry.resourceExists(resource.getPath())).thenReturn(true);
+        when(mockedRegistry.get(resource.getPath())).thenReturn(resource);
+    }
+}